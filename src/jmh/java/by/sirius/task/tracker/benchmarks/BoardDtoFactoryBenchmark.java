@@ -0,0 +1,40 @@
+package by.sirius.task.tracker.benchmarks;
+
+import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.core.factories.ProjectDtoFactory;
+import by.sirius.task.tracker.core.factories.TaskDtoFactory;
+import by.sirius.task.tracker.core.factories.TaskStateDtoFactory;
+import by.sirius.task.tracker.store.entities.ProjectEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a whole board through {@link ProjectDtoFactory} -> {@link TaskStateDtoFactory} ->
+ * {@link TaskDtoFactory}, as {@code GET /api/projects/{project_id}} does once the entities are loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BoardDtoFactoryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int taskCount;
+
+    @Param({"5"})
+    public int taskStateCount;
+
+    private ProjectDtoFactory projectDtoFactory;
+    private ProjectEntity project;
+
+    @Setup
+    public void setUp() {
+        projectDtoFactory = new ProjectDtoFactory(new TaskStateDtoFactory(new TaskDtoFactory()));
+        project = SyntheticBoards.project(taskStateCount, taskCount);
+    }
+
+    @Benchmark
+    public ProjectDtoWithTaskStates makeProjectDtoWithTaskStates() {
+        return projectDtoFactory.makeProjectDtoWithTaskStates(project);
+    }
+}
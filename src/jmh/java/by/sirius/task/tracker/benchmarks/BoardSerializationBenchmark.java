@@ -0,0 +1,80 @@
+package by.sirius.task.tracker.benchmarks;
+
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.factories.TaskDtoFactory;
+import by.sirius.task.tracker.core.factories.TaskStateDtoFactory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads the {@code GET /api/projects/{project_id}/task-states} payload of a whole board in each
+ * response format, with mappers configured like the application ones. The payload size of every format is
+ * printed once per trial, next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BoardSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100", "10000", "100000"})
+    public int taskCount;
+
+    @Param({"5"})
+    public int taskStateCount;
+
+    private ObjectMapper objectMapper;
+    private List<TaskStateDto> taskStates;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+                .build();
+
+        TaskStateDtoFactory taskStateDtoFactory = new TaskStateDtoFactory(new TaskDtoFactory());
+        taskStates = SyntheticBoards.project(taskStateCount, taskCount)
+                .getTaskStates()
+                .stream()
+                .map(taskStateDtoFactory::makeTaskStateDto)
+                .toList();
+        payload = objectMapper.writeValueAsBytes(taskStates);
+
+        System.out.printf("%n%s payload for %d tasks: %d bytes%n", format, taskCount, payload.length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(taskStates);
+    }
+
+    @Benchmark
+    public TaskStateDto[] read() throws IOException {
+        return objectMapper.readValue(payload, TaskStateDto[].class);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+}
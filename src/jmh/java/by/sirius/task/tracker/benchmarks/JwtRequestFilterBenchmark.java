@@ -0,0 +1,69 @@
+package by.sirius.task.tracker.benchmarks;
+
+import by.sirius.task.tracker.core.security.CustomUserDetails;
+import by.sirius.task.tracker.core.security.CustomUserDetailsService;
+import by.sirius.task.tracker.core.security.JwtRequestFilter;
+import by.sirius.task.tracker.core.security.JwtTokenUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a bearer-token request through {@link JwtRequestFilter} with the user lookup mocked out, so the
+ * numbers cover token parsing, validation and building the authentication only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtRequestFilterBenchmark {
+
+    private JwtRequestFilter jwtRequestFilter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+        CustomUserDetails userDetails = new CustomUserDetails(SyntheticBoards.user(1L, "alice"));
+
+        CustomUserDetailsService customUserDetailsService = mock(CustomUserDetailsService.class);
+        when(customUserDetailsService.loadUserByUsername("alice")).thenReturn(userDetails);
+
+        jwtRequestFilter = new JwtRequestFilter(jwtTokenUtil, customUserDetailsService, new SimpleMeterRegistry());
+        authorizationHeader = "Bearer " + jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockFilterChain authenticatedRequest() throws Exception {
+        return filter(authorizationHeader);
+    }
+
+    @Benchmark
+    public MockFilterChain anonymousRequest() throws Exception {
+        return filter(null);
+    }
+
+    private MockFilterChain filter(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+        if (header != null) {
+            request.addHeader("Authorization", header);
+        }
+        MockFilterChain filterChain = new MockFilterChain();
+
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        return filterChain;
+    }
+}
@@ -0,0 +1,46 @@
+package by.sirius.task.tracker.benchmarks;
+
+import by.sirius.task.tracker.core.security.CustomUserDetails;
+import by.sirius.task.tracker.core.security.JwtTokenUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtTokenUtilBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        userDetails = new CustomUserDetails(SyntheticBoards.user(1L, "alice"));
+        token = jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtTokenUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public List<String> extractRoles() {
+        return jwtTokenUtil.extractRoles(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenUtil.validateToken(token, "alice");
+    }
+}
@@ -0,0 +1,89 @@
+package by.sirius.task.tracker.benchmarks;
+
+import by.sirius.task.tracker.store.entities.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds detached boards in memory, linked the same way {@code TaskService} and {@code TaskStateService}
+ * link persisted ones.
+ */
+final class SyntheticBoards {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    private SyntheticBoards() {
+    }
+
+    static UserEntity user(long id, String username) {
+        return UserEntity.builder()
+                .id(id)
+                .username(username)
+                .password("password")
+                .enabled(true)
+                .roles(new ArrayList<>(List.of(RoleEntity.builder().id(1L).name("ROLE_USER").build())))
+                .build();
+    }
+
+    /**
+     * Spreads {@code taskCount} tasks evenly over {@code taskStateCount} columns, assigning every third task.
+     */
+    static ProjectEntity project(int taskStateCount, int taskCount) {
+        UserEntity admin = user(1L, "admin");
+        ProjectEntity project = ProjectEntity.builder()
+                .id(1L)
+                .name("Benchmark")
+                .admin(admin)
+                .createdAt(CREATED_AT)
+                .build();
+
+        long taskId = 1;
+        TaskStateEntity left = null;
+        for (int column = 0; column < taskStateCount; column++) {
+            TaskStateEntity taskState = TaskStateEntity.builder()
+                    .id((long) column + 1)
+                    .name("State " + column)
+                    .project(project)
+                    .leftTaskState(left)
+                    .createdAt(CREATED_AT)
+                    .build();
+            if (left != null) {
+                left.setRightTaskState(taskState);
+            }
+
+            int columnSize = taskCount / taskStateCount + (column < taskCount % taskStateCount ? 1 : 0);
+            column(taskState, taskId, columnSize, admin);
+            taskId += columnSize;
+
+            project.getTaskStates().add(taskState);
+            left = taskState;
+        }
+        return project;
+    }
+
+    /**
+     * Fills {@code taskState} with {@code size} linked tasks numbered from {@code firstId}.
+     */
+    static TaskStateEntity column(TaskStateEntity taskState, long firstId, int size, UserEntity assignee) {
+        TaskEntity left = null;
+        for (int i = 0; i < size; i++) {
+            long id = firstId + i;
+            TaskEntity task = TaskEntity.builder()
+                    .id(id)
+                    .name("Task " + id)
+                    .taskState(taskState)
+                    .leftTask(left)
+                    .assignedUser(id % 3 == 0 ? assignee : null)
+                    .createdAt(CREATED_AT.plusSeconds(id))
+                    .build();
+            if (left != null) {
+                left.setRightTask(task);
+            }
+            taskState.getTasks().add(task);
+            left = task;
+        }
+        return taskState;
+    }
+}
@@ -0,0 +1,83 @@
+package by.sirius.task.tracker.benchmarks;
+
+import by.sirius.task.tracker.core.services.helpers.BoardOrdering;
+import by.sirius.task.tracker.core.services.helpers.TaskOrdering;
+import by.sirius.task.tracker.store.entities.TaskEntity;
+import by.sirius.task.tracker.store.entities.TaskStateEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory part of the column operations through {@link TaskOrdering}, the helper
+ * {@code TaskService} links tasks with: the tail append of {@code createTask}, the unlink and head insert of
+ * {@code changeTaskPosition}, and {@link BoardOrdering#orderTasks}. Repository calls are left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskOrderingBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int columnSize;
+
+    private TaskStateEntity taskState;
+    private long nextId;
+    private int moveCursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        taskState = SyntheticBoards.column(TaskStateEntity.builder().id(1L).name("Column").build(), 1, columnSize, null);
+        nextId = columnSize + 1;
+        moveCursor = 0;
+    }
+
+    /**
+     * Appends a task the way {@code createTask} does and unlinks it again, so the column keeps its size.
+     */
+    @Benchmark
+    public TaskEntity append() {
+        Optional<TaskEntity> tail = TaskOrdering.findTail(taskState.getTasks());
+
+        TaskEntity task = TaskEntity.builder()
+                .id(nextId)
+                .name("Task " + nextId)
+                .taskState(taskState)
+                .build();
+        taskState.getTasks().add(task);
+        TaskOrdering.linkBetween(task, tail, Optional.empty());
+
+        TaskOrdering.unlink(task);
+        taskState.getTasks().remove(taskState.getTasks().size() - 1);
+
+        return task;
+    }
+
+    /**
+     * Moves a task from the middle of the column to its head, as {@code changeTaskPosition} does without a
+     * left task id.
+     */
+    @Benchmark
+    public TaskEntity moveToHead() {
+        List<TaskEntity> tasks = taskState.getTasks();
+        TaskEntity changeTask = tasks.get(moveCursor);
+        moveCursor = (moveCursor + tasks.size() / 2 + 1) % tasks.size();
+
+        Optional<TaskEntity> newRightTask = TaskOrdering.findHead(tasks);
+        if (newRightTask.isPresent() && newRightTask.get() == changeTask) {
+            return changeTask;
+        }
+
+        TaskOrdering.unlink(changeTask);
+        TaskOrdering.linkBetween(changeTask, Optional.empty(), newRightTask);
+
+        return changeTask;
+    }
+
+    @Benchmark
+    public List<TaskEntity> reorder() {
+        return BoardOrdering.orderTasks(taskState.getTasks());
+    }
+}
@@ -0,0 +1,85 @@
+package by.sirius.task.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Thin JSON client over the task tracker REST API. Non-2xx answers are raised as {@link LoadTestException}.
+ * {@link #read(String, String)} goes to the read base URL, everything else to the base URL.
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String readBaseUrl;
+    private final Duration requestTimeout;
+
+    public ApiClient(String baseUrl, String readBaseUrl, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+        this.baseUrl = baseUrl;
+        this.readBaseUrl = readBaseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public String login(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request).path("token").asText();
+    }
+
+    public JsonNode get(String token, String path) throws IOException, InterruptedException {
+        return send(authorized(baseUrl, token, path, Map.of()).GET().build());
+    }
+
+    public JsonNode read(String token, String path) throws IOException, InterruptedException {
+        return send(authorized(readBaseUrl, token, path, Map.of()).GET().build());
+    }
+
+    public JsonNode post(String token, String path, Map<String, ?> parameters) throws IOException, InterruptedException {
+        return send(authorized(baseUrl, token, path, parameters).POST(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    public JsonNode patch(String token, String path, Map<String, ?> parameters) throws IOException, InterruptedException {
+        return send(authorized(baseUrl, token, path, parameters)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    private HttpRequest.Builder authorized(String base, String token, String path, Map<String, ?> parameters) {
+        String query = parameters.entrySet().stream()
+                .map(it -> it.getKey() + "=" + URLEncoder.encode(String.valueOf(it.getValue()), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(URI.create(base + path + (query.isEmpty() ? "" : "?" + query)))
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json");
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new LoadTestException(
+                    request.method() + " " + request.uri().getPath() + " answered " + response.statusCode(),
+                    response.statusCode());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+}
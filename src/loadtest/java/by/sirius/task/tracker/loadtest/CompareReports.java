@@ -0,0 +1,68 @@
+package by.sirius.task.tracker.loadtest;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Prints the latency change of every operation between a baseline and a candidate run:
+ * {@code CompareReports <baseline> <candidate> [threshold-percent]}. Exits with status 1 when an
+ * operation's p99 response time or error count grew by more than the threshold (10% by default).
+ */
+public class CompareReports {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareReports <baseline report> <candidate report> [threshold-percent]");
+            System.exit(2);
+        }
+
+        LoadTestReport baseline = LoadTestReport.read(Path.of(args[0]));
+        LoadTestReport candidate = LoadTestReport.read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, LoadTestReport.OperationReport> baselineOperations = baseline.operations().stream()
+                .collect(Collectors.toMap(LoadTestReport.OperationReport::operation, Function.identity()));
+
+        System.out.printf("%s -> %s%n", baseline.runName(), candidate.runName());
+        System.out.printf("%-18s %19s %19s %19s %15s%n", "operation", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+
+        boolean regressed = false;
+        for (LoadTestReport.OperationReport operation : candidate.operations()) {
+            LoadTestReport.OperationReport before = baselineOperations.get(operation.operation());
+            if (before == null) {
+                System.out.printf("%-18s (not in baseline)%n", operation.operation());
+                continue;
+            }
+
+            LoadTestReport.LatencySummary oldLatency = before.responseTime();
+            LoadTestReport.LatencySummary newLatency = operation.responseTime();
+            double p99Change = change(oldLatency.p99(), newLatency.p99());
+            boolean operationRegressed = p99Change > threshold || operation.errorCount() > before.errorCount()
+                    && change(before.errorCount(), operation.errorCount()) > threshold;
+            regressed |= operationRegressed;
+
+            System.out.printf("%-18s %19s %19s %19s %15s%s%n",
+                    operation.operation(),
+                    format(oldLatency.p50(), newLatency.p50()),
+                    format(oldLatency.p99(), newLatency.p99()),
+                    format(oldLatency.p999(), newLatency.p999()),
+                    before.errorCount() + " -> " + operation.errorCount(),
+                    operationRegressed ? "  REGRESSION" : "");
+        }
+
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static String format(double before, double after) {
+        return String.format("%.1f -> %.1f (%+.0f%%)", before, after, change(before, after));
+    }
+
+    private static double change(double before, double after) {
+        if (before == 0) {
+            return after == 0 ? 0 : 100;
+        }
+        return (after - before) / before * 100;
+    }
+}
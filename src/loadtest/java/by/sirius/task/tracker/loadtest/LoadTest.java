@@ -0,0 +1,47 @@
+package by.sirius.task.tracker.loadtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Drives a running instance with the configured scenario and writes a {@link LoadTestReport}.
+ * <p>
+ * The users {@code users.prefix + users.from .. users.to} must exist with {@code users.password}, for
+ * example from {@code generateDataset}. The warmup runs the same mix and is not recorded.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.load(args);
+        ApiClient client = new ApiClient(settings.baseUrl(), settings.readBaseUrl(), settings.requestTimeout());
+
+        List<String> usernames = IntStream.rangeClosed(settings.userFrom(), settings.userTo())
+                .mapToObj(i -> settings.userPrefix() + i)
+                .toList();
+
+        System.out.printf("Opening %d sessions against %s, reading from %s%n",
+                usernames.size(), settings.baseUrl(), settings.readBaseUrl());
+        List<Session> sessions = new ArrayList<>();
+        for (String username : usernames) {
+            sessions.add(Session.open(client, username, settings.password(), usernames));
+        }
+
+        OpenModelDriver driver = new OpenModelDriver(client, sessions, settings.mix(), settings.ratePerSecond());
+
+        if (!settings.warmup().isZero()) {
+            System.out.printf("Warming up for %s at %.1f req/s%n", settings.warmup(), settings.ratePerSecond());
+            driver.run(settings.warmup(), 1);
+        }
+
+        System.out.printf("Running %s for %s at %.1f req/s%n", settings.runName(), settings.duration(), settings.ratePerSecond());
+        Instant startedAt = Instant.now();
+        Map<Operation, OperationRecorder> recorders = driver.run(settings.duration(), 2);
+
+        LoadTestReport report = LoadTestReport.write(settings, startedAt, recorders);
+        report.print(System.out);
+        System.out.println("Report written to " + settings.reportDirectory().toAbsolutePath());
+    }
+}
@@ -0,0 +1,18 @@
+package by.sirius.task.tracker.loadtest;
+
+/**
+ * An API call that didn't answer with a 2xx status.
+ */
+public class LoadTestException extends RuntimeException {
+
+    private final int status;
+
+    public LoadTestException(String message, int status) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
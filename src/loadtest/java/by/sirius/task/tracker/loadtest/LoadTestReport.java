@@ -0,0 +1,112 @@
+package by.sirius.task.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a run: {@code report.json} with a summary per operation, plus the full percentile distribution
+ * of every operation in HdrHistogram's {@code .hgrm} format for plotting.
+ */
+public record LoadTestReport(String runName,
+                             String baseUrl,
+                             String readBaseUrl,
+                             double ratePerSecond,
+                             long durationSeconds,
+                             Instant startedAt,
+                             List<OperationReport> operations) {
+
+    public static final String FILE_NAME = "report.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    public record OperationReport(String operation,
+                                  long count,
+                                  double throughputPerSecond,
+                                  Map<Integer, Long> errors,
+                                  LatencySummary responseTime,
+                                  LatencySummary serviceTime) {
+
+        public long errorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    /**
+     * Latencies in milliseconds.
+     */
+    public record LatencySummary(double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static LatencySummary of(Histogram histogram) {
+            return new LatencySummary(
+                    histogram.getMean() / 1000.0,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    public static LoadTestReport write(LoadTestSettings settings,
+                                       Instant startedAt,
+                                       Map<Operation, OperationRecorder> recorders) throws IOException {
+        Files.createDirectories(settings.reportDirectory());
+
+        List<OperationReport> operations = new ArrayList<>();
+        for (Map.Entry<Operation, OperationRecorder> entry : recorders.entrySet()) {
+            Histogram responseTimes = entry.getValue().responseTimes();
+            Histogram serviceTimes = entry.getValue().serviceTimes();
+
+            operations.add(new OperationReport(
+                    entry.getKey().key(),
+                    responseTimes.getTotalCount(),
+                    responseTimes.getTotalCount() / (double) settings.duration().toSeconds(),
+                    entry.getValue().errors(),
+                    LatencySummary.of(responseTimes),
+                    LatencySummary.of(serviceTimes)));
+
+            writeDistribution(settings.reportDirectory().resolve(entry.getKey().key() + "-response.hgrm"), responseTimes);
+            writeDistribution(settings.reportDirectory().resolve(entry.getKey().key() + "-service.hgrm"), serviceTimes);
+        }
+
+        LoadTestReport report = new LoadTestReport(settings.runName(), settings.baseUrl(), settings.readBaseUrl(),
+                settings.ratePerSecond(), settings.duration().toSeconds(), startedAt, operations);
+        OBJECT_MAPPER.writeValue(settings.reportDirectory().resolve(FILE_NAME).toFile(), report);
+        return report;
+    }
+
+    public static LoadTestReport read(Path path) throws IOException {
+        Path file = Files.isDirectory(path) ? path.resolve(FILE_NAME) : path;
+        return OBJECT_MAPPER.readValue(file.toFile(), LoadTestReport.class);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-18s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationReport operation : operations) {
+            LatencySummary latency = operation.responseTime();
+            out.printf("%-18s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation.operation(), operation.count(), operation.errorCount(),
+                    latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max());
+        }
+    }
+
+    private static void writeDistribution(Path path, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package by.sirius.task.tracker.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Settings of one load-test run. A scenario is a properties file, either on the classpath under
+ * {@code scenarios/} or on disk; {@code name=value} arguments override its entries.
+ * <p>
+ * {@code read-base-url} sends the board read operations to another instance, such as the reactive API, while
+ * logins and writes stay on {@code base-url}. It defaults to {@code base-url}.
+ */
+public record LoadTestSettings(String runName,
+                               String baseUrl,
+                               String readBaseUrl,
+                               double ratePerSecond,
+                               Duration warmup,
+                               Duration duration,
+                               Duration requestTimeout,
+                               String userPrefix,
+                               int userFrom,
+                               int userTo,
+                               String password,
+                               Map<Operation, Integer> mix,
+                               Path reportDirectory) {
+
+    public static LoadTestSettings load(String[] args) throws IOException {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value, got " + arg);
+            }
+            overrides.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        Properties properties = new Properties();
+        String scenario = overrides.getOrDefault("scenario", "default");
+        try (Reader reader = openScenario(scenario)) {
+            properties.load(reader);
+        }
+        properties.putAll(overrides);
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            int weight = Integer.parseInt(properties.getProperty("mix." + operation.key(), "0"));
+            if (weight > 0) {
+                mix.put(operation, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Scenario " + scenario + " has no operations in its mix");
+        }
+
+        String runName = properties.getProperty("run-name", scenario + "-" + System.currentTimeMillis());
+        String baseUrl = properties.getProperty("base-url", "http://localhost:8080");
+
+        return new LoadTestSettings(
+                runName,
+                baseUrl,
+                properties.getProperty("read-base-url", baseUrl),
+                Double.parseDouble(properties.getProperty("rate", "50")),
+                Duration.parse(properties.getProperty("warmup", "PT30S")),
+                Duration.parse(properties.getProperty("duration", "PT2M")),
+                Duration.parse(properties.getProperty("request-timeout", "PT10S")),
+                properties.getProperty("users.prefix", "user"),
+                Integer.parseInt(properties.getProperty("users.from", "1")),
+                Integer.parseInt(properties.getProperty("users.to", "50")),
+                properties.getProperty("users.password", "password"),
+                mix,
+                Path.of(properties.getProperty("report-directory", "build/reports/loadtest")).resolve(runName));
+    }
+
+    private static Reader openScenario(String scenario) throws IOException {
+        Path path = Path.of(scenario);
+        if (Files.isRegularFile(path)) {
+            return Files.newBufferedReader(path);
+        }
+        InputStream resource = LoadTestSettings.class.getResourceAsStream("/scenarios/" + scenario + ".properties");
+        if (resource == null) {
+            throw new IllegalArgumentException("Unknown scenario " + scenario);
+        }
+        return new InputStreamReader(resource);
+    }
+}
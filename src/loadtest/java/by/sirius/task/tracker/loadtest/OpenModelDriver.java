@@ -0,0 +1,87 @@
+package by.sirius.task.tracker.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Starts requests at a fixed arrival rate regardless of how fast earlier ones complete, each on its own
+ * virtual thread. A slow server therefore builds up concurrency instead of silently lowering the rate.
+ */
+public class OpenModelDriver {
+
+    private final ApiClient client;
+    private final List<Session> sessions;
+    private final Operation[] weightedOperations;
+    private final double ratePerSecond;
+
+    public OpenModelDriver(ApiClient client, List<Session> sessions, Map<Operation, Integer> mix, double ratePerSecond) {
+        this.client = client;
+        this.sessions = sessions;
+        this.weightedOperations = mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public Map<Operation, OperationRecorder> run(Duration duration, long seed) throws InterruptedException {
+        Map<Operation, OperationRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : weightedOperations) {
+            recorders.putIfAbsent(operation, new OperationRecorder());
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStartNanos = startNanos + i * intervalNanos;
+                if (intendedStartNanos >= endNanos) {
+                    break;
+                }
+
+                long waitNanos = intendedStartNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+                Session session = sessions.get(random.nextInt(sessions.size()));
+                SplittableRandom operationRandom = random.split();
+                OperationRecorder recorder = recorders.get(operation);
+
+                executor.execute(() -> execute(operation, session, operationRandom, recorder, intendedStartNanos));
+            }
+        }
+
+        return recorders;
+    }
+
+    private void execute(Operation operation,
+                         Session session,
+                         SplittableRandom random,
+                         OperationRecorder recorder,
+                         long intendedStartNanos) {
+        long startNanos = System.nanoTime();
+        try {
+            operation.run(client, session, random);
+            recorder.recordSuccess(intendedStartNanos, startNanos, System.nanoTime());
+        } catch (LoadTestException e) {
+            recorder.recordError(e.getStatus());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recorder.recordError(0);
+        } catch (Exception e) {
+            recorder.recordError(0);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package by.sirius.task.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The API calls a scenario can mix. Each call runs on behalf of a randomly picked {@link Session}.
+ */
+public enum Operation {
+
+    LOGIN("login") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            session.login(client);
+        }
+    },
+
+    BOARD_READ("board-read") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            client.read(session.token(), "/api/projects/" + session.projectId());
+        }
+    },
+
+    TASK_LIST_READ("task-list-read") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            long taskStateId = pick(session.taskStateIds(), random);
+            client.read(session.token(),
+                    "/api/projects/" + session.projectId() + "/task-states/" + taskStateId + "/tasks");
+        }
+    },
+
+    ASSIGNED_TASKS_READ("assigned-tasks-read") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            client.read(session.token(),
+                    "/api/projects/" + session.projectId() + "/users/" + session.username() + "/tasks");
+        }
+    },
+
+    TASK_HISTORY_READ("task-history-read") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            List<Long> tasks = session.tasksOf(pick(session.taskStateIds(), random));
+            if (tasks.isEmpty()) {
+                BOARD_READ.run(client, session, random);
+                return;
+            }
+            client.read(session.token(), "/api/tasks/" + pick(tasks, random) + "/history");
+        }
+    },
+
+    TASK_CREATE("task-create") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            long taskStateId = pick(session.taskStateIds(), random);
+            JsonNode task = client.post(session.token(),
+                    "/api/projects/" + session.projectId() + "/task-states/" + taskStateId + "/tasks",
+                    Map.of("taskName", "load-" + TASK_NAMES.incrementAndGet() + "-" + random.nextInt(1_000_000)));
+            session.taskCreated(taskStateId, task.path("id").asLong());
+        }
+    },
+
+    TASK_MOVE("task-move") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            List<Long> tasks = session.tasksOf(pick(session.taskStateIds(), random));
+            if (tasks.size() < 2) {
+                BOARD_READ.run(client, session, random);
+                return;
+            }
+            long taskId = pick(tasks, random);
+            long leftTaskId = pick(tasks, random);
+
+            Map<String, Object> parameters = new HashMap<>();
+            if (leftTaskId != taskId) {
+                parameters.put("leftTaskId", leftTaskId);
+            }
+            client.patch(session.token(), "/api/tasks/" + taskId + "/position/change", parameters);
+        }
+    },
+
+    TASK_ASSIGN("task-assign") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            List<Long> tasks = session.tasksOf(pick(session.taskStateIds(), random));
+            if (tasks.isEmpty()) {
+                BOARD_READ.run(client, session, random);
+                return;
+            }
+            client.patch(session.token(), "/api/tasks/" + pick(tasks, random) + "/assign",
+                    Map.of("username", session.username()));
+        }
+    },
+
+    /**
+     * Invites another load-test user and withdraws the invitation again, so the cycle can repeat. Point the
+     * instance at a local mail sink, every invitation sends an email.
+     */
+    INVITATION_CYCLE("invitation-cycle") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            if (session.peers().isEmpty()) {
+                INVITATIONS_READ.run(client, session, random);
+                return;
+            }
+            JsonNode invitation = client.post(session.token(),
+                    "/api/projects/" + session.projectId() + "/invitations/send",
+                    Map.of("username", pick(session.peers(), random)));
+            client.post(session.token(), "/api/invitations/decline/" + invitation.path("id").asLong(), Map.of());
+        }
+    },
+
+    INVITATIONS_READ("invitations-read") {
+        @Override
+        void run(ApiClient client, Session session, SplittableRandom random) throws Exception {
+            client.get(session.token(), "/api/invitations");
+        }
+    };
+
+    private static final AtomicLong TASK_NAMES = new AtomicLong();
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    abstract void run(ApiClient client, Session session, SplittableRandom random) throws Exception;
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,54 @@
+package by.sirius.task.tracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one {@link Operation}. Response time is measured from the moment the request was scheduled
+ * to start, so requests that waited behind a slow one are charged for the wait (no coordinated omission).
+ * Service time is measured from the moment it was actually sent.
+ */
+public class OperationRecorder {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+    public void recordSuccess(long intendedStartNanos, long startNanos, long endNanos) {
+        responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+        serviceTime.recordValue(toMicros(endNanos - startNanos));
+    }
+
+    /**
+     * Records a failed call, {@code status} 0 standing for a transport error or timeout.
+     */
+    public void recordError(int status) {
+        errorsByStatus.computeIfAbsent(status, it -> new LongAdder()).increment();
+    }
+
+    public Histogram responseTimes() {
+        return responseTime.getIntervalHistogram();
+    }
+
+    public Histogram serviceTimes() {
+        return serviceTime.getIntervalHistogram();
+    }
+
+    public Map<Integer, Long> errors() {
+        Map<Integer, Long> errors = new TreeMap<>();
+        errorsByStatus.forEach((status, count) -> errors.put(status, count.sumThenReset()));
+        return errors;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
@@ -0,0 +1,107 @@
+package by.sirius.task.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A logged-in user together with the board it writes to. Users that don't own a project get one with a
+ * few columns when the session is opened, so the write operations always have a board to work on.
+ */
+public class Session {
+
+    private static final List<String> COLUMNS = List.of("To do", "In progress", "Done");
+
+    private final String username;
+    private final String password;
+    private final List<String> peers;
+    private volatile String token;
+    private long projectId;
+    private final Map<Long, List<Long>> tasksByTaskState = new ConcurrentHashMap<>();
+
+    private Session(String username, String password, List<String> peers) {
+        this.username = username;
+        this.password = password;
+        this.peers = peers.stream().filter(peer -> !peer.equals(username)).toList();
+    }
+
+    /**
+     * Logs {@code username} in and loads its board. {@code peers} are the other load-test users, invited by
+     * the invitation operations.
+     */
+    public static Session open(ApiClient client, String username, String password, List<String> peers)
+            throws IOException, InterruptedException {
+        Session session = new Session(username, password, peers);
+        session.login(client);
+
+        JsonNode ownedProject = null;
+        for (JsonNode project : client.get(session.token, "/api/projects")) {
+            if (username.equals(project.path("owner").asText())) {
+                ownedProject = project;
+                break;
+            }
+        }
+
+        if (ownedProject == null) {
+            ownedProject = client.post(session.token, "/api/projects", Map.of("name", "load-" + username));
+            for (String column : COLUMNS) {
+                client.post(session.token, "/api/projects/" + ownedProject.path("id").asLong() + "/task-states",
+                        Map.of("taskStateName", column));
+            }
+        }
+
+        session.projectId = ownedProject.path("id").asLong();
+        session.refreshBoard(client);
+        return session;
+    }
+
+    public void login(ApiClient client) throws IOException, InterruptedException {
+        token = client.login(username, password);
+    }
+
+    public void refreshBoard(ApiClient client) throws IOException, InterruptedException {
+        JsonNode board = client.get(token, "/api/projects/" + projectId);
+        tasksByTaskState.clear();
+        for (JsonNode taskState : board.path("taskStates")) {
+            List<Long> taskIds = new CopyOnWriteArrayList<>();
+            taskState.path("tasks").forEach(task -> taskIds.add(task.path("id").asLong()));
+            tasksByTaskState.put(taskState.path("id").asLong(), taskIds);
+        }
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public List<String> peers() {
+        return peers;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public long projectId() {
+        return projectId;
+    }
+
+    public List<Long> taskStateIds() {
+        return List.copyOf(tasksByTaskState.keySet());
+    }
+
+    public List<Long> tasksOf(long taskStateId) {
+        return tasksByTaskState.getOrDefault(taskStateId, List.of());
+    }
+
+    public void taskCreated(long taskStateId, long taskId) {
+        tasksByTaskState.computeIfAbsent(taskStateId, it -> new CopyOnWriteArrayList<>()).add(taskId);
+    }
+}
@@ -1,6 +1,7 @@
 package by.sirius.task.tracker.api.controllers;
 
 import by.sirius.task.tracker.api.dto.UserDto;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
 import by.sirius.task.tracker.core.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +19,7 @@ public class AdminController {
     private final String GET_USERS = "/users/{project_id}";
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'WRITE')")
+    @QueryBudget(10)
     @GetMapping(GET_USERS)
     public List<UserDto> getUsers(@PathVariable("project_id") Long projectId) {
         return userService.getUsers(projectId);
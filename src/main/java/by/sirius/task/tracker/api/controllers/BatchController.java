@@ -0,0 +1,33 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.api.dto.BatchReadRequestDto;
+import by.sirius.task.tracker.api.dto.BatchReadResponseDto;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
+import by.sirius.task.tracker.core.services.BatchReadService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchReadService batchReadService;
+
+    public static final String BATCH_READ = "/api/batch";
+
+    @PreAuthorize("isAuthenticated()")
+    @QueryBudget(80)
+    @PostMapping(BATCH_READ)
+    public BatchReadResponseDto batchRead(@Valid @RequestBody BatchReadRequestDto request, Principal principal) {
+        log.debug("Running batch read of {} operations", request.getOperations().size());
+        return batchReadService.read(request.getOperations(), principal.getName());
+    }
+}
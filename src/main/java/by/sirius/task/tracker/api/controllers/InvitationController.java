@@ -2,6 +2,7 @@ package by.sirius.task.tracker.api.controllers;
 
 import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.InvitationDto;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
 import by.sirius.task.tracker.core.services.InvitationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -19,16 +20,19 @@ public class InvitationController {
     private static final String ACCEPT_INVITATION = "/api/invitations/accept/{invitation_id}";
     private static final String DECLINE_INVITATION = "/api/invitations/decline/{invitation_id}";
 
+    @QueryBudget(10)
     @GetMapping(GET_ALL_USERS_INVITATIONS)
     public List<InvitationDto> getUserInvitations(Principal principal) {
         return invitationService.getUserInvitations(principal.getName());
     }
 
+    @QueryBudget(25)
     @PostMapping(ACCEPT_INVITATION)
     public AckDto acceptInvitation(@PathVariable("invitation_id") Long invitationId, Principal principal) {
         return invitationService.acceptInvitation(invitationId, principal.getName());
     }
 
+    @QueryBudget(15)
     @PostMapping(DECLINE_INVITATION)
     public AckDto declineInvitation(@PathVariable("invitation_id") Long invitationId, Principal principal) {
         return invitationService.declineInvitation(invitationId, principal.getName());
@@ -1,18 +1,38 @@
 package by.sirius.task.tracker.api.controllers;
 
 import by.sirius.task.tracker.api.dto.AckDto;
+import by.sirius.task.tracker.api.dto.BoardAtDto;
+import by.sirius.task.tracker.api.dto.BoardStatisticsDto;
 import by.sirius.task.tracker.api.dto.InvitationDto;
 import by.sirius.task.tracker.api.dto.ProjectDto;
-import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.api.dto.TaskFlowDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.fields.SparseFieldsParser;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
+import by.sirius.task.tracker.core.services.BoardSnapshotService;
+import by.sirius.task.tracker.core.services.BoardStatisticsService;
 import by.sirius.task.tracker.core.services.InvitationService;
 import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskFlowService;
+import by.sirius.task.tracker.core.services.helpers.EntityVersions;
+import by.sirius.task.tracker.core.streaming.BoardStream;
+import by.sirius.task.tracker.core.streaming.BoardStreamResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.security.Principal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @RestController
@@ -21,21 +41,67 @@ public class ProjectController {
 
     private final ProjectService projectService;
     private final InvitationService invitationService;
+    private final BoardStatisticsService boardStatisticsService;
+    private final TaskFlowService taskFlowService;
+    private final BoardSnapshotService boardSnapshotService;
+    private final SparseFieldsParser sparseFieldsParser;
+    private final BoardStreamResponses boardStreamResponses;
 
     public static final String GET_PROJECT_BY_ID = "/api/projects/{project_id}";
     public static final String GET_PROJECTS = "/api/projects";
+    public static final String GET_PROJECT_STATISTICS = "/api/projects/{project_id}/statistics";
+    public static final String GET_PROJECT_TASK_FLOW = "/api/projects/{project_id}/analytics/task-flow";
+    public static final String GET_PROJECT_BOARD_AT = "/api/projects/{project_id}/board/history";
     public static final String CREATE_PROJECT = "/api/projects";
     public static final String EDIT_PROJECT = "/api/projects/{project_id}";
     public static final String DELETE_PROJECT = "/api/projects/{project_id}";
     public static final String REMOVE_USER_FROM_PROJECT = "/api/projects/{project_id}/users/{username}";
     public static final String SEND_INVITATION_TO_PROJECT = "/api/projects/{project_id}/invitations/send";
 
+    @QueryBudget(15)
     @GetMapping(GET_PROJECT_BY_ID)
-    public ProjectDtoWithTaskStates getProjectById(@PathVariable(name = "project_id") Long projectId, Principal principal) {
-        return projectService.getProjectById(projectId, principal.getName());
+    public MappingJacksonValue getProjectById(@PathVariable(name = "project_id") Long projectId,
+                                              @RequestParam(required = false) String fields,
+                                              HttpServletRequest request,
+                                              Principal principal,
+                                              HttpServletResponse response) throws IOException {
+        SparseFields sparseFields = sparseFieldsParser.parse(SparseFields.Level.PROJECT, fields);
+
+        Optional<BoardStream> stream = projectService.streamProjectById(projectId, principal.getName(), sparseFields);
+        if (stream.isPresent() && boardStreamResponses.write(stream.get(), request, response)) {
+            return null;
+        }
+
+        return sparseFields.apply(projectService.getProjectById(projectId, principal.getName(), sparseFields));
+    }
+
+    @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(10)
+    @GetMapping(GET_PROJECT_STATISTICS)
+    public BoardStatisticsDto getProjectStatistics(@PathVariable("project_id") Long projectId) {
+        return boardStatisticsService.getStatistics(projectId);
+    }
+
+    @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
+    @GetMapping(GET_PROJECT_TASK_FLOW)
+    public TaskFlowDto getProjectTaskFlow(@PathVariable("project_id") Long projectId,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(name = "done_task_state_id", required = false)
+                                          Optional<Long> doneTaskStateId) {
+        return taskFlowService.getTaskFlow(projectId, from, to, doneTaskStateId);
+    }
+
+    @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
+    @GetMapping(GET_PROJECT_BOARD_AT)
+    public BoardAtDto getProjectBoardAt(@PathVariable("project_id") Long projectId, @RequestParam Instant at) {
+        return boardSnapshotService.getBoardAt(projectId, at);
     }
 
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(15)
     @GetMapping(GET_PROJECTS)
     public List<ProjectDto> getProjects(Principal principal) {
         log.info("Getting all projects");
@@ -43,6 +109,7 @@ public class ProjectController {
     }
 
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(15)
     @PostMapping(CREATE_PROJECT)
     public ProjectDto createProject(@RequestParam String name, Principal principal) {
         log.info("Creating project with name: {}", name);
@@ -50,22 +117,27 @@ public class ProjectController {
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'WRITE')")
+    @QueryBudget(15)
     @PatchMapping(EDIT_PROJECT)
     public ProjectDto editProject(@PathVariable("project_id") Long projectId,
                                   @RequestParam String name,
-                                  Principal principal) {
+                                  Principal principal,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Editing project with ID: {}, new name: {}", projectId, name);
-        return projectService.editProject(projectId, name, principal.getName());
+        return projectService.editProject(projectId, name, principal.getName(), EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'WRITE')")
+    @QueryBudget(40)
     @DeleteMapping(DELETE_PROJECT)
-    public AckDto deleteProject(@PathVariable("project_id") Long projectId, Principal principal) {
+    public AckDto deleteProject(@PathVariable("project_id") Long projectId, Principal principal,
+                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Deleting project with ID: {}", projectId);
-        return projectService.deleteProject(projectId, principal.getName());
+        return projectService.deleteProject(projectId, principal.getName(), EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'WRITE')")
+    @QueryBudget(20)
     @DeleteMapping(REMOVE_USER_FROM_PROJECT)
     public AckDto removeUserFromProject(@PathVariable("project_id") Long projectId,
                                         @PathVariable String username,
@@ -74,6 +146,7 @@ public class ProjectController {
         return projectService.removeUserFromProject(projectId, username, principal.getName());
     }
 
+    @QueryBudget(15)
     @PostMapping(SEND_INVITATION_TO_PROJECT)
     public InvitationDto sendInvitation(@PathVariable("project_id") Long projectId,
                                         @RequestParam String username,
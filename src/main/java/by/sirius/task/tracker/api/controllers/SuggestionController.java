@@ -0,0 +1,35 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.api.dto.SuggestionDto;
+import by.sirius.task.tracker.core.services.SuggestionService;
+import by.sirius.task.tracker.core.suggestions.SuggestionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@RestController
+@Slf4j
+public class SuggestionController {
+
+    private final SuggestionService suggestionService;
+
+    public static final String GET_SUGGESTIONS = "/api/projects/{project_id}/suggestions";
+
+    @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @GetMapping(GET_SUGGESTIONS)
+    public List<SuggestionDto> getSuggestions(@PathVariable("project_id") Long projectId,
+                                              @RequestParam String query,
+                                              @RequestParam(required = false) Optional<SuggestionType> type,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Fetching suggestions for project ID: {}, query: {}", projectId, query);
+        return suggestionService.getSuggestions(projectId, query, type, limit);
+    }
+}
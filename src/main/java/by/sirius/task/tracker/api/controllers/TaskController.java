@@ -3,16 +3,29 @@ package by.sirius.task.tracker.api.controllers;
 import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.TaskDto;
 import by.sirius.task.tracker.api.dto.TaskHistoryDto;
+import by.sirius.task.tracker.api.dto.TaskPageDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.fields.SparseFieldsParser;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
 import by.sirius.task.tracker.core.services.ProjectSecurityService;
 import by.sirius.task.tracker.core.services.TaskHistoryService;
+import by.sirius.task.tracker.core.services.TaskQueryService;
 import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.helpers.EntityVersions;
+import by.sirius.task.tracker.core.streaming.BoardStream;
+import by.sirius.task.tracker.core.streaming.BoardStreamResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
@@ -23,11 +36,15 @@ import java.util.Optional;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskQueryService taskQueryService;
     private final TaskHistoryService taskHistoryService;
     private final ProjectSecurityService projectSecurityService;
+    private final SparseFieldsParser sparseFieldsParser;
+    private final BoardStreamResponses boardStreamResponses;
 
     public static final String GET_TASK_BY_ID = "/api/projects/{project_id}/task-states/{task_state_id}/tasks/{task_id}";
     public static final String GET_TASKS = "/api/projects/{project_id}/task-states/{task_state_id}/tasks";
+    public static final String QUERY_TASKS = "/api/projects/{project_id}/tasks/query";
     public static final String GET_USER_TASKS = "/api/projects/{project_id}/users/{username}/tasks";
     public static final String GET_TASK_HISTORY = "/api/tasks/{task_id}/history";
     public static final String CREATE_TASK = "/api/projects/{project_id}/task-states/{task_state_id}/tasks";
@@ -38,22 +55,49 @@ public class TaskController {
     public static final String CHANGE_TASK_POSITION = "/api/tasks/{task_id}/position/change";
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
     @GetMapping(GET_TASK_BY_ID)
-    public TaskDto getTaskById(@PathVariable("project_id") Long projectId,
-                               @PathVariable("task_state_id") Long taskStateId,
-                               @PathVariable(name = "task_id") Long taskId) {
-        return taskService.getTaskById(projectId, taskStateId, taskId);
+    public MappingJacksonValue getTaskById(@PathVariable("project_id") Long projectId,
+                                           @PathVariable("task_state_id") Long taskStateId,
+                                           @PathVariable(name = "task_id") Long taskId,
+                                           @RequestParam(required = false) String fields) {
+        SparseFields sparseFields = sparseFieldsParser.parse(SparseFields.Level.TASK, fields);
+        return sparseFields.apply(taskService.getTaskById(projectId, taskStateId, taskId, sparseFields));
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
     @GetMapping(GET_TASKS)
-    public List<TaskDto> getTasks(@PathVariable("project_id") Long projectId,
-                                  @PathVariable("task_state_id") Long taskStateId) {
+    public MappingJacksonValue getTasks(@PathVariable("project_id") Long projectId,
+                                        @PathVariable("task_state_id") Long taskStateId,
+                                        @RequestParam(required = false) String fields,
+                                        HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
         log.debug("Fetching tasks for project ID: {} and task state ID: {}", projectId, taskStateId);
-        return taskService.getTasks(projectId, taskStateId);
+        SparseFields sparseFields = sparseFieldsParser.parse(SparseFields.Level.TASK, fields);
+
+        Optional<BoardStream> stream = taskService.streamTasks(projectId, taskStateId, sparseFields);
+        if (stream.isPresent() && boardStreamResponses.write(stream.get(), request, response)) {
+            return null;
+        }
+
+        return sparseFields.apply(taskService.getTasks(projectId, taskStateId, sparseFields));
+    }
+
+    @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(10)
+    @GetMapping(QUERY_TASKS)
+    public TaskPageDto queryTasks(@PathVariable("project_id") Long projectId,
+                                  @RequestParam(required = false) String filter,
+                                  @RequestParam(required = false) Optional<String> after,
+                                  @RequestParam(defaultValue = "50") int limit,
+                                  @RequestParam(name = "estimate_count", defaultValue = "false") boolean estimateCount) {
+        log.debug("Querying tasks for project ID: {} with filter: {}", projectId, filter);
+        return taskQueryService.queryTasks(projectId, filter, after, limit, estimateCount);
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
     @GetMapping(GET_USER_TASKS)
     public List<TaskDto> getAssignedTasks( @PathVariable("project_id") Long projectId,
                                            @PathVariable("username") String username,
@@ -66,12 +110,14 @@ public class TaskController {
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskPermission(#taskId, 'WRITE')")
+    @QueryBudget(10)
     @GetMapping(GET_TASK_HISTORY)
     public List<TaskHistoryDto> getTaskHistory(@PathVariable("task_id") Long taskId) {
         return taskHistoryService.getTaskHistoryByTaskId(taskId);
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'WRITE')")
+    @QueryBudget(25)
     @PostMapping(CREATE_TASK)
     public TaskDto createTask(@PathVariable("project_id") Long projectId,
                               @PathVariable("task_state_id") Long taskStateId,
@@ -81,42 +127,52 @@ public class TaskController {
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskPermission(#taskId, 'READ')")
+    @QueryBudget(20)
     @PatchMapping(EDIT_TASK)
     public TaskDto editTask(@PathVariable("task_id") Long taskId,
-                            @RequestParam String taskName) {
+                            @RequestParam String taskName,
+                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Editing task ID: {}, new name: {}", taskId, taskName);
-        return taskService.editTask(taskId, taskName);
+        return taskService.editTask(taskId, taskName, EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskPermission(#taskId, 'READ')")
+    @QueryBudget(25)
     @DeleteMapping(DELETE_TASK)
-    public AckDto deleteTask(@PathVariable("task_id") Long taskId) {
+    public AckDto deleteTask(@PathVariable("task_id") Long taskId,
+                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Deleting task with ID: {}", taskId);
-        return taskService.deleteTask(taskId);
+        return taskService.deleteTask(taskId, EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskPermission(#taskId, 'WRITE')")
+    @QueryBudget(20)
     @PatchMapping(ASSIGN_TASK_TO_SPECIFIC_USER)
     public TaskDto assignTaskToUser(@PathVariable("task_id") Long taskId,
-                                    @RequestParam String username) {
+                                    @RequestParam String username,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Assigning task with ID: {} for user: {}", taskId, username);
-        return taskService.assignTaskToUser(taskId, username);
+        return taskService.assignTaskToUser(taskId, username, EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskPermission(#taskId, 'READ')")
+    @QueryBudget(30)
     @PatchMapping(CHANGE_TASK_STATE)
     public TaskDto changeTaskState(@PathVariable("task_id") Long taskId,
-                                   @RequestParam Long newTaskStateId) {
+                                   @RequestParam Long newTaskStateId,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Changing task state for task ID: {} to new task state ID: {}", taskId, newTaskStateId);
-        return taskService.changeTaskState(taskId, newTaskStateId);
+        return taskService.changeTaskState(taskId, newTaskStateId, EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskPermission(#taskId, 'READ')")
+    @QueryBudget(25)
     @PatchMapping(CHANGE_TASK_POSITION)
     public TaskDto changeTaskPosition(
             @PathVariable("task_id") Long taskId,
-            @RequestParam(required = false) Optional<Long> leftTaskId) {
+            @RequestParam(required = false) Optional<Long> leftTaskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Changing task position for task ID: {} with left task ID: {}", taskId, leftTaskId.orElse(null));
-        return taskService.changeTaskPosition(taskId, leftTaskId);
+        return taskService.changeTaskPosition(taskId, leftTaskId, EntityVersions.parseIfMatch(ifMatch));
     }
 }
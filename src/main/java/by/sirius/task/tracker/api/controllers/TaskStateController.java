@@ -2,14 +2,24 @@ package by.sirius.task.tracker.api.controllers;
 
 import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.fields.SparseFieldsParser;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
 import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.core.services.helpers.EntityVersions;
+import by.sirius.task.tracker.core.streaming.BoardStream;
+import by.sirius.task.tracker.core.streaming.BoardStreamResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.security.Principal;
-import java.util.List;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -18,6 +28,8 @@ import java.util.Optional;
 public class TaskStateController {
 
     private final TaskStateService taskStateService;
+    private final SparseFieldsParser sparseFieldsParser;
+    private final BoardStreamResponses boardStreamResponses;
 
     public static final String GET_TASK_STATE_BY_ID = "/api/projects/{project_id}/task-states/{task_state_id}";
     public static final String GET_TASK_STATES = "/api/projects/{project_id}/task-states";
@@ -27,20 +39,36 @@ public class TaskStateController {
     public static final String CHANGE_TASK_STATE_POSITION = "/api/task-states/{task_state_id}/position/change";
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
     @GetMapping(GET_TASK_STATE_BY_ID)
-    public TaskStateDto getTaskStateById(@PathVariable(name = "project_id") Long projectId,
-                                         @PathVariable(name = "task_state_id") Long taskStateId) {
-        return taskStateService.getTaskStateById(projectId, taskStateId);
+    public MappingJacksonValue getTaskStateById(@PathVariable(name = "project_id") Long projectId,
+                                                @PathVariable(name = "task_state_id") Long taskStateId,
+                                                @RequestParam(required = false) String fields) {
+        SparseFields sparseFields = sparseFieldsParser.parse(SparseFields.Level.TASK_STATE, fields);
+        return sparseFields.apply(taskStateService.getTaskStateById(projectId, taskStateId, sparseFields));
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'READ')")
+    @QueryBudget(15)
     @GetMapping(GET_TASK_STATES)
-    public List<TaskStateDto> getTaskStates(@PathVariable(name = "project_id") Long projectId, Principal principal) {
+    public MappingJacksonValue getTaskStates(@PathVariable(name = "project_id") Long projectId,
+                                             @RequestParam(required = false) String fields,
+                                             HttpServletRequest request,
+                                             Principal principal,
+                                             HttpServletResponse response) throws IOException {
         log.debug("Fetching task states for project ID: {}", projectId);
-        return taskStateService.getTaskStates(projectId, principal.getName());
+        SparseFields sparseFields = sparseFieldsParser.parse(SparseFields.Level.TASK_STATE, fields);
+
+        Optional<BoardStream> stream = taskStateService.streamTaskStates(projectId, principal.getName(), sparseFields);
+        if (stream.isPresent() && boardStreamResponses.write(stream.get(), request, response)) {
+            return null;
+        }
+
+        return sparseFields.apply(taskStateService.getTaskStates(projectId, principal.getName(), sparseFields));
     }
 
     @PreAuthorize("@projectSecurityService.hasProjectPermission(#projectId, 'WRITE')")
+    @QueryBudget(20)
     @PostMapping(CREATE_TASK_STATE)
     public TaskStateDto createTaskState(@PathVariable(name = "project_id") Long projectId, @RequestParam String taskStateName) {
         log.info("Creating task state '{}' in project with ID: {}", taskStateName, projectId);
@@ -48,27 +76,33 @@ public class TaskStateController {
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskStatePermission(#taskStateId, 'WRITE')")
+    @QueryBudget(15)
     @PatchMapping(EDIT_TASK_STATE)
     public TaskStateDto editTaskState(
             @PathVariable(name = "task_state_id") Long taskStateId,
-            @RequestParam String taskStateName) {
+            @RequestParam String taskStateName,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Editing task state with ID: {}, new name: {}", taskStateId, taskStateName);
-        return taskStateService.editTaskState(taskStateId, taskStateName);
+        return taskStateService.editTaskState(taskStateId, taskStateName, EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskStatePermission(#taskStateId, 'WRITE')")
+    @QueryBudget(30)
     @DeleteMapping(DELETE_TASK_STATE)
-    public AckDto deleteTaskState(@PathVariable(name = "task_state_id") Long taskStateId) {
+    public AckDto deleteTaskState(@PathVariable(name = "task_state_id") Long taskStateId,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.warn("Deleting task state with ID: {}", taskStateId);
-        return taskStateService.deleteTaskState(taskStateId);
+        return taskStateService.deleteTaskState(taskStateId, EntityVersions.parseIfMatch(ifMatch));
     }
 
     @PreAuthorize("@projectSecurityService.hasTaskStatePermission(#taskStateId, 'WRITE')")
+    @QueryBudget(25)
     @PatchMapping(CHANGE_TASK_STATE_POSITION)
     public TaskStateDto changeTaskStatePosition(
             @PathVariable(name = "task_state_id") Long taskStateId,
-            @RequestParam(required = false) Optional<Long> optionalLeftTaskStateId) {
+            @RequestParam(required = false) Optional<Long> optionalLeftTaskStateId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Changing task state position for task state ID: {}, left state ID: {}", taskStateId, optionalLeftTaskStateId.orElse(null));
-        return taskStateService.changeTaskStatePosition(taskStateId, optionalLeftTaskStateId);
+        return taskStateService.changeTaskStatePosition(taskStateId, optionalLeftTaskStateId, EntityVersions.parseIfMatch(ifMatch));
     }
 }
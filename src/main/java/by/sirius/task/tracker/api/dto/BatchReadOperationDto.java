@@ -0,0 +1,45 @@
+package by.sirius.task.tracker.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchReadOperationDto {
+
+    @NotBlank(message = "Operation id is required!")
+    private String id;
+
+    @NotNull(message = "Operation type is required!")
+    private Type type;
+
+    @JsonProperty("project_id")
+    private Long projectId;
+
+    @JsonProperty("task_state_id")
+    private Long taskStateId;
+
+    private String fields;
+
+    public enum Type {
+        @JsonProperty("project")
+        PROJECT,
+        @JsonProperty("task_states")
+        TASK_STATES,
+        @JsonProperty("tasks")
+        TASKS,
+        @JsonProperty("assigned_tasks")
+        ASSIGNED_TASKS,
+        @JsonProperty("invitations")
+        INVITATIONS,
+        @JsonProperty("members")
+        MEMBERS
+    }
+}
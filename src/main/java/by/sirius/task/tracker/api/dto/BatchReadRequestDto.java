@@ -0,0 +1,21 @@
+package by.sirius.task.tracker.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchReadRequestDto {
+
+    @Valid
+    @NotEmpty(message = "At least one operation is required!")
+    private List<BatchReadOperationDto> operations;
+}
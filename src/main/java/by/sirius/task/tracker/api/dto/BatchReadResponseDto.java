@@ -0,0 +1,17 @@
+package by.sirius.task.tracker.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchReadResponseDto {
+
+    private List<BatchReadResultDto> results;
+}
@@ -0,0 +1,22 @@
+package by.sirius.task.tracker.api.dto;
+
+import by.sirius.task.tracker.api.exceptions.ErrorDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchReadResultDto {
+
+    private String id;
+
+    private Integer status;
+
+    private Object body;
+
+    private ErrorDto error;
+}
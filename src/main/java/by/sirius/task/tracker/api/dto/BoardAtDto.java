@@ -0,0 +1,31 @@
+package by.sirius.task.tracker.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BoardAtDto {
+
+    @JsonProperty("project_id")
+    private Long projectId;
+
+    private Instant at;
+
+    @JsonProperty("snapshot_taken_at")
+    private Instant snapshotTakenAt;
+
+    @JsonProperty("replayed_events")
+    private Integer replayedEvents;
+
+    @JsonProperty("task_states")
+    private List<TaskStateDto> taskStates;
+}
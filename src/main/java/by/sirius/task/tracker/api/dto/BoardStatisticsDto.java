@@ -0,0 +1,31 @@
+package by.sirius.task.tracker.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BoardStatisticsDto {
+
+    @JsonProperty("project_id")
+    private Long projectId;
+
+    @JsonProperty("total_tasks")
+    private Long totalTasks;
+
+    @JsonProperty("unassigned_tasks")
+    private Long unassignedTasks;
+
+    @JsonProperty("tasks_by_task_state")
+    private Map<Long, Long> tasksByTaskState;
+
+    @JsonProperty("tasks_by_assignee")
+    private Map<String, Long> tasksByAssignee;
+}
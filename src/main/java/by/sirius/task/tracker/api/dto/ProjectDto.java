@@ -19,4 +19,6 @@ public class ProjectDto {
 
     @JsonProperty("created_at")
     private Instant createdAt;
+
+    private Long version;
 }
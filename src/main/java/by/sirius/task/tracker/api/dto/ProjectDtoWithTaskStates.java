@@ -1,5 +1,7 @@
 package by.sirius.task.tracker.api.dto;
 
+import by.sirius.task.tracker.core.fields.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,6 +15,7 @@ import java.util.List;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(SparseFields.PROJECT_FILTER)
 public class ProjectDtoWithTaskStates {
     private Long id;
     private String name;
@@ -20,5 +23,7 @@ public class ProjectDtoWithTaskStates {
 
     @JsonProperty("created_at")
     private Instant createdAt;
+
+    private Long version;
     private List<TaskStateDto> taskStates;
 }
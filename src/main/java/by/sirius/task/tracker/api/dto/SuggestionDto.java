@@ -0,0 +1,22 @@
+package by.sirius.task.tracker.api.dto;
+
+import by.sirius.task.tracker.core.suggestions.SuggestionType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDto {
+    private SuggestionType type;
+    private Long id;
+    private String value;
+    private double score;
+
+    @JsonProperty("prefix_match")
+    private boolean prefixMatch;
+}
@@ -1,5 +1,7 @@
 package by.sirius.task.tracker.api.dto;
 
+import by.sirius.task.tracker.core.fields.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +14,7 @@ import java.time.Instant;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(SparseFields.TASK_FILTER)
 public class TaskDto {
     private Long id;
     private String name;
@@ -27,5 +30,7 @@ public class TaskDto {
 
     @JsonProperty("created_at")
     private Instant createdAt;
+
+    private Long version;
 }
 
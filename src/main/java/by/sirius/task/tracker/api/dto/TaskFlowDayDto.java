@@ -0,0 +1,30 @@
+package by.sirius.task.tracker.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Flow of one day. The maps are keyed by task state id, in board order.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskFlowDayDto {
+
+    private LocalDate day;
+
+    @JsonProperty("cumulative_arrivals")
+    private Map<Long, Long> cumulativeArrivals;
+
+    @JsonProperty("work_in_progress")
+    private Map<Long, Long> workInProgress;
+
+    private Long completed;
+}
@@ -0,0 +1,38 @@
+package by.sirius.task.tracker.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskFlowDto {
+
+    @JsonProperty("project_id")
+    private Long projectId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    @JsonProperty("done_task_state_id")
+    private Long doneTaskStateId;
+
+    @JsonProperty("completed_tasks")
+    private Long completedTasks;
+
+    @JsonProperty("average_lead_time_seconds")
+    private Double averageLeadTimeSeconds;
+
+    @JsonProperty("average_cycle_time_seconds")
+    private Double averageCycleTimeSeconds;
+
+    private List<TaskFlowDayDto> days;
+}
@@ -0,0 +1,23 @@
+package by.sirius.task.tracker.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskPageDto {
+    private List<TaskDto> tasks;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("estimated_count")
+    private Long estimatedCount;
+}
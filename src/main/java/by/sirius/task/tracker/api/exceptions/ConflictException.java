@@ -0,0 +1,9 @@
+package by.sirius.task.tracker.api.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends CustomBaseException {
+    public ConflictException(String message, HttpStatus status) {
+        super(message, status);
+    }
+}
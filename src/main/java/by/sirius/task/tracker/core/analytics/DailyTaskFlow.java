@@ -0,0 +1,10 @@
+package by.sirius.task.tracker.core.analytics;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Flow counters of one day by task state id.
+ */
+public record DailyTaskFlow(LocalDate day, Map<Long, TaskFlowCounters> states) {
+}
@@ -0,0 +1,81 @@
+package by.sirius.task.tracker.core.analytics;
+
+import by.sirius.task.tracker.store.projections.TaskStateTransitionView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Folds a time-ordered stream of task state changes into per-day flow counters by task state id. A change
+ * without the id of a side, such as one recorded before ids were, doesn't count on that side.
+ * <p>
+ * Only the counters of the current day are held in memory; they are handed to the sink as soon as a change
+ * of a later day arrives, so memory depends on the number of task states rather than the length of the
+ * history. Days are UTC days and days without changes are not emitted.
+ */
+public class TaskFlowAccumulator {
+
+    private final Consumer<DailyTaskFlow> sink;
+
+    private LocalDate currentDay;
+    private Map<Long, TaskFlowCounters> currentStates = new HashMap<>();
+
+    public TaskFlowAccumulator(Consumer<DailyTaskFlow> sink) {
+        this.sink = sink;
+    }
+
+    public void accept(TaskStateTransitionView transition) {
+        Instant changedAt = transition.getChangedAt();
+        LocalDate day = LocalDate.ofInstant(changedAt, ZoneOffset.UTC);
+
+        if (currentDay != null && day.isBefore(currentDay)) {
+            throw new IllegalArgumentException("Task state changes must be ordered by time");
+        }
+        if (!day.equals(currentDay)) {
+            emit();
+            currentDay = day;
+        }
+
+        if (transition.getOldTaskStateId() != null && !"CREATE".equals(transition.getChangeType())) {
+            countersOf(transition.getOldTaskStateId()).depart();
+        }
+
+        if (transition.getNewTaskStateId() != null) {
+            long leadTime = secondsBetween(transition.getTaskCreatedAt(), changedAt);
+            Instant startedAt = transition.getStartedAt();
+            Long cycleTime = startedAt != null && !startedAt.isAfter(changedAt)
+                    ? secondsBetween(startedAt, changedAt)
+                    : null;
+
+            countersOf(transition.getNewTaskStateId()).arrive(leadTime, cycleTime);
+        }
+    }
+
+    public void finish() {
+        emit();
+        currentDay = null;
+    }
+
+    private TaskFlowCounters countersOf(Long taskStateId) {
+        return currentStates.computeIfAbsent(taskStateId, id -> new TaskFlowCounters());
+    }
+
+    private void emit() {
+        if (currentDay != null && !currentStates.isEmpty()) {
+            sink.accept(new DailyTaskFlow(currentDay, currentStates));
+        }
+        currentStates = new HashMap<>();
+    }
+
+    private static long secondsBetween(Instant from, Instant to) {
+        if (from == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(from, to).getSeconds());
+    }
+}
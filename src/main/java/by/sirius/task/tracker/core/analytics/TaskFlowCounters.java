@@ -0,0 +1,29 @@
+package by.sirius.task.tracker.core.analytics;
+
+import lombok.Getter;
+
+/**
+ * Mutable flow counters of one task state within one day.
+ */
+@Getter
+public class TaskFlowCounters {
+
+    private long arrivals;
+    private long departures;
+    private long leadTimeSeconds;
+    private long cycleTimeSeconds;
+    private long cycleTimeCount;
+
+    void arrive(long leadTimeSeconds, Long cycleTimeSeconds) {
+        arrivals++;
+        this.leadTimeSeconds += leadTimeSeconds;
+        if (cycleTimeSeconds != null) {
+            this.cycleTimeSeconds += cycleTimeSeconds;
+            cycleTimeCount++;
+        }
+    }
+
+    void depart() {
+        departures++;
+    }
+}
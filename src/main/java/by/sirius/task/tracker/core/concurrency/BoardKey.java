@@ -0,0 +1,10 @@
+package by.sirius.task.tracker.core.concurrency;
+
+/**
+ * What the first argument of a {@link BoardMutation} method identifies.
+ */
+public enum BoardKey {
+    PROJECT,
+    TASK_STATE,
+    TASK
+}
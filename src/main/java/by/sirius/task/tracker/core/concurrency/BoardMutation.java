@@ -0,0 +1,18 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on the mutation lane of the project its first argument belongs to, see
+ * {@link ProjectMutationLanes}. Meant for changes to the order of a board: they all touch the same heads,
+ * tails and neighbours, and are cheaper to serialize than to let race on row locks.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BoardMutation {
+
+    BoardKey value();
+}
@@ -0,0 +1,55 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.store.repositories.TaskRepository;
+import by.sirius.task.tracker.store.repositories.TaskStateRepository;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Implements {@link BoardMutation}. Ordered before {@link OptimisticRetryAspect}, so a mutation is retried on
+ * its lane rather than queued again. Calls made inside a running transaction or on a lane stay on the calling
+ * thread, they are already part of a serialized unit of work.
+ */
+@RequiredArgsConstructor
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class BoardMutationAspect {
+
+    private final ProjectMutationLanes projectMutationLanes;
+    private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
+
+    @Around("@annotation(boardMutation)")
+    public Object route(ProceedingJoinPoint joinPoint, BoardMutation boardMutation) throws Throwable {
+        if (!projectMutationLanes.isEnabled()
+                || ProjectMutationLanes.isLaneThread()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        Optional<Long> projectId = resolveProjectId(boardMutation.value(), (Long) joinPoint.getArgs()[0]);
+        if (projectId.isEmpty()) {
+            // Unknown task or task state, let the service report it
+            return joinPoint.proceed();
+        }
+
+        return projectMutationLanes.execute(projectId.get(), joinPoint::proceed);
+    }
+
+    private Optional<Long> resolveProjectId(BoardKey key, Long id) {
+        return switch (key) {
+            case PROJECT -> Optional.ofNullable(id);
+            case TASK_STATE -> taskStateRepository.findProjectIdById(id);
+            case TASK -> taskRepository.findProjectIdById(id);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.store.entities.ProjectEntity;
+import by.sirius.task.tracker.store.entities.TaskStateEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for full board reads. Concurrent requests for the same view of the same board version share one
+ * load and DTO build, which turns a read storm on one board into a handful of queries. Callers check their own
+ * permissions before coalescing; the shared computation only builds what every permitted caller sees.
+ * <p>
+ * {@code shape} separates reads of one view that build different results, such as different field selections,
+ * and must have value equality.
+ * <p>
+ * Shared results are handed to several requests at once and must not be modified.
+ */
+@RequiredArgsConstructor
+@Component
+public class BoardReadCoalescer {
+
+    public enum View {
+        PROJECT,
+        TASK_STATES
+    }
+
+    private record Key(View view, Long projectId, Object shape, long version) {
+    }
+
+    private final SingleFlight<Key, Object> singleFlight = new SingleFlight<>();
+
+    private final BoardVersions boardVersions;
+    private final MeterRegistry meterRegistry;
+
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(View view, Long projectId, Object shape, Supplier<T> read) {
+        Key key = new Key(view, projectId, shape, boardVersions.current(projectId));
+        SingleFlight.Result<Object> result = singleFlight.execute(key, read::get);
+
+        meterRegistry.counter("task_tracker.board_reads",
+                "view", view.name().toLowerCase(),
+                "outcome", result.shared() ? "shared" : "computed").increment();
+
+        return (T) result.value();
+    }
+
+    public void boardChanged(ProjectEntity project) {
+        boardVersions.changed(project.getId());
+    }
+
+    public void boardChanged(TaskStateEntity taskState) {
+        boardVersions.changed(taskState.getProject().getId());
+    }
+}
@@ -0,0 +1,44 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local change counter per board, advanced when a transaction that changed the board commits. Reads keyed by
+ * the current version never share a result computed before a change they should see.
+ * <p>
+ * Only changes made through this node are counted. A change committed by another node is seen by reads that
+ * start computing after it, the same as without coalescing; joiners of an older computation can miss it by at
+ * most the duration of that computation.
+ */
+@Component
+public class BoardVersions {
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public long current(Long projectId) {
+        return versions.getOrDefault(projectId, 0L);
+    }
+
+    public void changed(Long projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance(projectId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advance(projectId);
+            }
+        });
+    }
+
+    private void advance(Long projectId) {
+        versions.merge(projectId, 1L, Long::sum);
+    }
+}
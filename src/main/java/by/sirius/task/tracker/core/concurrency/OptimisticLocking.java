@@ -0,0 +1,22 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the version of a parent entity whose children are reordered. Tasks and task states are linked lists,
+ * and two moves in one column may touch disjoint rows; incrementing the column's (or project's) version makes
+ * the second commit fail and retry instead of leaving two heads behind.
+ */
+@RequiredArgsConstructor
+@Component
+public class OptimisticLocking {
+
+    private final EntityManager entityManager;
+
+    public void forceIncrement(Object entity) {
+        entityManager.lock(entity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+}
@@ -0,0 +1,112 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements {@link RetryOnConflict}. Ordered before the transaction interceptor, so every attempt runs in a
+ * fresh transaction and persistence context. Attempts are separated by a fully jittered exponential backoff.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    /**
+     * Unique violation, serialization failure and deadlock.
+     */
+    private static final Set<String> CONFLICT_STATES = Set.of("23505", "40001", "40P01");
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticRetryAspect(MeterRegistry meterRegistry,
+                                 @Value("${task-tracker.optimistic-retry.max-attempts:4}") int maxAttempts,
+                                 @Value("${task-tracker.optimistic-retry.initial-backoff:PT0.01S}") Duration initialBackoff,
+                                 @Value("${task-tracker.optimistic-retry.max-backoff:PT0.2S}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    @Around("@annotation(by.sirius.task.tracker.core.concurrency.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    log.warn("{} still conflicting after {} attempts: {}", method, attempt, e.getMessage());
+                    counter("task_tracker.optimistic_retry.exhausted", method).increment();
+                    throw new ConflictException(
+                            "The board was changed concurrently, reload it and try again", HttpStatus.CONFLICT);
+                }
+
+                log.debug("{} conflicted on attempt {}, retrying: {}", method, attempt, e.getMessage());
+                counter("task_tracker.optimistic_retry.retries", method).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) throws InterruptedException {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lost races surface differently depending on where they're detected: translated by a repository, raised
+     * at commit and wrapped by the transaction manager, or as a unique key violation of the neighbour columns.
+     */
+    static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && CONFLICT_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.ConflictException;
+import by.sirius.task.tracker.store.repositories.TaskRepository;
+import by.sirius.task.tracker.store.repositories.TaskStateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Serializes board mutations across replicas with a transaction-scoped PostgreSQL advisory lock per project.
+ * {@link ProjectMutationLanes} only orders the mutations of one node; with several nodes writing to a board,
+ * this lock is what keeps the column linked lists consistent. It's released by commit or rollback.
+ * <p>
+ * Keys use the two-integer form, namespaced so they can't meet other advisory locks; project ids beyond the
+ * {@code int} range fold onto smaller ones, which only serializes a few unrelated boards. A lock that isn't
+ * granted within the timeout fails the mutation with 409 instead of queueing requests behind it; a zero
+ * timeout only tries once.
+ */
+@Slf4j
+@Component
+public class ProjectAdvisoryLocks {
+
+    /**
+     * "task" in ASCII.
+     */
+    static final int NAMESPACE = 0x7461736B;
+
+    private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public ProjectAdvisoryLocks(TaskRepository taskRepository,
+                                TaskStateRepository taskStateRepository,
+                                JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${task-tracker.advisory-locks.enabled:false}") boolean enabled,
+                                @Value("${task-tracker.advisory-locks.timeout:PT2S}") Duration timeout) {
+        this.taskRepository = taskRepository;
+        this.taskStateRepository = taskStateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.timeout = timeout;
+    }
+
+    public void lockProject(Long projectId) {
+        if (enabled) {
+            lock(projectId);
+        }
+    }
+
+    public void lockProjectOfTaskState(Long taskStateId) {
+        if (enabled) {
+            taskStateRepository.findProjectIdById(taskStateId).ifPresent(this::lock);
+        }
+    }
+
+    public void lockProjectOfTask(Long taskId) {
+        if (enabled) {
+            taskRepository.findProjectIdById(taskId).ifPresent(this::lock);
+        }
+    }
+
+    private void lock(Long projectId) {
+        int key = Long.hashCode(projectId);
+        long startedAt = System.nanoTime();
+
+        boolean acquired = timeout.isZero() ? tryLock(key) : lockWithTimeout(key);
+
+        Timer.builder("task_tracker.advisory_lock.wait")
+                .description("Time spent waiting for a project's advisory lock")
+                .tag("outcome", acquired ? "acquired" : "timeout")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startedAt));
+
+        if (!acquired) {
+            log.warn("Advisory lock of project ID: {} not granted within {}", projectId, timeout);
+            throw new ConflictException(
+                    "The board is being changed by another request, try again", HttpStatus.CONFLICT);
+        }
+    }
+
+    private boolean tryLock(int key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class, NAMESPACE, key));
+    }
+
+    /**
+     * Bounds the wait with a transaction-local {@code lock_timeout}. Once the lock is granted the previous value is
+     * restored, so the rest of the transaction keeps the configured one. A timeout is not followed by a restore:
+     * it aborts the transaction, PostgreSQL refuses any further statement in it, and the rollback discards the
+     * local setting anyway.
+     */
+    private boolean lockWithTimeout(int key) {
+        Map<String, Object> previous = jdbcTemplate.queryForMap(
+                "SELECT current_setting('lock_timeout') AS previous, set_config('lock_timeout', ?, true) AS current",
+                timeout.toMillis() + "ms");
+        try {
+            jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(?, ?)", Integer.class, NAMESPACE, key);
+        } catch (PessimisticLockingFailureException e) {
+            return false;
+        }
+        jdbcTemplate.queryForObject(
+                "SELECT set_config('lock_timeout', ?, true)", String.class, previous.get("previous"));
+        return true;
+    }
+}
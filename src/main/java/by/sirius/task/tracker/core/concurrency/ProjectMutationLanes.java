@@ -0,0 +1,264 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.TooManyRequestsException;
+import by.sirius.task.tracker.core.metrics.QueryCounter;
+import by.sirius.task.tracker.core.metrics.QueryStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes board mutations per project. Every project with pending work owns a lane: a mailbox drained by one
+ * virtual thread, which exits (and drops the lane) once the mailbox is empty. Mutations of one project never run
+ * concurrently on this node, mutations of different projects run in parallel.
+ * <p>
+ * A drainer takes up to {@code max-batch-size} queued mutations and runs them in one transaction. If the batch
+ * fails, for any of its mutations, each one is rerun in its own transaction so that a single bad request only
+ * fails itself. Callers block until their mutation has committed and receive its result or exception.
+ * <p>
+ * Queue depths are published per lane index, the project id modulo {@value #LANE_INDEXES}, so that one hot board
+ * stands out without a time series per project.
+ */
+@Slf4j
+@Component
+public class ProjectMutationLanes implements DisposableBean {
+
+    static final int LANE_INDEXES = 16;
+
+    private static final ThreadLocal<Boolean> LANE_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("mutation-lane-", 0).factory());
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final int maxQueueDepth;
+
+    private final DistributionSummary[] queueDepths = new DistributionSummary[LANE_INDEXES];
+    private final DistributionSummary batchSize;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Counter batchFallbacks;
+
+    public ProjectMutationLanes(PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${task-tracker.mutation-lanes.enabled:true}") boolean enabled,
+                                @Value("${task-tracker.mutation-lanes.max-batch-size:16}") int maxBatchSize,
+                                @Value("${task-tracker.mutation-lanes.max-queue-depth:256}") int maxQueueDepth) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxQueueDepth = maxQueueDepth;
+
+        for (int index = 0; index < LANE_INDEXES; index++) {
+            int laneIndex = index;
+            this.queueDepths[index] = DistributionSummary.builder("task_tracker.mutation_lanes.queue_depth")
+                    .description("Depth of a project's lane when a mutation joins it")
+                    .tag("lane", String.valueOf(index))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Gauge.builder("task_tracker.mutation_lanes.queued", lanes, it -> queued(laneIndex))
+                    .description("Mutations queued or running on the lanes of this index")
+                    .tag("lane", String.valueOf(index))
+                    .register(meterRegistry);
+        }
+        this.batchSize = DistributionSummary.builder("task_tracker.mutation_lanes.batch_size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("task_tracker.mutation_lanes.wait")
+                .description("Time a mutation spends queued on its lane")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("task_tracker.mutation_lanes.rejected");
+        this.batchFallbacks = meterRegistry.counter("task_tracker.mutation_lanes.batch_fallbacks");
+        Gauge.builder("task_tracker.mutation_lanes.active", lanes, Map::size)
+                .description("Projects with queued or running mutations")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    static boolean isLaneThread() {
+        return LANE_THREAD.get();
+    }
+
+    public Object execute(Long projectId, Mutation mutation) throws Throwable {
+        Command command = new Command(mutation, SecurityContextHolder.getContext(), System.nanoTime());
+        submit(projectId, command);
+
+        try {
+            return command.result.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } finally {
+            QueryStatistics statistics = command.statistics;
+            QueryCounter.record(statistics.statements(), statistics.elapsedMillis());
+        }
+    }
+
+    private void submit(Long projectId, Command command) {
+        lanes.compute(projectId, (id, lane) -> {
+            Lane target = lane == null ? new Lane() : lane;
+
+            if (target.size.get() >= maxQueueDepth) {
+                rejected.increment();
+                throw new TooManyRequestsException(
+                        "Too many pending changes on this board, try again later", HttpStatus.TOO_MANY_REQUESTS);
+            }
+
+            target.mailbox.add(command);
+            int depth = target.size.incrementAndGet();
+            queueDepths[laneIndex(id)].record(depth);
+            if (depth == 1) {
+                executor.execute(() -> drain(id, target));
+            }
+            return target;
+        });
+    }
+
+    private void drain(Long projectId, Lane lane) {
+        LANE_THREAD.set(true);
+        try {
+            int remaining;
+            do {
+                List<Command> batch = new ArrayList<>(maxBatchSize);
+                Command command;
+                while (batch.size() < maxBatchSize && (command = lane.mailbox.poll()) != null) {
+                    queueWait.record(System.nanoTime() - command.enqueuedAt, TimeUnit.NANOSECONDS);
+                    batch.add(command);
+                }
+                batchSize.record(batch.size());
+
+                run(batch);
+
+                remaining = lane.size.addAndGet(-batch.size());
+            } while (remaining > 0);
+        } finally {
+            LANE_THREAD.remove();
+            lanes.computeIfPresent(projectId, (id, it) -> it.size.get() == 0 ? null : it);
+        }
+    }
+
+    private void run(List<Command> batch) {
+        if (batch.size() == 1) {
+            runAlone(batch.get(0));
+            return;
+        }
+
+        try {
+            List<Object> results = transactionTemplate.execute(status -> {
+                List<Object> values = new ArrayList<>(batch.size());
+                for (Command command : batch) {
+                    try {
+                        values.add(command.run());
+                    } catch (Throwable e) {
+                        throw new BatchFailure(e);
+                    }
+                }
+                return values;
+            });
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} board mutations failed, running them one by one: {}", batch.size(), e.getMessage());
+            batchFallbacks.increment();
+            batch.forEach(this::runAlone);
+        }
+    }
+
+    private void runAlone(Command command) {
+        try {
+            command.result.complete(command.run());
+        } catch (Throwable e) {
+            command.result.completeExceptionally(e);
+        }
+    }
+
+    private static int laneIndex(Long projectId) {
+        return (int) Math.floorMod(projectId, (long) LANE_INDEXES);
+    }
+
+    private int queued(int laneIndex) {
+        return lanes.entrySet()
+                .stream()
+                .filter(entry -> laneIndex(entry.getKey()) == laneIndex)
+                .mapToInt(entry -> entry.getValue().size.get())
+                .sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    public interface Mutation {
+        Object run() throws Throwable;
+    }
+
+    private static final class Lane {
+        final Queue<Command> mailbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    private static final class Command {
+        final Mutation mutation;
+        final SecurityContext securityContext;
+        final long enqueuedAt;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile QueryStatistics statistics = QueryStatistics.NONE;
+
+        Command(Mutation mutation, SecurityContext securityContext, long enqueuedAt) {
+            this.mutation = mutation;
+            this.securityContext = securityContext;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        /**
+         * Runs as the caller, and counts the statements for the caller's query budget.
+         */
+        Object run() throws Throwable {
+            SecurityContextHolder.setContext(securityContext);
+            QueryCounter.start();
+            try {
+                return mutation.run();
+            } finally {
+                QueryStatistics executed = QueryCounter.stop();
+                statistics = new QueryStatistics(
+                        statistics.statements() + executed.statements(),
+                        statistics.elapsedMillis() + executed.elapsedMillis());
+                SecurityContextHolder.clearContext();
+            }
+        }
+    }
+
+    private static final class BatchFailure extends RuntimeException {
+        BatchFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
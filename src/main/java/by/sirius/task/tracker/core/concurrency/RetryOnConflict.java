@@ -0,0 +1,15 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reruns the annotated transactional method when it loses a race: an optimistic lock failure or a unique key
+ * collision. Calls made inside an already running transaction aren't retried, the outermost annotated call is.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
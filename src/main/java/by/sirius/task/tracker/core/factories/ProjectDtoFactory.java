@@ -2,6 +2,7 @@ package by.sirius.task.tracker.core.factories;
 
 import by.sirius.task.tracker.api.dto.ProjectDto;
 import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.core.fields.SparseFields;
 import by.sirius.task.tracker.store.entities.ProjectEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -20,19 +21,25 @@ public class ProjectDtoFactory {
                 .name(project.getName())
                 .owner(project.getAdmin().getUsername())
                 .createdAt(project.getCreatedAt())
+                .version(project.getVersion())
                 .build();
     }
 
     public ProjectDtoWithTaskStates makeProjectDtoWithTaskStates(ProjectEntity project) {
+        return makeProjectDtoWithTaskStates(project, SparseFields.ALL);
+    }
+
+    public ProjectDtoWithTaskStates makeProjectDtoWithTaskStates(ProjectEntity project, SparseFields fields) {
         return ProjectDtoWithTaskStates.builder()
                 .id(project.getId())
                 .name(project.getName())
                 .owner(project.getAdmin().getUsername())
-                .taskStates(project.getTaskStates()
+                .taskStates(!fields.includesTaskStates() ? null : project.getTaskStates()
                         .stream()
-                        .map(taskStateDtoFactory::makeTaskStateDto)
+                        .map(taskState -> taskStateDtoFactory.makeTaskStateDto(taskState, fields))
                         .collect(Collectors.toList()))
                 .createdAt(project.getCreatedAt())
+                .version(project.getVersion())
                 .build();
     }
 }
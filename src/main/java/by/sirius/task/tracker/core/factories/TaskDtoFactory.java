@@ -1,6 +1,7 @@
 package by.sirius.task.tracker.core.factories;
 
 import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
 import by.sirius.task.tracker.store.entities.TaskEntity;
 import org.springframework.stereotype.Component;
 
@@ -8,13 +9,25 @@ import org.springframework.stereotype.Component;
 public class TaskDtoFactory {
 
     public TaskDto makeTaskDto(TaskEntity taskEntity) {
+        return makeTaskDto(taskEntity, SparseFields.ALL);
+    }
+
+    /**
+     * Skips the assignee lookup when {@code assigned_user} is not selected.
+     */
+    public TaskDto makeTaskDto(TaskEntity taskEntity, SparseFields fields) {
+        boolean withAssignedUser = fields.includes(SparseFields.Level.TASK, "assigned_user");
+
         return TaskDto.builder()
                 .id(taskEntity.getId())
                 .name(taskEntity.getName())
-                .assignedUser(taskEntity.getAssignedUser() != null ? taskEntity.getAssignedUser().getUsername() : null)
+                .assignedUser(withAssignedUser && taskEntity.getAssignedUser() != null
+                        ? taskEntity.getAssignedUser().getUsername()
+                        : null)
                 .leftTaskId(taskEntity.getLeftTask().map(TaskEntity::getId).orElse(null))
                 .rightTaskId(taskEntity.getRightTask().map(TaskEntity::getId).orElse(null))
                 .createdAt(taskEntity.getCreatedAt())
+                .version(taskEntity.getVersion())
                 .build();
     }
 }
@@ -1,6 +1,7 @@
 package by.sirius.task.tracker.core.factories;
 
 import by.sirius.task.tracker.api.dto.TaskHistoryDto;
+import by.sirius.task.tracker.core.history.ArchivedTaskHistory;
 import by.sirius.task.tracker.store.entities.TaskHistoryEntity;
 import org.springframework.stereotype.Component;
 
@@ -18,4 +19,17 @@ public class TaskHistoryDtoFactory {
                 .timestamp(taskHistory.getChangedAt())
                 .build();
     }
+
+    public TaskHistoryDto makeTaskHistoryDto(ArchivedTaskHistory taskHistory) {
+        return TaskHistoryDto.builder()
+                .id(taskHistory.id())
+                .taskId(taskHistory.taskId())
+                .username(taskHistory.username())
+                .changeType(taskHistory.changeType())
+                .fieldName(taskHistory.fieldName())
+                .oldValue(taskHistory.oldValue())
+                .newValue(taskHistory.newValue())
+                .timestamp(taskHistory.changedAt())
+                .build();
+    }
 }
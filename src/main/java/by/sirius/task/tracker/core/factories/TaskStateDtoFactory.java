@@ -1,6 +1,7 @@
 package by.sirius.task.tracker.core.factories;
 
 import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
 import by.sirius.task.tracker.store.entities.TaskStateEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -14,19 +15,27 @@ public class TaskStateDtoFactory {
     private final TaskDtoFactory taskDtoFactory;
 
     public TaskStateDto makeTaskStateDto(TaskStateEntity taskStateEntity) {
+        return makeTaskStateDto(taskStateEntity, SparseFields.ALL);
+    }
+
+    /**
+     * Leaves {@code tasks} unset, and the collection uninitialized, when it is not selected.
+     */
+    public TaskStateDto makeTaskStateDto(TaskStateEntity taskStateEntity, SparseFields fields) {
         return TaskStateDto.builder()
                 .id(taskStateEntity.getId())
                 .name(taskStateEntity.getName())
                 .createdAt(taskStateEntity.getCreatedAt())
+                .version(taskStateEntity.getVersion())
                 .leftTaskStateId(taskStateEntity.getLeftTaskState().map(TaskStateEntity::getId).orElse(null))
                 .rightTaskStateId(taskStateEntity.getRightTaskState().map(TaskStateEntity::getId).orElse(null))
-                .tasks(
-                taskStateEntity
-                        .getTasks()
-                        .stream()
-                        .map(taskDtoFactory::makeTaskDto)
-                        .collect(Collectors.toList())
-        )
+                .tasks(!fields.includesTasks() ? null :
+                        taskStateEntity
+                                .getTasks()
+                                .stream()
+                                .map(task -> taskDtoFactory.makeTaskDto(task, fields))
+                                .collect(Collectors.toList())
+                )
                 .build();
     }
 }
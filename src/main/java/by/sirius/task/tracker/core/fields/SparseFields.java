@@ -0,0 +1,92 @@
+package by.sirius.task.tracker.core.fields;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Fields a client asked for, per response level. An empty level means every field of that level. The same
+ * selection decides what the services load and what {@link #apply(Object)} lets Jackson write, so a field that
+ * is not serialized is never fetched either.
+ */
+public record SparseFields(Map<Level, Set<String>> selected) {
+
+    public static final String PROJECT_FILTER = "project";
+    public static final String TASK_STATE_FILTER = "taskState";
+    public static final String TASK_FILTER = "task";
+
+    public static final SparseFields ALL = new SparseFields(Map.of());
+
+    /**
+     * Response levels, each bound to the {@code @JsonFilter} id of its DTO. {@code child} is the property that
+     * nests the next level.
+     */
+    public enum Level {
+        PROJECT(PROJECT_FILTER, "taskStates", Set.of("id", "name", "owner", "created_at", "version", "taskStates")),
+        TASK_STATE(TASK_STATE_FILTER, "tasks", Set.of(
+                "id", "name", "left_task_state_id", "right_task_state_id", "created_at", "version", "tasks")),
+        TASK(TASK_FILTER, null, Set.of(
+                "id", "name", "assigned_user", "left_task_id", "right_task_id", "created_at", "version"));
+
+        private final String filterId;
+        private final String child;
+        private final Set<String> fields;
+
+        Level(String filterId, String child, Set<String> fields) {
+            this.filterId = filterId;
+            this.child = child;
+            this.fields = fields;
+        }
+
+        public String filterId() {
+            return filterId;
+        }
+
+        public Optional<String> child() {
+            return Optional.ofNullable(child);
+        }
+
+        public Optional<Level> next() {
+            return ordinal() + 1 < values().length ? Optional.of(values()[ordinal() + 1]) : Optional.empty();
+        }
+
+        public boolean hasField(String field) {
+            return fields.contains(field);
+        }
+    }
+
+    public SparseFields {
+        selected = Map.copyOf(selected);
+    }
+
+    public boolean includes(Level level, String field) {
+        Set<String> fields = selected.get(level);
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesTaskStates() {
+        return includes(Level.PROJECT, "taskStates");
+    }
+
+    public boolean includesTasks() {
+        return includes(Level.TASK_STATE, "tasks");
+    }
+
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(filters());
+        return value;
+    }
+
+    public FilterProvider filters() {
+        SimpleFilterProvider filters = new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        selected.forEach((level, fields) ->
+                filters.addFilter(level.filterId(), SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return filters;
+    }
+}
@@ -0,0 +1,21 @@
+package by.sirius.task.tracker.core.fields;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SparseFieldsConfig {
+
+    /**
+     * DTOs carry {@code @JsonFilter} ids; without a request selection every filter writes all properties, so
+     * responses and stored JSON that do not go through {@link SparseFields#apply(Object)} stay unchanged.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsFilterCustomizer() {
+        return builder -> builder.filters(
+                new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
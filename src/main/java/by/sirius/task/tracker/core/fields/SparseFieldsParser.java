@@ -0,0 +1,56 @@
+package by.sirius.task.tracker.core.fields;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses {@code fields} request parameters such as {@code name,taskStates.name,taskStates.tasks.id}.
+ * <p>
+ * Paths are separated by commas and use the JSON property names of the response. A nested path selects the
+ * field on its level and keeps the properties leading to it; a level that no path reaches into keeps all of its
+ * fields. {@code id} is always written on every restricted level.
+ */
+@Component
+public class SparseFieldsParser {
+
+    public SparseFields parse(SparseFields.Level root, String expression) {
+        if (expression == null || expression.isBlank()) {
+            return SparseFields.ALL;
+        }
+
+        Map<SparseFields.Level, Set<String>> selected = new EnumMap<>(SparseFields.Level.class);
+
+        for (String path : expression.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            SparseFields.Level level = root;
+            String[] segments = trimmed.split("\\.", -1);
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                boolean last = i == segments.length - 1;
+
+                if (!level.hasField(segment) || (!last && level.child().filter(segment::equals).isEmpty())) {
+                    throw new BadRequestException(
+                            String.format("Unknown field '%s'", trimmed), HttpStatus.BAD_REQUEST);
+                }
+
+                selected.computeIfAbsent(level, ignored -> new HashSet<>(Set.of("id"))).add(segment);
+
+                if (!last) {
+                    level = level.next().orElseThrow();
+                }
+            }
+        }
+
+        return new SparseFields(selected);
+    }
+}
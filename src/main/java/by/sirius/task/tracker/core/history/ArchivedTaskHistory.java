@@ -0,0 +1,20 @@
+package by.sirius.task.tracker.core.history;
+
+import java.time.Instant;
+
+/**
+ * A task history row as stored in an archive segment. Segments written before the project and task state ids
+ * were archived read them as {@code null}.
+ */
+public record ArchivedTaskHistory(Long id,
+                                  Long taskId,
+                                  Long projectId,
+                                  String username,
+                                  String changeType,
+                                  String fieldName,
+                                  String oldValue,
+                                  String newValue,
+                                  Long oldTaskStateId,
+                                  Long newTaskStateId,
+                                  Instant changedAt) {
+}
@@ -0,0 +1,234 @@
+package by.sirius.task.tracker.core.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archive segments of task history on local disk, one per month. Segment manifests are kept in memory so
+ * that a lookup only opens the segments whose task id range covers the task, and seeks through the sparse
+ * index of a segment to the gzip member holding it.
+ */
+@Slf4j
+@Component
+public class TaskHistoryArchive {
+
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    private static final String MANIFEST_SUFFIX = ".manifest.json";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int indexInterval;
+    private final NavigableMap<YearMonth, TaskHistorySegment> segments = new ConcurrentSkipListMap<>();
+
+    public TaskHistoryArchive(
+            ObjectMapper objectMapper,
+            @Value("${task-tracker.history-archive.directory:./data/task-history-archive}") String directory,
+            @Value("${task-tracker.history-archive.index-interval:1000}") int indexInterval) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.indexInterval = indexInterval;
+    }
+
+    @PostConstruct
+    void loadManifests() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path manifest : files.filter(file -> file.getFileName().toString().endsWith(MANIFEST_SUFFIX)).toList()) {
+                TaskHistorySegment segment = objectMapper.readValue(manifest.toFile(), TaskHistorySegment.class);
+                segments.put(segment.month(), segment);
+            }
+        }
+        log.info("Loaded {} task history archive segments from {}", segments.size(), directory);
+    }
+
+    public Collection<TaskHistorySegment> getSegments() {
+        return Collections.unmodifiableCollection(segments.values());
+    }
+
+    /**
+     * Opens a writer for the segment of the given month. Rows must be written in task id order with rows
+     * without a task last; the segment replaces an existing one of the same month only when
+     * {@link SegmentWriter#commit()} is called.
+     */
+    public SegmentWriter openSegment(YearMonth month) throws IOException {
+        Files.createDirectories(directory);
+        return new SegmentWriter(month);
+    }
+
+    public List<ArchivedTaskHistory> findByTaskId(Long taskId) {
+        List<ArchivedTaskHistory> history = new ArrayList<>();
+
+        for (TaskHistorySegment segment : segments.values()) {
+            if (!segment.mayContain(taskId)) {
+                continue;
+            }
+            try (BufferedReader reader = openReader(directory.resolve(segment.file()), segment.offsetOf(taskId))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ArchivedTaskHistory row = objectMapper.readValue(line, ArchivedTaskHistory.class);
+                    if (row.taskId() == null || row.taskId() > taskId) {
+                        break;
+                    }
+                    if (row.taskId().equals(taskId)) {
+                        history.add(row);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read task history segment " + segment.file(), e);
+            }
+        }
+
+        return history;
+    }
+
+    /**
+     * Opens the segment at the start of a gzip member; the rest of the file is read on as the following members.
+     */
+    private static BufferedReader openReader(Path file, long offset) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(file).position(offset);
+        InputStream input = new BufferedInputStream(Channels.newInputStream(channel));
+        return new BufferedReader(new InputStreamReader(new GZIPInputStream(input), StandardCharsets.UTF_8));
+    }
+
+    public class SegmentWriter implements Closeable {
+
+        private final YearMonth month;
+        private final Path temporaryFile;
+        private final CountingOutputStream file;
+        private final List<TaskHistorySegment.IndexEntry> index = new ArrayList<>();
+
+        private GZIPOutputStream member;
+        private long memberOffset;
+        private Writer writer;
+        private long memberRows;
+        private long rows;
+        private Long minTaskId;
+        private Long maxTaskId;
+        private boolean detachedRows;
+        private boolean committed;
+
+        private SegmentWriter(YearMonth month) throws IOException {
+            this.month = month;
+            this.temporaryFile = Files.createTempFile(directory, "task_history_" + month, ".tmp");
+            this.file = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)));
+            startMember();
+        }
+
+        public void write(ArchivedTaskHistory row) throws IOException {
+            if (row.taskId() != null && (detachedRows || (maxTaskId != null && row.taskId() < maxTaskId))) {
+                throw new IllegalArgumentException("Archived task history must be written in task id order, nulls last");
+            }
+            if (row.taskId() != null && !row.taskId().equals(maxTaskId)) {
+                if (memberRows >= indexInterval) {
+                    finishMember();
+                    startMember();
+                }
+                if (memberRows == 0) {
+                    index.add(new TaskHistorySegment.IndexEntry(row.taskId(), memberOffset));
+                }
+            }
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+
+            rows++;
+            memberRows++;
+            if (row.taskId() == null) {
+                detachedRows = true;
+                return;
+            }
+            if (minTaskId == null) {
+                minTaskId = row.taskId();
+            }
+            maxTaskId = row.taskId();
+        }
+
+        /**
+         * Moves the finished segment and its manifest into place. The segment file is written before the
+         * manifest, so a crash in between leaves a segment that is simply not read.
+         */
+        public TaskHistorySegment commit() throws IOException {
+            writer.close();
+
+            String baseName = "task_history_" + month;
+            TaskHistorySegment segment = new TaskHistorySegment(
+                    month, baseName + SEGMENT_SUFFIX, rows, minTaskId, maxTaskId, Instant.now(), List.copyOf(index));
+
+            Files.move(temporaryFile, directory.resolve(segment.file()),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Path temporaryManifest = Files.createTempFile(directory, baseName, ".tmp");
+            objectMapper.writeValue(temporaryManifest.toFile(), segment);
+            Files.move(temporaryManifest, directory.resolve(baseName + MANIFEST_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            segments.put(month, segment);
+            committed = true;
+
+            log.info("Archived {} task history rows of {} to {}", rows, month, segment.file());
+            return segment;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                writer.close();
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+
+        /**
+         * Members are cut only where a new task starts, so all rows of a task are in the member the index
+         * points to.
+         */
+        private void startMember() throws IOException {
+            memberOffset = file.count;
+            member = new GZIPOutputStream(file);
+            writer = new BufferedWriter(new OutputStreamWriter(member, StandardCharsets.UTF_8));
+            memberRows = 0;
+        }
+
+        private void finishMember() throws IOException {
+            writer.flush();
+            member.finish();
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
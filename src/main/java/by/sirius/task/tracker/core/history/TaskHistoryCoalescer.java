@@ -0,0 +1,90 @@
+package by.sirius.task.tracker.core.history;
+
+import by.sirius.task.tracker.store.entities.TaskHistoryEntity;
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Merges a task position or task state change into the previous history row of the task when both belong
+ * to one burst of edits: same user, same field, the new row continues from the previous row's value, at
+ * most {@code window} apart and on the same UTC day.
+ * <p>
+ * The merged row replaces the previous one with a new id, so board reconstruction still replays it after a
+ * snapshot taken in the middle of the burst, and it stays within the day already counted by the task flow
+ * analytics. The first task state change of a task is never merged into, as cycle times are measured from it.
+ * {@link by.sirius.task.tracker.core.jobs.TaskHistoryCompactionJob} applies the same rule to rows already stored.
+ */
+@Component
+public class TaskHistoryCoalescer {
+
+    public static final Set<String> COALESCED_FIELDS = Set.of("task position", "task state");
+
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final Duration window;
+
+    public TaskHistoryCoalescer(TaskHistoryRepository taskHistoryRepository,
+                                @Value("${task-tracker.history-compaction.window:PT2M}") Duration window) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.window = window;
+    }
+
+    /**
+     * Saves the entry merged with the previous row if it continues it.
+     *
+     * @return {@code false} if the entry was not saved and has to be saved as a row of its own
+     */
+    public boolean tryMerge(TaskHistoryEntity entry) {
+        if (window.isZero() || !"EDIT".equals(entry.getChangeType()) || !COALESCED_FIELDS.contains(entry.getFieldName())) {
+            return false;
+        }
+
+        Optional<TaskHistoryEntity> optionalPrevious = taskHistoryRepository
+                .findFirstByTaskIdOrderByChangedAtDescIdDesc(entry.getTask().getId());
+
+        if (optionalPrevious.isEmpty() || !continues(optionalPrevious.get(), entry)) {
+            return false;
+        }
+
+        TaskHistoryEntity previous = optionalPrevious.get();
+        if (isStart(previous)) {
+            return false;
+        }
+
+        entry.setOldValue(previous.getOldValue());
+        entry.setOldTaskStateId(previous.getOldTaskStateId());
+
+        taskHistoryRepository.delete(previous);
+        taskHistoryRepository.save(entry);
+
+        return true;
+    }
+
+    private boolean continues(TaskHistoryEntity previous, TaskHistoryEntity next) {
+        return "EDIT".equals(previous.getChangeType())
+                && Objects.equals(previous.getFieldName(), next.getFieldName())
+                && Objects.equals(previous.getUsername(), next.getUsername())
+                && Objects.equals(previous.getNewValue(), next.getOldValue())
+                && Objects.equals(previous.getNewTaskStateId(), next.getOldTaskStateId())
+                && !previous.getChangedAt().isAfter(next.getChangedAt())
+                && Duration.between(previous.getChangedAt(), next.getChangedAt()).compareTo(window) <= 0
+                && utcDay(previous).equals(utcDay(next));
+    }
+
+    private boolean isStart(TaskHistoryEntity entry) {
+        return "task state".equals(entry.getFieldName())
+                && !taskHistoryRepository.existsStateChangeBefore(
+                        entry.getTask().getId(), entry.getChangedAt(), entry.getId());
+    }
+
+    private static LocalDate utcDay(TaskHistoryEntity entry) {
+        return LocalDate.ofInstant(entry.getChangedAt(), ZoneOffset.UTC);
+    }
+}
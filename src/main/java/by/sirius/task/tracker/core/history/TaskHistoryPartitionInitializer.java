@@ -0,0 +1,33 @@
+package by.sirius.task.tracker.core.history;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Creates the partitions of the coming months at startup, and of every month the default partition holds rows
+ * of, such as rows written by the dataset generator or while a partition was missing.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskHistoryPartitionInitializer implements CommandLineRunner {
+
+    private final TaskHistoryPartitions taskHistoryPartitions;
+
+    @Value("${task-tracker.history-archive.months-ahead:3}")
+    private int monthsAhead;
+
+    @Override
+    public void run(String... args) {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        YearMonth from = taskHistoryPartitions.findOldestDefaultMonth()
+                .filter(month -> month.isBefore(currentMonth))
+                .orElse(currentMonth);
+
+        taskHistoryPartitions.ensurePartitions(from, currentMonth.plusMonths(monthsAhead));
+    }
+}
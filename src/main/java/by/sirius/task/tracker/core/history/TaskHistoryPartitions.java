@@ -0,0 +1,171 @@
+package by.sirius.task.tracker.core.history;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitioning of {@code task_history} by {@code changed_at}.
+ * <p>
+ * The partitioned table itself comes from the migration {@code V1__partition_task_history.sql}; this class only
+ * adds and removes monthly partitions. Rows outside the monthly partitions land in {@code task_history_default},
+ * and are moved into a month's partition when it is created.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class TaskHistoryPartitions {
+
+    private static final String DEFAULT_PARTITION = "task_history_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("task_history_p(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The month of the oldest row in the default partition, if it holds any.
+     */
+    public Optional<YearMonth> findOldestDefaultMonth() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                        "SELECT MIN(changed_at) FROM " + DEFAULT_PARTITION, Timestamp.class))
+                .map(changedAt -> YearMonth.from(changedAt.toInstant().atZone(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Creates the missing monthly partitions from {@code from} to {@code to}, both inclusive.
+     * <p>
+     * PostgreSQL refuses to create a partition while the default partition holds rows of its range. The default
+     * partition is then detached, the rows are moved into the new partition and the default one is attached
+     * again. Detaching locks {@code task_history} until the transaction ends, so writers wait for the move.
+     */
+    @Transactional
+    public void ensurePartitions(YearMonth from, YearMonth to) {
+        Set<YearMonth> existing = new HashSet<>(findPartitionMonths());
+
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                createPartition(month);
+            }
+        }
+    }
+
+    /**
+     * Returns the months that have a partition, oldest first.
+     */
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = to_regclass('task_history')
+                        """, String.class)
+                .stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Copies the partition of the month into an archive segment and drops the partition. Runs in one
+     * transaction so that the partition is only dropped once its rows have been read in full; if the drop
+     * fails the segment is rewritten on the next run.
+     */
+    @Transactional
+    public TaskHistorySegment archive(YearMonth month, TaskHistoryArchive archive) {
+        String partition = partitionName(month);
+
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(month)) {
+            RowCallbackHandler handler = rs -> {
+                try {
+                    writer.write(new ArchivedTaskHistory(
+                            rs.getLong("id"),
+                            rs.getObject("task_id", Long.class),
+                            rs.getObject("project_id", Long.class),
+                            rs.getString("username"),
+                            rs.getString("change_type"),
+                            rs.getString("field_name"),
+                            rs.getString("old_value"),
+                            rs.getString("new_value"),
+                            rs.getObject("old_task_state_id", Long.class),
+                            rs.getObject("new_task_state_id", Long.class),
+                            rs.getTimestamp("changed_at").toInstant()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT * FROM " + partition + " ORDER BY task_id NULLS LAST, id");
+                statement.setFetchSize(1000);
+                return statement;
+            }, handler);
+
+            TaskHistorySegment segment = writer.commit();
+
+            jdbcTemplate.execute("ALTER TABLE task_history DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to archive task history of " + month, e);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String start = startOf(month);
+        String end = startOf(month.plusMonths(1));
+        String create = String.format("CREATE TABLE %s PARTITION OF task_history FOR VALUES FROM ('%s') TO ('%s')",
+                partition, start, end);
+
+        boolean defaultHoldsRows = Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format(
+                "SELECT EXISTS (SELECT 1 FROM %s WHERE changed_at >= '%s' AND changed_at < '%s')",
+                DEFAULT_PARTITION, start, end), Boolean.class));
+
+        if (!defaultHoldsRows) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE task_history DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(create);
+        int moved = jdbcTemplate.update(String.format("""
+                WITH moved AS (
+                    DELETE FROM %s WHERE changed_at >= '%s' AND changed_at < '%s' RETURNING *
+                )
+                INSERT INTO task_history SELECT * FROM moved
+                """, DEFAULT_PARTITION, start, end));
+        jdbcTemplate.execute("ALTER TABLE task_history ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+
+        log.info("Created partition {} and moved {} rows into it from {}", partition, moved, DEFAULT_PARTITION);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "task_history_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String startOf(YearMonth month) {
+        return LocalDate.of(month.getYear(), month.getMonth(), 1) + " 00:00:00+00";
+    }
+}
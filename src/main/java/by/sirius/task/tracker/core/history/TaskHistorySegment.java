@@ -0,0 +1,46 @@
+package by.sirius.task.tracker.core.history;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Manifest of one archive segment: the history rows of one month, ordered by task id, in a gzip-compressed
+ * NDJSON file. The task id range lets readers skip segments that can't contain a task.
+ * <p>
+ * The file is a series of gzip members, each starting with a new task, and the index holds the first task id
+ * and byte offset of every member, so a reader starts decompressing at the member that holds the task.
+ * Manifests written before the index have none and are read from the start.
+ */
+public record TaskHistorySegment(YearMonth month,
+                                 String file,
+                                 long rows,
+                                 Long minTaskId,
+                                 Long maxTaskId,
+                                 Instant archivedAt,
+                                 List<IndexEntry> index) {
+
+    public boolean mayContain(Long taskId) {
+        return minTaskId != null && minTaskId <= taskId && taskId <= maxTaskId;
+    }
+
+    /**
+     * The offset of the last member that starts at or before the task, where its rows begin if it has any.
+     */
+    public long offsetOf(Long taskId) {
+        long offset = 0;
+        if (index == null) {
+            return offset;
+        }
+        for (IndexEntry entry : index) {
+            if (entry.taskId() > taskId) {
+                break;
+            }
+            offset = entry.offset();
+        }
+        return offset;
+    }
+
+    public record IndexEntry(Long taskId, long offset) {
+    }
+}
@@ -0,0 +1,216 @@
+package by.sirius.task.tracker.core.idempotency;
+
+import by.sirius.task.tracker.api.exceptions.ErrorDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Honours the {@code Idempotency-Key} header on the mutating {@code /api} endpoints. The first request with a key
+ * runs and its response is stored; a retry with the same key and the same request gets the stored response
+ * without running again, marked with {@code Idempotent-Replayed}. Reusing a key for a different request answers
+ * 422, and a retry arriving while the first request is still running answers 409.
+ * <p>
+ * Responses that ask the client to try again (409, 429 and 5xx) aren't stored; the key is released instead.
+ * Runs after the security filter chain, keys are scoped to the authenticated user.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    /**
+     * Reads that are posted because their input is a request body. Running them again is harmless, and the
+     * fingerprint doesn't cover bodies, so a key reused for another body would replay the wrong answer.
+     */
+    private static final Set<String> POSTED_READS = Set.of("/api/batch");
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(IDEMPOTENCY_KEY) == null
+                || !MUTATING_METHODS.contains(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                || POSTED_READS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    String.format("%s must have between 1 and %d characters", IDEMPOTENCY_KEY, MAX_KEY_LENGTH));
+            return;
+        }
+
+        String username = authentication.getName();
+        String fingerprint = fingerprint(request);
+
+        Optional<StoredResponse> stored = idempotencyStore.find(username, key);
+        if (stored.isEmpty() && !idempotencyStore.claim(username, key, fingerprint)) {
+            stored = idempotencyStore.find(username, key);
+            if (stored.isEmpty()) {
+                boolean sameRequest = idempotencyStore.findInProgressFingerprint(username, key)
+                        .map(fingerprint::equals)
+                        .orElse(true);
+                if (sameRequest) {
+                    count("in_progress");
+                    writeError(response, HttpStatus.CONFLICT,
+                            "A request with this Idempotency-Key is still being processed");
+                } else {
+                    rejectMismatch(response);
+                }
+                return;
+            }
+        }
+
+        if (stored.isPresent()) {
+            if (!stored.get().requestFingerprint().equals(fingerprint)) {
+                rejectMismatch(response);
+            } else {
+                count("replayed");
+                replay(stored.get(), response);
+            }
+            return;
+        }
+
+        execute(request, response, filterChain, username, key, fingerprint);
+    }
+
+    private void execute(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain,
+                         String username,
+                         String key,
+                         String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyStore.release(username, key);
+            throw e;
+        }
+
+        int status = responseWrapper.getStatus();
+        if (isRetryable(status)) {
+            idempotencyStore.release(username, key);
+            count("released");
+        } else {
+            idempotencyStore.complete(username, key, fingerprint, status, responseWrapper.getContentType(),
+                    responseWrapper.getContentAsByteArray());
+            count("executed");
+        }
+
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == HttpStatus.CONFLICT.value()
+                || status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || status >= 500;
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void rejectMismatch(HttpServletResponse response) throws IOException {
+        count("mismatch");
+        writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                "This Idempotency-Key was already used for a different request");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ErrorDto errorDto = ErrorDto.builder()
+                .error(status.getReasonPhrase())
+                .errorDescription(message)
+                .build();
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorDto);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("task_tracker.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    /**
+     * The mutating endpoints take their input from the path and the parameters, there are no request bodies;
+     * the batch read, which has one, isn't filtered.
+     * {@code Accept} and {@code Content-Type} are part of the request too: the same call negotiated as CBOR
+     * instead of JSON is answered with a different body, so a retry may only replay the format it asked for.
+     */
+    static String fingerprint(HttpServletRequest request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getMethod()).append(' ')
+                .append(request.getRequestURI())
+                .append('\n').append(HttpHeaders.ACCEPT).append(": ").append(headerOf(request, HttpHeaders.ACCEPT))
+                .append('\n').append(HttpHeaders.CONTENT_TYPE).append(": ")
+                .append(headerOf(request, HttpHeaders.CONTENT_TYPE));
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                canonical.append('\n').append(name).append('=').append(value);
+            }
+        });
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String headerOf(HttpServletRequest request, String name) {
+        return Optional.ofNullable(request.getHeader(name))
+                .map(String::trim)
+                .orElse("");
+    }
+}
@@ -0,0 +1,121 @@
+package by.sirius.task.tracker.core.idempotency;
+
+import by.sirius.task.tracker.store.entities.IdempotencyKeyEntity;
+import by.sirius.task.tracker.store.repositories.IdempotencyKeyRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Responses stored under an {@code Idempotency-Key}, scoped to the user that sent it. The table is the source of
+ * truth and is shared by all nodes; completed responses never change, so each node keeps the recently used ones
+ * in a bounded LRU cache in front of it. Rows expire after the configured TTL.
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Map<String, StoredResponse> cache;
+
+    public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                            @Value("${task-tracker.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${task-tracker.idempotency.in-progress-timeout:PT1M}") Duration inProgressTimeout,
+                            @Value("${task-tracker.idempotency.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        });
+    }
+
+    /**
+     * Returns the completed response of a key, if any. Keys whose first request is still running aren't found.
+     */
+    public Optional<StoredResponse> find(String username, String idempotencyKey) {
+        Instant now = Instant.now();
+        String cacheKey = cacheKey(username, idempotencyKey);
+
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                return Optional.of(cached);
+            }
+            cache.remove(cacheKey);
+        }
+
+        Optional<StoredResponse> stored = idempotencyKeyRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey)
+                .filter(key -> key.getResponseStatus() != null && key.getExpiresAt().isAfter(now))
+                .map(IdempotencyStore::toStoredResponse);
+        stored.ifPresent(response -> cache.put(cacheKey, response));
+        return stored;
+    }
+
+    /**
+     * Returns the fingerprint of the request holding a key that has no response yet.
+     */
+    public Optional<String> findInProgressFingerprint(String username, String idempotencyKey) {
+        return idempotencyKeyRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey)
+                .filter(key -> key.getResponseStatus() == null && key.getExpiresAt().isAfter(Instant.now()))
+                .map(IdempotencyKeyEntity::getRequestFingerprint);
+    }
+
+    /**
+     * Reserves a key for a request about to run. An unfinished claim lapses after the in-progress timeout, so
+     * a key isn't blocked forever by a node that died mid-request.
+     */
+    @Transactional
+    public boolean claim(String username, String idempotencyKey, String requestFingerprint) {
+        Instant now = Instant.now();
+        return idempotencyKeyRepository.claim(
+                username, idempotencyKey, requestFingerprint, now, now.plus(inProgressTimeout)) > 0;
+    }
+
+    @Transactional
+    public void complete(String username, String idempotencyKey, String requestFingerprint,
+                         int status, String contentType, byte[] body) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        idempotencyKeyRepository.complete(username, idempotencyKey, status, contentType, body, expiresAt);
+        cache.put(cacheKey(username, idempotencyKey),
+                new StoredResponse(requestFingerprint, status, contentType, body, expiresAt));
+    }
+
+    /**
+     * Gives a key back after a request failed without a response worth repeating, so that a retry runs again.
+     */
+    @Transactional
+    public void release(String username, String idempotencyKey) {
+        idempotencyKeyRepository.release(username, idempotencyKey);
+    }
+
+    @Transactional
+    public void removeExpired() {
+        int removed = idempotencyKeyRepository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.info("Removed {} expired idempotency keys", removed);
+        }
+    }
+
+    private static String cacheKey(String username, String idempotencyKey) {
+        return username + '\n' + idempotencyKey;
+    }
+
+    private static StoredResponse toStoredResponse(IdempotencyKeyEntity key) {
+        return new StoredResponse(key.getRequestFingerprint(), key.getResponseStatus(), key.getContentType(),
+                key.getResponseBody(), key.getExpiresAt());
+    }
+}
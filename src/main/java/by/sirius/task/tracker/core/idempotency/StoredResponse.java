@@ -0,0 +1,10 @@
+package by.sirius.task.tracker.core.idempotency;
+
+import java.time.Instant;
+
+public record StoredResponse(String requestFingerprint,
+                             int status,
+                             String contentType,
+                             byte[] body,
+                             Instant expiresAt) {
+}
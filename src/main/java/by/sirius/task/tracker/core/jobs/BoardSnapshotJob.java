@@ -0,0 +1,39 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.core.services.BoardSnapshotService;
+import by.sirius.task.tracker.store.repositories.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically snapshots every board that changed since its previous snapshot, which bounds how much
+ * history a board reconstruction has to replay.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class BoardSnapshotJob {
+
+    private final ProjectRepository projectRepository;
+    private final BoardSnapshotService boardSnapshotService;
+
+    @Scheduled(
+            initialDelayString = "${task-tracker.board-snapshots.initial-delay:PT5M}",
+            fixedDelayString = "${task-tracker.board-snapshots.interval:PT6H}"
+    )
+    public void snapshotAll() {
+        log.info("Taking board snapshots");
+
+        boardSnapshotService.removeOrphaned();
+
+        for (Long projectId : projectRepository.findAllIds()) {
+            try {
+                boardSnapshotService.takeSnapshot(projectId);
+            } catch (RuntimeException e) {
+                log.error("Failed to take board snapshot of project ID: {}", projectId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.core.services.BoardStatisticsService;
+import by.sirius.task.tracker.store.repositories.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes the board counters of every project, repairing drift caused by cascading
+ * deletes, failed hooks or data changed outside the application.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class BoardStatisticsReconciliationJob {
+
+    private final ProjectRepository projectRepository;
+    private final BoardStatisticsService boardStatisticsService;
+
+    @Scheduled(
+            initialDelayString = "${task-tracker.statistics.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${task-tracker.statistics.reconcile-interval:PT1H}"
+    )
+    public void reconcileAll() {
+        log.info("Reconciling board statistics");
+
+        boardStatisticsService.removeOrphaned();
+
+        for (Long projectId : projectRepository.findAllIds()) {
+            try {
+                boardStatisticsService.reconcile(projectId);
+            } catch (RuntimeException e) {
+                log.error("Failed to reconcile board statistics for project ID: {}", projectId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.core.idempotency.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys past their TTL, which keeps the table bounded by the traffic of one TTL window.
+ */
+@RequiredArgsConstructor
+@Component
+public class IdempotencyKeyCleanupJob {
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Scheduled(
+            initialDelayString = "${task-tracker.idempotency.cleanup-initial-delay:PT5M}",
+            fixedDelayString = "${task-tracker.idempotency.cleanup-interval:PT15M}"
+    )
+    public void removeExpired() {
+        idempotencyStore.removeExpired();
+    }
+}
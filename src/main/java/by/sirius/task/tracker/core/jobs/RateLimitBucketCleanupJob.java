@@ -0,0 +1,18 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.core.security.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class RateLimitBucketCleanupJob {
+
+    private final RateLimiter rateLimiter;
+
+    @Scheduled(fixedDelayString = "${task-tracker.rate-limit.cleanup-interval:PT1M}")
+    public void evictFullBuckets() {
+        rateLimiter.evictFullBuckets();
+    }
+}
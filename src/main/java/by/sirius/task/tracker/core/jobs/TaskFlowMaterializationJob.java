@@ -0,0 +1,36 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.core.services.TaskFlowService;
+import by.sirius.task.tracker.store.repositories.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Materializes the previous day's task flow of every project, so that dashboard loads only have to stream the
+ * current day. Requests never materialize, so this is the only writer of {@code task_flow_daily}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class TaskFlowMaterializationJob {
+
+    private final TaskFlowService taskFlowService;
+    private final ProjectRepository projectRepository;
+
+    @Scheduled(cron = "${task-tracker.task-flow.materialize-cron:0 15 0 * * *}", zone = "UTC")
+    public void materializeAll() {
+        log.info("Materializing task flow");
+
+        taskFlowService.removeOrphaned();
+
+        for (Long projectId : projectRepository.findAllIds()) {
+            try {
+                taskFlowService.materialize(projectId);
+            } catch (RuntimeException e) {
+                log.error("Failed to materialize task flow for project ID: {}", projectId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.core.history.TaskHistoryArchive;
+import by.sirius.task.tracker.core.history.TaskHistoryPartitions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps the upcoming monthly partitions of {@code task_history} created and, if archiving is enabled, moves
+ * partitions older than {@code archive-after-months} into archive segments.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class TaskHistoryArchivalJob {
+
+    private final TaskHistoryArchive taskHistoryArchive;
+    private final TaskHistoryPartitions taskHistoryPartitions;
+
+    @Value("${task-tracker.history-archive.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${task-tracker.history-archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${task-tracker.history-archive.archive-after-months:6}")
+    private int archiveAfterMonths;
+
+    @Scheduled(cron = "${task-tracker.history-archive.cron:0 30 1 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+
+        taskHistoryPartitions.ensurePartitions(currentMonth, currentMonth.plusMonths(monthsAhead));
+
+        if (!archiveEnabled) {
+            return;
+        }
+
+        YearMonth archiveBefore = currentMonth.minusMonths(archiveAfterMonths);
+
+        for (YearMonth month : taskHistoryPartitions.findPartitionMonths()) {
+            if (!month.isBefore(archiveBefore)) {
+                break;
+            }
+            try {
+                taskHistoryPartitions.archive(month, taskHistoryArchive);
+            } catch (RuntimeException e) {
+                log.error("Failed to archive task history of {}", month, e);
+                break;
+            }
+        }
+    }
+}
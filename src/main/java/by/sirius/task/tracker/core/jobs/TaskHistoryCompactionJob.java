@@ -0,0 +1,51 @@
+package by.sirius.task.tracker.core.jobs;
+
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Collapses bursts of task position and task state changes that reached the task history without going
+ * through {@link by.sirius.task.tracker.core.history.TaskHistoryCoalescer}, e.g. rows written before it
+ * existed or by concurrent requests. Only rows older than the merge window are touched, so the job doesn't
+ * race with the coalescer on the burst currently being written. Days already materialized by
+ * {@link TaskFlowMaterializationJob} are left alone, see {@link TaskHistoryRepository#compactBursts}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class TaskHistoryCompactionJob {
+
+    private final TaskHistoryRepository taskHistoryRepository;
+
+    @Value("${task-tracker.history-compaction.window:PT2M}")
+    private Duration window;
+
+    @Value("${task-tracker.history-compaction.lookback:P2D}")
+    private Duration lookback;
+
+    @Transactional
+    @Scheduled(
+            initialDelayString = "${task-tracker.history-compaction.initial-delay:PT10M}",
+            fixedDelayString = "${task-tracker.history-compaction.interval:PT1H}"
+    )
+    public void compact() {
+        if (window.isZero()) {
+            return;
+        }
+
+        Instant to = Instant.now().minus(window);
+        int removed = taskHistoryRepository.compactBursts(to.minus(lookback), to, window.toSeconds());
+
+        if (removed > 0) {
+            log.info("Compacted task history, removed {} intermediate rows", removed);
+        }
+    }
+}
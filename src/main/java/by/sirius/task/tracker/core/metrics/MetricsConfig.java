@@ -0,0 +1,19 @@
+package by.sirius.task.tracker.core.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Records {@link io.micrometer.core.annotation.Timed} services. Each call is timed with {@code class},
+     * {@code method} and {@code exception} tags, so the timer count doubles as a call and failure counter.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package by.sirius.task.tracker.core.metrics;
+
+import java.lang.annotation.*;
+
+/**
+ * Maximum number of SQL statements a request to a controller method may execute, counting the user lookup of
+ * the authentication filters. Requests over budget are logged and counted by {@link QueryBudgetFilter};
+ * endpoint tests pin the exact count of every endpoint.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,89 @@
+package by.sirius.task.tracker.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements of every request, publishes them per endpoint and warns when an endpoint goes over
+ * its {@link QueryBudget}. Runs before the security filter chain, so the user lookup of the authentication
+ * filters is counted along with the handler's statements. The statistics are also left in the request attribute
+ * {@link #STATISTICS_ATTRIBUTE} for tests.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATISTICS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".statistics";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${task-tracker.query-budget.default:30}")
+    private int defaultBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            publish(request, QueryCounter.stop());
+        }
+    }
+
+    private void publish(HttpServletRequest request, QueryStatistics statistics) {
+        request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+
+        String endpoint = Optional.ofNullable(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                .map(Object::toString)
+                .orElse("UNKNOWN");
+        String method = request.getMethod();
+
+        DistributionSummary.builder("task_tracker.http.queries")
+                .description("SQL statements executed per request")
+                .tag("uri", endpoint)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.statements());
+
+        Timer.builder("task_tracker.http.query.time")
+                .description("Time spent in SQL statements per request")
+                .tag("uri", endpoint)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(statistics.elapsedMillis(), TimeUnit.MILLISECONDS);
+
+        int budget = Optional.ofNullable((Integer) request.getAttribute(QueryBudgetInterceptor.BUDGET_ATTRIBUTE))
+                .orElse(defaultBudget);
+        if (statistics.statements() > budget) {
+            log.warn("{} {} executed {} SQL statements, budget is {}",
+                    method, endpoint, statistics.statements(), budget);
+            Counter.builder("task_tracker.query_budget.exceeded")
+                    .tag("uri", endpoint)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
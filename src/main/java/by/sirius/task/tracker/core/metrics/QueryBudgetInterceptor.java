@@ -0,0 +1,29 @@
+package by.sirius.task.tracker.core.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Leaves the {@link QueryBudget} of the handling controller method in the request attribute
+ * {@link #BUDGET_ATTRIBUTE}, where {@link QueryBudgetFilter} picks it up once the request is done. Requests
+ * that never reach a controller method, such as rejected ones, fall back to the default budget there.
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    public static final String BUDGET_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".budget";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            QueryBudget queryBudget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (queryBudget != null) {
+                request.setAttribute(BUDGET_ATTRIBUTE, queryBudget.value());
+            }
+        }
+        return true;
+    }
+}
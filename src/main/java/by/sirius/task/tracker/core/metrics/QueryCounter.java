@@ -0,0 +1,36 @@
+package by.sirius.task.tracker.core.metrics;
+
+/**
+ * Counts the SQL statements executed by the current thread between {@link #start()} and {@link #stop()}.
+ * Statements on threads that haven't started counting, such as scheduled jobs, are ignored.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNTERS = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        COUNTERS.set(new long[2]);
+    }
+
+    public static void record(int statements, long elapsedMillis) {
+        long[] counters = COUNTERS.get();
+        if (counters != null) {
+            counters[0] += statements;
+            counters[1] += elapsedMillis;
+        }
+    }
+
+    public static QueryStatistics current() {
+        long[] counters = COUNTERS.get();
+        return counters == null ? QueryStatistics.NONE : new QueryStatistics((int) counters[0], counters[1]);
+    }
+
+    public static QueryStatistics stop() {
+        QueryStatistics statistics = current();
+        COUNTERS.remove();
+        return statistics;
+    }
+}
@@ -0,0 +1,6 @@
+package by.sirius.task.tracker.core.metrics;
+
+public record QueryStatistics(int statements, long elapsedMillis) {
+
+    public static final QueryStatistics NONE = new QueryStatistics(0, 0);
+}
@@ -0,0 +1,6 @@
+package by.sirius.task.tracker.core.query;
+
+import java.util.Map;
+
+public record CompiledTaskQuery(String sql, Map<String, Object> parameters) {
+}
@@ -0,0 +1,33 @@
+package by.sirius.task.tracker.core.query;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Parsed form of a task filter expression. All present conditions are combined with AND.
+ */
+@Value
+@Builder
+public class TaskFilter {
+
+    @Builder.Default
+    List<Long> taskStateIds = List.of();
+
+    @Builder.Default
+    Optional<String> assignee = Optional.empty();
+
+    boolean unassigned;
+
+    @Builder.Default
+    Optional<Instant> createdFrom = Optional.empty();
+
+    @Builder.Default
+    Optional<Instant> createdTo = Optional.empty();
+
+    @Builder.Default
+    Optional<String> namePattern = Optional.empty();
+}
@@ -0,0 +1,118 @@
+package by.sirius.task.tracker.core.query;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses task filter expressions such as
+ * {@code state:3,4 assignee:alice created>=2024-01-01 created<2024-02-01 name:"release *"}.
+ * <p>
+ * Terms are separated by whitespace and combined with AND. Supported terms:
+ * <ul>
+ *     <li>{@code state:<id>[,<id>...]} - task is in one of the task states</li>
+ *     <li>{@code assignee:<username>} or {@code assignee:none}</li>
+ *     <li>{@code created>=<date|instant>} and {@code created<<date|instant>}</li>
+ *     <li>{@code name:<pattern>} - case-insensitive match, {@code *} matches any characters;
+ *     a pattern without {@code *} matches anywhere in the name</li>
+ * </ul>
+ */
+@Component
+public class TaskFilterParser {
+
+    private static final Pattern TERM = Pattern.compile("(\\w+)(:|>=|<)(\"[^\"]*\"|\\S+)");
+
+    public TaskFilter parse(String expression) {
+        TaskFilter.TaskFilterBuilder filter = TaskFilter.builder();
+
+        if (expression == null || expression.isBlank()) {
+            return filter.build();
+        }
+
+        String trimmed = expression.trim();
+        List<Long> taskStateIds = new ArrayList<>();
+        Matcher matcher = TERM.matcher(trimmed);
+        int position = 0;
+
+        while (matcher.find()) {
+            String skipped = trimmed.substring(position, matcher.start());
+            if (!skipped.isBlank()) {
+                throw invalid("Unexpected input near '%s'".formatted(skipped.trim()));
+            }
+            position = matcher.end();
+
+            String field = matcher.group(1);
+            String operator = matcher.group(2);
+            String value = unquote(matcher.group(3));
+
+            switch (field + operator) {
+                case "state:" -> Arrays.stream(value.split(","))
+                        .map(TaskFilterParser::parseId)
+                        .forEach(taskStateIds::add);
+                case "assignee:" -> {
+                    if (value.equalsIgnoreCase("none")) {
+                        filter.unassigned(true);
+                    } else {
+                        filter.assignee(Optional.of(value));
+                    }
+                }
+                case "created>=" -> filter.createdFrom(Optional.of(parseInstant(value)));
+                case "created<" -> filter.createdTo(Optional.of(parseInstant(value)));
+                case "name:" -> {
+                    if (value.isBlank()) {
+                        throw invalid("Name pattern can't be empty");
+                    }
+                    filter.namePattern(Optional.of(value));
+                }
+                default -> throw invalid("Unsupported filter term '%s%s'".formatted(field, operator));
+            }
+        }
+
+        if (position != trimmed.length()) {
+            throw invalid("Unexpected input near '%s'".formatted(trimmed.substring(position).trim()));
+        }
+
+        return filter.taskStateIds(List.copyOf(taskStateIds)).build();
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw invalid("Invalid task state id '%s'".formatted(value));
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid("Invalid date '%s', expected yyyy-MM-dd or an ISO-8601 instant".formatted(value));
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static BadRequestException invalid(String message) {
+        return new BadRequestException("Invalid filter: " + message, HttpStatus.BAD_REQUEST);
+    }
+}
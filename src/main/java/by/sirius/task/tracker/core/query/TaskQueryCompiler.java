@@ -0,0 +1,115 @@
+package by.sirius.task.tracker.core.query;
+
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiles a {@link TaskFilter} into one parameterized SQL statement.
+ * <p>
+ * Every condition is written against a plain column so that the planner can use the indexes on
+ * {@code tasks(task_state_id, created_at, id)}, {@code tasks(assigned_user_id, created_at, id)} and
+ * {@code task_states(project_id)}. Pages are ordered by {@code (created_at, id)} descending and
+ * continued with a row comparison on the same pair.
+ */
+@Component
+public class TaskQueryCompiler {
+
+    private static final String SELECT_PAGE = """
+            SELECT t.id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id, u.username AS assigned_user
+            FROM tasks t
+            JOIN task_states ts ON ts.id = t.task_state_id
+            LEFT JOIN users u ON u.id = t.assigned_user_id
+            """;
+
+    private static final String SELECT_COUNT = """
+            SELECT t.id
+            FROM tasks t
+            JOIN task_states ts ON ts.id = t.task_state_id
+            """;
+
+    public CompiledTaskQuery compilePage(Long projectId, TaskFilter filter, Optional<TaskCursor> cursor, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder sql = new StringBuilder(SELECT_PAGE);
+
+        appendConditions(sql, parameters, projectId, filter);
+
+        cursor.ifPresent(it -> {
+            sql.append(" AND (t.created_at, t.id) < (:cursorCreatedAt, :cursorId)");
+            parameters.put("cursorCreatedAt", Timestamp.from(it.createdAt()));
+            parameters.put("cursorId", it.id());
+        });
+
+        sql.append(" ORDER BY t.created_at DESC, t.id DESC LIMIT :limit");
+        parameters.put("limit", limit);
+
+        return new CompiledTaskQuery(sql.toString(), parameters);
+    }
+
+    /**
+     * Compiles the filter without ordering and paging, for planner row estimates.
+     */
+    public CompiledTaskQuery compileCount(Long projectId, TaskFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder sql = new StringBuilder(SELECT_COUNT);
+
+        appendConditions(sql, parameters, projectId, filter);
+
+        return new CompiledTaskQuery(sql.toString(), parameters);
+    }
+
+    private static void appendConditions(StringBuilder sql,
+                                         Map<String, Object> parameters,
+                                         Long projectId,
+                                         TaskFilter filter) {
+        sql.append("WHERE ts.project_id = :projectId");
+        parameters.put("projectId", projectId);
+
+        if (!filter.getTaskStateIds().isEmpty()) {
+            sql.append(" AND t.task_state_id IN (:taskStateIds)");
+            parameters.put("taskStateIds", filter.getTaskStateIds());
+        }
+
+        if (filter.isUnassigned()) {
+            sql.append(" AND t.assigned_user_id IS NULL");
+        }
+
+        filter.getAssignee().ifPresent(assignee -> {
+            sql.append(" AND t.assigned_user_id = (SELECT au.id FROM users au WHERE au.username = :assignee)");
+            parameters.put("assignee", assignee);
+        });
+
+        filter.getCreatedFrom().ifPresent(createdFrom -> {
+            sql.append(" AND t.created_at >= :createdFrom");
+            parameters.put("createdFrom", Timestamp.from(createdFrom));
+        });
+
+        filter.getCreatedTo().ifPresent(createdTo -> {
+            sql.append(" AND t.created_at < :createdTo");
+            parameters.put("createdTo", Timestamp.from(createdTo));
+        });
+
+        filter.getNamePattern().ifPresent(namePattern -> {
+            sql.append(" AND t.name ILIKE :namePattern ESCAPE '\\'");
+            parameters.put("namePattern", toLikePattern(namePattern));
+        });
+    }
+
+    static String toLikePattern(String pattern) {
+        StringBuilder like = new StringBuilder(pattern.length() + 2);
+        for (char c : pattern.toCharArray()) {
+            switch (c) {
+                case '*' -> like.append('%');
+                case '%', '_', '\\' -> like.append('\\').append(c);
+                default -> like.append(c);
+            }
+        }
+        if (pattern.indexOf('*') < 0) {
+            like.insert(0, '%').append('%');
+        }
+        return like.toString();
+    }
+}
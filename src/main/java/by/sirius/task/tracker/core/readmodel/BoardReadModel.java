@@ -0,0 +1,387 @@
+package by.sirius.task.tracker.core.readmodel;
+
+import by.sirius.task.tracker.core.concurrency.BoardVersions;
+import by.sirius.task.tracker.core.concurrency.SingleFlight;
+import by.sirius.task.tracker.store.entities.TaskEntity;
+import by.sirius.task.tracker.store.entities.TaskStateEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory read model of the boards in use. A board's view is loaded on its first read, with three queries in
+ * one snapshot, and afterwards kept current by the task and task state mutations committed through this node,
+ * so {@code getTaskStates}, {@code getTasks} and {@code getTaskById} are answered without the database. Changes
+ * to a board's columns themselves (creating, deleting or moving a task state) drop its view instead; they are
+ * rare, and the next read loads it again.
+ * <p>
+ * The least recently read views are evicted once their estimated size exceeds {@code max-size}, and views older
+ * than {@code max-age} are reloaded, which bounds how long changes committed through other nodes stay unseen.
+ * A board too large to fit at all is remembered for {@code max-age} and read from the database meanwhile, rather
+ * than loaded again on every read only to be thrown away.
+ * <p>
+ * With {@code consistency: strict} a view is used only if it reflects every board change committed through this
+ * node, as counted by {@link BoardVersions}, and no transaction changing the board is committing; otherwise the
+ * read goes to the database. With {@code eventual} the view is used as it is, and a read may briefly miss a change
+ * whose commit is still being applied.
+ */
+@Slf4j
+@Component
+public class BoardReadModel {
+
+    public enum Consistency {
+        STRICT,
+        EVENTUAL
+    }
+
+    private static final String SELECT_OWNER = """
+            SELECT u.username
+            FROM projects p
+            JOIN users u ON u.id = p.admin_id
+            WHERE p.id = :projectId
+            """;
+
+    private static final String SELECT_TASK_STATES = """
+            SELECT ts.id, ts.name, ts.left_task_state_id, r.id AS right_task_state_id, ts.created_at, ts.version
+            FROM task_states ts
+            LEFT JOIN task_states r ON r.left_task_state_id = ts.id
+            WHERE ts.project_id = :projectId
+            ORDER BY ts.id
+            """;
+
+    private static final String SELECT_TASKS = """
+            SELECT t.id, t.task_state_id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id,
+                   u.username AS assigned_user
+            FROM tasks t
+            JOIN task_states ts ON ts.id = t.task_state_id
+            LEFT JOIN users u ON u.id = t.assigned_user_id
+            WHERE ts.project_id = :projectId
+            ORDER BY t.created_at, t.id
+            """;
+
+    private static final Comparator<BoardView.Task> CREATION_ORDER = Comparator
+            .comparing(BoardView.Task::createdAt)
+            .thenComparing(BoardView.Task::id);
+
+    private record LoadKey(Long projectId, long boardVersion) {
+    }
+
+    private final SingleFlight<LoadKey, Optional<BoardView>> loads = new SingleFlight<>();
+    private final Map<Long, Integer> committing = new ConcurrentHashMap<>();
+    private final Map<Long, Long> oversized = new ConcurrentHashMap<>();
+    private final Map<Long, BoardView> views = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardVersions boardVersions;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Consistency consistency;
+    private final long maxBytes;
+    private final long maxAgeNanos;
+
+    public BoardReadModel(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          BoardVersions boardVersions,
+                          MeterRegistry meterRegistry,
+                          @Value("${task-tracker.read-model.enabled:true}") boolean enabled,
+                          @Value("${task-tracker.read-model.consistency:strict}") Consistency consistency,
+                          @Value("${task-tracker.read-model.max-size:64MB}") DataSize maxSize,
+                          @Value("${task-tracker.read-model.max-age:PT5M}") Duration maxAge) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.boardVersions = boardVersions;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.consistency = consistency;
+        this.maxBytes = maxSize.toBytes();
+        this.maxAgeNanos = maxAge.toNanos();
+
+        meterRegistry.gauge("task_tracker.read_model.bytes", this, BoardReadModel::usedBytes);
+    }
+
+    /**
+     * Returns the view of the board, loading it if needed; empty when the board has to be read from the database,
+     * either because it doesn't exist or because the view may be behind under strict consistency.
+     */
+    public Optional<BoardView> find(Long projectId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        if (consistency == Consistency.STRICT && committing.containsKey(projectId)) {
+            count("bypassed");
+            return Optional.empty();
+        }
+
+        if (isOversized(projectId)) {
+            count("oversized");
+            return Optional.empty();
+        }
+
+        long boardVersion = boardVersions.current(projectId);
+        BoardView view = get(projectId);
+        if (view != null && isCurrent(view, boardVersion)) {
+            count("hit");
+            return Optional.of(view);
+        }
+
+        count("loaded");
+        return loads.execute(new LoadKey(projectId, boardVersion), () -> load(projectId, boardVersion)).value();
+    }
+
+    /**
+     * Replaces the given columns and their tasks once the transaction commits. Call after the columns' task lists
+     * are final; they are read when the change is applied.
+     */
+    public void onTasksChanged(TaskStateEntity... taskStates) {
+        Long projectId = taskStates[0].getProject().getId();
+        if (contains(projectId)) {
+            Arrays.stream(taskStates).forEach(taskState -> Hibernate.initialize(taskState.getTasks()));
+        }
+
+        afterCommit(projectId, view -> view.withColumns(
+                Arrays.stream(taskStates).map(BoardReadModel::columnState).toList(),
+                boardVersions.current(projectId)));
+    }
+
+    /**
+     * Replaces one task once the transaction commits, for changes that leave the column's task list as it is.
+     */
+    public void onTaskChanged(TaskEntity task) {
+        Long projectId = task.getTaskState().getProject().getId();
+        afterCommit(projectId, view -> view.withTask(task(task), boardVersions.current(projectId)));
+    }
+
+    /**
+     * Drops the view once the transaction commits, for changes to the columns of the board or to the board itself.
+     */
+    public void onBoardRestructured(Long projectId) {
+        afterCommit(projectId, view -> Optional.empty());
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private boolean isCurrent(BoardView view, long boardVersion) {
+        if (System.nanoTime() - view.loadedAtNanos() > maxAgeNanos) {
+            return false;
+        }
+        return consistency == Consistency.EVENTUAL || view.boardVersion() == boardVersion;
+    }
+
+    /**
+     * Forgets a board once {@code max-age} has passed since it was found too large, since it may have shrunk.
+     */
+    private boolean isOversized(Long projectId) {
+        Long foundAtNanos = oversized.get(projectId);
+        if (foundAtNanos == null) {
+            return false;
+        }
+        if (System.nanoTime() - foundAtNanos > maxAgeNanos) {
+            oversized.remove(projectId, foundAtNanos);
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<BoardView> load(Long projectId, long boardVersion) {
+        Optional<BoardView> loaded = transactionTemplate.execute(status -> {
+            Map<String, Long> parameters = Map.of("projectId", projectId);
+            List<String> owners = jdbcTemplate.queryForList(SELECT_OWNER, parameters, String.class);
+            if (owners.isEmpty()) {
+                return Optional.empty();
+            }
+
+            Map<Long, List<Long>> taskIds = new HashMap<>();
+            Map<Long, BoardView.Task> tasks = new HashMap<>();
+            jdbcTemplate.query(SELECT_TASKS, parameters, rs -> {
+                BoardView.Task task = new BoardView.Task(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("assigned_user"),
+                        rs.getObject("left_task_id", Long.class),
+                        rs.getObject("right_task_id", Long.class),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getLong("version"));
+                tasks.put(task.id(), task);
+                taskIds.computeIfAbsent(rs.getLong("task_state_id"), id -> new ArrayList<>()).add(task.id());
+            });
+
+            Map<Long, BoardView.Column> columns = new LinkedHashMap<>();
+            jdbcTemplate.query(SELECT_TASK_STATES, parameters, rs -> {
+                Long id = rs.getLong("id");
+                columns.put(id, new BoardView.Column(
+                        id,
+                        rs.getString("name"),
+                        rs.getObject("left_task_state_id", Long.class),
+                        rs.getObject("right_task_state_id", Long.class),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getLong("version"),
+                        List.copyOf(taskIds.getOrDefault(id, List.of()))));
+            });
+
+            return Optional.of(new BoardView(projectId, owners.get(0), columns, tasks, boardVersion,
+                    System.nanoTime()));
+        });
+
+        loaded.ifPresent(this::install);
+        return loaded;
+    }
+
+    /**
+     * A view loaded while a change committed may or may not contain it, so it is kept only if no change committed
+     * since its load began; the reader that loaded it still uses it.
+     */
+    private synchronized void install(BoardView view) {
+        if (view.estimatedBytes() > maxBytes) {
+            log.debug("Project {} is too large for the read model: {} bytes", view.projectId(), view.estimatedBytes());
+            oversized.put(view.projectId(), view.loadedAtNanos());
+            return;
+        }
+        if (view.boardVersion() != boardVersions.current(view.projectId())) {
+            return;
+        }
+        put(view);
+    }
+
+    private synchronized BoardView get(Long projectId) {
+        return views.get(projectId);
+    }
+
+    private synchronized boolean contains(Long projectId) {
+        return views.containsKey(projectId);
+    }
+
+    private synchronized void put(BoardView view) {
+        remove(view.projectId());
+        views.put(view.projectId(), view);
+        usedBytes += view.estimatedBytes();
+
+        Iterator<BoardView> eldest = views.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().estimatedBytes();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void remove(Long projectId) {
+        BoardView removed = views.remove(projectId);
+        if (removed != null) {
+            usedBytes -= removed.estimatedBytes();
+        }
+    }
+
+    private synchronized void apply(Long projectId, Function<BoardView, Optional<BoardView>> update) {
+        BoardView view = views.get(projectId);
+        if (view == null) {
+            return;
+        }
+
+        Optional<BoardView> updated;
+        try {
+            updated = update.apply(view);
+        } catch (RuntimeException e) {
+            log.warn("Dropping the read model of project {}: the change could not be applied", projectId, e);
+            updated = Optional.empty();
+        }
+
+        remove(projectId);
+        updated.ifPresent(this::put);
+    }
+
+    private void afterCommit(Long projectId, Function<BoardView, Optional<BoardView>> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(projectId, update);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                started = true;
+                committing.merge(projectId, 1, Integer::sum);
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(projectId, update);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (started) {
+                    committing.computeIfPresent(projectId, (id, count) -> count > 1 ? count - 1 : null);
+                }
+            }
+        });
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("task_tracker.read_model.reads", "outcome", outcome).increment();
+    }
+
+    private static BoardView.ColumnState columnState(TaskStateEntity taskState) {
+        List<BoardView.Task> tasks = taskState.getTasks()
+                .stream()
+                .map(BoardReadModel::task)
+                .sorted(CREATION_ORDER)
+                .toList();
+
+        BoardView.Column column = new BoardView.Column(
+                taskState.getId(),
+                taskState.getName(),
+                taskState.getLeftTaskState().map(TaskStateEntity::getId).orElse(null),
+                taskState.getRightTaskState().map(TaskStateEntity::getId).orElse(null),
+                stored(taskState.getCreatedAt()),
+                taskState.getVersion(),
+                tasks.stream().map(BoardView.Task::id).toList());
+
+        return new BoardView.ColumnState(column, tasks);
+    }
+
+    private static BoardView.Task task(TaskEntity task) {
+        return new BoardView.Task(
+                task.getId(),
+                task.getName(),
+                task.getAssignedUser() != null ? task.getAssignedUser().getUsername() : null,
+                task.getLeftTask().map(TaskEntity::getId).orElse(null),
+                task.getRightTask().map(TaskEntity::getId).orElse(null),
+                stored(task.getCreatedAt()),
+                task.getVersion());
+    }
+
+    /**
+     * Entities created in this transaction still hold the clock's precision; reads from the database return
+     * microseconds.
+     */
+    private static Instant stored(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MICROS);
+    }
+}
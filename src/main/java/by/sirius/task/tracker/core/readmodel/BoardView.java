@@ -0,0 +1,227 @@
+package by.sirius.task.tracker.core.readmodel;
+
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory copy of one board: its task states by id, each with the ids of its tasks ordered by
+ * creation, and the tasks themselves. Updates return a new view, so readers never see one half applied.
+ * <p>
+ * Updates are version-checked. Every change of a column's tasks increments the task state's version and every
+ * change of a task increments the task's, so an update carrying an older version than the view holds comes from
+ * a transaction that committed earlier and is ignored. An update for a column or task the view doesn't know
+ * returns empty: the caller drops the view rather than guess.
+ */
+public final class BoardView {
+
+    private static final long VIEW_BYTES = 256;
+    private static final long COLUMN_BYTES = 160;
+    private static final long TASK_BYTES = 200;
+
+    public record Column(Long id,
+                         String name,
+                         Long leftTaskStateId,
+                         Long rightTaskStateId,
+                         Instant createdAt,
+                         Long version,
+                         List<Long> taskIds) {
+    }
+
+    public record Task(Long id,
+                       String name,
+                       String assignedUser,
+                       Long leftTaskId,
+                       Long rightTaskId,
+                       Instant createdAt,
+                       Long version) {
+    }
+
+    /**
+     * A column with its tasks as they were when a transaction committed.
+     */
+    public record ColumnState(Column column, List<Task> tasks) {
+    }
+
+    private final Long projectId;
+    private final String owner;
+    private final Map<Long, Column> columns;
+    private final Map<Long, Task> tasks;
+    private final long boardVersion;
+    private final long loadedAtNanos;
+    private final long estimatedBytes;
+
+    public BoardView(Long projectId,
+                     String owner,
+                     Map<Long, Column> columns,
+                     Map<Long, Task> tasks,
+                     long boardVersion,
+                     long loadedAtNanos) {
+        this.projectId = projectId;
+        this.owner = owner;
+        this.columns = Collections.unmodifiableMap(columns);
+        this.tasks = Collections.unmodifiableMap(tasks);
+        this.boardVersion = boardVersion;
+        this.loadedAtNanos = loadedAtNanos;
+        this.estimatedBytes = estimateBytes(columns.values(), tasks.values());
+    }
+
+    public Long projectId() {
+        return projectId;
+    }
+
+    /**
+     * The count of local board changes this view reflects, see {@code BoardVersions}.
+     */
+    public long boardVersion() {
+        return boardVersion;
+    }
+
+    public long loadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public boolean isOwnedBy(String username) {
+        return owner.equals(username);
+    }
+
+    public List<TaskStateDto> taskStates(SparseFields fields) {
+        return columns.values()
+                .stream()
+                .map(column -> taskStateDto(column, fields))
+                .collect(Collectors.toList());
+    }
+
+    public Optional<List<TaskDto>> tasks(Long taskStateId, SparseFields fields) {
+        return Optional.ofNullable(columns.get(taskStateId))
+                .map(column -> taskDtos(column, fields));
+    }
+
+    /**
+     * Empty unless the task is in the given column, so callers can fall back to the checks of the database path.
+     */
+    public Optional<TaskDto> task(Long taskStateId, Long taskId, SparseFields fields) {
+        Column column = columns.get(taskStateId);
+        if (column == null || !column.taskIds().contains(taskId)) {
+            return Optional.empty();
+        }
+        return Optional.of(taskDto(tasks.get(taskId), fields));
+    }
+
+    public Optional<BoardView> withColumns(List<ColumnState> changes, long newBoardVersion) {
+        Map<Long, Column> newColumns = new LinkedHashMap<>(columns);
+        Map<Long, Task> newTasks = new HashMap<>(tasks);
+
+        List<ColumnState> applied = new ArrayList<>(changes.size());
+        for (ColumnState change : changes) {
+            Column current = columns.get(change.column().id());
+            if (current == null) {
+                return Optional.empty();
+            }
+            if (change.column().version() >= current.version()) {
+                current.taskIds().forEach(newTasks::remove);
+                applied.add(change);
+            }
+        }
+
+        for (ColumnState change : applied) {
+            newColumns.put(change.column().id(), change.column());
+            for (Task task : change.tasks()) {
+                Task known = tasks.get(task.id());
+                newTasks.put(task.id(), known != null && known.version() > task.version() ? known : task);
+            }
+        }
+
+        return Optional.of(new BoardView(projectId, owner, newColumns, retainListed(newColumns, newTasks),
+                newBoardVersion, loadedAtNanos));
+    }
+
+    public Optional<BoardView> withTask(Task task, long newBoardVersion) {
+        Task known = tasks.get(task.id());
+        if (known == null) {
+            return Optional.empty();
+        }
+        if (task.version() < known.version()) {
+            return Optional.of(withBoardVersion(newBoardVersion));
+        }
+
+        Map<Long, Task> newTasks = new HashMap<>(tasks);
+        newTasks.put(task.id(), task);
+        return Optional.of(new BoardView(projectId, owner, columns, newTasks, newBoardVersion, loadedAtNanos));
+    }
+
+    public BoardView withBoardVersion(long newBoardVersion) {
+        return new BoardView(projectId, owner, columns, tasks, newBoardVersion, loadedAtNanos);
+    }
+
+    /**
+     * Drops the tasks no column lists any more, such as deleted ones.
+     */
+    private static Map<Long, Task> retainListed(Map<Long, Column> columns, Map<Long, Task> tasks) {
+        Map<Long, Task> listed = new HashMap<>(tasks.size());
+        for (Column column : columns.values()) {
+            for (Long taskId : column.taskIds()) {
+                Task task = tasks.get(taskId);
+                if (task != null) {
+                    listed.put(taskId, task);
+                }
+            }
+        }
+        return listed;
+    }
+
+    private TaskStateDto taskStateDto(Column column, SparseFields fields) {
+        return TaskStateDto.builder()
+                .id(column.id())
+                .name(column.name())
+                .leftTaskStateId(column.leftTaskStateId())
+                .rightTaskStateId(column.rightTaskStateId())
+                .createdAt(column.createdAt())
+                .version(column.version())
+                .tasks(fields.includesTasks() ? taskDtos(column, fields) : null)
+                .build();
+    }
+
+    private List<TaskDto> taskDtos(Column column, SparseFields fields) {
+        List<TaskDto> taskDtos = new ArrayList<>(column.taskIds().size());
+        for (Long taskId : column.taskIds()) {
+            Task task = tasks.get(taskId);
+            if (task != null) {
+                taskDtos.add(taskDto(task, fields));
+            }
+        }
+        return taskDtos;
+    }
+
+    private static TaskDto taskDto(Task task, SparseFields fields) {
+        return TaskDto.builder()
+                .id(task.id())
+                .name(task.name())
+                .assignedUser(fields.includes(SparseFields.Level.TASK, "assigned_user") ? task.assignedUser() : null)
+                .leftTaskId(task.leftTaskId())
+                .rightTaskId(task.rightTaskId())
+                .createdAt(task.createdAt())
+                .version(task.version())
+                .build();
+    }
+
+    private static long estimateBytes(Collection<Column> columns, Collection<Task> tasks) {
+        long bytes = VIEW_BYTES;
+        for (Column column : columns) {
+            bytes += COLUMN_BYTES + 2L * column.name().length() + 16L * column.taskIds().size();
+        }
+        for (Task task : tasks) {
+            bytes += TASK_BYTES + 2L * task.name().length()
+                    + (task.assignedUser() != null ? 2L * task.assignedUser().length() : 0);
+        }
+        return bytes;
+    }
+}
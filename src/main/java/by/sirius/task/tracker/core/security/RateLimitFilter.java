@@ -0,0 +1,61 @@
+package by.sirius.task.tracker.core.security;
+
+import by.sirius.task.tracker.api.exceptions.ErrorDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies the {@link RateLimiter} to authenticated requests. Refused requests get 429 and a {@code Retry-After}
+ * in whole seconds. Not a bean on purpose: it's only part of the security filter chain, registering it as a
+ * servlet filter as well would charge every request twice.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Optional<Duration> retryAfter = rateLimiter.acquire(authentication.getName(), request.getMethod(), path);
+        if (retryAfter.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long seconds = Math.max(1, (retryAfter.get().toMillis() + 999) / 1000);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .errorDescription(String.format("Rate limit exceeded, retry in %d s", seconds))
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorDto);
+    }
+}
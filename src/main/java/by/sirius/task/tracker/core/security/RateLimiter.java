@@ -0,0 +1,150 @@
+package by.sirius.task.tracker.core.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets per user and per project. A request costs the tokens of the first configured route it matches,
+ * or the default cost, and must be granted by both the bucket of its user and, for routes under
+ * {@code /api/projects/{project_id}}, the bucket of that project. Board reads rebuild the whole board and are
+ * configured to cost more.
+ * <p>
+ * Routes are configured as {@code METHOD pattern=cost} entries, for example
+ * {@code GET /api/projects/{project_id}=10}.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final PathPattern PROJECT_PATH = PathPatternParser.defaultInstance.parse("/api/projects/{project_id}/**");
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final List<RouteCost> routeCosts;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long defaultCost;
+    private final long userCapacity;
+    private final double userRefillPerSecond;
+    private final long projectCapacity;
+    private final double projectRefillPerSecond;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${task-tracker.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${task-tracker.rate-limit.default-cost:1}") long defaultCost,
+                       @Value("${task-tracker.rate-limit.route-costs:}") List<String> routeCosts,
+                       @Value("${task-tracker.rate-limit.user.capacity:120}") long userCapacity,
+                       @Value("${task-tracker.rate-limit.user.refill-per-second:20}") double userRefillPerSecond,
+                       @Value("${task-tracker.rate-limit.project.capacity:300}") long projectCapacity,
+                       @Value("${task-tracker.rate-limit.project.refill-per-second:50}") double projectRefillPerSecond) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultCost = defaultCost;
+        this.routeCosts = parseRouteCosts(routeCosts);
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userRefillPerSecond;
+        this.projectCapacity = projectCapacity;
+        this.projectRefillPerSecond = projectRefillPerSecond;
+
+        Gauge.builder("task_tracker.rate_limit.buckets", buckets, Map::size)
+                .description("Buckets that aren't full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Charges a request. Returns how long to wait before retrying when it's refused.
+     */
+    public Optional<Duration> acquire(String username, String method, String path) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        long cost = costOf(method, pathContainer);
+        long now = System.nanoTime();
+
+        TokenBucket userBucket = buckets.computeIfAbsent("user:" + username,
+                key -> new TokenBucket(userCapacity, userRefillPerSecond, now));
+        long userWait = userBucket.tryConsume(cost, now);
+        if (userWait > 0) {
+            return Optional.of(reject("user", userWait));
+        }
+
+        Optional<String> projectId = projectIdOf(pathContainer);
+        if (projectId.isPresent()) {
+            TokenBucket projectBucket = buckets.computeIfAbsent("project:" + projectId.get(),
+                    key -> new TokenBucket(projectCapacity, projectRefillPerSecond, now));
+            long projectWait = projectBucket.tryConsume(cost, now);
+            if (projectWait > 0) {
+                userBucket.refund(cost, now);
+                return Optional.of(reject("project", projectWait));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Drops full buckets, bounding the map by the users and projects active within one refill period.
+     */
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private Duration reject(String bucket, long waitNanos) {
+        meterRegistry.counter("task_tracker.rate_limit.rejected", "bucket", bucket).increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    private long costOf(String method, PathContainer path) {
+        for (RouteCost routeCost : routeCosts) {
+            if (routeCost.method().equals(method) && routeCost.pattern().matches(path)) {
+                return routeCost.cost();
+            }
+        }
+        return defaultCost;
+    }
+
+    private static Optional<String> projectIdOf(PathContainer path) {
+        PathPattern.PathMatchInfo matchInfo = PROJECT_PATH.matchAndExtract(path);
+        return matchInfo == null ? Optional.empty() : Optional.ofNullable(matchInfo.getUriVariables().get("project_id"));
+    }
+
+    static List<RouteCost> parseRouteCosts(List<String> entries) {
+        List<RouteCost> routeCosts = new ArrayList<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            int space = trimmed.indexOf(' ');
+            int equals = trimmed.lastIndexOf('=');
+            if (space < 0 || equals < space) {
+                throw new IllegalArgumentException("Route cost must look like 'GET /api/path=cost': " + trimmed);
+            }
+
+            routeCosts.add(new RouteCost(
+                    trimmed.substring(0, space).toUpperCase(),
+                    PathPatternParser.defaultInstance.parse(trimmed.substring(space + 1, equals).trim()),
+                    Long.parseLong(trimmed.substring(equals + 1).trim())));
+        }
+        return routeCosts;
+    }
+
+    record RouteCost(String method, PathPattern pattern, long cost) {
+    }
+}
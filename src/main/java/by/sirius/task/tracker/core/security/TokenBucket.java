@@ -0,0 +1,54 @@
+package by.sirius.task.tracker.core.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form. Instead of a token count and a refill timestamp, the bucket keeps a
+ * single theoretical arrival time: the instant at which it would be full again. Taking {@code n} tokens moves it
+ * {@code n} emission intervals ahead, and a request is refused when that would put it more than a full bucket
+ * ahead of now. One compare-and-set per request, no refill bookkeeping.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long capacity;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long capacity, double refillPerSecond, long now) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.capacity = capacity;
+        this.burstNanos = capacity * emissionIntervalNanos;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes {@code cost} tokens. Returns 0 when they were taken, otherwise the nanoseconds until they would be.
+     */
+    long tryConsume(long cost, long now) {
+        long increment = Math.min(cost, capacity) * emissionIntervalNanos;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + increment;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    void refund(long cost, long now) {
+        long increment = Math.min(cost, capacity) * emissionIntervalNanos;
+        theoreticalArrival.accumulateAndGet(increment, (current, delta) -> Math.max(now, current - delta));
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped.
+     */
+    boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
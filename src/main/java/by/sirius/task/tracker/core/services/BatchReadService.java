@@ -0,0 +1,274 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.BatchReadOperationDto;
+import by.sirius.task.tracker.api.dto.BatchReadResponseDto;
+import by.sirius.task.tracker.api.dto.BatchReadResultDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.CustomBaseException;
+import by.sirius.task.tracker.api.exceptions.ErrorDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.fields.SparseFieldsParser;
+import by.sirius.task.tracker.core.metrics.QueryCounter;
+import by.sirius.task.tracker.core.metrics.QueryStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs the reads a screen needs in one request. Authentication happens once for the whole batch, and each
+ * project's permission is checked once on the request thread, however many operations target it. The permitted
+ * operations then run in parallel, each on its own virtual thread and in its own read-only transaction, as the
+ * caller.
+ * <p>
+ * Operations fail on their own: a denied or failed operation gets its status and error in the combined response
+ * and doesn't affect the others. Operations still running after {@code timeout} answer 504.
+ */
+@Slf4j
+@Service
+@Timed(value = "task_tracker.service", histogram = true)
+public class BatchReadService implements DisposableBean {
+
+    private static final String READ = "READ";
+    private static final String WRITE = "WRITE";
+
+    private record ProjectPermission(Long projectId, String permissionType) {
+    }
+
+    private record Outcome(BatchReadResultDto result, QueryStatistics statistics) {
+    }
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("batch-read-", 0).factory());
+
+    private final ProjectService projectService;
+    private final TaskStateService taskStateService;
+    private final TaskService taskService;
+    private final InvitationService invitationService;
+    private final UserService userService;
+    private final ProjectSecurityService projectSecurityService;
+    private final SparseFieldsParser sparseFieldsParser;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+    private final Duration timeout;
+
+    public BatchReadService(ProjectService projectService,
+                            TaskStateService taskStateService,
+                            TaskService taskService,
+                            InvitationService invitationService,
+                            UserService userService,
+                            ProjectSecurityService projectSecurityService,
+                            SparseFieldsParser sparseFieldsParser,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${task-tracker.batch.max-operations:20}") int maxOperations,
+                            @Value("${task-tracker.batch.timeout:PT10S}") Duration timeout) {
+        this.projectService = projectService;
+        this.taskStateService = taskStateService;
+        this.taskService = taskService;
+        this.invitationService = invitationService;
+        this.userService = userService;
+        this.projectSecurityService = projectSecurityService;
+        this.sparseFieldsParser = sparseFieldsParser;
+        this.objectMapper = objectMapper;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.maxOperations = maxOperations;
+        this.timeout = timeout;
+    }
+
+    public BatchReadResponseDto read(List<BatchReadOperationDto> operations, String username) {
+        log.debug("Running batch of {} reads for user: {}", operations.size(), username);
+        validate(operations);
+
+        Map<ProjectPermission, Optional<CustomBaseException>> permissions = new HashMap<>();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        List<Future<Outcome>> futures = new ArrayList<>(operations.size());
+        for (BatchReadOperationDto operation : operations) {
+            Optional<CustomBaseException> denied = permissionOf(operation)
+                    .flatMap(permission -> permissions.computeIfAbsent(permission, this::check));
+
+            futures.add(denied.isPresent()
+                    ? CompletableFuture.completedFuture(new Outcome(failure(operation, denied.get()), QueryStatistics.NONE))
+                    : executor.submit(() -> run(operation, username, securityContext)));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<BatchReadResultDto> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            Outcome outcome = await(operations.get(i), futures.get(i), deadline);
+            QueryCounter.record(outcome.statistics().statements(), outcome.statistics().elapsedMillis());
+            results.add(outcome.result());
+        }
+
+        return BatchReadResponseDto.builder()
+                .results(results)
+                .build();
+    }
+
+    private void validate(List<BatchReadOperationDto> operations) {
+        if (operations.size() > maxOperations) {
+            throw new BadRequestException(
+                    String.format("A batch can have at most %d operations", maxOperations), HttpStatus.BAD_REQUEST);
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (BatchReadOperationDto operation : operations) {
+            if (!ids.add(operation.getId())) {
+                throw new BadRequestException(
+                        String.format("Operation id \"%s\" is used more than once", operation.getId()),
+                        HttpStatus.BAD_REQUEST);
+            }
+
+            boolean needsProject = operation.getType() != BatchReadOperationDto.Type.ASSIGNED_TASKS
+                    && operation.getType() != BatchReadOperationDto.Type.INVITATIONS;
+            if (needsProject && operation.getProjectId() == null) {
+                throw new BadRequestException(
+                        String.format("Operation \"%s\" needs a project_id", operation.getId()), HttpStatus.BAD_REQUEST);
+            }
+            if (operation.getType() == BatchReadOperationDto.Type.TASKS && operation.getTaskStateId() == null) {
+                throw new BadRequestException(
+                        String.format("Operation \"%s\" needs a task_state_id", operation.getId()), HttpStatus.BAD_REQUEST);
+            }
+        }
+    }
+
+    /**
+     * The permission the matching endpoint requires; reads of the caller's own data need none.
+     */
+    private static Optional<ProjectPermission> permissionOf(BatchReadOperationDto operation) {
+        return switch (operation.getType()) {
+            case PROJECT, TASK_STATES, TASKS -> Optional.of(new ProjectPermission(operation.getProjectId(), READ));
+            case MEMBERS -> Optional.of(new ProjectPermission(operation.getProjectId(), WRITE));
+            case ASSIGNED_TASKS, INVITATIONS -> Optional.empty();
+        };
+    }
+
+    private Optional<CustomBaseException> check(ProjectPermission permission) {
+        try {
+            if (projectSecurityService.hasProjectPermission(permission.projectId(), permission.permissionType())) {
+                return Optional.empty();
+            }
+            return Optional.of(new BadRequestException("No permissions", HttpStatus.FORBIDDEN));
+        } catch (CustomBaseException e) {
+            return Optional.of(e);
+        }
+    }
+
+    private Outcome run(BatchReadOperationDto operation, String username, SecurityContext securityContext) {
+        SecurityContextHolder.setContext(securityContext);
+        QueryCounter.start();
+        try {
+            Object body = transactionTemplate.execute(status -> execute(operation, username));
+            return new Outcome(BatchReadResultDto.builder()
+                    .id(operation.getId())
+                    .status(HttpStatus.OK.value())
+                    .body(body)
+                    .build(), QueryCounter.current());
+        } catch (CustomBaseException e) {
+            return new Outcome(failure(operation, e), QueryCounter.current());
+        } catch (RuntimeException e) {
+            log.error("Batch operation {} of user {} failed", operation.getType(), username, e);
+            return new Outcome(failure(operation, HttpStatus.INTERNAL_SERVER_ERROR, "Operation failed"),
+                    QueryCounter.current());
+        } finally {
+            QueryCounter.stop();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private Object execute(BatchReadOperationDto operation, String username) {
+        Long projectId = operation.getProjectId();
+
+        return switch (operation.getType()) {
+            case PROJECT -> {
+                SparseFields fields = sparseFieldsParser.parse(SparseFields.Level.PROJECT, operation.getFields());
+                yield filter(projectService.getProjectById(projectId, username, fields), fields);
+            }
+            case TASK_STATES -> {
+                SparseFields fields = sparseFieldsParser.parse(SparseFields.Level.TASK_STATE, operation.getFields());
+                yield filter(taskStateService.getTaskStates(projectId, username, fields), fields);
+            }
+            case TASKS -> {
+                SparseFields fields = sparseFieldsParser.parse(SparseFields.Level.TASK, operation.getFields());
+                yield filter(taskService.getTasks(projectId, operation.getTaskStateId(), fields), fields);
+            }
+            case ASSIGNED_TASKS -> taskService.getAssignedTasks(username);
+            case INVITATIONS -> invitationService.getUserInvitations(username);
+            case MEMBERS -> userService.getUsers(projectId);
+        };
+    }
+
+    /**
+     * Field selections differ between operations, so a selected body is written to a tree with its own filters
+     * rather than sharing the filters of the combined response.
+     */
+    private Object filter(Object body, SparseFields fields) {
+        if (fields == SparseFields.ALL) {
+            return body;
+        }
+
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            objectMapper.writer(fields.filters()).writeValue(buffer, body);
+            return objectMapper.readTree(buffer.asParser());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Outcome await(BatchReadOperationDto operation, Future<Outcome> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return new Outcome(failure(operation, HttpStatus.GATEWAY_TIMEOUT, "Operation timed out"),
+                    QueryStatistics.NONE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new Outcome(failure(operation, HttpStatus.SERVICE_UNAVAILABLE, "Operation interrupted"),
+                    QueryStatistics.NONE);
+        } catch (ExecutionException e) {
+            return new Outcome(failure(operation, HttpStatus.INTERNAL_SERVER_ERROR, "Operation failed"),
+                    QueryStatistics.NONE);
+        }
+    }
+
+    private static BatchReadResultDto failure(BatchReadOperationDto operation, CustomBaseException e) {
+        return failure(operation, e.getStatus(), e.getMessage());
+    }
+
+    private static BatchReadResultDto failure(BatchReadOperationDto operation, HttpStatus status, String message) {
+        return BatchReadResultDto.builder()
+                .id(operation.getId())
+                .status(status.value())
+                .error(ErrorDto.builder()
+                        .error(status.getReasonPhrase())
+                        .errorDescription(message)
+                        .build())
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,235 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.BoardAtDto;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.core.services.helpers.BoardOrdering;
+import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.snapshots.BoardReplay;
+import by.sirius.task.tracker.core.snapshots.BoardSnapshot;
+import by.sirius.task.tracker.store.entities.*;
+import by.sirius.task.tracker.store.projections.TaskFieldValueView;
+import by.sirius.task.tracker.store.repositories.BoardSnapshotRepository;
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import by.sirius.task.tracker.store.repositories.TaskRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reconstructs a project board as it was at a past moment: the latest snapshot taken no later than that
+ * moment is loaded and only the history rows recorded after it are replayed. Task names and assignees are
+ * resolved separately from the first change of each field after the requested moment.
+ * <p>
+ * History ids don't follow commit order, since ids are allocated in blocks and transactions commit in any order,
+ * so a snapshot is placed in the history by time. A transaction committing after the snapshot stamped its rows
+ * at most {@code commit-margin} before the snapshot began, so the rows from {@code historyFrom}, the start minus
+ * that margin, are replayed, except those the snapshot lists as already reflected.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class BoardSnapshotService {
+
+    private static final String NAME_FIELD = "name";
+    private static final String ASSIGNED_USER_FIELD = "assigned user";
+
+    private final ObjectMapper objectMapper;
+    private final ServiceHelper serviceHelper;
+    private final TaskRepository taskRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final BoardSnapshotRepository boardSnapshotRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${task-tracker.board-snapshots.commit-margin:PT5M}")
+    private Duration commitMargin;
+
+    /**
+     * Stores a snapshot of the current board unless nothing was recorded in the task history since the
+     * previous one. The board and the ids of the rows it reflects are read in one repeatable-read transaction,
+     * so they describe the same moment.
+     */
+    public void takeSnapshot(Long projectId) {
+        Instant startedAt = Instant.now();
+        Instant historyFrom = startedAt.minus(commitMargin);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transactionTemplate.executeWithoutResult(status -> {
+            ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
+
+            boolean unchanged = boardSnapshotRepository.findFirstByProjectIdOrderByTakenAtDesc(projectId)
+                    .map(snapshot -> read(snapshot.getPayload()).historyIds().containsAll(
+                            taskHistoryRepository.findBoardEventIdsSince(projectId, snapshot.getHistoryFrom())))
+                    .orElse(false);
+            if (unchanged) {
+                return;
+            }
+
+            List<BoardSnapshot.Column> columns = BoardOrdering.orderTaskStates(project.getTaskStates())
+                    .stream()
+                    .map(taskState -> new BoardSnapshot.Column(
+                            taskState.getId(),
+                            taskState.getName(),
+                            BoardOrdering.orderTasks(taskState.getTasks()).stream().map(TaskEntity::getId).toList()))
+                    .toList();
+            List<Long> historyIds = taskHistoryRepository.findBoardEventIdsSince(projectId, historyFrom);
+
+            boardSnapshotRepository.save(BoardSnapshotEntity.builder()
+                    .projectId(projectId)
+                    .takenAt(startedAt)
+                    .historyFrom(historyFrom)
+                    .payload(write(new BoardSnapshot(columns, historyIds)))
+                    .build());
+
+            log.debug("Took board snapshot of project ID: {} with history from {}", projectId, historyFrom);
+        });
+    }
+
+    @Transactional
+    public BoardAtDto getBoardAt(Long projectId, Instant at) {
+        log.debug("Reconstructing board of project ID: {} at {}", projectId, at);
+
+        if (at.isAfter(Instant.now())) {
+            throw new BadRequestException("Board can't be reconstructed for a future moment", HttpStatus.BAD_REQUEST);
+        }
+
+        ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
+
+        Optional<BoardSnapshotEntity> optionalSnapshot = boardSnapshotRepository
+                .findFirstByProjectIdAndTakenAtLessThanEqualOrderByTakenAtDesc(projectId, at);
+
+        BoardSnapshot snapshot = optionalSnapshot
+                .map(snapshotEntity -> read(snapshotEntity.getPayload()))
+                .orElseGet(BoardSnapshot::empty);
+        BoardReplay replay = new BoardReplay(snapshot);
+
+        Set<Long> reflected = new HashSet<>(snapshot.historyIds());
+        Instant from = optionalSnapshot.map(BoardSnapshotEntity::getHistoryFrom).orElse(Instant.EPOCH);
+        taskHistoryRepository.findBoardEvents(projectId, from, at)
+                .stream()
+                .filter(event -> !reflected.contains(event.getId()))
+                .forEach(replay::apply);
+
+        BoardSnapshot board = replay.toSnapshot();
+
+        List<Long> taskIds = board.columns()
+                .stream()
+                .flatMap(column -> column.taskIds().stream())
+                .toList();
+
+        return BoardAtDto.builder()
+                .projectId(projectId)
+                .at(at)
+                .snapshotTakenAt(optionalSnapshot.map(BoardSnapshotEntity::getTakenAt).orElse(null))
+                .replayedEvents(replay.getAppliedEvents())
+                .taskStates(makeTaskStateDtos(project, board, resolveTasks(taskIds, at)))
+                .build();
+    }
+
+    @Transactional
+    public void removeOrphaned() {
+        int removed = boardSnapshotRepository.deleteOrphaned();
+        if (removed > 0) {
+            log.info("Removed {} board snapshots of deleted projects", removed);
+        }
+    }
+
+    private Map<Long, TaskDto> resolveTasks(List<Long> taskIds, Instant at) {
+        if (taskIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, TaskDto> tasks = new HashMap<>();
+        taskRepository.findAllById(taskIds).forEach(task -> tasks.put(task.getId(), TaskDto.builder()
+                .id(task.getId())
+                .name(task.getName())
+                .assignedUser(Optional.ofNullable(task.getAssignedUser()).map(UserEntity::getUsername).orElse(null))
+                .createdAt(task.getCreatedAt())
+                .build()));
+
+        for (TaskFieldValueView value : taskHistoryRepository
+                .findValuesAt(taskIds, List.of(NAME_FIELD, ASSIGNED_USER_FIELD), at)) {
+            TaskDto task = tasks.get(value.getTaskId());
+            if (task == null) {
+                continue;
+            }
+            if (NAME_FIELD.equals(value.getFieldName())) {
+                task.setName(value.getValue());
+            } else {
+                task.setAssignedUser(value.getValue());
+            }
+        }
+
+        return tasks;
+    }
+
+    private static List<TaskStateDto> makeTaskStateDtos(ProjectEntity project,
+                                                        BoardSnapshot board,
+                                                        Map<Long, TaskDto> tasks) {
+        Map<Long, TaskStateEntity> currentTaskStates = project.getTaskStates()
+                .stream()
+                .collect(Collectors.toMap(TaskStateEntity::getId, Function.identity()));
+
+        List<TaskStateDto> taskStates = new ArrayList<>(board.columns().size());
+
+        for (int i = 0; i < board.columns().size(); i++) {
+            BoardSnapshot.Column column = board.columns().get(i);
+
+            List<TaskDto> columnTasks = column.taskIds()
+                    .stream()
+                    .map(taskId -> tasks.getOrDefault(taskId, TaskDto.builder().id(taskId).build()))
+                    .toList();
+
+            for (int j = 0; j < columnTasks.size(); j++) {
+                columnTasks.get(j).setLeftTaskId(j > 0 ? columnTasks.get(j - 1).getId() : null);
+                columnTasks.get(j).setRightTaskId(j < columnTasks.size() - 1 ? columnTasks.get(j + 1).getId() : null);
+            }
+
+            taskStates.add(TaskStateDto.builder()
+                    .id(column.id())
+                    .name(column.name())
+                    .leftTaskStateId(i > 0 ? board.columns().get(i - 1).id() : null)
+                    .rightTaskStateId(i < board.columns().size() - 1 ? board.columns().get(i + 1).id() : null)
+                    .createdAt(Optional.ofNullable(column.id())
+                            .map(currentTaskStates::get)
+                            .map(TaskStateEntity::getCreatedAt)
+                            .orElse(null))
+                    .tasks(columnTasks)
+                    .build());
+        }
+
+        return taskStates;
+    }
+
+    private String write(BoardSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write board snapshot", e);
+        }
+    }
+
+    private BoardSnapshot read(String payload) {
+        try {
+            return objectMapper.readValue(payload, BoardSnapshot.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read board snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.BoardStatisticsDto;
+import by.sirius.task.tracker.store.entities.*;
+import by.sirius.task.tracker.store.projections.GroupCountView;
+import by.sirius.task.tracker.store.repositories.BoardStatisticRepository;
+import by.sirius.task.tracker.store.repositories.BoardStatisticsReconciliationRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains per-project task counters. The mutation hooks are called from inside the transactions of
+ * {@link TaskService} and {@link TaskStateService}, so the counters commit or roll back together with
+ * the change they describe. {@link #reconcile(Long)} recomputes the counters from the tasks table.
+ * <p>
+ * Only the counters of a reconciled project are complete, see {@link BoardStatisticsReconciliationEntity}. Until
+ * then reads count the tasks directly, and the first mutation reconciles the project instead of applying a delta.
+ * <p>
+ * Deltas and reconciliations of a project are serialized by the row lock on its marker, so a recount never
+ * replaces counters a concurrent delta has just changed.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class BoardStatisticsService {
+
+    private static final Long UNASSIGNED_ID = 0L;
+
+    private final UserRepository userRepository;
+    private final BoardStatisticRepository boardStatisticRepository;
+    private final BoardStatisticsReconciliationRepository reconciliationRepository;
+
+    /**
+     * Projects whose reconciliation marker is committed. Markers stay until the project is deleted.
+     */
+    private final Set<Long> reconciledProjects = ConcurrentHashMap.newKeySet();
+
+    @Transactional
+    public BoardStatisticsDto getStatistics(Long projectId) {
+        log.debug("Fetching board statistics for project ID: {}", projectId);
+
+        List<BoardStatisticEntity> statistics = isReconciled(projectId)
+                ? boardStatisticRepository.findAllByProjectId(projectId)
+                : countStatistics(projectId);
+
+        Map<Long, Long> tasksByTaskState = new LinkedHashMap<>();
+        Map<Long, Long> tasksByAssigneeId = new HashMap<>();
+        long unassigned = 0;
+
+        for (BoardStatisticEntity statistic : statistics) {
+            switch (statistic.getDimension()) {
+                case TASK_STATE -> tasksByTaskState.put(statistic.getDimensionId(), statistic.getTaskCount());
+                case ASSIGNEE -> tasksByAssigneeId.put(statistic.getDimensionId(), statistic.getTaskCount());
+                case UNASSIGNED -> unassigned = statistic.getTaskCount();
+            }
+        }
+
+        Map<String, Long> tasksByAssignee = new TreeMap<>();
+        userRepository.findAllById(tasksByAssigneeId.keySet())
+                .forEach(user -> tasksByAssignee.put(user.getUsername(), tasksByAssigneeId.get(user.getId())));
+
+        return BoardStatisticsDto.builder()
+                .projectId(projectId)
+                .totalTasks(tasksByTaskState.values().stream().mapToLong(Long::longValue).sum())
+                .unassignedTasks(unassigned)
+                .tasksByTaskState(tasksByTaskState)
+                .tasksByAssignee(tasksByAssignee)
+                .build();
+    }
+
+    /**
+     * A new project has no tasks, so its empty counters are already complete.
+     */
+    public void onProjectCreated(ProjectEntity project) {
+        reconciliationRepository.markReconciled(project.getId());
+        rememberReconciled(project.getId());
+    }
+
+    public void onTaskCreated(TaskEntity task) {
+        Long projectId = task.getTaskState().getProject().getId();
+        if (reconcileIfFirstChange(projectId)) {
+            return;
+        }
+
+        increment(projectId, BoardStatisticDimension.TASK_STATE, task.getTaskState().getId(), 1);
+        incrementAssignee(projectId, task.getAssignedUser(), 1);
+    }
+
+    public void onTaskDeleted(TaskEntity task) {
+        Long projectId = task.getTaskState().getProject().getId();
+        if (reconcileIfFirstChange(projectId)) {
+            return;
+        }
+
+        increment(projectId, BoardStatisticDimension.TASK_STATE, task.getTaskState().getId(), -1);
+        incrementAssignee(projectId, task.getAssignedUser(), -1);
+    }
+
+    public void onTaskMoved(TaskStateEntity from, TaskStateEntity to) {
+        Long projectId = to.getProject().getId();
+        if (reconcileIfFirstChange(projectId)) {
+            return;
+        }
+
+        increment(projectId, BoardStatisticDimension.TASK_STATE, from.getId(), -1);
+        increment(projectId, BoardStatisticDimension.TASK_STATE, to.getId(), 1);
+    }
+
+    public void onTaskAssigned(TaskEntity task, UserEntity previousAssignee) {
+        if (Objects.equals(previousAssignee, task.getAssignedUser())) {
+            return;
+        }
+
+        Long projectId = task.getTaskState().getProject().getId();
+        if (reconcileIfFirstChange(projectId)) {
+            return;
+        }
+
+        incrementAssignee(projectId, previousAssignee, -1);
+        incrementAssignee(projectId, task.getAssignedUser(), 1);
+    }
+
+    /**
+     * Task states are removed together with their tasks, so the affected assignee counters are unknown
+     * without a scan; the project is recomputed instead.
+     */
+    public void onTaskStateDeleted(TaskStateEntity taskState) {
+        reconcile(taskState.getProject().getId());
+    }
+
+    /**
+     * Writes the marker first: the upsert locks its row, or waits for the transaction holding it, so the tasks
+     * are counted only once no delta of the project is pending. A delta that commits later waits for this
+     * transaction and applies on top of the recount.
+     */
+    @Transactional
+    public List<BoardStatisticEntity> reconcile(Long projectId) {
+        log.debug("Reconciling board statistics for project ID: {}", projectId);
+
+        reconciliationRepository.markReconciled(projectId);
+        boardStatisticRepository.flush();
+
+        List<BoardStatisticEntity> statistics = countStatistics(projectId);
+
+        boardStatisticRepository.deleteAllByProjectId(projectId);
+        List<BoardStatisticEntity> saved = boardStatisticRepository.saveAll(statistics);
+
+        rememberReconciled(projectId);
+
+        return saved;
+    }
+
+    @Transactional
+    public void removeOrphaned() {
+        int removed = boardStatisticRepository.deleteOrphaned();
+        reconciliationRepository.deleteOrphaned();
+        if (removed > 0) {
+            log.info("Removed {} board statistics rows of deleted projects", removed);
+        }
+    }
+
+    private List<BoardStatisticEntity> countStatistics(Long projectId) {
+        List<BoardStatisticEntity> statistics = new ArrayList<>();
+
+        for (GroupCountView count : boardStatisticRepository.countTasksByTaskState(projectId)) {
+            statistics.add(makeStatistic(projectId, BoardStatisticDimension.TASK_STATE, count.getGroupId(), count.getTaskCount()));
+        }
+
+        long unassigned = 0;
+        for (GroupCountView count : boardStatisticRepository.countTasksByAssignee(projectId)) {
+            if (count.getGroupId() == null) {
+                unassigned = count.getTaskCount();
+            } else {
+                statistics.add(makeStatistic(projectId, BoardStatisticDimension.ASSIGNEE, count.getGroupId(), count.getTaskCount()));
+            }
+        }
+        statistics.add(makeStatistic(projectId, BoardStatisticDimension.UNASSIGNED, UNASSIGNED_ID, unassigned));
+
+        return statistics;
+    }
+
+    /**
+     * Locks the project's marker before a delta, so a reconciliation can't count in between. Reconciles a project
+     * that never was instead; the recount includes the change being recorded, so the caller skips its delta.
+     */
+    private boolean reconcileIfFirstChange(Long projectId) {
+        if (reconciliationRepository.lockMarker(projectId).isPresent()) {
+            return false;
+        }
+        reconcile(projectId);
+        return true;
+    }
+
+    private boolean isReconciled(Long projectId) {
+        if (reconciledProjects.contains(projectId)) {
+            return true;
+        }
+        boolean reconciled = reconciliationRepository.existsById(projectId);
+        if (reconciled) {
+            rememberReconciled(projectId);
+        }
+        return reconciled;
+    }
+
+    /**
+     * Remembered once committed; a marker written by a transaction that rolls back was never there.
+     */
+    private void rememberReconciled(Long projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reconciledProjects.add(projectId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reconciledProjects.add(projectId);
+            }
+        });
+    }
+
+    private void incrementAssignee(Long projectId, UserEntity assignee, long delta) {
+        if (assignee == null) {
+            increment(projectId, BoardStatisticDimension.UNASSIGNED, UNASSIGNED_ID, delta);
+        } else {
+            increment(projectId, BoardStatisticDimension.ASSIGNEE, assignee.getId(), delta);
+        }
+    }
+
+    private void increment(Long projectId, BoardStatisticDimension dimension, Long dimensionId, long delta) {
+        boardStatisticRepository.increment(projectId, dimension.name(), dimensionId, delta);
+    }
+
+    private static BoardStatisticEntity makeStatistic(Long projectId,
+                                                      BoardStatisticDimension dimension,
+                                                      Long dimensionId,
+                                                      Long taskCount) {
+        return BoardStatisticEntity.builder()
+                .projectId(projectId)
+                .dimension(dimension)
+                .dimensionId(dimensionId)
+                .taskCount(taskCount)
+                .build();
+    }
+}
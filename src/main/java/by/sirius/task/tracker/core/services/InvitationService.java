@@ -5,9 +5,11 @@ import by.sirius.task.tracker.api.dto.InvitationDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.core.factories.InvitationDtoFactory;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
 import by.sirius.task.tracker.store.entities.*;
 import by.sirius.task.tracker.store.repositories.InvitationRepository;
 import by.sirius.task.tracker.store.repositories.ProjectRoleRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,6 +21,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "task_tracker.service", histogram = true)
 public class InvitationService {
 
     private final EmailService emailService;
@@ -27,6 +30,7 @@ public class InvitationService {
     private final ProjectRoleRepository projectRoleRepository;
 
     private final ServiceHelper serviceHelper;
+    private final SuggestionIndex suggestionIndex;
 
     public List<InvitationDto> getUserInvitations(String username) {
 
@@ -111,6 +115,8 @@ public class InvitationService {
         projectRoleRepository.save(projectRole);
         invitationRepository.save(invitation);
 
+        suggestionIndex.onMemberAdded(project.getId(), invitedUser.getId(), invitedUser.getUsername());
+
         return AckDto.builder().answer(true).build();
     }
 
@@ -4,6 +4,7 @@ import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
 import by.sirius.task.tracker.store.entities.*;
 import by.sirius.task.tracker.store.repositories.ProjectRoleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "task_tracker.service", histogram = true)
 public class ProjectSecurityService {
 
     private final ServiceHelper serviceHelper;
@@ -5,8 +5,16 @@ import by.sirius.task.tracker.api.dto.ProjectDto;
 import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardReadCoalescer;
+import by.sirius.task.tracker.core.concurrency.RetryOnConflict;
 import by.sirius.task.tracker.core.factories.ProjectDtoFactory;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.readmodel.BoardReadModel;
+import by.sirius.task.tracker.core.services.helpers.EntityVersions;
+import by.sirius.task.tracker.core.streaming.BoardStream;
+import by.sirius.task.tracker.core.streaming.BoardStreamWriter;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
 import by.sirius.task.tracker.store.entities.ProjectEntity;
 import by.sirius.task.tracker.store.entities.ProjectRoleEntity;
 import by.sirius.task.tracker.store.entities.RoleEntity;
@@ -14,6 +22,7 @@ import by.sirius.task.tracker.store.entities.UserEntity;
 import by.sirius.task.tracker.store.repositories.ProjectRepository;
 import by.sirius.task.tracker.store.repositories.ProjectRoleRepository;
 import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +35,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Service
+@Timed(value = "task_tracker.service", histogram = true)
 public class ProjectService {
 
     private final UserRepository userRepository;
@@ -34,16 +44,42 @@ public class ProjectService {
     private final ProjectRoleRepository projectRoleRepository;
 
     private final ServiceHelper serviceHelper;
+    private final SuggestionIndex suggestionIndex;
+    private final BoardReadCoalescer boardReadCoalescer;
+    private final BoardStreamWriter boardStreamWriter;
+    private final BoardReadModel boardReadModel;
+    private final BoardStatisticsService boardStatisticsService;
+
+    public ProjectDtoWithTaskStates getProjectById(Long projectId, String username, SparseFields fields) {
+        if (!projectRepository.existsByIdAndAdminUsername(projectId, username)) {
+            throw new NotFoundException("Project not found", HttpStatus.NOT_FOUND);
+        }
+
+        return boardReadCoalescer.coalesce(BoardReadCoalescer.View.PROJECT, projectId, fields, () -> {
+            Optional<ProjectEntity> optionalProject = fields.includesTaskStates()
+                    ? projectRepository.findWithTaskStatesById(projectId)
+                    : projectRepository.findById(projectId);
+            ProjectEntity project = optionalProject
+                    .orElseThrow(() -> new NotFoundException("Project not found", HttpStatus.NOT_FOUND));
 
-    public ProjectDtoWithTaskStates getProjectById(Long projectId, String username) {
-        ProjectEntity project = projectRepository.findWithTaskStatesByProjectIdAndAdminName(projectId, username)
-                .orElseThrow(() -> new NotFoundException("Project not found", HttpStatus.NOT_FOUND));
+            return projectDtoFactory.makeProjectDtoWithTaskStates(project, fields);
+        });
+    }
 
-        if (!project.getAdmin().getUsername().equals(username)) {
-            throw new BadRequestException("You are not authorized to view this project", HttpStatus.BAD_REQUEST);
+    /**
+     * Streams boards with at least {@code task-tracker.streaming.min-tasks} tasks; empty for smaller boards
+     * and for selections without task states, which {@link #getProjectById} serves.
+     */
+    public Optional<BoardStream> streamProjectById(Long projectId, String username, SparseFields fields) {
+        if (!fields.includesTaskStates() || !boardStreamWriter.isLarge(projectId)) {
+            return Optional.empty();
         }
 
-        return projectDtoFactory.makeProjectDtoWithTaskStates(project);
+        if (!projectRepository.existsByIdAndAdminUsername(projectId, username)) {
+            throw new NotFoundException("Project not found", HttpStatus.NOT_FOUND);
+        }
+
+        return Optional.of(boardStreamWriter.project(projectId, fields));
     }
 
     public List<ProjectDto> getProjects(String currentUsername) {
@@ -59,6 +95,7 @@ public class ProjectService {
                 .collect(Collectors.toList());
     }
 
+    @RetryOnConflict
     @Transactional
     public ProjectDto createProject(String name, String currentUsername) {
         log.info("Creating project with name: {}", name);
@@ -85,16 +122,19 @@ public class ProjectService {
         );
 
         assignProjectAdminRole(admin, project);
+        boardStatisticsService.onProjectCreated(project);
 
         return projectDtoFactory.makeProjectDto(project);
     }
 
+    @RetryOnConflict
     @Transactional
-    public ProjectDto editProject(Long projectId, String newProjectName, String username) {
+    public ProjectDto editProject(Long projectId, String newProjectName, String username, Optional<Long> expectedVersion) {
         log.info("Editing project with ID: {} to new name: {}", projectId, newProjectName);
 
         UserEntity user = serviceHelper.findUserByUsernameOrThrowException(username);
         ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
+        EntityVersions.verify("Project", projectId, project.getVersion(), expectedVersion);
 
         if (newProjectName.trim().isEmpty()) {
             throw new BadRequestException("Name can't be empty", HttpStatus.BAD_REQUEST);
@@ -115,15 +155,18 @@ public class ProjectService {
         project.setName(newProjectName);
 
         ProjectEntity updatedProject = projectRepository.save(project);
+        boardReadCoalescer.boardChanged(updatedProject);
 
         return projectDtoFactory.makeProjectDto(updatedProject);
     }
 
+    @RetryOnConflict
     @Transactional
-    public AckDto deleteProject(Long projectId, String adminName) {
+    public AckDto deleteProject(Long projectId, String adminName, Optional<Long> expectedVersion) {
         log.warn("Deleting project with ID: {}", projectId);
 
         ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
+        EntityVersions.verify("Project", projectId, project.getVersion(), expectedVersion);
 
         if (!project.getAdmin().getUsername().equals(adminName)) {
             throw new BadRequestException("You are not authorized to remove this project", HttpStatus.BAD_REQUEST);
@@ -131,9 +174,14 @@ public class ProjectService {
 
         projectRepository.delete(project);
 
+        boardReadCoalescer.boardChanged(project);
+        suggestionIndex.onProjectRemoved(projectId);
+        boardReadModel.onBoardRestructured(projectId);
+
         return AckDto.makeDefault(true);
     }
 
+    @RetryOnConflict
     @Transactional
     public AckDto removeUserFromProject(Long projectId, String usernameToRemove, String adminName) {
         log.warn("Removing user {} from project with ID: {}", usernameToRemove, projectId);
@@ -153,6 +201,8 @@ public class ProjectService {
         projectRepository.save(project);
         userRepository.save(userToDelete);
 
+        suggestionIndex.onMemberRemoved(projectId, userToDelete.getId());
+
         if (userToDelete.getMemberProjects().isEmpty()) {
             RoleEntity userRole = serviceHelper.getUserRoleOrThrowException();
             userToDelete.getRoles().remove(userRole);
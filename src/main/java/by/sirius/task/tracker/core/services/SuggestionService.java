@@ -0,0 +1,84 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.SuggestionDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.core.suggestions.ProjectSuggestionIndex;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
+import by.sirius.task.tracker.core.suggestions.SuggestionType;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.projections.IdNameView;
+import by.sirius.task.tracker.store.repositories.TaskRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class SuggestionService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final long LOAD_WAIT_MILLIS = 2000;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final SuggestionIndex suggestionIndex;
+
+    public List<SuggestionDto> getSuggestions(Long projectId, String query, Optional<SuggestionType> type, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException(
+                    String.format("Limit must be between 1 and %d", MAX_LIMIT), HttpStatus.BAD_REQUEST);
+        }
+
+        ProjectSuggestionIndex index = getLoadedIndex(projectId);
+
+        return index.suggest(query, type, limit)
+                .stream()
+                .map(suggestion -> SuggestionDto.builder()
+                        .type(suggestion.type())
+                        .id(suggestion.id())
+                        .value(suggestion.value())
+                        .score(suggestion.score())
+                        .prefixMatch(suggestion.prefixMatch())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private ProjectSuggestionIndex getLoadedIndex(Long projectId) {
+        SuggestionIndex.IndexHandle handle = suggestionIndex.getOrCreate(projectId);
+        ProjectSuggestionIndex index = handle.index();
+
+        if (handle.created()) {
+            log.debug("Building suggestion index for project ID: {}", projectId);
+            try {
+                index.load(SuggestionType.USER, userRepository.findAllByMemberProjects_Id(projectId)
+                        .stream()
+                        .collect(Collectors.toMap(UserEntity::getId, UserEntity::getUsername)));
+                index.load(SuggestionType.TASK, taskRepository.findIdsAndNamesByProjectId(projectId)
+                        .stream()
+                        .collect(Collectors.toMap(IdNameView::getId, IdNameView::getName)));
+                index.markLoaded();
+            } catch (RuntimeException e) {
+                suggestionIndex.evict(projectId);
+                index.markLoaded();
+                throw e;
+            }
+            return index;
+        }
+
+        try {
+            if (!index.awaitLoaded(LOAD_WAIT_MILLIS)) {
+                log.warn("Suggestion index for project ID: {} is still loading", projectId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,242 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.TaskFlowDayDto;
+import by.sirius.task.tracker.api.dto.TaskFlowDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.core.analytics.DailyTaskFlow;
+import by.sirius.task.tracker.core.analytics.TaskFlowAccumulator;
+import by.sirius.task.tracker.core.services.helpers.BoardOrdering;
+import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.store.entities.ProjectEntity;
+import by.sirius.task.tracker.store.entities.TaskFlowDailyEntity;
+import by.sirius.task.tracker.store.entities.TaskFlowWatermarkEntity;
+import by.sirius.task.tracker.store.entities.TaskStateEntity;
+import by.sirius.task.tracker.store.projections.TaskFlowTotalsView;
+import by.sirius.task.tracker.store.projections.TaskStateTransitionView;
+import by.sirius.task.tracker.store.repositories.TaskFlowDailyRepository;
+import by.sirius.task.tracker.store.repositories.TaskFlowWatermarkRepository;
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Cumulative flow and lead/cycle time analytics computed from the task state changes in the task history.
+ * <p>
+ * Complete UTC days are computed once by {@code TaskFlowMaterializationJob}, in a single streaming pass over
+ * the history, and stored in {@code task_flow_daily}; a per-project watermark records how far that has happened.
+ * Requests don't write: they read the stored days and stream the ones after the watermark, which is the
+ * current day unless the job hasn't run for the project yet. Flow is keyed by task state id.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskFlowService {
+
+    private final ServiceHelper serviceHelper;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskFlowDailyRepository taskFlowDailyRepository;
+    private final TaskFlowWatermarkRepository taskFlowWatermarkRepository;
+
+    @Value("${task-tracker.task-flow.max-days:366}")
+    private int maxDays;
+
+    @Transactional(readOnly = true)
+    public TaskFlowDto getTaskFlow(Long projectId,
+                                   LocalDate from,
+                                   LocalDate to,
+                                   Optional<Long> optionalDoneTaskStateId) {
+        log.debug("Fetching task flow for project ID: {} from {} to {}", projectId, from, to);
+
+        if (to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'", HttpStatus.BAD_REQUEST);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BadRequestException(
+                    String.format("Time range can't be longer than %d days", maxDays), HttpStatus.BAD_REQUEST);
+        }
+
+        ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate lastDay = to.isAfter(today) ? today : to;
+
+        Optional<LocalDate> materializedUntil = taskFlowWatermarkRepository.findById(projectId)
+                .map(TaskFlowWatermarkEntity::getMaterializedUntil);
+        LocalDate storedUntil = materializedUntil
+                .map(until -> until.isBefore(from) ? until : from)
+                .orElse(null);
+
+        List<Long> taskStateIds = BoardOrdering.orderTaskStates(project.getTaskStates())
+                .stream()
+                .map(TaskStateEntity::getId)
+                .toList();
+
+        Long doneTaskStateId = optionalDoneTaskStateId
+                .orElse(taskStateIds.isEmpty() ? null : taskStateIds.get(taskStateIds.size() - 1));
+
+        Map<Long, Long> cumulativeArrivals = new LinkedHashMap<>();
+        Map<Long, Long> cumulativeDepartures = new HashMap<>();
+        taskStateIds.forEach(taskStateId -> cumulativeArrivals.put(taskStateId, 0L));
+
+        if (storedUntil != null) {
+            for (TaskFlowTotalsView totals : taskFlowDailyRepository.sumByStateBefore(projectId, storedUntil)) {
+                cumulativeArrivals.merge(totals.getTaskStateId(), totals.getArrivals(), Long::sum);
+                cumulativeDepartures.merge(totals.getTaskStateId(), totals.getDepartures(), Long::sum);
+            }
+        }
+
+        Map<LocalDate, List<TaskFlowDailyEntity>> rowsByDay = new HashMap<>();
+        materializedUntil
+                .filter(until -> until.isAfter(from))
+                .ifPresent(until -> taskFlowDailyRepository
+                        .findAllByProjectIdAndDayBetweenOrderByDay(
+                                projectId, from, until.isAfter(lastDay) ? lastDay : until.minusDays(1))
+                        .forEach(row -> rowsByDay.computeIfAbsent(row.getDay(), day -> new ArrayList<>()).add(row)));
+
+        LocalDate streamFrom = materializedUntil
+                .or(() -> taskHistoryRepository.findFirstStateTransitionAt(projectId)
+                        .map(changedAt -> LocalDate.ofInstant(changedAt, ZoneOffset.UTC)))
+                .orElse(today);
+
+        if (!streamFrom.isAfter(lastDay)) {
+            streamDays(projectId, streamFrom, lastDay.plusDays(1), daily -> {
+                if (daily.day().isBefore(from)) {
+                    daily.states().forEach((taskStateId, counters) -> {
+                        cumulativeArrivals.merge(taskStateId, counters.getArrivals(), Long::sum);
+                        cumulativeDepartures.merge(taskStateId, counters.getDepartures(), Long::sum);
+                    });
+                } else {
+                    rowsByDay.computeIfAbsent(daily.day(), day -> new ArrayList<>())
+                            .addAll(makeDailyEntities(projectId, daily));
+                }
+            });
+        }
+
+        long completedTasks = 0;
+        long leadTimeSeconds = 0;
+        long cycleTimeSeconds = 0;
+        long cycleTimeCount = 0;
+
+        List<TaskFlowDayDto> days = new ArrayList<>();
+
+        for (LocalDate day = from; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            long completed = 0;
+
+            for (TaskFlowDailyEntity row : rowsByDay.getOrDefault(day, List.of())) {
+                cumulativeArrivals.merge(row.getTaskStateId(), row.getArrivals(), Long::sum);
+                cumulativeDepartures.merge(row.getTaskStateId(), row.getDepartures(), Long::sum);
+
+                if (row.getTaskStateId().equals(doneTaskStateId)) {
+                    completed += row.getArrivals();
+                    leadTimeSeconds += row.getLeadTimeSeconds();
+                    cycleTimeSeconds += row.getCycleTimeSeconds();
+                    cycleTimeCount += row.getCycleTimeCount();
+                }
+            }
+
+            Map<Long, Long> workInProgress = new LinkedHashMap<>();
+            cumulativeArrivals.forEach((taskStateId, arrivals) ->
+                    workInProgress.put(taskStateId, arrivals - cumulativeDepartures.getOrDefault(taskStateId, 0L)));
+
+            days.add(TaskFlowDayDto.builder()
+                    .day(day)
+                    .cumulativeArrivals(new LinkedHashMap<>(cumulativeArrivals))
+                    .workInProgress(workInProgress)
+                    .completed(completed)
+                    .build());
+
+            completedTasks += completed;
+        }
+
+        return TaskFlowDto.builder()
+                .projectId(projectId)
+                .from(from)
+                .to(to)
+                .doneTaskStateId(doneTaskStateId)
+                .completedTasks(completedTasks)
+                .averageLeadTimeSeconds(completedTasks > 0 ? (double) leadTimeSeconds / completedTasks : null)
+                .averageCycleTimeSeconds(cycleTimeCount > 0 ? (double) cycleTimeSeconds / cycleTimeCount : null)
+                .days(days)
+                .build();
+    }
+
+    /**
+     * Stores the flow of every complete day after the project's watermark. Only the materialization job calls
+     * this; the watermark row is locked for the duration of the transaction so two nodes running the job don't
+     * materialize the same days twice.
+     */
+    @Transactional
+    public void materialize(Long projectId) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        taskFlowWatermarkRepository.insertIfAbsent(projectId);
+        TaskFlowWatermarkEntity watermark = taskFlowWatermarkRepository.findForUpdate(projectId)
+                .orElseThrow(() -> new IllegalStateException("Task flow watermark of project " + projectId + " is missing"));
+
+        LocalDate from = Optional.ofNullable(watermark.getMaterializedUntil())
+                .or(() -> taskHistoryRepository.findFirstStateTransitionAt(projectId)
+                        .map(changedAt -> LocalDate.ofInstant(changedAt, ZoneOffset.UTC)))
+                .orElse(today);
+
+        if (from.isBefore(today)) {
+            log.debug("Materializing task flow for project ID: {} from {} until {}", projectId, from, today);
+            streamDays(projectId, from, today,
+                    daily -> taskFlowDailyRepository.saveAll(makeDailyEntities(projectId, daily)));
+        }
+
+        watermark.setMaterializedUntil(from.isAfter(today) ? from : today);
+        taskFlowWatermarkRepository.save(watermark);
+    }
+
+    @Transactional
+    public void removeOrphaned() {
+        int removed = taskFlowDailyRepository.deleteOrphaned() + taskFlowWatermarkRepository.deleteOrphaned();
+        if (removed > 0) {
+            log.info("Removed {} task flow rows of deleted projects", removed);
+        }
+    }
+
+    private void streamDays(Long projectId, LocalDate from, LocalDate to, Consumer<DailyTaskFlow> sink) {
+        TaskFlowAccumulator accumulator = new TaskFlowAccumulator(sink);
+
+        try (Stream<TaskStateTransitionView> transitions =
+                     taskHistoryRepository.streamStateTransitions(projectId, startOf(from), startOf(to))) {
+            transitions.forEach(accumulator::accept);
+        }
+
+        accumulator.finish();
+    }
+
+    private static List<TaskFlowDailyEntity> makeDailyEntities(Long projectId, DailyTaskFlow daily) {
+        List<TaskFlowDailyEntity> rows = new ArrayList<>(daily.states().size());
+
+        daily.states().forEach((taskStateId, counters) -> rows.add(TaskFlowDailyEntity.builder()
+                .projectId(projectId)
+                .day(daily.day())
+                .taskStateId(taskStateId)
+                .arrivals(counters.getArrivals())
+                .departures(counters.getDepartures())
+                .leadTimeSeconds(counters.getLeadTimeSeconds())
+                .cycleTimeSeconds(counters.getCycleTimeSeconds())
+                .cycleTimeCount(counters.getCycleTimeCount())
+                .build()));
+
+        return rows;
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -2,24 +2,44 @@ package by.sirius.task.tracker.core.services;
 
 import by.sirius.task.tracker.api.dto.TaskHistoryDto;
 import by.sirius.task.tracker.core.factories.TaskHistoryDtoFactory;
+import by.sirius.task.tracker.core.history.TaskHistoryArchive;
+import by.sirius.task.tracker.store.entities.TaskHistoryEntity;
 import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
 public class TaskHistoryService {
 
+    private final TaskHistoryArchive taskHistoryArchive;
     private final TaskHistoryDtoFactory taskHistoryDtoFactory;
     private final TaskHistoryRepository taskHistoryRepository;
 
+    /**
+     * Returns the history of a task from the database and from the archive segments. A row that is in both,
+     * because its partition was archived but not yet dropped, is taken from the database.
+     */
     public List<TaskHistoryDto> getTaskHistoryByTaskId(Long taskId) {
-        return taskHistoryRepository.findByTaskId(taskId)
+        List<TaskHistoryEntity> history = taskHistoryRepository.findByTaskId(taskId);
+
+        Set<Long> ids = history.stream()
+                .map(TaskHistoryEntity::getId)
+                .collect(Collectors.toSet());
+
+        Stream<TaskHistoryDto> archived = taskHistoryArchive.findByTaskId(taskId)
                 .stream()
-                .map(taskHistoryDtoFactory::makeTaskHistoryDto)
+                .filter(row -> !ids.contains(row.id()))
+                .map(taskHistoryDtoFactory::makeTaskHistoryDto);
+
+        return Stream.concat(archived, history.stream().map(taskHistoryDtoFactory::makeTaskHistoryDto))
+                .sorted(Comparator.comparing(TaskHistoryDto::getTimestamp).thenComparing(TaskHistoryDto::getId))
                 .collect(Collectors.toList());
     }
 }
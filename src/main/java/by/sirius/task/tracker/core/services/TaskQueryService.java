@@ -0,0 +1,119 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskPageDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.core.query.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class TaskQueryService {
+
+    public static final RowMapper<TaskDto> TASK_ROW_MAPPER = (rs, rowNum) -> TaskDto.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .assignedUser(rs.getString("assigned_user"))
+            .leftTaskId(rs.getObject("left_task_id", Long.class))
+            .rightTaskId(rs.getObject("right_task_id", Long.class))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .version(rs.getLong("version"))
+            .build();
+
+    private final ObjectMapper objectMapper;
+    private final TaskFilterParser taskFilterParser;
+    private final TaskQueryCompiler taskQueryCompiler;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${task-tracker.task-query.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${task-tracker.task-query.max-plan-cost:50000}")
+    private double maxPlanCost;
+
+    public TaskPageDto queryTasks(Long projectId,
+                                  String filterExpression,
+                                  Optional<String> after,
+                                  int limit,
+                                  boolean estimateCount) {
+        log.debug("Querying tasks for project ID: {} with filter: {}", projectId, filterExpression);
+
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException(
+                    String.format("Limit must be between 1 and %d", maxLimit), HttpStatus.BAD_REQUEST);
+        }
+
+        TaskFilter filter = taskFilterParser.parse(filterExpression);
+        Optional<TaskCursor> cursor = after.map(TaskCursor::decode);
+
+        CompiledTaskQuery pageQuery = taskQueryCompiler.compilePage(projectId, filter, cursor, limit + 1);
+
+        JsonNode pagePlan = explain(pageQuery);
+        if (isUnboundedScan(pagePlan)) {
+            log.warn("Rejected task query for project ID: {} with filter: {}, plan cost {}",
+                    projectId, filterExpression, pagePlan.path("Total Cost").asDouble());
+            throw new BadRequestException(
+                    "Filter is not selective enough, add a task state, assignee or creation time condition",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        List<TaskDto> tasks = jdbcTemplate.query(pageQuery.sql(), pageQuery.parameters(), TASK_ROW_MAPPER);
+
+        String nextCursor = null;
+        if (tasks.size() > limit) {
+            tasks = tasks.subList(0, limit);
+            TaskDto last = tasks.get(limit - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        Long estimatedCount = null;
+        if (estimateCount) {
+            estimatedCount = explain(taskQueryCompiler.compileCount(projectId, filter)).path("Plan Rows").asLong();
+        }
+
+        return TaskPageDto.builder()
+                .tasks(tasks)
+                .nextCursor(nextCursor)
+                .estimatedCount(estimatedCount)
+                .build();
+    }
+
+    private JsonNode explain(CompiledTaskQuery query) {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) " + query.sql(), query.parameters(), String.class);
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read query plan", e);
+        }
+    }
+
+    private boolean isUnboundedScan(JsonNode plan) {
+        return plan.path("Total Cost").asDouble() > maxPlanCost && containsSequentialScanOfTasks(plan);
+    }
+
+    private static boolean containsSequentialScanOfTasks(JsonNode node) {
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && "tasks".equals(node.path("Relation Name").asText())) {
+            return true;
+        }
+        for (JsonNode child : node.path("Plans")) {
+            if (containsSequentialScanOfTasks(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,18 +4,36 @@ import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.TaskDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardKey;
+import by.sirius.task.tracker.core.concurrency.BoardMutation;
+import by.sirius.task.tracker.core.concurrency.BoardReadCoalescer;
+import by.sirius.task.tracker.core.concurrency.OptimisticLocking;
+import by.sirius.task.tracker.core.concurrency.ProjectAdvisoryLocks;
+import by.sirius.task.tracker.core.concurrency.RetryOnConflict;
 import by.sirius.task.tracker.core.factories.TaskDtoFactory;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.history.TaskHistoryCoalescer;
+import by.sirius.task.tracker.core.readmodel.BoardReadModel;
+import by.sirius.task.tracker.core.services.helpers.EntityVersions;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.services.helpers.TaskOrdering;
+import by.sirius.task.tracker.core.streaming.BoardStream;
+import by.sirius.task.tracker.core.streaming.BoardStreamWriter;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
 import by.sirius.task.tracker.store.entities.*;
 import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
 import by.sirius.task.tracker.store.repositories.TaskRepository;
 import by.sirius.task.tracker.store.repositories.TaskStateRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,17 +42,32 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Service
+@Timed(value = "task_tracker.service", histogram = true)
 public class TaskService {
 
     private final EmailService emailService;
+    private final BoardStatisticsService boardStatisticsService;
     private final TaskDtoFactory taskDtoFactory;
     private final TaskRepository taskRepository;
     private final TaskStateRepository taskStateRepository;
     private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskHistoryCoalescer taskHistoryCoalescer;
+    private final OptimisticLocking optimisticLocking;
+    private final BoardReadCoalescer boardReadCoalescer;
+    private final BoardStreamWriter boardStreamWriter;
+    private final BoardReadModel boardReadModel;
+    private final ProjectAdvisoryLocks projectAdvisoryLocks;
 
     private final ServiceHelper serviceHelper;
+    private final SuggestionIndex suggestionIndex;
+
+    public TaskDto getTaskById(Long projectId, Long taskStateId, Long taskId, SparseFields fields) {
+        Optional<TaskDto> cached = boardReadModel.find(projectId)
+                .flatMap(board -> board.task(taskStateId, taskId, fields));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-    public TaskDto getTaskById(Long projectId, Long taskStateId, Long taskId) {
         serviceHelper.findProjectByIdOrThrowException(projectId);
         TaskEntity task = serviceHelper.findTaskByIdOrThrowException(taskId);
 
@@ -47,23 +80,45 @@ public class TaskService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        return taskDtoFactory.makeTaskDto(task);
+        return taskDtoFactory.makeTaskDto(task, fields);
     }
 
-    public List<TaskDto> getTasks(Long projectId, Long taskStateId) {
+    public List<TaskDto> getTasks(Long projectId, Long taskStateId, SparseFields fields) {
         log.debug("Fetching tasks for project ID: {} and task state ID: {}", projectId, taskStateId);
 
+        Optional<List<TaskDto>> cached = boardReadModel.find(projectId)
+                .flatMap(board -> board.tasks(taskStateId, fields));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         Optional<TaskStateEntity> taskState = taskStateRepository.findByProjectIdAndId(projectId, taskStateId);
 
         return taskState
                 .map(state -> state.getTasks()
                         .stream()
-                        .map(taskDtoFactory::makeTaskDto)
+                        .map(task -> taskDtoFactory.makeTaskDto(task, fields))
                         .collect(Collectors.toList()))
                 .orElseThrow(() -> new NotFoundException(
                         String.format("Task state with id \"%d\" not found", taskStateId), HttpStatus.BAD_REQUEST));
     }
 
+    /**
+     * Streams columns with at least {@code task-tracker.streaming.min-tasks} tasks; empty for smaller ones,
+     * which {@link #getTasks} serves.
+     */
+    public Optional<BoardStream> streamTasks(Long projectId, Long taskStateId, SparseFields fields) {
+        if (!boardStreamWriter.isLarge(projectId, taskStateId)) {
+            return Optional.empty();
+        }
+
+        taskStateRepository.findByProjectIdAndId(projectId, taskStateId)
+                .orElseThrow(() -> new NotFoundException(
+                        String.format("Task state with id \"%d\" not found", taskStateId), HttpStatus.BAD_REQUEST));
+
+        return Optional.of(boardStreamWriter.tasks(taskStateId, fields));
+    }
+
     public List<TaskDto> getAssignedTasks(String username) {
         log.debug("Getting assigned for project user: {}", username);
 
@@ -75,6 +130,8 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    @BoardMutation(BoardKey.PROJECT)
+    @RetryOnConflict
     @Transactional
     public TaskDto createTask(Long projectId, Long taskStateId, String taskName) {
         log.info("Creating task '{}' in project ID: {} and task state ID: {}", taskName, projectId, taskStateId);
@@ -83,25 +140,26 @@ public class TaskService {
             throw new BadRequestException("Task name can't be empty", HttpStatus.BAD_REQUEST);
         }
 
+        projectAdvisoryLocks.lockProject(projectId);
+
         ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
         TaskStateEntity taskState = serviceHelper.findTaskStateByIdOrThrowException(taskStateId);
 
-        Optional<TaskEntity> optionalAnotherTask = Optional.empty();
-
         if (!project.getTaskStates().contains(taskState)) {
             throw new NotFoundException("Project doesn't contain a such task state", HttpStatus.NOT_FOUND);
         }
 
+        optimisticLocking.forceIncrement(taskState);
+
         for (TaskEntity task : taskState.getTasks()) {
             if (task.getName().equals(taskName)) {
                 throw new BadRequestException(
                         String.format("Task name \"%s\" already exists.", taskName), HttpStatus.BAD_REQUEST);
             }
-            if (task.getRightTask().isEmpty()) {
-                optionalAnotherTask = Optional.of(task);
-            }
         }
 
+        Optional<TaskEntity> optionalAnotherTask = TaskOrdering.findTail(taskState.getTasks());
+
         TaskEntity task = TaskEntity.builder()
                 .name(taskName)
                 .taskState(taskState)
@@ -111,19 +169,37 @@ public class TaskService {
 
         taskRepository.save(task);
 
-        optionalAnotherTask.ifPresent(it -> {
-            task.setLeftTask(it);
-            it.setRightTask(task);
-            taskRepository.save(it);
-        });
+        TaskOrdering.linkBetween(task, optionalAnotherTask, Optional.empty());
+        optionalAnotherTask.ifPresent(taskRepository::save);
 
         taskStateRepository.save(taskState);
 
+        TaskHistoryEntity taskHistory = TaskHistoryEntity.builder()
+                .task(task)
+                .projectId(projectId)
+                .username(Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                        .map(Authentication::getName)
+                        .orElse(null))
+                .changeType("CREATE")
+                .fieldName("task state")
+                .newValue(taskState.getName())
+                .newTaskStateId(taskState.getId())
+                .changedAt(task.getCreatedAt())
+                .build();
+
+        taskHistoryRepository.save(taskHistory);
+
+        boardStatisticsService.onTaskCreated(task);
+        boardReadCoalescer.boardChanged(project);
+        suggestionIndex.onTaskSaved(project.getId(), task.getId(), task.getName());
+        boardReadModel.onTasksChanged(taskState);
+
         return taskDtoFactory.makeTaskDto(task);
     }
 
+    @RetryOnConflict
     @Transactional
-    public TaskDto editTask(Long taskId, String taskName) {
+    public TaskDto editTask(Long taskId, String taskName, Optional<Long> expectedVersion) {
         log.info("Editing task ID: {}, new name: {}", taskId, taskName);
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -132,6 +208,7 @@ public class TaskService {
         }
 
         TaskEntity taskToUpdate = serviceHelper.findTaskByIdOrThrowException(taskId);
+        EntityVersions.verify("Task", taskId, taskToUpdate.getVersion(), expectedVersion);
 
         validateTaskAction(taskToUpdate, currentUsername, "You are not authorized to edit this task");
 
@@ -152,6 +229,7 @@ public class TaskService {
 
         TaskHistoryEntity taskHistory = TaskHistoryEntity.builder()
                 .task(updatedTask)
+                .projectId(updatedTask.getTaskState().getProject().getId())
                 .username(currentUsername)
                 .changeType("EDIT")
                 .fieldName("name")
@@ -161,18 +239,30 @@ public class TaskService {
 
         taskHistoryRepository.save(taskHistory);
 
+        boardReadCoalescer.boardChanged(updatedTask.getTaskState());
+        suggestionIndex.onTaskSaved(
+                updatedTask.getTaskState().getProject().getId(), updatedTask.getId(), updatedTask.getName());
+        boardReadModel.onTaskChanged(updatedTask);
+
         return taskDtoFactory.makeTaskDto(updatedTask);
     }
 
+    @BoardMutation(BoardKey.TASK)
+    @RetryOnConflict
     @Transactional
-    public AckDto deleteTask(Long taskId) {
+    public AckDto deleteTask(Long taskId, Optional<Long> expectedVersion) {
         log.warn("Deleting task with ID: {}", taskId);
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
 
+        projectAdvisoryLocks.lockProjectOfTask(taskId);
+
         TaskEntity taskToDelete = serviceHelper.findTaskByIdOrThrowException(taskId);
+        EntityVersions.verify("Task", taskId, taskToDelete.getVersion(), expectedVersion);
 
         validateTaskAction(taskToDelete, currentUsername, "You are not authorized to remove this task");
 
+        optimisticLocking.forceIncrement(taskToDelete.getTaskState());
+
         serviceHelper.replaceOldTaskPosition(taskToDelete);
 
         TaskStateEntity taskState = taskToDelete.getTaskState();
@@ -180,24 +270,36 @@ public class TaskService {
 
         TaskHistoryEntity taskHistory = TaskHistoryEntity.builder()
                 .task(taskToDelete)
+                .projectId(taskState.getProject().getId())
                 .username(currentUsername)
                 .changeType("DELETE")
                 .build();
 
+        boardStatisticsService.onTaskDeleted(taskToDelete);
+        boardReadCoalescer.boardChanged(taskState);
+
         taskHistoryRepository.save(taskHistory);
         taskStateRepository.save(taskState);
         taskRepository.delete(taskToDelete);
 
+        suggestionIndex.onTaskRemoved(taskState.getProject().getId(), taskToDelete.getId());
+        boardReadModel.onTasksChanged(taskState);
+
         return AckDto.builder().answer(true).build();
     }
 
+    @BoardMutation(BoardKey.TASK)
+    @RetryOnConflict
     @Transactional
-    public TaskDto changeTaskPosition(Long taskId, Optional<Long> optionalLeftTaskId) {
+    public TaskDto changeTaskPosition(Long taskId, Optional<Long> optionalLeftTaskId, Optional<Long> expectedVersion) {
         log.info("Changing task position for task ID: {} with left task ID: {}",
                 taskId, optionalLeftTaskId.orElse(null));
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
 
+        projectAdvisoryLocks.lockProjectOfTask(taskId);
+
         TaskEntity changeTask = serviceHelper.findTaskByIdOrThrowException(taskId);
+        EntityVersions.verify("Task", taskId, changeTask.getVersion(), expectedVersion);
         TaskStateEntity taskState = changeTask.getTaskState();
 
         Optional<Long> optionalOldLeftTaskId = changeTask
@@ -228,34 +330,18 @@ public class TaskService {
 
         Optional<TaskEntity> optionalNewRightTask;
         if (optionalNewLeftTask.isEmpty()) {
-            optionalNewRightTask = taskState
-                    .getTasks()
-                    .stream()
-                    .filter(anotherTask -> anotherTask.getLeftTask().isEmpty())
-                    .findAny();
+            optionalNewRightTask = TaskOrdering.findHead(taskState.getTasks());
         } else {
             optionalNewRightTask = optionalNewLeftTask
                     .get()
                     .getRightTask();
         }
 
-        serviceHelper.replaceOldTaskPosition(changeTask);
+        optimisticLocking.forceIncrement(taskState);
 
-        if (optionalNewLeftTask.isPresent()) {
-            TaskEntity newLeftTask = optionalNewLeftTask.get();
-            newLeftTask.setRightTask(changeTask);
-            changeTask.setLeftTask(newLeftTask);
-        } else {
-            changeTask.setLeftTask(null);
-        }
+        serviceHelper.replaceOldTaskPosition(changeTask);
 
-        if (optionalNewRightTask.isPresent()) {
-            TaskEntity newRightTask = optionalNewRightTask.get();
-            newRightTask.setLeftTask(changeTask);
-            changeTask.setRightTask(newRightTask);
-        } else {
-            changeTask.setRightTask(null);
-        }
+        TaskOrdering.linkBetween(changeTask, optionalNewLeftTask, optionalNewRightTask);
 
         changeTask = taskRepository.save(changeTask);
 
@@ -269,6 +355,7 @@ public class TaskService {
 
         TaskHistoryEntity taskHistory = TaskHistoryEntity.builder()
                 .task(changeTask)
+                .projectId(taskState.getProject().getId())
                 .username(currentUsername)
                 .changeType("EDIT")
                 .fieldName("task position")
@@ -276,17 +363,27 @@ public class TaskService {
                 .newValue(optionalNewLeftTask.map(task -> String.valueOf(task.getId())).orElse(null))
                 .build();
 
-        taskHistoryRepository.save(taskHistory);
+        if (!taskHistoryCoalescer.tryMerge(taskHistory)) {
+            taskHistoryRepository.save(taskHistory);
+        }
+
+        boardReadCoalescer.boardChanged(taskState);
+        boardReadModel.onTasksChanged(taskState);
 
         return taskDtoFactory.makeTaskDto(changeTask);
     }
 
+    @BoardMutation(BoardKey.TASK)
+    @RetryOnConflict
     @Transactional
-    public TaskDto changeTaskState(Long taskId, Long newTaskStateId) {
+    public TaskDto changeTaskState(Long taskId, Long newTaskStateId, Optional<Long> expectedVersion) {
         log.info("Changing task state for task ID: {} to new task state ID: {}", taskId, newTaskStateId);
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
 
+        projectAdvisoryLocks.lockProjectOfTask(taskId);
+
         TaskEntity taskToMove = serviceHelper.findTaskByIdOrThrowException(taskId);
+        EntityVersions.verify("Task", taskId, taskToMove.getVersion(), expectedVersion);
         TaskStateEntity newTaskState = serviceHelper.findTaskStateByIdOrThrowException(newTaskStateId);
         TaskStateEntity currentTaskState = taskToMove.getTaskState();
 
@@ -301,22 +398,18 @@ public class TaskService {
                                     newTaskState.getName(), taskToMove.getName()), HttpStatus.BAD_REQUEST);
                 });
 
+        optimisticLocking.forceIncrement(currentTaskState);
+        optimisticLocking.forceIncrement(newTaskState);
+
         serviceHelper.replaceOldTaskPosition(taskToMove);
 
         currentTaskState.getTasks().remove(taskToMove);
 
-        Optional<TaskEntity> optionalLastTaskInNewState = newTaskState.getTasks()
-                .stream()
-                .filter(task -> task.getRightTask().isEmpty())
-                .findAny();
+        Optional<TaskEntity> optionalLastTaskInNewState = TaskOrdering.findTail(newTaskState.getTasks());
 
-        optionalLastTaskInNewState.ifPresent(lastTask -> {
-            lastTask.setRightTask(taskToMove);
-            taskToMove.setLeftTask(lastTask);
-            taskRepository.save(lastTask);
-        });
+        TaskOrdering.linkBetween(taskToMove, optionalLastTaskInNewState, Optional.empty());
+        optionalLastTaskInNewState.ifPresent(taskRepository::save);
 
-        taskToMove.setRightTask(null);
         taskToMove.setTaskState(newTaskState);
 
         newTaskState.getTasks().add(taskToMove);
@@ -325,26 +418,37 @@ public class TaskService {
 
         TaskHistoryEntity taskHistory = TaskHistoryEntity.builder()
                 .task(updatedTask)
+                .projectId(newTaskState.getProject().getId())
                 .username(currentUsername)
                 .changeType("EDIT")
                 .fieldName("task state")
-                .oldValue(taskToMove.getTaskState().getName())
-                .newValue(updatedTask.getTaskState().getName())
+                .oldValue(currentTaskState.getName())
+                .newValue(newTaskState.getName())
+                .oldTaskStateId(currentTaskState.getId())
+                .newTaskStateId(newTaskState.getId())
                 .build();
 
-        taskHistoryRepository.save(taskHistory);
+        if (!taskHistoryCoalescer.tryMerge(taskHistory)) {
+            taskHistoryRepository.save(taskHistory);
+        }
         taskStateRepository.save(currentTaskState);
         taskStateRepository.save(newTaskState);
 
+        boardStatisticsService.onTaskMoved(currentTaskState, newTaskState);
+        boardReadCoalescer.boardChanged(currentTaskState);
+        boardReadModel.onTasksChanged(currentTaskState, newTaskState);
+
         return taskDtoFactory.makeTaskDto(updatedTask);
     }
 
+    @RetryOnConflict
     @Transactional
-    public TaskDto assignTaskToUser(Long taskId, String username) {
+    public TaskDto assignTaskToUser(Long taskId, String username, Optional<Long> expectedVersion) {
         log.info("Assigning task with ID: {} for user: {}", taskId, username);
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
 
         TaskEntity task = serviceHelper.findTaskByIdOrThrowException(taskId);
+        EntityVersions.verify("Task", taskId, task.getVersion(), expectedVersion);
         TaskStateEntity taskState = task.getTaskState();
         ProjectEntity project = taskState.getProject();
         UserEntity user = serviceHelper.findUserByUsernameOrThrowException(username);
@@ -353,19 +457,27 @@ public class TaskService {
             throw new BadRequestException("Project doesn't contain user: " + username, HttpStatus.BAD_REQUEST);
         }
 
-        String usernameBefore = task.getAssignedUser().getUsername();
+        UserEntity assigneeBefore = task.getAssignedUser();
+        String usernameBefore = assigneeBefore != null ? assigneeBefore.getUsername() : null;
 
         task.setAssignedUser(user);
         taskRepository.save(task);
 
-        emailService.sendEmail(
+        boardStatisticsService.onTaskAssigned(task, assigneeBefore);
+        boardReadCoalescer.boardChanged(project);
+        boardReadModel.onTaskChanged(task);
+
+        // Not before the commit: a conflict retries the whole method and a rollback must not leave an email behind
+        String taskName = task.getName();
+        afterCommit(() -> emailService.sendEmail(
                 user.getEmail(),
                 "You have been assigned a task",
-                "You have been assigned to the task: " + task.getName()
-        );
+                "You have been assigned to the task: " + taskName
+        ));
 
         TaskHistoryEntity taskHistory = TaskHistoryEntity.builder()
                 .task(task)
+                .projectId(project.getId())
                 .username(currentUsername)
                 .changeType("EDIT")
                 .fieldName("assigned user")
@@ -384,4 +496,17 @@ public class TaskService {
             throw new BadRequestException(exMessage, HttpStatus.BAD_REQUEST);
         }
     }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
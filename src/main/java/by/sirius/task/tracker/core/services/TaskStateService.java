@@ -4,12 +4,25 @@ import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.TaskStateDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardKey;
+import by.sirius.task.tracker.core.concurrency.BoardMutation;
+import by.sirius.task.tracker.core.concurrency.BoardReadCoalescer;
+import by.sirius.task.tracker.core.concurrency.OptimisticLocking;
+import by.sirius.task.tracker.core.concurrency.ProjectAdvisoryLocks;
+import by.sirius.task.tracker.core.concurrency.RetryOnConflict;
 import by.sirius.task.tracker.core.factories.TaskStateDtoFactory;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.readmodel.BoardReadModel;
+import by.sirius.task.tracker.core.readmodel.BoardView;
+import by.sirius.task.tracker.core.services.helpers.EntityVersions;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.streaming.BoardStream;
+import by.sirius.task.tracker.core.streaming.BoardStreamWriter;
 import by.sirius.task.tracker.store.entities.ProjectEntity;
 import by.sirius.task.tracker.store.entities.TaskStateEntity;
 import by.sirius.task.tracker.store.repositories.ProjectRepository;
 import by.sirius.task.tracker.store.repositories.TaskStateRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,34 +36,73 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Service
+@Timed(value = "task_tracker.service", histogram = true)
 public class TaskStateService {
 
     private final TaskStateRepository taskStateRepository;
     private final TaskStateDtoFactory taskStateDtoFactory;
     private final ProjectRepository projectRepository;
+    private final BoardStatisticsService boardStatisticsService;
+    private final OptimisticLocking optimisticLocking;
+    private final ProjectAdvisoryLocks projectAdvisoryLocks;
+    private final BoardReadCoalescer boardReadCoalescer;
+    private final BoardStreamWriter boardStreamWriter;
+    private final BoardReadModel boardReadModel;
 
     private final ServiceHelper serviceHelper;
 
-    public TaskStateDto getTaskStateById(Long projectId, Long taskStateId) {
-        TaskStateEntity taskState = taskStateRepository.findWithTasksByProjectIdAndId(projectId, taskStateId)
+    public TaskStateDto getTaskStateById(Long projectId, Long taskStateId, SparseFields fields) {
+        Optional<TaskStateEntity> optionalTaskState = fields.includesTasks()
+                ? taskStateRepository.findWithTasksByProjectIdAndId(projectId, taskStateId)
+                : taskStateRepository.findByProjectIdAndId(projectId, taskStateId);
+        TaskStateEntity taskState = optionalTaskState
                 .orElseThrow(() -> new NotFoundException("Task state not found", HttpStatus.NOT_FOUND));
 
-        return taskStateDtoFactory.makeTaskStateDto(taskState);
+        return taskStateDtoFactory.makeTaskStateDto(taskState, fields);
     }
 
-    public List<TaskStateDto> getTaskStates(Long projectId, String username) {
+    public List<TaskStateDto> getTaskStates(Long projectId, String username, SparseFields fields) {
         log.debug("Fetching task states for project ID: {}", projectId);
 
-        ProjectEntity project = projectRepository.findWithTaskStatesByProjectIdAndAdminName(projectId ,username)
-                .orElseThrow(() -> new NotFoundException("Project not found", HttpStatus.NOT_FOUND));
+        Optional<BoardView> board = boardReadModel.find(projectId).filter(view -> view.isOwnedBy(username));
+        if (board.isPresent()) {
+            return board.get().taskStates(fields);
+        }
+
+        if (!projectRepository.existsByIdAndAdminUsername(projectId, username)) {
+            throw new NotFoundException("Project not found", HttpStatus.NOT_FOUND);
+        }
+
+        return boardReadCoalescer.coalesce(BoardReadCoalescer.View.TASK_STATES, projectId, fields, () -> {
+            ProjectEntity project = projectRepository.findWithTaskStatesById(projectId)
+                    .orElseThrow(() -> new NotFoundException("Project not found", HttpStatus.NOT_FOUND));
+
+            return project
+                    .getTaskStates()
+                    .stream()
+                    .map(taskState -> taskStateDtoFactory.makeTaskStateDto(taskState, fields))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Streams the task states of boards with at least {@code task-tracker.streaming.min-tasks} tasks; empty for
+     * smaller boards and for selections without tasks, which {@link #getTaskStates} serves.
+     */
+    public Optional<BoardStream> streamTaskStates(Long projectId, String username, SparseFields fields) {
+        if (!fields.includesTasks() || !boardStreamWriter.isLarge(projectId)) {
+            return Optional.empty();
+        }
+
+        if (!projectRepository.existsByIdAndAdminUsername(projectId, username)) {
+            throw new NotFoundException("Project not found", HttpStatus.NOT_FOUND);
+        }
 
-        return project
-                .getTaskStates()
-                .stream()
-                .map(taskStateDtoFactory::makeTaskStateDto)
-                .collect(Collectors.toList());
+        return Optional.of(boardStreamWriter.taskStates(projectId, fields));
     }
 
+    @BoardMutation(BoardKey.PROJECT)
+    @RetryOnConflict
     @Transactional
     public TaskStateDto createTaskState(Long projectId, String taskStateName) {
         log.info("Creating task state '{}' in project with ID: {}", taskStateName, projectId);
@@ -59,7 +111,10 @@ public class TaskStateService {
             throw new BadRequestException("Task state name can't be empty.", HttpStatus.BAD_REQUEST);
         }
 
+        projectAdvisoryLocks.lockProject(projectId);
+
         ProjectEntity project = serviceHelper.findProjectByIdOrThrowException(projectId);
+        optimisticLocking.forceIncrement(project);
         Optional<TaskStateEntity> optionalAnotherTaskState = Optional.empty();
 
         for (TaskStateEntity taskState : project.getTaskStates()) {
@@ -87,11 +142,15 @@ public class TaskStateService {
                     taskStateRepository.save(anotherTaskState);
                 });
 
+        boardReadCoalescer.boardChanged(project);
+        boardReadModel.onBoardRestructured(project.getId());
+
         return taskStateDtoFactory.makeTaskStateDto(taskState);
     }
 
+    @RetryOnConflict
     @Transactional
-    public TaskStateDto editTaskState(Long taskStateId, String taskStateName) {
+    public TaskStateDto editTaskState(Long taskStateId, String taskStateName, Optional<Long> expectedVersion) {
         log.info("Editing task state with ID: {}, new name: {}", taskStateId, taskStateName);
 
         if (taskStateName.isBlank()) {
@@ -99,6 +158,7 @@ public class TaskStateService {
         }
 
         TaskStateEntity taskState = serviceHelper.findTaskStateByIdOrThrowException(taskStateId);
+        EntityVersions.verify("Task state", taskStateId, taskState.getVersion(), expectedVersion);
 
         taskStateRepository
                 .findTaskStateEntityByProjectIdAndNameContainsIgnoreCase(
@@ -113,28 +173,47 @@ public class TaskStateService {
 
         taskState.setName(taskStateName);
         taskState = taskStateRepository.save(taskState);
+        boardReadCoalescer.boardChanged(taskState);
+        boardReadModel.onTasksChanged(taskState);
 
         return taskStateDtoFactory.makeTaskStateDto(taskState);
     }
 
+    @BoardMutation(BoardKey.TASK_STATE)
+    @RetryOnConflict
     @Transactional
-    public AckDto deleteTaskState(Long taskStateId) {
+    public AckDto deleteTaskState(Long taskStateId, Optional<Long> expectedVersion) {
         log.warn("Deleting task state with ID: {}", taskStateId);
 
+        projectAdvisoryLocks.lockProjectOfTaskState(taskStateId);
+
         TaskStateEntity changeTaskState = serviceHelper.findTaskStateByIdOrThrowException(taskStateId);
+        EntityVersions.verify("Task state", taskStateId, changeTaskState.getVersion(), expectedVersion);
+        optimisticLocking.forceIncrement(changeTaskState.getProject());
 
         serviceHelper.replaceOldTaskStatePosition(changeTaskState);
         taskStateRepository.deleteById(taskStateId);
 
+        boardStatisticsService.onTaskStateDeleted(changeTaskState);
+        boardReadCoalescer.boardChanged(changeTaskState);
+        boardReadModel.onBoardRestructured(changeTaskState.getProject().getId());
+
         return AckDto.builder().answer(true).build();
     }
 
+    @BoardMutation(BoardKey.TASK_STATE)
+    @RetryOnConflict
     @Transactional
-    public TaskStateDto changeTaskStatePosition(Long taskStateId, Optional<Long> optionalLeftTaskStateId) {
+    public TaskStateDto changeTaskStatePosition(Long taskStateId,
+                                                Optional<Long> optionalLeftTaskStateId,
+                                                Optional<Long> expectedVersion) {
         log.info("Changing task state position for task state ID: {}, left state ID: {}",
                 taskStateId, optionalLeftTaskStateId.orElse(null));
 
+        projectAdvisoryLocks.lockProjectOfTaskState(taskStateId);
+
         TaskStateEntity changeTaskState = serviceHelper.findTaskStateByIdOrThrowException(taskStateId);
+        EntityVersions.verify("Task state", taskStateId, changeTaskState.getVersion(), expectedVersion);
         ProjectEntity project = changeTaskState.getProject();
 
         Optional<Long> optionalOldLeftTaskStateId = changeTaskState
@@ -177,6 +256,8 @@ public class TaskStateService {
                     .getRightTaskState();
         }
 
+        optimisticLocking.forceIncrement(project);
+
         serviceHelper.replaceOldTaskStatePosition(changeTaskState);
 
         if (optionalNewLeftTaskState.isPresent()) {
@@ -203,6 +284,9 @@ public class TaskStateService {
         optionalNewRightTaskState
                 .ifPresent(taskStateRepository::save);
 
+        boardReadCoalescer.boardChanged(changeTaskState);
+        boardReadModel.onBoardRestructured(project.getId());
+
         return taskStateDtoFactory.makeTaskStateDto(changeTaskState);
     }
 }
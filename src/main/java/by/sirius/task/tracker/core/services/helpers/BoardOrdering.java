@@ -0,0 +1,61 @@
+package by.sirius.task.tracker.core.services.helpers;
+
+import by.sirius.task.tracker.store.entities.TaskEntity;
+import by.sirius.task.tracker.store.entities.TaskStateEntity;
+
+import java.util.*;
+
+public final class BoardOrdering {
+
+    private BoardOrdering() {
+    }
+
+    /**
+     * Returns the task states in the left-to-right order of the board by following the
+     * {@code leftTaskState}/{@code rightTaskState} links. States that can't be reached from the leftmost
+     * state (broken links) are appended in id order.
+     */
+    public static List<TaskStateEntity> orderTaskStates(Collection<TaskStateEntity> taskStates) {
+        Set<TaskStateEntity> remaining = new HashSet<>(taskStates);
+        List<TaskStateEntity> ordered = new ArrayList<>(taskStates.size());
+
+        Optional<TaskStateEntity> current = taskStates.stream()
+                .filter(taskState -> taskState.getLeftTaskState().isEmpty())
+                .findFirst();
+
+        while (current.isPresent() && remaining.remove(current.get())) {
+            ordered.add(current.get());
+            current = current.get().getRightTaskState();
+        }
+
+        remaining.stream()
+                .sorted(Comparator.comparing(TaskStateEntity::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(ordered::add);
+
+        return ordered;
+    }
+
+    /**
+     * Returns the tasks of one task state in board order by following the {@code leftTask}/{@code rightTask}
+     * links, appending unreachable tasks in id order.
+     */
+    public static List<TaskEntity> orderTasks(Collection<TaskEntity> tasks) {
+        Set<TaskEntity> remaining = new HashSet<>(tasks);
+        List<TaskEntity> ordered = new ArrayList<>(tasks.size());
+
+        Optional<TaskEntity> current = tasks.stream()
+                .filter(task -> task.getLeftTask().isEmpty())
+                .findFirst();
+
+        while (current.isPresent() && remaining.remove(current.get())) {
+            ordered.add(current.get());
+            current = current.get().getRightTask();
+        }
+
+        remaining.stream()
+                .sorted(Comparator.comparing(TaskEntity::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(ordered::add);
+
+        return ordered;
+    }
+}
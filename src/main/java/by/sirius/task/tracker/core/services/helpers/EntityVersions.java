@@ -0,0 +1,48 @@
+package by.sirius.task.tracker.core.services.helpers;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.ConflictException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Optional;
+
+public final class EntityVersions {
+
+    private EntityVersions() {
+    }
+
+    /**
+     * Reads the version a client expects from an {@code If-Match} header. Accepts {@code "3"}, {@code W/"3"}
+     * and a bare {@code 3}; a missing header or {@code *} means no expectation.
+     */
+    public static Optional<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return Optional.empty();
+        }
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        try {
+            return Optional.of(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(
+                    String.format("If-Match \"%s\" is not an entity version", ifMatch), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static void verify(String entityName, Long id, Long actualVersion, Optional<Long> expectedVersion) {
+        expectedVersion.ifPresent(expected -> {
+            if (!expected.equals(actualVersion)) {
+                throw new ConflictException(
+                        String.format("%s with id \"%d\" is at version %d, not %d", entityName, id, actualVersion, expected),
+                        HttpStatus.PRECONDITION_FAILED);
+            }
+        });
+    }
+}
@@ -123,20 +123,6 @@ public class ServiceHelper {
     }
 
     public void replaceOldTaskPosition(TaskEntity changeTask) {
-
-        Optional<TaskEntity> optionalOldLeftTask = changeTask.getLeftTask();
-        Optional<TaskEntity> optionalOldRightTask = changeTask.getRightTask();
-
-        optionalOldLeftTask
-                .ifPresent(it -> {
-                    it.setRightTask(optionalOldRightTask.orElse(null));
-                    taskRepository.saveAndFlush(it);
-                });
-
-        optionalOldRightTask
-                .ifPresent(it -> {
-                    it.setLeftTask(optionalOldLeftTask.orElse(null));
-                    taskRepository.saveAndFlush(it);
-                });
+        TaskOrdering.unlink(changeTask).forEach(taskRepository::saveAndFlush);
     }
 }
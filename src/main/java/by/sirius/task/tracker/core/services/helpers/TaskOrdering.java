@@ -0,0 +1,65 @@
+package by.sirius.task.tracker.core.services.helpers;
+
+import by.sirius.task.tracker.store.entities.TaskEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The in-memory link operations behind the task column mutations of {@code TaskService}: finding the ends of a
+ * column, taking a task out of its place and putting it between two neighbours. Saving the touched tasks is
+ * left to the caller.
+ */
+public final class TaskOrdering {
+
+    private TaskOrdering() {
+    }
+
+    public static Optional<TaskEntity> findHead(Collection<TaskEntity> tasks) {
+        return tasks.stream()
+                .filter(task -> task.getLeftTask().isEmpty())
+                .findAny();
+    }
+
+    public static Optional<TaskEntity> findTail(Collection<TaskEntity> tasks) {
+        return tasks.stream()
+                .filter(task -> task.getRightTask().isEmpty())
+                .findAny();
+    }
+
+    /**
+     * Links the neighbours of the task to each other, closing the gap it leaves. The task keeps its own links
+     * until it's linked elsewhere. Returns the neighbours whose links changed, left one first.
+     */
+    public static List<TaskEntity> unlink(TaskEntity task) {
+        Optional<TaskEntity> optionalOldLeftTask = task.getLeftTask();
+        Optional<TaskEntity> optionalOldRightTask = task.getRightTask();
+        List<TaskEntity> changed = new ArrayList<>(2);
+
+        optionalOldLeftTask.ifPresent(it -> {
+            it.setRightTask(optionalOldRightTask.orElse(null));
+            changed.add(it);
+        });
+
+        optionalOldRightTask.ifPresent(it -> {
+            it.setLeftTask(optionalOldLeftTask.orElse(null));
+            changed.add(it);
+        });
+
+        return changed;
+    }
+
+    /**
+     * Puts the task between the given neighbours; an empty left task makes it the head, an empty right task
+     * the tail.
+     */
+    public static void linkBetween(TaskEntity task, Optional<TaskEntity> leftTask, Optional<TaskEntity> rightTask) {
+        task.setLeftTask(leftTask.orElse(null));
+        leftTask.ifPresent(it -> it.setRightTask(task));
+
+        task.setRightTask(rightTask.orElse(null));
+        rightTask.ifPresent(it -> it.setLeftTask(task));
+    }
+}
@@ -0,0 +1,89 @@
+package by.sirius.task.tracker.core.snapshots;
+
+import by.sirius.task.tracker.store.projections.BoardEventView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Applies task history events to a copy of a {@link BoardSnapshot}.
+ * <p>
+ * Task history records the id of the task state a task enters, so columns are matched by id and survive a
+ * rename. Rows written before the ids were recorded are matched by name. Changes to the task states themselves
+ * are not recorded, so a column that is not in the snapshot is appended when a task first arrives in it.
+ */
+public class BoardReplay {
+
+    private final List<MutableColumn> columns = new ArrayList<>();
+
+    private int appliedEvents;
+
+    public BoardReplay(BoardSnapshot snapshot) {
+        snapshot.columns().forEach(column ->
+                columns.add(new MutableColumn(column.id(), column.name(), new ArrayList<>(column.taskIds()))));
+    }
+
+    public void apply(BoardEventView event) {
+        Long taskId = event.getTaskId();
+
+        if ("DELETE".equals(event.getChangeType())) {
+            remove(taskId);
+        } else if ("task state".equals(event.getFieldName())) {
+            remove(taskId);
+            columnOf(event).taskIds().add(taskId);
+        } else if ("task position".equals(event.getFieldName())) {
+            MutableColumn column = remove(taskId);
+            if (column == null) {
+                return;
+            }
+            int index = 0;
+            if (event.getNewValue() != null) {
+                int leftIndex = column.taskIds().indexOf(Long.valueOf(event.getNewValue()));
+                index = leftIndex < 0 ? column.taskIds().size() : leftIndex + 1;
+            }
+            column.taskIds().add(index, taskId);
+        } else {
+            return;
+        }
+
+        appliedEvents++;
+    }
+
+    public int getAppliedEvents() {
+        return appliedEvents;
+    }
+
+    public BoardSnapshot toSnapshot() {
+        return new BoardSnapshot(columns.stream()
+                .map(column -> new BoardSnapshot.Column(column.id(), column.name(), List.copyOf(column.taskIds())))
+                .toList());
+    }
+
+    private MutableColumn remove(Long taskId) {
+        for (MutableColumn column : columns) {
+            if (column.taskIds().remove(taskId)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private MutableColumn columnOf(BoardEventView event) {
+        Long id = event.getNewTaskStateId();
+        for (MutableColumn column : columns) {
+            boolean matches = id != null
+                    ? id.equals(column.id())
+                    : Objects.equals(column.name(), event.getNewValue());
+            if (matches) {
+                return column;
+            }
+        }
+        MutableColumn column = new MutableColumn(id, event.getNewValue(), new ArrayList<>());
+        columns.add(column);
+        return column;
+    }
+
+    private record MutableColumn(Long id, String name, List<Long> taskIds) {
+    }
+}
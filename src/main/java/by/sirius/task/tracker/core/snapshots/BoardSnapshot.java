@@ -0,0 +1,25 @@
+package by.sirius.task.tracker.core.snapshots;
+
+import java.util.List;
+
+/**
+ * Serialized form of a board: task states in board order, each with the ids of its tasks in board order, and the
+ * ids of the history rows from the snapshot's {@code historyFrom} on that the board already reflects.
+ */
+public record BoardSnapshot(List<Column> columns, List<Long> historyIds) {
+
+    public BoardSnapshot {
+        historyIds = historyIds != null ? historyIds : List.of();
+    }
+
+    public BoardSnapshot(List<Column> columns) {
+        this(columns, List.of());
+    }
+
+    public static BoardSnapshot empty() {
+        return new BoardSnapshot(List.of());
+    }
+
+    public record Column(Long id, String name, List<Long> taskIds) {
+    }
+}
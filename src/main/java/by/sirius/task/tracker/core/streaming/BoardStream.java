@@ -0,0 +1,16 @@
+package by.sirius.task.tracker.core.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * A board response that is written row by row instead of being built in memory first. {@code objectMapper}
+ * is the mapper of the negotiated format and writes the values the same way it writes the buffered DTOs.
+ */
+@FunctionalInterface
+public interface BoardStream {
+
+    void writeTo(JsonGenerator generator, ObjectMapper objectMapper) throws IOException;
+}
@@ -0,0 +1,106 @@
+package by.sirius.task.tracker.core.streaming;
+
+import by.sirius.task.tracker.core.formats.BinaryFormatsConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes a {@link BoardStream} to the servlet response in the format the request prefers, negotiated the way
+ * Spring MVC negotiates for the message converters and written with the same mappers. JSON wins when the
+ * client accepts anything.
+ */
+@Component
+public class BoardStreamResponses {
+
+    private record Format(MediaType mediaType, ObjectMapper objectMapper) {
+    }
+
+    private final List<Format> formats;
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    public BoardStreamResponses(ContentNegotiationManager contentNegotiationManager,
+                                ObjectMapper objectMapper,
+                                MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                                MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        this.formats = List.of(
+                new Format(MediaType.APPLICATION_JSON, objectMapper),
+                new Format(MediaType.APPLICATION_CBOR, cborHttpMessageConverter.getObjectMapper()),
+                new Format(BinaryFormatsConfig.APPLICATION_SMILE, smileHttpMessageConverter.getObjectMapper()));
+        this.contentNegotiationManager = contentNegotiationManager;
+    }
+
+    /**
+     * Returns {@code false} without touching the response when no format is acceptable, so the buffered path
+     * can answer as usual.
+     * <p>
+     * The generator is closed only after a complete write. An error before the first flush leaves the
+     * response uncommitted for the exception handler; an error after it truncates the body.
+     */
+    public boolean write(BoardStream stream,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Optional<Format> format = negotiate(request);
+        if (format.isEmpty()) {
+            return false;
+        }
+
+        ObjectMapper objectMapper = format.get().objectMapper();
+        response.setContentType(format.get().mediaType().toString());
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        stream.writeTo(generator, objectMapper);
+        generator.close();
+        return true;
+    }
+
+    /**
+     * Mirrors the message converters: the types the {@link ContentNegotiationManager} resolves are matched
+     * against the producible ones, keeping the quality of the requested type, and the most specific, most
+     * preferred concrete type wins.
+     */
+    private Optional<Format> negotiate(HttpServletRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return Optional.empty();
+        }
+
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : formats) {
+                if (acceptedType.isCompatibleWith(format.mediaType())) {
+                    compatible.add(format.mediaType().copyQualityValue(acceptedType));
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+
+        for (MediaType mediaType : compatible) {
+            for (Format format : formats) {
+                if (format.mediaType().equalsTypeAndSubtype(mediaType)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
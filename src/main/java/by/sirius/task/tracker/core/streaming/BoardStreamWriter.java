@@ -0,0 +1,293 @@
+package by.sirius.task.tracker.core.streaming;
+
+import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.services.TaskQueryService;
+import by.sirius.task.tracker.store.entities.BoardStatisticDimension;
+import by.sirius.task.tracker.store.entities.BoardStatisticEntity;
+import by.sirius.task.tracker.store.repositories.BoardStatisticRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes large boards straight from the database to the response generator. Task states are read up front,
+ * they are few; the tasks of the whole board come through one cursor of {@code fetch-size} rows ordered by task
+ * state, and are written into their column as they arrive. The heap used per request does not grow with the
+ * number of tasks, the first bytes leave before the last rows are read, and a board costs three statements
+ * however many columns it has.
+ * <p>
+ * The cursor needs a transaction, so a read-only one stays open, together with its connection, while the
+ * response is written. {@code write-timeout} bounds how long: a stream still running after it is cut off and
+ * its transaction rolled back, so a slow client can't hold a connection for long. A client that stops reading
+ * altogether blocks the write itself, which the connector's {@code server.tomcat.connection-timeout} ends.
+ * Smaller boards keep the buffered path, where concurrent reads can be coalesced.
+ */
+@Component
+public class BoardStreamWriter {
+
+    private static final String SELECT_PROJECT = """
+            SELECT p.id, p.name, u.username AS owner, p.created_at, p.version
+            FROM projects p
+            JOIN users u ON u.id = p.admin_id
+            WHERE p.id = :projectId
+            """;
+
+    private static final String SELECT_TASK_STATES = """
+            SELECT ts.id, ts.name, ts.left_task_state_id, r.id AS right_task_state_id, ts.created_at, ts.version
+            FROM task_states ts
+            LEFT JOIN task_states r ON r.left_task_state_id = ts.id
+            WHERE ts.project_id = :projectId
+            ORDER BY ts.id
+            """;
+
+    private static final String SELECT_PROJECT_TASKS = """
+            SELECT t.task_state_id, t.id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id,
+                   u.username AS assigned_user
+            FROM tasks t
+            JOIN task_states ts ON ts.id = t.task_state_id
+            LEFT JOIN users u ON u.id = t.assigned_user_id
+            WHERE ts.project_id = :projectId
+            ORDER BY t.task_state_id, t.created_at, t.id
+            """;
+
+    private static final String SELECT_TASKS = """
+            SELECT t.id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id, u.username AS assigned_user
+            FROM tasks t
+            LEFT JOIN users u ON u.id = t.assigned_user_id
+            WHERE t.task_state_id = :taskStateId
+            ORDER BY t.created_at, t.id
+            """;
+
+    private static final RowMapper<ProjectDtoWithTaskStates> PROJECT_ROW_MAPPER = (rs, rowNum) ->
+            ProjectDtoWithTaskStates.builder()
+                    .id(rs.getLong("id"))
+                    .name(rs.getString("name"))
+                    .owner(rs.getString("owner"))
+                    .createdAt(rs.getTimestamp("created_at").toInstant())
+                    .version(rs.getLong("version"))
+                    .build();
+
+    private static final RowMapper<TaskStateDto> TASK_STATE_ROW_MAPPER = (rs, rowNum) -> TaskStateDto.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .leftTaskStateId(rs.getObject("left_task_state_id", Long.class))
+            .rightTaskStateId(rs.getObject("right_task_state_id", Long.class))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .version(rs.getLong("version"))
+            .build();
+
+    private static final RowMapper<TaskRow> TASK_ROW_MAPPER = (rs, rowNum) -> new TaskRow(
+            rs.getLong("task_state_id"), TaskQueryService.TASK_ROW_MAPPER.mapRow(rs, rowNum));
+
+    private record TaskRow(Long taskStateId, TaskDto task) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardStatisticRepository boardStatisticRepository;
+    private final boolean enabled;
+    private final long minTasks;
+    private final Duration writeTimeout;
+
+    public BoardStreamWriter(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             BoardStatisticRepository boardStatisticRepository,
+                             @Value("${task-tracker.streaming.enabled:true}") boolean enabled,
+                             @Value("${task-tracker.streaming.min-tasks:5000}") long minTasks,
+                             @Value("${task-tracker.streaming.fetch-size:500}") int fetchSize,
+                             @Value("${task-tracker.streaming.write-timeout:PT30S}") Duration writeTimeout) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, writeTimeout.toSeconds()));
+
+        this.boardStatisticRepository = boardStatisticRepository;
+        this.enabled = enabled;
+        this.minTasks = minTasks;
+        this.writeTimeout = writeTimeout;
+    }
+
+    /**
+     * Uses the board statistics counters, so the decision costs one small indexed read.
+     */
+    public boolean isLarge(Long projectId) {
+        return enabled && countTasks(projectId, null) >= minTasks;
+    }
+
+    public boolean isLarge(Long projectId, Long taskStateId) {
+        return enabled && countTasks(projectId, taskStateId) >= minTasks;
+    }
+
+    public BoardStream project(Long projectId, SparseFields fields) {
+        return (generator, objectMapper) -> inTransaction(deadline -> {
+            ObjectWriter writer = writer(objectMapper, fields);
+            ProjectDtoWithTaskStates project = jdbcTemplate
+                    .query(SELECT_PROJECT, Map.of("projectId", projectId), PROJECT_ROW_MAPPER)
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Project not found", HttpStatus.NOT_FOUND));
+
+            generator.writeStartObject();
+            writeField(generator, writer, fields, SparseFields.Level.PROJECT, "id", project.getId());
+            writeField(generator, writer, fields, SparseFields.Level.PROJECT, "name", project.getName());
+            writeField(generator, writer, fields, SparseFields.Level.PROJECT, "owner", project.getOwner());
+            writeField(generator, writer, fields, SparseFields.Level.PROJECT, "created_at", project.getCreatedAt());
+            writeField(generator, writer, fields, SparseFields.Level.PROJECT, "version", project.getVersion());
+            if (fields.includesTaskStates()) {
+                generator.writeFieldName("taskStates");
+                writeTaskStates(generator, writer, projectId, fields, deadline);
+            }
+            generator.writeEndObject();
+        });
+    }
+
+    public BoardStream taskStates(Long projectId, SparseFields fields) {
+        return (generator, objectMapper) -> inTransaction(deadline ->
+                writeTaskStates(generator, writer(objectMapper, fields), projectId, fields, deadline));
+    }
+
+    public BoardStream tasks(Long taskStateId, SparseFields fields) {
+        return (generator, objectMapper) -> inTransaction(deadline ->
+                writeTasks(generator, writer(objectMapper, fields), taskStateId, deadline));
+    }
+
+    private void writeTaskStates(JsonGenerator generator,
+                                 ObjectWriter writer,
+                                 Long projectId,
+                                 SparseFields fields,
+                                 long deadline) throws IOException {
+        List<TaskStateDto> taskStates = jdbcTemplate.query(
+                SELECT_TASK_STATES, Map.of("projectId", projectId), TASK_STATE_ROW_MAPPER);
+
+        try (Stream<TaskRow> rows = fields.includesTasks()
+                ? jdbcTemplate.queryForStream(SELECT_PROJECT_TASKS, Map.of("projectId", projectId), TASK_ROW_MAPPER)
+                : Stream.empty()) {
+            Iterator<TaskRow> cursor = rows.iterator();
+            TaskRow row = cursor.hasNext() ? cursor.next() : null;
+
+            generator.writeStartArray();
+            for (TaskStateDto taskState : taskStates) {
+                generator.writeStartObject();
+                writeField(generator, writer, fields, SparseFields.Level.TASK_STATE, "id", taskState.getId());
+                writeField(generator, writer, fields, SparseFields.Level.TASK_STATE, "name", taskState.getName());
+                writeField(generator, writer, fields, SparseFields.Level.TASK_STATE,
+                        "left_task_state_id", taskState.getLeftTaskStateId());
+                writeField(generator, writer, fields, SparseFields.Level.TASK_STATE,
+                        "right_task_state_id", taskState.getRightTaskStateId());
+                writeField(generator, writer, fields, SparseFields.Level.TASK_STATE,
+                        "created_at", taskState.getCreatedAt());
+                writeField(generator, writer, fields, SparseFields.Level.TASK_STATE, "version", taskState.getVersion());
+                if (fields.includesTasks()) {
+                    // Both are ordered by task state id, so the rows of this column come next
+                    generator.writeFieldName("tasks");
+                    generator.writeStartArray();
+                    while (row != null && row.taskStateId() < taskState.getId()) {
+                        row = cursor.hasNext() ? cursor.next() : null;
+                    }
+                    while (row != null && row.taskStateId().equals(taskState.getId())) {
+                        checkDeadline(deadline);
+                        writer.writeValue(generator, row.task());
+                        row = cursor.hasNext() ? cursor.next() : null;
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeTasks(JsonGenerator generator, ObjectWriter writer, Long taskStateId, long deadline)
+            throws IOException {
+        generator.writeStartArray();
+        jdbcTemplate.query(SELECT_TASKS, Map.of("taskStateId", taskStateId), rs -> {
+            try {
+                checkDeadline(deadline);
+                writer.writeValue(generator, TaskQueryService.TASK_ROW_MAPPER.mapRow(rs, rs.getRow()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+    }
+
+    private void checkDeadline(long deadline) throws InterruptedIOException {
+        if (System.nanoTime() - deadline > 0) {
+            throw new InterruptedIOException("Board stream took longer than " + writeTimeout);
+        }
+    }
+
+    /**
+     * Flushing after every value would turn each field into a write to the client.
+     */
+    private static ObjectWriter writer(ObjectMapper objectMapper, SparseFields fields) {
+        return objectMapper.writer(fields.filters()).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static void writeField(JsonGenerator generator,
+                                   ObjectWriter writer,
+                                   SparseFields fields,
+                                   SparseFields.Level level,
+                                   String name,
+                                   Object value) throws IOException {
+        if (fields.includes(level, name)) {
+            generator.writeFieldName(name);
+            writer.writeValue(generator, value);
+        }
+    }
+
+    private long countTasks(Long projectId, Long taskStateId) {
+        return boardStatisticRepository.findAllByProjectId(projectId)
+                .stream()
+                .filter(statistic -> statistic.getDimension() == BoardStatisticDimension.TASK_STATE)
+                .filter(statistic -> taskStateId == null || Objects.equals(statistic.getDimensionId(), taskStateId))
+                .mapToLong(BoardStatisticEntity::getTaskCount)
+                .sum();
+    }
+
+    private void inTransaction(Write write) throws IOException {
+        long deadline = System.nanoTime() + writeTimeout.toNanos();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    write.run(deadline);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Write {
+        void run(long deadline) throws IOException;
+    }
+}
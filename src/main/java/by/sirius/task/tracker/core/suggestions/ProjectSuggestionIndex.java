@@ -0,0 +1,221 @@
+package by.sirius.task.tracker.core.suggestions;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram and prefix index over the member usernames and task names of a single project.
+ * <p>
+ * Entries are kept in a sorted map for prefix lookups and in trigram posting lists for fuzzy lookups.
+ * The number of entries and the indexed length of each value are capped, so memory per project is bounded.
+ */
+public class ProjectSuggestionIndex {
+
+    private static final double MIN_FUZZY_SCORE = 0.3;
+
+    private final int maxEntries;
+    private final int maxValueLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final NavigableMap<String, Entry> sortedEntries = new TreeMap<>();
+    private final Map<String, Set<Entry>> postings = new HashMap<>();
+
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private boolean loading = true;
+
+    public ProjectSuggestionIndex(int maxEntries, int maxValueLength) {
+        this.maxEntries = maxEntries;
+        this.maxValueLength = maxValueLength;
+    }
+
+    public void put(SuggestionType type, Long id, String value) {
+        lock.writeLock().lock();
+        try {
+            String key = key(type, id);
+            removeEntry(key);
+            addEntry(new Entry(key, type, id, value, normalize(value)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(SuggestionType type, Long id) {
+        lock.writeLock().lock();
+        try {
+            String key = key(type, id);
+            removeEntry(key);
+            if (loading) {
+                removedWhileLoading.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fills the index with the state read from the database. Changes applied while the load was
+     * running win over the loaded values, so a concurrent rename or removal is never lost.
+     */
+    public void load(SuggestionType type, Map<Long, String> values) {
+        lock.writeLock().lock();
+        try {
+            values.forEach((id, value) -> {
+                String key = key(type, id);
+                if (!entries.containsKey(key) && !removedWhileLoading.contains(key)) {
+                    addEntry(new Entry(key, type, id, value, normalize(value)));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void markLoaded() {
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            removedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loaded.countDown();
+    }
+
+    public boolean awaitLoaded(long timeoutMillis) throws InterruptedException {
+        return loaded.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns prefix matches first (alphabetically), then fuzzy trigram matches ordered by score.
+     */
+    public List<Suggestion> suggest(String query, Optional<SuggestionType> type, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Suggestion> result = new ArrayList<>(limit);
+            Set<String> seen = new HashSet<>();
+
+            for (Entry entry : sortedEntries.subMap(normalizedQuery, true, normalizedQuery + Character.MAX_VALUE, false).values()) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                if (type.isEmpty() || type.get() == entry.type()) {
+                    result.add(new Suggestion(entry.type(), entry.id(), entry.value(), 1.0, true));
+                    seen.add(entry.key());
+                }
+            }
+
+            Set<String> queryTrigrams = trigrams(normalizedQuery);
+            Map<Entry, Integer> hits = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (Entry entry : postings.getOrDefault(trigram, Set.of())) {
+                    if (!seen.contains(entry.key()) && (type.isEmpty() || type.get() == entry.type())) {
+                        hits.merge(entry, 1, Integer::sum);
+                    }
+                }
+            }
+
+            hits.entrySet().stream()
+                    .map(hit -> new Suggestion(
+                            hit.getKey().type(),
+                            hit.getKey().id(),
+                            hit.getKey().value(),
+                            2.0 * hit.getValue() / (queryTrigrams.size() + hit.getKey().trigrams().size()),
+                            false))
+                    .filter(suggestion -> suggestion.score() >= MIN_FUZZY_SCORE)
+                    .sorted(Comparator.comparingDouble(Suggestion::score).reversed()
+                            .thenComparing(Suggestion::value))
+                    .limit(limit - result.size())
+                    .forEach(result::add);
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addEntry(Entry entry) {
+        if (entries.size() >= maxEntries) {
+            return;
+        }
+        entries.put(entry.key(), entry);
+        sortedEntries.put(entry.normalized() + '\u0000' + entry.key(), entry);
+        for (String trigram : entry.trigrams()) {
+            postings.computeIfAbsent(trigram, it -> new HashSet<>()).add(entry);
+        }
+    }
+
+    private void removeEntry(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        sortedEntries.remove(entry.normalized() + '\u0000' + entry.key());
+        for (String trigram : entry.trigrams()) {
+            Set<Entry> posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(entry);
+                if (posting.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private String normalize(String value) {
+        String normalized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > maxValueLength ? normalized.substring(0, maxValueLength) : normalized;
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        String padded = "  " + normalized + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String key(SuggestionType type, Long id) {
+        return type.name() + ':' + id;
+    }
+
+    private record Entry(String key, SuggestionType type, Long id, String value, String normalized, Set<String> trigrams) {
+
+        Entry(String key, SuggestionType type, Long id, String value, String normalized) {
+            this(key, type, id, value, normalized, trigrams(normalized));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry that && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+
+    public record Suggestion(SuggestionType type, Long id, String value, double score, boolean prefixMatch) {
+    }
+}
@@ -0,0 +1,94 @@
+package by.sirius.task.tracker.core.suggestions;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of per-project suggestion indexes. Indexes are built lazily on the first lookup and kept
+ * up to date by the services that change project membership and tasks. Only the most recently used
+ * projects are kept in memory.
+ */
+@Component
+public class SuggestionIndex {
+
+    private final int maxEntriesPerProject;
+    private final int maxValueLength;
+    private final Map<Long, ProjectSuggestionIndex> indexes;
+
+    public SuggestionIndex(@Value("${task-tracker.suggestions.max-projects:1000}") int maxProjects,
+                           @Value("${task-tracker.suggestions.max-entries-per-project:5000}") int maxEntriesPerProject,
+                           @Value("${task-tracker.suggestions.max-value-length:64}") int maxValueLength) {
+        this.maxEntriesPerProject = maxEntriesPerProject;
+        this.maxValueLength = maxValueLength;
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ProjectSuggestionIndex> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    /**
+     * Returns the index of the project, creating an empty one if it is not loaded yet.
+     * The {@code created} flag of the handle tells whether the caller is responsible for loading it.
+     */
+    public synchronized IndexHandle getOrCreate(Long projectId) {
+        ProjectSuggestionIndex index = indexes.get(projectId);
+        if (index != null) {
+            return new IndexHandle(index, false);
+        }
+        index = new ProjectSuggestionIndex(maxEntriesPerProject, maxValueLength);
+        indexes.put(projectId, index);
+        return new IndexHandle(index, true);
+    }
+
+    public synchronized void evict(Long projectId) {
+        indexes.remove(projectId);
+    }
+
+    public void onMemberAdded(Long projectId, Long userId, String username) {
+        afterCommit(() -> find(projectId).ifPresent(index -> index.put(SuggestionType.USER, userId, username)));
+    }
+
+    public void onMemberRemoved(Long projectId, Long userId) {
+        afterCommit(() -> find(projectId).ifPresent(index -> index.remove(SuggestionType.USER, userId)));
+    }
+
+    public void onTaskSaved(Long projectId, Long taskId, String taskName) {
+        afterCommit(() -> find(projectId).ifPresent(index -> index.put(SuggestionType.TASK, taskId, taskName)));
+    }
+
+    public void onTaskRemoved(Long projectId, Long taskId) {
+        afterCommit(() -> find(projectId).ifPresent(index -> index.remove(SuggestionType.TASK, taskId)));
+    }
+
+    public void onProjectRemoved(Long projectId) {
+        afterCommit(() -> evict(projectId));
+    }
+
+    private synchronized Optional<ProjectSuggestionIndex> find(Long projectId) {
+        return Optional.ofNullable(indexes.get(projectId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record IndexHandle(ProjectSuggestionIndex index, boolean created) {
+    }
+}
@@ -0,0 +1,6 @@
+package by.sirius.task.tracker.core.suggestions;
+
+public enum SuggestionType {
+    USER,
+    TASK
+}
@@ -0,0 +1,52 @@
+package by.sirius.task.tracker.store.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Compact copy of a project board: task states and the ids of their tasks, in board order. History rows changed
+ * before {@code historyFrom} are reflected in the snapshot; of the later ones, only those the payload lists.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "board_snapshots", indexes = @Index(
+        name = "idx_board_snapshots_project_taken_at", columnList = "project_id, taken_at"))
+public class BoardSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Builder.Default
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt = Instant.now();
+
+    @Column(name = "history_from", nullable = false)
+    private Instant historyFrom;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof BoardSnapshotEntity)) return false;
+        BoardSnapshotEntity that = (BoardSnapshotEntity) o;
+        return Objects.equals(that.id, id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,52 @@
+package by.sirius.task.tracker.store.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+/**
+ * Task counter of a project board along one dimension: a task state, an assignee or the unassigned tasks.
+ * Rows of the {@code UNASSIGNED} dimension use {@code 0} as the dimension id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "board_statistics", uniqueConstraints = @UniqueConstraint(
+        name = "uk_board_statistics_project_dimension",
+        columnNames = {"project_id", "dimension", "dimension_id"}))
+public class BoardStatisticEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BoardStatisticDimension dimension;
+
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Column(name = "task_count", nullable = false)
+    private Long taskCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof BoardStatisticEntity)) return false;
+        BoardStatisticEntity that = (BoardStatisticEntity) o;
+        return Objects.equals(that.id, id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
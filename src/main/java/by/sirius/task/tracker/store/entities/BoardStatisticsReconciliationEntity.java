@@ -0,0 +1,41 @@
+package by.sirius.task.tracker.store.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Marks a project whose board counters have been computed from its tasks at least once. Counters of a project
+ * without this row are incomplete, for example when its tasks predate the counters, and must not be incremented.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "board_statistics_reconciliations")
+public class BoardStatisticsReconciliationEntity {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "reconciled_at", nullable = false)
+    private Instant reconciledAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof BoardStatisticsReconciliationEntity)) return false;
+        BoardStatisticsReconciliationEntity that = (BoardStatisticsReconciliationEntity) o;
+        return Objects.equals(that.projectId, projectId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(projectId);
+    }
+}
@@ -43,6 +43,10 @@ public class ProjectEntity {
     @Builder.Default
     private Instant createdAt = Instant.now();
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
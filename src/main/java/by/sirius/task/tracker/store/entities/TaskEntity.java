@@ -13,7 +13,11 @@ import java.util.Optional;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_task_state_created_at", columnList = "task_state_id, created_at, id"),
+        @Index(name = "idx_tasks_assigned_user_created_at", columnList = "assigned_user_id, created_at, id"),
+        @Index(name = "idx_tasks_created_at", columnList = "created_at, id")
+})
 public class TaskEntity {
 
     @Id
@@ -34,6 +38,10 @@ public class TaskEntity {
     @Builder.Default
     private Instant createdAt = Instant.now();
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "assigned_user_id", referencedColumnName = "id")
     private UserEntity assignedUser;
@@ -0,0 +1,65 @@
+package by.sirius.task.tracker.store.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Task flow through one task state of a project during one UTC day, keyed by the task state's id. Lead and
+ * cycle times are summed over the arrivals into the state: lead time counts from task creation, cycle time
+ * from the moment the task first left its initial state.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "task_flow_daily", uniqueConstraints = @UniqueConstraint(
+        name = "uk_task_flow_daily_project_day_task_state",
+        columnNames = {"project_id", "day", "task_state_id"}))
+public class TaskFlowDailyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "task_state_id", nullable = false)
+    private Long taskStateId;
+
+    @Column(nullable = false)
+    private Long arrivals;
+
+    @Column(nullable = false)
+    private Long departures;
+
+    @Column(name = "lead_time_seconds", nullable = false)
+    private Long leadTimeSeconds;
+
+    @Column(name = "cycle_time_seconds", nullable = false)
+    private Long cycleTimeSeconds;
+
+    @Column(name = "cycle_time_count", nullable = false)
+    private Long cycleTimeCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof TaskFlowDailyEntity)) return false;
+        TaskFlowDailyEntity that = (TaskFlowDailyEntity) o;
+        return Objects.equals(that.id, id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,41 @@
+package by.sirius.task.tracker.store.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Marks how far the daily task flow of a project has been materialized: every day before
+ * {@code materializedUntil} is stored in {@link TaskFlowDailyEntity}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "task_flow_watermarks")
+public class TaskFlowWatermarkEntity {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "materialized_until")
+    private LocalDate materializedUntil;
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof TaskFlowWatermarkEntity)) return false;
+        TaskFlowWatermarkEntity that = (TaskFlowWatermarkEntity) o;
+        return Objects.equals(that.projectId, projectId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(projectId);
+    }
+}
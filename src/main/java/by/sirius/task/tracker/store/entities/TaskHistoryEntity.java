@@ -5,6 +5,11 @@ import lombok.*;
 
 import java.time.Instant;
 
+/**
+ * The table, its indexes and {@code task_history_id_seq} are created by the migrations in {@code db/migration},
+ * not by Hibernate, see {@code TaskHistoryPartitions}. Rows keep the id of a deleted task, so there is no
+ * foreign key.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,19 +20,31 @@ import java.time.Instant;
 public class TaskHistoryEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_history_id")
+    @SequenceGenerator(name = "task_history_id", sequenceName = "task_history_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
-    @JoinColumn(name = "task_id", referencedColumnName = "id")
+    @JoinColumn(name = "task_id", referencedColumnName = "id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private TaskEntity task;
 
+    /**
+     * The project of the task, kept on the row so it still belongs to the board once the task is deleted.
+     */
+    private Long projectId;
+
     private String username;
     private String changeType;
     private String fieldName;
     private String oldValue;
     private String newValue;
 
+    /**
+     * Ids of the task states a task state change leaves and enters, next to their names in the values.
+     */
+    private Long oldTaskStateId;
+    private Long newTaskStateId;
+
     @Builder.Default
     private Instant changedAt = Instant.now();
 }
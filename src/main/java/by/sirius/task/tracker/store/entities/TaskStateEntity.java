@@ -15,7 +15,7 @@ import java.util.Optional;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "task_states")
+@Table(name = "task_states", indexes = @Index(name = "idx_task_states_project_id", columnList = "project_id"))
 public class TaskStateEntity {
 
     @Id
@@ -34,6 +34,10 @@ public class TaskStateEntity {
     @Builder.Default
     private Instant createdAt = Instant.now();
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "project_id", referencedColumnName = "id")
     private ProjectEntity project;
@@ -0,0 +1,17 @@
+package by.sirius.task.tracker.store.projections;
+
+public interface BoardEventView {
+    Long getId();
+
+    Long getTaskId();
+
+    String getChangeType();
+
+    String getFieldName();
+
+    String getOldValue();
+
+    String getNewValue();
+
+    Long getNewTaskStateId();
+}
@@ -0,0 +1,6 @@
+package by.sirius.task.tracker.store.projections;
+
+public interface GroupCountView {
+    Long getGroupId();
+    Long getTaskCount();
+}
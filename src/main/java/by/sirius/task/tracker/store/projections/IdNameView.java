@@ -0,0 +1,6 @@
+package by.sirius.task.tracker.store.projections;
+
+public interface IdNameView {
+    Long getId();
+    String getName();
+}
@@ -0,0 +1,9 @@
+package by.sirius.task.tracker.store.projections;
+
+public interface TaskFieldValueView {
+    Long getTaskId();
+
+    String getFieldName();
+
+    String getValue();
+}
@@ -0,0 +1,9 @@
+package by.sirius.task.tracker.store.projections;
+
+public interface TaskFlowTotalsView {
+    Long getTaskStateId();
+
+    Long getArrivals();
+
+    Long getDepartures();
+}
@@ -0,0 +1,27 @@
+package by.sirius.task.tracker.store.projections;
+
+import java.time.Instant;
+
+/**
+ * One task state change read from the task history, together with the creation time of the task and the
+ * time it first left its initial task state ({@code null} if it never did).
+ */
+public interface TaskStateTransitionView {
+    Long getTaskId();
+
+    String getChangeType();
+
+    String getOldValue();
+
+    String getNewValue();
+
+    Long getOldTaskStateId();
+
+    Long getNewTaskStateId();
+
+    Instant getChangedAt();
+
+    Instant getTaskCreatedAt();
+
+    Instant getStartedAt();
+}
@@ -0,0 +1,22 @@
+package by.sirius.task.tracker.store.repositories;
+
+import by.sirius.task.tracker.store.entities.BoardSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface BoardSnapshotRepository extends JpaRepository<BoardSnapshotEntity, Long> {
+    Optional<BoardSnapshotEntity> findFirstByProjectIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long projectId,
+                                                                                                Instant takenAt);
+
+    Optional<BoardSnapshotEntity> findFirstByProjectIdOrderByTakenAtDesc(Long projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM board_snapshots WHERE project_id NOT IN (SELECT id FROM projects)", nativeQuery = true)
+    int deleteOrphaned();
+}
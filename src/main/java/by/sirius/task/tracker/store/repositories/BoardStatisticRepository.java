@@ -0,0 +1,54 @@
+package by.sirius.task.tracker.store.repositories;
+
+import by.sirius.task.tracker.store.entities.BoardStatisticEntity;
+import by.sirius.task.tracker.store.projections.GroupCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BoardStatisticRepository extends JpaRepository<BoardStatisticEntity, Long> {
+    List<BoardStatisticEntity> findAllByProjectId(Long projectId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO board_statistics (project_id, dimension, dimension_id, task_count)
+            VALUES (:projectId, :dimension, :dimensionId, :delta)
+            ON CONFLICT (project_id, dimension, dimension_id)
+            DO UPDATE SET task_count = board_statistics.task_count + EXCLUDED.task_count
+            """, nativeQuery = true)
+    void increment(@Param("projectId") Long projectId,
+                   @Param("dimension") String dimension,
+                   @Param("dimensionId") Long dimensionId,
+                   @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM BoardStatisticEntity s WHERE s.projectId = :projectId")
+    void deleteAllByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM board_statistics WHERE project_id NOT IN (SELECT id FROM projects)", nativeQuery = true)
+    int deleteOrphaned();
+
+    @Query(value = """
+            SELECT ts.id AS groupId, COUNT(t.id) AS taskCount
+            FROM task_states ts
+            LEFT JOIN tasks t ON t.task_state_id = ts.id
+            WHERE ts.project_id = :projectId
+            GROUP BY ts.id
+            """, nativeQuery = true)
+    List<GroupCountView> countTasksByTaskState(@Param("projectId") Long projectId);
+
+    @Query(value = """
+            SELECT t.assigned_user_id AS groupId, COUNT(t.id) AS taskCount
+            FROM tasks t
+            JOIN task_states ts ON ts.id = t.task_state_id
+            WHERE ts.project_id = :projectId
+            GROUP BY t.assigned_user_id
+            """, nativeQuery = true)
+    List<GroupCountView> countTasksByAssignee(@Param("projectId") Long projectId);
+}
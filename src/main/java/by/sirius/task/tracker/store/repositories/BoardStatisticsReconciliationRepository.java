@@ -0,0 +1,40 @@
+package by.sirius.task.tracker.store.repositories;
+
+import by.sirius.task.tracker.store.entities.BoardStatisticsReconciliationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BoardStatisticsReconciliationRepository
+        extends JpaRepository<BoardStatisticsReconciliationEntity, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO board_statistics_reconciliations (project_id, reconciled_at)
+            VALUES (:projectId, now())
+            ON CONFLICT (project_id) DO UPDATE SET reconciled_at = EXCLUDED.reconciled_at
+            """, nativeQuery = true)
+    void markReconciled(@Param("projectId") Long projectId);
+
+    /**
+     * Locks the project's marker until the transaction ends; empty when the project was never reconciled.
+     */
+    @Query(value = """
+            SELECT project_id FROM board_statistics_reconciliations
+            WHERE project_id = :projectId
+            FOR UPDATE
+            """, nativeQuery = true)
+    Optional<Long> lockMarker(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM board_statistics_reconciliations
+            WHERE project_id NOT IN (SELECT id FROM projects)
+            """, nativeQuery = true)
+    int deleteOrphaned();
+}
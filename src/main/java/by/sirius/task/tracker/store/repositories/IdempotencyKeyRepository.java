@@ -0,0 +1,59 @@
+package by.sirius.task.tracker.store.repositories;
+
+import by.sirius.task.tracker.store.entities.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, Long> {
+    Optional<IdempotencyKeyEntity> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    /**
+     * Inserts an in-progress row, taking over an expired one. Returns 0 when a live row already holds the key.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (username, idempotency_key, request_fingerprint, created_at, expires_at)
+            VALUES (:username, :idempotencyKey, :fingerprint, :now, :expiresAt)
+            ON CONFLICT (username, idempotency_key) DO UPDATE
+            SET request_fingerprint = EXCLUDED.request_fingerprint,
+                response_status = NULL,
+                content_type = NULL,
+                response_body = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= :now
+            """, nativeQuery = true)
+    int claim(@Param("username") String username,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("fingerprint") String fingerprint,
+              @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKeyEntity k
+            SET k.responseStatus = :status, k.contentType = :contentType, k.responseBody = :body, k.expiresAt = :expiresAt
+            WHERE k.username = :username AND k.idempotencyKey = :idempotencyKey
+            """)
+    int complete(@Param("username") String username,
+                 @Param("idempotencyKey") String idempotencyKey,
+                 @Param("status") Integer status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.username = :username AND k.idempotencyKey = :idempotencyKey")
+    void release(@Param("username") String username, @Param("idempotencyKey") String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -19,8 +19,17 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
 
     List<ProjectEntity> findAllByUsersContaining(UserEntity user);
 
+    boolean existsByIdAndAdminUsername(Long id, String adminUsername);
+
+    @Query("SELECT p.id FROM ProjectEntity p")
+    List<Long> findAllIds();
+
     @EntityGraph(attributePaths = {"taskStates"})
     @Query("SELECT p FROM ProjectEntity p WHERE p.id = :projectId AND p.admin.username = :adminName")
     Optional<ProjectEntity> findWithTaskStatesByProjectIdAndAdminName(@Param("projectId") Long projectId,
                                                             @Param("adminName") String adminName);
+
+    @EntityGraph(attributePaths = {"taskStates"})
+    @Query("SELECT p FROM ProjectEntity p WHERE p.id = :projectId")
+    Optional<ProjectEntity> findWithTaskStatesById(@Param("projectId") Long projectId);
 }
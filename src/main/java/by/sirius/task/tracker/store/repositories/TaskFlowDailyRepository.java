@@ -0,0 +1,29 @@
+package by.sirius.task.tracker.store.repositories;
+
+import by.sirius.task.tracker.store.entities.TaskFlowDailyEntity;
+import by.sirius.task.tracker.store.projections.TaskFlowTotalsView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TaskFlowDailyRepository extends JpaRepository<TaskFlowDailyEntity, Long> {
+    List<TaskFlowDailyEntity> findAllByProjectIdAndDayBetweenOrderByDay(Long projectId, LocalDate from, LocalDate to);
+
+    @Query("""
+            SELECT d.taskStateId AS taskStateId, SUM(d.arrivals) AS arrivals, SUM(d.departures) AS departures
+            FROM TaskFlowDailyEntity d
+            WHERE d.projectId = :projectId AND d.day < :day
+            GROUP BY d.taskStateId
+            """)
+    List<TaskFlowTotalsView> sumByStateBefore(@Param("projectId") Long projectId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_flow_daily WHERE project_id NOT IN (SELECT id FROM projects)", nativeQuery = true)
+    int deleteOrphaned();
+}
@@ -0,0 +1,32 @@
+package by.sirius.task.tracker.store.repositories;
+
+import by.sirius.task.tracker.store.entities.TaskFlowWatermarkEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskFlowWatermarkRepository extends JpaRepository<TaskFlowWatermarkEntity, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO task_flow_watermarks (project_id)
+            VALUES (:projectId)
+            ON CONFLICT (project_id) DO NOTHING
+            """, nativeQuery = true)
+    void insertIfAbsent(@Param("projectId") Long projectId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM TaskFlowWatermarkEntity w WHERE w.projectId = :projectId")
+    Optional<TaskFlowWatermarkEntity> findForUpdate(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_flow_watermarks WHERE project_id NOT IN (SELECT id FROM projects)", nativeQuery = true)
+    int deleteOrphaned();
+}
@@ -1,12 +1,195 @@
 package by.sirius.task.tracker.store.repositories;
 
 import by.sirius.task.tracker.store.entities.TaskHistoryEntity;
+import by.sirius.task.tracker.store.projections.BoardEventView;
+import by.sirius.task.tracker.store.projections.TaskFieldValueView;
+import by.sirius.task.tracker.store.projections.TaskStateTransitionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskHistoryRepository extends JpaRepository<TaskHistoryEntity, Long> {
     List<TaskHistoryEntity> findByTaskId(Long taskId);
+
+    Optional<TaskHistoryEntity> findFirstByTaskIdOrderByChangedAtDescIdDesc(Long taskId);
+
+    /**
+     * Streams the task state changes of a project in {@code [from, to)} ordered by time. Must be consumed
+     * inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT h.task.id AS taskId, h.changeType AS changeType, h.oldValue AS oldValue, h.newValue AS newValue,
+                   h.oldTaskStateId AS oldTaskStateId, h.newTaskStateId AS newTaskStateId,
+                   h.changedAt AS changedAt, t.createdAt AS taskCreatedAt,
+                   (SELECT MIN(s.changedAt) FROM TaskHistoryEntity s
+                    WHERE s.task = h.task AND s.fieldName = 'task state' AND s.changeType = 'EDIT') AS startedAt
+            FROM TaskHistoryEntity h
+            JOIN h.task t
+            WHERE t.taskState.project.id = :projectId
+              AND h.fieldName = 'task state'
+              AND h.changedAt >= :from AND h.changedAt < :to
+            ORDER BY h.changedAt, h.id
+            """)
+    Stream<TaskStateTransitionView> streamStateTransitions(@Param("projectId") Long projectId,
+                                                          @Param("from") Instant from,
+                                                          @Param("to") Instant to);
+
+    @Query("""
+            SELECT MIN(h.changedAt)
+            FROM TaskHistoryEntity h
+            WHERE h.task.taskState.project.id = :projectId AND h.fieldName = 'task state'
+            """)
+    Optional<Instant> findFirstStateTransitionAt(@Param("projectId") Long projectId);
+
+    /**
+     * Ids of the board membership and order changes of a project that happened at or after {@code from}.
+     */
+    @Query("""
+            SELECT h.id
+            FROM TaskHistoryEntity h
+            WHERE h.projectId = :projectId AND h.changedAt >= :from
+              AND (h.fieldName IN ('task state', 'task position') OR h.changeType = 'DELETE')
+            """)
+    List<Long> findBoardEventIdsSince(@Param("projectId") Long projectId, @Param("from") Instant from);
+
+    /**
+     * Board membership and order changes of a project that happened in {@code [from, at]}, in the order they
+     * happened. Rows are matched by the project stored on them, so the changes of deleted tasks are found too.
+     */
+    @Query("""
+            SELECT h.id AS id, h.task.id AS taskId, h.changeType AS changeType, h.fieldName AS fieldName,
+                   h.oldValue AS oldValue, h.newValue AS newValue, h.newTaskStateId AS newTaskStateId
+            FROM TaskHistoryEntity h
+            WHERE h.projectId = :projectId
+              AND h.changedAt >= :from AND h.changedAt <= :at
+              AND (h.fieldName IN ('task state', 'task position') OR h.changeType = 'DELETE')
+            ORDER BY h.changedAt, h.id
+            """)
+    List<BoardEventView> findBoardEvents(@Param("projectId") Long projectId,
+                                         @Param("from") Instant from,
+                                         @Param("at") Instant at);
+
+    /**
+     * For every task and field, the value the field had at {@code at}, taken from the first change after that
+     * moment. Fields that haven't changed since are not returned.
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (h.task_id, h.field_name)
+                   h.task_id AS taskId, h.field_name AS fieldName, h.old_value AS value
+            FROM task_history h
+            WHERE h.task_id IN (:taskIds) AND h.field_name IN (:fieldNames) AND h.changed_at > :at
+            ORDER BY h.task_id, h.field_name, h.changed_at, h.id
+            """, nativeQuery = true)
+    List<TaskFieldValueView> findValuesAt(@Param("taskIds") Collection<Long> taskIds,
+                                          @Param("fieldNames") Collection<String> fieldNames,
+                                          @Param("at") Instant at);
+
+    /**
+     * Whether the task has a task state change recorded before the given row, which is then not its start.
+     */
+    @Query("""
+            SELECT COUNT(h) > 0
+            FROM TaskHistoryEntity h
+            WHERE h.task.id = :taskId AND h.fieldName = 'task state' AND h.changeType = 'EDIT'
+              AND (h.changedAt < :changedAt OR (h.changedAt = :changedAt AND h.id < :id))
+            """)
+    boolean existsStateChangeBefore(@Param("taskId") Long taskId,
+                                    @Param("changedAt") Instant changedAt,
+                                    @Param("id") Long id);
+
+    /**
+     * Collapses bursts of task position and task state changes recorded in {@code [from, to)} into their last
+     * row, which takes the old value of the first row of the burst. Rows continue a burst under the rule of
+     * {@code TaskHistoryCoalescer}: previous row of the same task is an edit of the same field by the same user,
+     * its new value is the row's old value, and both are at most {@code windowSeconds} apart on one UTC day.
+     * <p>
+     * Two kinds of rows are left alone. Rows of days already stored in {@code task_flow_daily}, before the
+     * project's watermark, are never touched, so the stored flow keeps matching the history. The first task state
+     * change of a task is never merged, as cycle times are measured from it. Rows of deleted tasks have no project
+     * and are skipped.
+     *
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query(value = """
+            WITH candidates AS (
+                SELECT h.id, h.task_id, h.username, h.change_type, h.field_name, h.old_value, h.new_value,
+                       h.old_task_state_id, h.new_task_state_id, h.changed_at,
+                       h.field_name = 'task state' AND h.change_type = 'EDIT' AND NOT EXISTS (
+                           SELECT 1
+                           FROM task_history s
+                           WHERE s.task_id = h.task_id AND s.field_name = 'task state' AND s.change_type = 'EDIT'
+                             AND (s.changed_at, s.id) < (h.changed_at, h.id)
+                       ) AS started
+                FROM task_history h
+                JOIN tasks t ON t.id = h.task_id
+                JOIN task_states ts ON ts.id = t.task_state_id
+                LEFT JOIN task_flow_watermarks fw ON fw.project_id = ts.project_id
+                WHERE h.changed_at >= :from AND h.changed_at < :to
+                  AND (fw.materialized_until IS NULL
+                       OR h.changed_at >= fw.materialized_until::timestamp AT TIME ZONE 'UTC')
+            ),
+            ordered AS (
+                SELECT c.id, c.task_id, c.old_value, c.old_task_state_id, c.changed_at,
+                       c.change_type = 'EDIT'
+                           AND c.field_name IN ('task position', 'task state')
+                           AND LAG(c.change_type) OVER w = 'EDIT'
+                           AND LAG(c.field_name) OVER w = c.field_name
+                           AND LAG(c.started) OVER w IS NOT TRUE
+                           AND LAG(c.username) OVER w IS NOT DISTINCT FROM c.username
+                           AND LAG(c.new_value) OVER w IS NOT DISTINCT FROM c.old_value
+                           AND LAG(c.new_task_state_id) OVER w IS NOT DISTINCT FROM c.old_task_state_id
+                           AND c.changed_at - LAG(c.changed_at) OVER w <= make_interval(secs => :windowSeconds)
+                           AND (c.changed_at AT TIME ZONE 'UTC')::date
+                               = (LAG(c.changed_at) OVER w AT TIME ZONE 'UTC')::date
+                           AS continues
+                FROM candidates c
+                WINDOW w AS (PARTITION BY c.task_id ORDER BY c.changed_at, c.id)
+            ),
+            marked AS (
+                SELECT o.id, o.task_id, o.old_value, o.old_task_state_id, o.changed_at,
+                       SUM(CASE WHEN o.continues THEN 0 ELSE 1 END)
+                           OVER (PARTITION BY o.task_id ORDER BY o.changed_at, o.id) AS burst
+                FROM ordered o
+            ),
+            bursts AS (
+                SELECT m.task_id, m.burst,
+                       (ARRAY_AGG(m.id ORDER BY m.changed_at DESC, m.id DESC))[1] AS last_id,
+                       (ARRAY_AGG(m.old_value ORDER BY m.changed_at, m.id))[1] AS first_old_value,
+                       (ARRAY_AGG(m.old_task_state_id ORDER BY m.changed_at, m.id))[1] AS first_old_task_state_id
+                FROM marked m
+                GROUP BY m.task_id, m.burst
+                HAVING COUNT(*) > 1
+            ),
+            updated AS (
+                UPDATE task_history h
+                SET old_value = b.first_old_value, old_task_state_id = b.first_old_task_state_id
+                FROM bursts b
+                WHERE h.id = b.last_id
+                RETURNING h.id
+            )
+            DELETE FROM task_history h
+            USING marked m
+            JOIN bursts b ON b.task_id = m.task_id AND b.burst = m.burst
+            WHERE h.id = m.id AND m.id <> b.last_id
+            """, nativeQuery = true)
+    int compactBursts(@Param("from") Instant from,
+                      @Param("to") Instant to,
+                      @Param("windowSeconds") long windowSeconds);
 }
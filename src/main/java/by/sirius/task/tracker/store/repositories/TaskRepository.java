@@ -1,7 +1,10 @@
 package by.sirius.task.tracker.store.repositories;
 
 import by.sirius.task.tracker.store.entities.TaskEntity;
+import by.sirius.task.tracker.store.projections.IdNameView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +14,10 @@ import java.util.Optional;
 public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
     Optional<TaskEntity> findByTaskStateIdAndNameIgnoreCase(Long taskStateId, String taskName);
     List<TaskEntity> findByAssignedUserId(Long userId);
+
+    @Query("SELECT t.id AS id, t.name AS name FROM TaskEntity t WHERE t.taskState.project.id = :projectId")
+    List<IdNameView> findIdsAndNamesByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT t.taskState.project.id FROM TaskEntity t WHERE t.id = :taskId")
+    Optional<Long> findProjectIdById(@Param("taskId") Long taskId);
 }
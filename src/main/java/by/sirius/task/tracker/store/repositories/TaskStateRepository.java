@@ -19,4 +19,7 @@ public interface TaskStateRepository extends JpaRepository<TaskStateEntity, Long
     @Query("SELECT ts FROM TaskStateEntity ts WHERE ts.project.id = :projectId AND ts.id = :taskStateId")
     Optional<TaskStateEntity> findWithTasksByProjectIdAndId(@Param("projectId") Long projectId,
                                                             @Param("taskStateId") Long taskStateId);
+
+    @Query("SELECT ts.project.id FROM TaskStateEntity ts WHERE ts.id = :taskStateId")
+    Optional<Long> findProjectIdById(@Param("taskStateId") Long taskStateId);
 }
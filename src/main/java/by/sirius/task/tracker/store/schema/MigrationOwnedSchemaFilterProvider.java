@@ -0,0 +1,61 @@
+package by.sirius.task.tracker.store.schema;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+
+import java.util.Set;
+
+/**
+ * Keeps Hibernate's schema update away from the tables the Flyway migrations in {@code db/migration} own.
+ * Everything else is still created and updated by {@code ddl-auto}.
+ */
+public class MigrationOwnedSchemaFilterProvider implements SchemaFilterProvider {
+
+    static final Set<String> TABLES = Set.of("task_history");
+    static final Set<String> SEQUENCES = Set.of("task_history_id_seq");
+
+    private static final SchemaFilter FILTER = new SchemaFilter() {
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !TABLES.contains(table.getName());
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return !SEQUENCES.contains(sequence.getName().getSequenceName().getText());
+        }
+    };
+
+    @Override
+    public SchemaFilter getCreateFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getDropFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getTruncatorFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getMigrateFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getValidateFilter() {
+        return FILTER;
+    }
+}
@@ -0,0 +1,76 @@
+-- Monthly range partitioning of task_history by changed_at. Hibernate leaves this table and its sequence to
+-- the migrations, see MigrationOwnedSchemaFilterProvider. Monthly partitions are created by the application,
+-- see TaskHistoryPartitions; until then rows land in task_history_default.
+--
+-- Three starting points are handled: a new database, a plain task_history created by Hibernate, and a table
+-- already partitioned by earlier versions at startup.
+
+DO $$
+DECLARE
+    kind "char";
+    last_id bigint;
+    month timestamp;
+BEGIN
+    SELECT c.relkind INTO kind FROM pg_class c WHERE c.oid = to_regclass('task_history');
+
+    IF kind = 'r' THEN
+        LOCK TABLE task_history IN ACCESS EXCLUSIVE MODE;
+        ALTER TABLE task_history RENAME TO task_history_legacy;
+        -- The identity sequence is also named task_history_id_seq and goes away with the identity.
+        ALTER TABLE task_history_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+        ALTER INDEX IF EXISTS idx_task_history_task_changed_at RENAME TO idx_task_history_legacy_task_changed_at;
+        ALTER INDEX IF EXISTS idx_task_history_changed_at RENAME TO idx_task_history_legacy_changed_at;
+    END IF;
+
+    CREATE SEQUENCE IF NOT EXISTS task_history_id_seq INCREMENT BY 50;
+    ALTER SEQUENCE task_history_id_seq INCREMENT BY 50;
+
+    IF kind IS DISTINCT FROM 'p' THEN
+        CREATE TABLE task_history (
+            id bigint NOT NULL DEFAULT nextval('task_history_id_seq'),
+            task_id bigint,
+            username varchar(255),
+            change_type varchar(255),
+            field_name varchar(255),
+            old_value varchar(255),
+            new_value varchar(255),
+            changed_at timestamp(6) with time zone NOT NULL,
+            CONSTRAINT pk_task_history PRIMARY KEY (id, changed_at)
+        ) PARTITION BY RANGE (changed_at);
+
+        CREATE INDEX idx_task_history_task_changed_at ON task_history (task_id, changed_at);
+        CREATE INDEX idx_task_history_changed_at ON task_history (changed_at, id);
+    END IF;
+
+    -- History outlives its tasks: deletions are recorded, and archived partitions keep ids of deleted tasks.
+    ALTER TABLE task_history DROP CONSTRAINT IF EXISTS fk_task_history_task;
+    ALTER TABLE task_history ALTER COLUMN id SET DEFAULT nextval('task_history_id_seq');
+    ALTER SEQUENCE task_history_id_seq OWNED BY task_history.id;
+
+    CREATE TABLE IF NOT EXISTS task_history_default PARTITION OF task_history DEFAULT;
+
+    IF kind = 'r' THEN
+        -- Monthly partitions for the existing rows, so they don't all end up in the default partition.
+        SELECT date_trunc('month', MIN(changed_at) AT TIME ZONE 'UTC') INTO month FROM task_history_legacy;
+        WHILE month <= date_trunc('month', now() AT TIME ZONE 'UTC') LOOP
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF task_history FOR VALUES FROM (%L) TO (%L)',
+                           'task_history_p' || to_char(month, 'YYYY_MM'),
+                           to_char(month, 'YYYY-MM-DD') || ' 00:00:00+00',
+                           to_char(month + interval '1 month', 'YYYY-MM-DD') || ' 00:00:00+00');
+            month := month + interval '1 month';
+        END LOOP;
+
+        INSERT INTO task_history (id, task_id, username, change_type, field_name, old_value, new_value, changed_at)
+        SELECT id, task_id, username, change_type, field_name, old_value, new_value, COALESCE(changed_at, now())
+        FROM task_history_legacy;
+
+        DROP TABLE task_history_legacy;
+    END IF;
+
+    -- Hibernate hands out the 50 ids below each value it takes from the sequence.
+    SELECT MAX(id) INTO last_id FROM task_history;
+    IF last_id IS NOT NULL THEN
+        PERFORM setval('task_history_id_seq', last_id);
+    END IF;
+END
+$$;
@@ -0,0 +1,26 @@
+-- Task state changes record the ids of the task states next to their names, so the task flow is keyed by task
+-- state and survives renames. Older rows are matched by name against the task states of the task's project;
+-- rows of renamed or deleted task states keep no id and are left out of the flow.
+
+ALTER TABLE task_history ADD COLUMN IF NOT EXISTS old_task_state_id bigint;
+ALTER TABLE task_history ADD COLUMN IF NOT EXISTS new_task_state_id bigint;
+
+DO $$
+BEGIN
+    IF to_regclass('tasks') IS NOT NULL AND to_regclass('task_states') IS NOT NULL THEN
+        UPDATE task_history h
+        SET old_task_state_id = (SELECT MIN(s.id) FROM task_states s
+                                 WHERE s.project_id = ts.project_id AND s.name = h.old_value),
+            new_task_state_id = (SELECT MIN(s.id) FROM task_states s
+                                 WHERE s.project_id = ts.project_id AND s.name = h.new_value)
+        FROM tasks t
+        JOIN task_states ts ON ts.id = t.task_state_id
+        WHERE h.task_id = t.id AND h.field_name = 'task state';
+    END IF;
+END
+$$;
+
+-- The materialized flow was keyed by task state name. It is derived from task_history, so it is dropped;
+-- Hibernate creates the tables again and the materialization job recomputes them.
+DROP TABLE IF EXISTS task_flow_daily;
+DROP TABLE IF EXISTS task_flow_watermarks;
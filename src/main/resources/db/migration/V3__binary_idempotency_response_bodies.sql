@@ -0,0 +1,12 @@
+-- Stored idempotent responses keep their body as bytes, so CBOR and Smile responses replay unchanged. Existing
+-- bodies were written as UTF-8 text and are converted as such. On a fresh database the table doesn't exist
+-- yet; Hibernate creates it with the bytea column.
+
+DO $$
+BEGIN
+    IF to_regclass('idempotency_keys') IS NOT NULL THEN
+        ALTER TABLE idempotency_keys
+            ALTER COLUMN response_body TYPE bytea USING convert_to(response_body, 'UTF8');
+    END IF;
+END
+$$;
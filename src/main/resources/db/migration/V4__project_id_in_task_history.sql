@@ -0,0 +1,35 @@
+-- History rows record the project of their task, so board reconstruction still finds the rows of deleted tasks,
+-- their DELETE included. Rows of live tasks take the project of the task; rows of deleted tasks take it from
+-- the task states they name, where those still exist.
+
+ALTER TABLE task_history ADD COLUMN IF NOT EXISTS project_id bigint;
+
+DO $$
+BEGIN
+    IF to_regclass('tasks') IS NOT NULL AND to_regclass('task_states') IS NOT NULL THEN
+        UPDATE task_history h
+        SET project_id = ts.project_id
+        FROM tasks t
+        JOIN task_states ts ON ts.id = t.task_state_id
+        WHERE h.task_id = t.id AND h.project_id IS NULL;
+
+        UPDATE task_history h
+        SET project_id = ts.project_id
+        FROM task_states ts
+        WHERE ts.id = COALESCE(h.new_task_state_id, h.old_task_state_id) AND h.project_id IS NULL;
+
+        UPDATE task_history h
+        SET project_id = k.project_id
+        FROM (
+            SELECT DISTINCT ON (task_id) task_id, project_id
+            FROM task_history
+            WHERE project_id IS NOT NULL
+            ORDER BY task_id, changed_at DESC, id DESC
+        ) k
+        WHERE h.task_id = k.task_id AND h.project_id IS NULL;
+    END IF;
+END
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_task_history_project_changed_at ON task_history (project_id, changed_at);
+
@@ -0,0 +1,12 @@
+-- Board snapshots marked the history they reflect by the highest history id, which misses rows committed after
+-- a snapshot with a lower id. Snapshots now record the time from which history is replayed instead. They are
+-- derived data: the old ones are dropped, Hibernate adds the new column and the job takes new snapshots.
+
+DO $$
+BEGIN
+    IF to_regclass('board_snapshots') IS NOT NULL THEN
+        DELETE FROM board_snapshots;
+        ALTER TABLE board_snapshots DROP COLUMN IF EXISTS last_history_id;
+    END IF;
+END
+$$;
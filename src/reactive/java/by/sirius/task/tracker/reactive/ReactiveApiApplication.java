@@ -0,0 +1,26 @@
+package by.sirius.task.tracker.reactive;
+
+import by.sirius.task.tracker.core.fields.SparseFieldsConfig;
+import io.github.cdimascio.dotenv.Dotenv;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Read-only API for dashboards and wallboards on WebFlux and R2DBC. It runs as its own process next to the
+ * servlet application, against the same database and with the same tokens, and answers with the same DTOs.
+ * Only this package is scanned; the servlet application's beans are not part of this context.
+ */
+@SpringBootApplication
+@Import(SparseFieldsConfig.class)
+public class ReactiveApiApplication {
+
+    static {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        dotenv.entries().forEach(entry -> System.setProperty(entry.getKey(), entry.getValue()));
+    }
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApiApplication.class, args);
+    }
+}
@@ -0,0 +1,156 @@
+package by.sirius.task.tracker.reactive.controllers;
+
+import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskHistoryDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.reactive.store.BoardQueries;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The board reads of the servlet API, on the same paths and with the same bodies and errors. Lists are also
+ * served as {@code application/x-ndjson}, written one element at a time as the client reads them.
+ * <p>
+ * A task state is written with its tasks nested, so a column is the smallest unit that can be written: its
+ * tasks are held until the column is complete. The board itself is one JSON object and is assembled whole;
+ * clients reading boards too large for that use the task states endpoint.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ReactiveBoardController {
+
+    private final BoardQueries boardQueries;
+
+    public static final String GET_PROJECT_BY_ID = "/api/projects/{project_id}";
+    public static final String GET_TASK_STATES = "/api/projects/{project_id}/task-states";
+    public static final String GET_TASKS = "/api/projects/{project_id}/task-states/{task_state_id}/tasks";
+    public static final String GET_USER_TASKS = "/api/projects/{project_id}/users/{username}/tasks";
+    public static final String GET_TASK_HISTORY = "/api/tasks/{task_id}/history";
+
+    /**
+     * Not streamed: the task states are nested in the project object, so the whole board is held until it is
+     * written. It still takes a fixed number of queries however many columns the board has.
+     */
+    @GetMapping(GET_PROJECT_BY_ID)
+    public Mono<ProjectDtoWithTaskStates> getProjectById(@PathVariable("project_id") Long projectId,
+                                                         Principal principal) {
+        Mono<ProjectDtoWithTaskStates> project = boardQueries.findProject(projectId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Project not found", HttpStatus.NOT_FOUND)));
+
+        return requireReadable(projectId, principal)
+                .then(project.zipWith(taskStatesWithTasks(projectId).collectList(), (board, taskStates) -> {
+                    board.setTaskStates(taskStates);
+                    return board;
+                }));
+    }
+
+    @GetMapping(value = GET_TASK_STATES,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TaskStateDto> getTaskStates(@PathVariable("project_id") Long projectId, Principal principal) {
+        log.debug("Fetching task states for project ID: {}", projectId);
+        return requireReadable(projectId, principal)
+                .thenMany(taskStatesWithTasks(projectId));
+    }
+
+    @GetMapping(value = GET_TASKS,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TaskDto> getTasks(@PathVariable("project_id") Long projectId,
+                                  @PathVariable("task_state_id") Long taskStateId,
+                                  Principal principal) {
+        log.debug("Fetching tasks for project ID: {} and task state ID: {}", projectId, taskStateId);
+        return requireReadable(projectId, principal)
+                .then(boardQueries.taskStateExists(projectId, taskStateId))
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(
+                        String.format("Task state with id \"%d\" not found", taskStateId), HttpStatus.BAD_REQUEST)))
+                .thenMany(boardQueries.findTasks(taskStateId));
+    }
+
+    @GetMapping(value = GET_USER_TASKS,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TaskDto> getAssignedTasks(@PathVariable("project_id") Long projectId,
+                                          @PathVariable("username") String username,
+                                          Principal principal) {
+        log.debug("Fetching assigned tasks for project ID: {} and user: {}", projectId, username);
+        Mono<Boolean> mayView = principal.getName().equals(username)
+                ? Mono.just(true)
+                : boardQueries.isProjectAdmin(projectId, principal.getName());
+
+        return requireReadable(projectId, principal)
+                .then(mayView)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException(
+                        "You can only view your own tasks or as an admin.", HttpStatus.BAD_REQUEST)))
+                .thenMany(boardQueries.findAssignedTasks(username));
+    }
+
+    @GetMapping(value = GET_TASK_HISTORY,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TaskHistoryDto> getTaskHistory(@PathVariable("task_id") Long taskId, Principal principal) {
+        return boardQueries.canWriteTask(taskId, principal.getName())
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("No permissions", HttpStatus.UNAUTHORIZED)))
+                .thenMany(boardQueries.findTaskHistory(taskId));
+    }
+
+    /**
+     * Task states are few and are read up front; the tasks of the whole board come through one query ordered
+     * by task state, and each task state is emitted as soon as its last task has arrived. Only one column of
+     * tasks is held at a time.
+     */
+    private Flux<TaskStateDto> taskStatesWithTasks(Long projectId) {
+        return boardQueries.findTaskStates(projectId)
+                .collect(Collectors.toCollection(ArrayDeque::new))
+                .flatMapMany(pending -> boardQueries.findBoardTasks(projectId)
+                        .bufferUntilChanged(BoardQueries.BoardTask::taskStateId)
+                        .concatMapIterable(column -> withColumn(pending, column))
+                        .concatWith(Flux.defer(() -> Flux.fromIterable(pending)
+                                .map(taskState -> withTasks(taskState, List.of())))));
+    }
+
+    /**
+     * Emits the task states before the column with no tasks, then the column's own. Tasks of a task state
+     * created after the task states were read are dropped.
+     */
+    private static List<TaskStateDto> withColumn(Deque<TaskStateDto> pending, List<BoardQueries.BoardTask> column) {
+        Long taskStateId = column.get(0).taskStateId();
+        List<TaskStateDto> ready = new ArrayList<>();
+        while (!pending.isEmpty() && pending.peek().getId() < taskStateId) {
+            ready.add(withTasks(pending.poll(), List.of()));
+        }
+        if (!pending.isEmpty() && pending.peek().getId().equals(taskStateId)) {
+            ready.add(withTasks(pending.poll(), column.stream().map(BoardQueries.BoardTask::task).toList()));
+        }
+        return ready;
+    }
+
+    private static TaskStateDto withTasks(TaskStateDto taskState, List<TaskDto> tasks) {
+        taskState.setTasks(tasks);
+        return taskState;
+    }
+
+    private Mono<Void> requireReadable(Long projectId, Principal principal) {
+        return boardQueries.canReadProject(projectId, principal.getName())
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("No permissions", HttpStatus.UNAUTHORIZED)))
+                .then();
+    }
+}
@@ -0,0 +1,30 @@
+package by.sirius.task.tracker.reactive.exceptions;
+
+import by.sirius.task.tracker.api.exceptions.CustomBaseException;
+import by.sirius.task.tracker.api.exceptions.ErrorDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Answers application exceptions with the same {@link ErrorDto} body as the servlet API.
+ */
+@Slf4j
+@ControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(CustomBaseException.class)
+    public ResponseEntity<ErrorDto> handleCustomBaseException(CustomBaseException ex) {
+        log.debug("Application Exception: {}", ex.getMessage());
+
+        ErrorDto errorDto = ErrorDto.builder()
+                .error(ex.getStatus().getReasonPhrase())
+                .errorDescription(ex.getMessage())
+                .build();
+
+        return ResponseEntity
+                .status(ex.getStatus())
+                .body(errorDto);
+    }
+}
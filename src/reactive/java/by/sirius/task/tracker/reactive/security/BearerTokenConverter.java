@@ -0,0 +1,54 @@
+package by.sirius.task.tracker.reactive.security;
+
+import by.sirius.task.tracker.core.security.JwtTokenUtil;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Authenticates a request from its bearer token alone. Unlike the servlet filter it doesn't load the user on
+ * every request, which matters for clients that poll; project access is still checked against the database
+ * by every endpoint.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class BearerTokenConverter implements ServerAuthenticationConverter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtTokenUtil jwtTokenUtil;
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER)) {
+            return Mono.empty();
+        }
+
+        String jwt = authorizationHeader.substring(BEARER.length());
+        try {
+            String username = jwtTokenUtil.extractUsername(jwt);
+            if (username == null || !jwtTokenUtil.validateToken(jwt, username)) {
+                return Mono.empty();
+            }
+
+            List<?> roles = jwtTokenUtil.extractRoles(jwt);
+            List<SimpleGrantedAuthority> authorities = roles == null
+                    ? List.of()
+                    : roles.stream().map(role -> new SimpleGrantedAuthority(String.valueOf(role))).toList();
+            return Mono.just(new UsernamePasswordAuthenticationToken(username, null, authorities));
+        } catch (JwtException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            return Mono.empty();
+        }
+    }
+}
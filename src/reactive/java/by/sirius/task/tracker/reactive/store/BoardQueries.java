@@ -0,0 +1,252 @@
+package by.sirius.task.tracker.reactive.store;
+
+import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskHistoryDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * The board reads of the reactive API as plain SQL over R2DBC, mapped straight to the shared DTOs. List
+ * queries are fetched {@code fetch-size} rows at a time as the subscriber asks for them, so a slow client
+ * holds back the query instead of filling the heap.
+ * <p>
+ * Permission queries mirror {@code ProjectSecurityService}: a user reads a project it administers that has
+ * roles, and writes it with the admin role.
+ */
+@Repository
+public class BoardQueries {
+
+    private static final String SELECT_CAN_READ_PROJECT = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM project_roles pr
+                JOIN projects p ON p.id = pr.project_id
+                JOIN users u ON u.id = p.admin_id
+                WHERE p.id = :projectId AND u.username = :username
+            ) AS allowed
+            """;
+
+    private static final String SELECT_IS_PROJECT_ADMIN = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM project_roles pr
+                JOIN projects p ON p.id = pr.project_id
+                JOIN users u ON u.id = p.admin_id
+                JOIN roles r ON r.id = pr.role_id
+                WHERE p.id = :projectId AND u.username = :username AND r.name = 'ROLE_ADMIN'
+            ) AS allowed
+            """;
+
+    private static final String SELECT_CAN_WRITE_TASK = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM tasks t
+                JOIN task_states ts ON ts.id = t.task_state_id
+                JOIN project_roles pr ON pr.project_id = ts.project_id
+                JOIN projects p ON p.id = pr.project_id
+                JOIN users u ON u.id = p.admin_id
+                JOIN roles r ON r.id = pr.role_id
+                WHERE t.id = :taskId AND u.username = :username AND r.name = 'ROLE_ADMIN'
+            ) AS allowed
+            """;
+
+    private static final String SELECT_TASK_STATE_EXISTS = """
+            SELECT EXISTS (
+                SELECT 1 FROM task_states WHERE id = :taskStateId AND project_id = :projectId
+            ) AS found
+            """;
+
+    private static final String SELECT_PROJECT = """
+            SELECT p.id, p.name, u.username AS owner, p.created_at, p.version
+            FROM projects p
+            JOIN users u ON u.id = p.admin_id
+            WHERE p.id = :projectId
+            """;
+
+    private static final String SELECT_TASK_STATES = """
+            SELECT ts.id, ts.name, ts.left_task_state_id, r.id AS right_task_state_id, ts.created_at, ts.version
+            FROM task_states ts
+            LEFT JOIN task_states r ON r.left_task_state_id = ts.id
+            WHERE ts.project_id = :projectId
+            ORDER BY ts.id
+            """;
+
+    private static final String SELECT_TASKS = """
+            SELECT t.id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id, u.username AS assigned_user
+            FROM tasks t
+            LEFT JOIN users u ON u.id = t.assigned_user_id
+            WHERE t.task_state_id = :taskStateId
+            ORDER BY t.created_at, t.id
+            """;
+
+    private static final String SELECT_BOARD_TASKS = """
+            SELECT t.task_state_id, t.id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id,
+                   u.username AS assigned_user
+            FROM tasks t
+            JOIN task_states ts ON ts.id = t.task_state_id
+            LEFT JOIN users u ON u.id = t.assigned_user_id
+            WHERE ts.project_id = :projectId
+            ORDER BY t.task_state_id, t.created_at, t.id
+            """;
+
+    private static final String SELECT_ASSIGNED_TASKS = """
+            SELECT t.id, t.name, t.created_at, t.version, t.left_task_id, t.right_task_id, u.username AS assigned_user
+            FROM tasks t
+            JOIN users u ON u.id = t.assigned_user_id
+            WHERE u.username = :username
+            ORDER BY t.id
+            """;
+
+    private static final String SELECT_TASK_HISTORY = """
+            SELECT id, task_id, username, change_type, field_name, old_value, new_value, changed_at
+            FROM task_history
+            WHERE task_id = :taskId
+            ORDER BY changed_at, id
+            """;
+
+    /**
+     * A task of a board together with the task state it is in.
+     */
+    public record BoardTask(Long taskStateId, TaskDto task) {
+    }
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public BoardQueries(DatabaseClient databaseClient,
+                        @Value("${task-tracker.reactive.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<Boolean> canReadProject(Long projectId, String username) {
+        return databaseClient.sql(SELECT_CAN_READ_PROJECT)
+                .bind("projectId", projectId)
+                .bind("username", username)
+                .map(row -> row.get("allowed", Boolean.class))
+                .one();
+    }
+
+    public Mono<Boolean> isProjectAdmin(Long projectId, String username) {
+        return databaseClient.sql(SELECT_IS_PROJECT_ADMIN)
+                .bind("projectId", projectId)
+                .bind("username", username)
+                .map(row -> row.get("allowed", Boolean.class))
+                .one();
+    }
+
+    public Mono<Boolean> canWriteTask(Long taskId, String username) {
+        return databaseClient.sql(SELECT_CAN_WRITE_TASK)
+                .bind("taskId", taskId)
+                .bind("username", username)
+                .map(row -> row.get("allowed", Boolean.class))
+                .one();
+    }
+
+    public Mono<Boolean> taskStateExists(Long projectId, Long taskStateId) {
+        return databaseClient.sql(SELECT_TASK_STATE_EXISTS)
+                .bind("projectId", projectId)
+                .bind("taskStateId", taskStateId)
+                .map(row -> row.get("found", Boolean.class))
+                .one();
+    }
+
+    public Mono<ProjectDtoWithTaskStates> findProject(Long projectId) {
+        return databaseClient.sql(SELECT_PROJECT)
+                .bind("projectId", projectId)
+                .map(row -> ProjectDtoWithTaskStates.builder()
+                        .id(row.get("id", Long.class))
+                        .name(row.get("name", String.class))
+                        .owner(row.get("owner", String.class))
+                        .createdAt(row.get("created_at", Instant.class))
+                        .version(row.get("version", Long.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * Task states come without their tasks.
+     */
+    public Flux<TaskStateDto> findTaskStates(Long projectId) {
+        return databaseClient.sql(SELECT_TASK_STATES)
+                .bind("projectId", projectId)
+                .map(row -> TaskStateDto.builder()
+                        .id(row.get("id", Long.class))
+                        .name(row.get("name", String.class))
+                        .leftTaskStateId(row.get("left_task_state_id", Long.class))
+                        .rightTaskStateId(row.get("right_task_state_id", Long.class))
+                        .createdAt(row.get("created_at", Instant.class))
+                        .version(row.get("version", Long.class))
+                        .build())
+                .all();
+    }
+
+    public Flux<TaskDto> findTasks(Long taskStateId) {
+        return databaseClient.sql(SELECT_TASKS)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("taskStateId", taskStateId)
+                .map(BoardQueries::task)
+                .all();
+    }
+
+    /**
+     * Every task of the project in one query, ordered by task state id like {@link #findTaskStates}, so the
+     * tasks of a column arrive together.
+     */
+    public Flux<BoardTask> findBoardTasks(Long projectId) {
+        return databaseClient.sql(SELECT_BOARD_TASKS)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("projectId", projectId)
+                .map(row -> new BoardTask(row.get("task_state_id", Long.class), task(row)))
+                .all();
+    }
+
+    public Flux<TaskDto> findAssignedTasks(String username) {
+        return databaseClient.sql(SELECT_ASSIGNED_TASKS)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("username", username)
+                .map(BoardQueries::task)
+                .all();
+    }
+
+    /**
+     * Only the history kept in the database. Archived months live on the disk of the servlet nodes and are
+     * served there.
+     */
+    public Flux<TaskHistoryDto> findTaskHistory(Long taskId) {
+        return databaseClient.sql(SELECT_TASK_HISTORY)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("taskId", taskId)
+                .map(row -> TaskHistoryDto.builder()
+                        .id(row.get("id", Long.class))
+                        .taskId(row.get("task_id", Long.class))
+                        .username(row.get("username", String.class))
+                        .changeType(row.get("change_type", String.class))
+                        .fieldName(row.get("field_name", String.class))
+                        .oldValue(row.get("old_value", String.class))
+                        .newValue(row.get("new_value", String.class))
+                        .timestamp(row.get("changed_at", Instant.class))
+                        .build())
+                .all();
+    }
+
+    private static TaskDto task(Readable row) {
+        return TaskDto.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .assignedUser(row.get("assigned_user", String.class))
+                .leftTaskId(row.get("left_task_id", Long.class))
+                .rightTaskId(row.get("right_task_id", Long.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package by.sirius.task.tracker.reactive.controllers;
+
+import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.security.JwtTokenUtil;
+import by.sirius.task.tracker.reactive.exceptions.ReactiveExceptionHandler;
+import by.sirius.task.tracker.reactive.security.ReactiveSecurityConfig;
+import by.sirius.task.tracker.reactive.store.BoardQueries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveBoardController.class)
+@Import({ReactiveSecurityConfig.class, ReactiveExceptionHandler.class})
+class ReactiveBoardControllerTest {
+
+    private static final Long PROJECT_ID = 1L;
+    private static final Long TASK_STATE_ID = 2L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @MockBean
+    private BoardQueries boardQueries;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtTokenUtil.generateToken(User.withUsername("alice").password("password").roles("USER").build());
+    }
+
+    @Test
+    void testGetTasks_AsNdjson_ShouldStreamEveryTask() {
+        when(boardQueries.canReadProject(PROJECT_ID, "alice")).thenReturn(Mono.just(true));
+        when(boardQueries.taskStateExists(PROJECT_ID, TASK_STATE_ID)).thenReturn(Mono.just(true));
+        when(boardQueries.findTasks(TASK_STATE_ID)).thenReturn(Flux.range(1, 3).map(id -> task(id.longValue())));
+
+        Flux<TaskDto> tasks = webTestClient.get()
+                .uri(ReactiveBoardController.GET_TASKS, PROJECT_ID, TASK_STATE_ID)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(tasks)
+                .expectNextMatches(task -> task.getId() == 1L)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetProjectById_ShouldNestTasksInTaskStates() {
+        when(boardQueries.canReadProject(PROJECT_ID, "alice")).thenReturn(Mono.just(true));
+        when(boardQueries.findProject(PROJECT_ID)).thenReturn(Mono.just(ProjectDtoWithTaskStates.builder()
+                .id(PROJECT_ID)
+                .name("Board")
+                .owner("alice")
+                .build()));
+        when(boardQueries.findTaskStates(PROJECT_ID)).thenReturn(Flux.just(
+                TaskStateDto.builder().id(TASK_STATE_ID).name("To do").build(),
+                TaskStateDto.builder().id(3L).name("Done").build()));
+        when(boardQueries.findBoardTasks(PROJECT_ID)).thenReturn(Flux.just(
+                new BoardQueries.BoardTask(TASK_STATE_ID, task(10L)),
+                new BoardQueries.BoardTask(TASK_STATE_ID, task(11L))));
+
+        webTestClient.get()
+                .uri(ReactiveBoardController.GET_PROJECT_BY_ID, PROJECT_ID)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.owner").isEqualTo("alice")
+                .jsonPath("$.taskStates.length()").isEqualTo(2)
+                .jsonPath("$.taskStates[0].tasks.length()").isEqualTo(2)
+                .jsonPath("$.taskStates[0].tasks[0].created_at").exists()
+                .jsonPath("$.taskStates[1].tasks.length()").isEqualTo(0);
+    }
+
+    @Test
+    void testGetTaskStates_AsNdjson_ShouldEmitEveryColumnWithItsTasks() {
+        when(boardQueries.canReadProject(PROJECT_ID, "alice")).thenReturn(Mono.just(true));
+        when(boardQueries.findTaskStates(PROJECT_ID)).thenReturn(Flux.just(
+                TaskStateDto.builder().id(TASK_STATE_ID).name("To do").build(),
+                TaskStateDto.builder().id(3L).name("Doing").build(),
+                TaskStateDto.builder().id(4L).name("Review").build(),
+                TaskStateDto.builder().id(5L).name("Done").build()));
+        when(boardQueries.findBoardTasks(PROJECT_ID)).thenReturn(Flux.just(
+                new BoardQueries.BoardTask(TASK_STATE_ID, task(10L)),
+                new BoardQueries.BoardTask(TASK_STATE_ID, task(11L)),
+                new BoardQueries.BoardTask(4L, task(12L))));
+
+        Flux<TaskStateDto> taskStates = webTestClient.get()
+                .uri(ReactiveBoardController.GET_TASK_STATES, PROJECT_ID)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TaskStateDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(taskStates)
+                .expectNextMatches(taskState -> taskState.getId().equals(TASK_STATE_ID)
+                        && taskState.getTasks().size() == 2)
+                .expectNextMatches(taskState -> taskState.getId() == 3L && taskState.getTasks().isEmpty())
+                .expectNextMatches(taskState -> taskState.getId() == 4L && taskState.getTasks().size() == 1)
+                .expectNextMatches(taskState -> taskState.getId() == 5L && taskState.getTasks().isEmpty())
+                .verifyComplete();
+        verify(boardQueries, never()).findTasks(anyLong());
+    }
+
+    @Test
+    void testGetTasks_WithoutPermission_ShouldReturnUnauthorized() {
+        when(boardQueries.canReadProject(PROJECT_ID, "alice")).thenReturn(Mono.just(false));
+        when(boardQueries.taskStateExists(PROJECT_ID, TASK_STATE_ID)).thenReturn(Mono.just(true));
+        when(boardQueries.findTasks(anyLong())).thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri(ReactiveBoardController.GET_TASKS, PROJECT_ID, TASK_STATE_ID)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error_description").isEqualTo("No permissions");
+    }
+
+    @Test
+    void testGetTasks_WhenTaskStateIsOutsideProject_ShouldReturnBadRequest() {
+        when(boardQueries.canReadProject(PROJECT_ID, "alice")).thenReturn(Mono.just(true));
+        when(boardQueries.taskStateExists(PROJECT_ID, TASK_STATE_ID)).thenReturn(Mono.just(false));
+        when(boardQueries.findTasks(anyLong())).thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri(ReactiveBoardController.GET_TASKS, PROJECT_ID, TASK_STATE_ID)
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetTaskStates_WithoutToken_ShouldReturnUnauthorized() {
+        webTestClient.get()
+                .uri(ReactiveBoardController.GET_TASK_STATES, PROJECT_ID)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verifyNoInteractions(boardQueries);
+    }
+
+    @Test
+    void testGetAssignedTasks_OfAnotherUser_ShouldRequireProjectAdmin() {
+        when(boardQueries.canReadProject(PROJECT_ID, "alice")).thenReturn(Mono.just(true));
+        when(boardQueries.isProjectAdmin(PROJECT_ID, "alice")).thenReturn(Mono.just(false));
+        when(boardQueries.findAssignedTasks("bob")).thenReturn(Flux.just(task(1L)));
+
+        webTestClient.get()
+                .uri(ReactiveBoardController.GET_USER_TASKS, PROJECT_ID, "bob")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static TaskDto task(Long id) {
+        return TaskDto.builder()
+                .id(id)
+                .name("Task " + id)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.api.dto.BatchReadOperationDto;
+import by.sirius.task.tracker.api.dto.BatchReadRequestDto;
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BatchReadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private String username;
+    private ProjectDto project;
+    private TaskStateDto todo;
+
+    @BeforeEach
+    void setUp() {
+        username = createUser("carol-");
+
+        project = projectService.createProject("Project " + username, username);
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        taskStateService.createTaskState(project.getId(), "Done");
+        taskService.createTask(project.getId(), todo.getId(), "First");
+        taskService.createTask(project.getId(), todo.getId(), "Second");
+    }
+
+    @Test
+    void testBatchRead_BoardScreen_ShouldReturnEveryResult() throws Exception {
+        JsonNode results = batch(username, List.of(
+                operation("board", BatchReadOperationDto.Type.PROJECT, project.getId()),
+                operation("columns", BatchReadOperationDto.Type.TASK_STATES, project.getId()),
+                operation("mine", BatchReadOperationDto.Type.ASSIGNED_TASKS, null),
+                operation("invitations", BatchReadOperationDto.Type.INVITATIONS, null),
+                operation("members", BatchReadOperationDto.Type.MEMBERS, project.getId())));
+
+        assertEquals(5, results.size());
+        assertEquals("board", results.get(0).get("id").asText());
+        results.forEach(result -> assertEquals(200, result.get("status").asInt(), result.toString()));
+
+        assertEquals(project.getId(), results.get(0).get("body").get("id").asLong());
+        assertEquals(2, results.get(1).get("body").size());
+        assertTrue(results.get(2).get("body").isArray());
+        assertTrue(results.get(3).get("body").isArray());
+    }
+
+    @Test
+    void testBatchRead_ShouldApplyFieldsPerOperation() throws Exception {
+        BatchReadOperationDto names = operation("names", BatchReadOperationDto.Type.TASK_STATES, project.getId());
+        names.setFields("name");
+        BatchReadOperationDto tasks = operation("tasks", BatchReadOperationDto.Type.TASKS, project.getId());
+        tasks.setTaskStateId(todo.getId());
+
+        JsonNode results = batch(username, List.of(names, tasks));
+
+        results.get(0).get("body").forEach(taskState -> {
+            assertTrue(taskState.has("name"));
+            assertFalse(taskState.has("tasks"));
+        });
+        assertEquals(2, results.get(1).get("body").size());
+        assertTrue(results.get(1).get("body").get(0).has("assigned_user"));
+    }
+
+    @Test
+    void testBatchRead_WhenProjectIsNotPermitted_ShouldFailOnlyThatOperation() throws Exception {
+        String stranger = createUser("dave-");
+
+        JsonNode results = batch(stranger, List.of(
+                operation("board", BatchReadOperationDto.Type.PROJECT, project.getId()),
+                operation("columns", BatchReadOperationDto.Type.TASK_STATES, project.getId()),
+                operation("invitations", BatchReadOperationDto.Type.INVITATIONS, null)));
+
+        assertEquals(401, results.get(0).get("status").asInt());
+        assertEquals(401, results.get(1).get("status").asInt());
+        assertTrue(results.get(1).get("body").isNull());
+        assertEquals(200, results.get(2).get("status").asInt());
+    }
+
+    @Test
+    void testBatchRead_WhenIdsRepeat_ShouldReturnBadRequest() throws Exception {
+        BatchReadRequestDto request = new BatchReadRequestDto(List.of(
+                operation("same", BatchReadOperationDto.Type.INVITATIONS, null),
+                operation("same", BatchReadOperationDto.Type.ASSIGNED_TASKS, null)));
+
+        mockMvc.perform(post(BatchController.BATCH_READ)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request))
+                        .with(user(username)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode batch(String username, List<BatchReadOperationDto> operations) throws Exception {
+        MvcResult result = mockMvc.perform(post(BatchController.BATCH_READ)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new BatchReadRequestDto(operations)))
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray()).get("results");
+    }
+
+    private static BatchReadOperationDto operation(String id, BatchReadOperationDto.Type type, Long projectId) {
+        return BatchReadOperationDto.builder()
+                .id(id)
+                .type(type)
+                .projectId(projectId)
+                .build();
+    }
+
+    private String createUser(String prefix) {
+        String name = prefix + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+        return name;
+    }
+}
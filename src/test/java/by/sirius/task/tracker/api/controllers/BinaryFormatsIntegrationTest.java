@@ -0,0 +1,140 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.formats.BinaryFormatsConfig;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BinaryFormatsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private String username;
+    private ProjectDto project;
+
+    @BeforeEach
+    void setUp() {
+        username = "alice-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+
+        project = projectService.createProject("Project " + username, username);
+        TaskStateDto todo = taskStateService.createTaskState(project.getId(), "To do");
+        taskStateService.createTaskState(project.getId(), "Done");
+        taskService.createTask(project.getId(), todo.getId(), "First");
+        taskService.createTask(project.getId(), todo.getId(), "Second");
+    }
+
+    @Test
+    void testGetTaskStates_AsCbor_ShouldMatchJson() throws Exception {
+        assertSameContent(MediaType.APPLICATION_CBOR, new CBORFactory());
+    }
+
+    @Test
+    void testGetTaskStates_AsSmile_ShouldMatchJson() throws Exception {
+        assertSameContent(BinaryFormatsConfig.APPLICATION_SMILE, new SmileFactory());
+    }
+
+    @Test
+    void testGetTaskStates_WithoutAccept_ShouldReturnJson() throws Exception {
+        MvcResult result = mockMvc.perform(get(TaskStateController.GET_TASK_STATES, project.getId()).with(user(username)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+    }
+
+    @Test
+    void testGetTaskStates_AsCbor_ShouldApplySparseFields() throws Exception {
+        JsonNode taskStates = read(MediaType.APPLICATION_CBOR, new CBORFactory(), "name");
+
+        assertEquals(2, taskStates.size());
+        taskStates.forEach(taskState -> {
+            assertTrue(taskState.has("name"));
+            assertFalse(taskState.has("tasks"));
+        });
+    }
+
+    private void assertSameContent(MediaType mediaType, JsonFactory factory) throws Exception {
+        JsonNode json = read(MediaType.APPLICATION_JSON, new JsonFactory(), null);
+        JsonNode binary = read(mediaType, factory, null);
+
+        assertEquals(json, binary);
+
+        int tasks = 0;
+        for (JsonNode taskState : binary) {
+            tasks += taskState.get("tasks").size();
+        }
+        assertEquals(2, tasks);
+    }
+
+    private JsonNode read(MediaType mediaType, JsonFactory factory, String fields) throws Exception {
+        MockHttpServletRequestBuilder request = get(TaskStateController.GET_TASK_STATES, project.getId())
+                .accept(mediaType)
+                .with(user(username));
+        if (fields != null) {
+            request.param("fields", fields);
+        }
+
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue(mediaType.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+        return new ObjectMapper(factory).readTree(result.getResponse().getContentAsByteArray());
+    }
+}
@@ -0,0 +1,170 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "task-tracker.streaming.min-tasks=1"
+})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardStreamingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private String username;
+    private ProjectDto project;
+    private TaskStateDto todo;
+
+    @BeforeEach
+    void setUp() {
+        username = "bob-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+
+        project = projectService.createProject("Project " + username, username);
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        taskStateService.createTaskState(project.getId(), "Done");
+        taskService.createTask(project.getId(), todo.getId(), "First");
+        taskService.createTask(project.getId(), todo.getId(), "Second");
+        taskService.createTask(project.getId(), todo.getId(), "Third");
+    }
+
+    @Test
+    void testGetTaskStates_WhenStreamed_ShouldMatchBufferedResponse() throws Exception {
+        JsonNode streamed = read(get(TaskStateController.GET_TASK_STATES, project.getId()), MediaType.APPLICATION_JSON);
+        JsonNode buffered = objectMapper.readTree(objectMapper.writeValueAsBytes(
+                taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL)));
+
+        assertEquals(sortedById(buffered), sortedById(streamed));
+    }
+
+    @Test
+    void testGetProjectById_WhenStreamed_ShouldMatchBufferedResponse() throws Exception {
+        ObjectNode streamed = (ObjectNode) read(
+                get(ProjectController.GET_PROJECT_BY_ID, project.getId()), MediaType.APPLICATION_JSON);
+        ObjectNode buffered = (ObjectNode) objectMapper.readTree(objectMapper.writeValueAsBytes(
+                projectService.getProjectById(project.getId(), username, SparseFields.ALL)));
+
+        streamed.set("taskStates", sortedById(streamed.get("taskStates")));
+        buffered.set("taskStates", sortedById(buffered.get("taskStates")));
+        assertEquals(buffered, streamed);
+    }
+
+    @Test
+    void testGetTasks_WhenStreamed_ShouldReturnTasksInCreationOrder() throws Exception {
+        JsonNode tasks = read(get(TaskController.GET_TASKS, project.getId(), todo.getId()), MediaType.APPLICATION_JSON);
+
+        assertEquals(3, tasks.size());
+        assertEquals("First", tasks.get(0).get("name").asText());
+        assertEquals("Third", tasks.get(2).get("name").asText());
+    }
+
+    @Test
+    void testGetTaskStates_WhenStreamedWithSparseFields_ShouldWriteOnlySelectedFields() throws Exception {
+        JsonNode taskStates = read(get(TaskStateController.GET_TASK_STATES, project.getId())
+                .param("fields", "name,tasks.name"), MediaType.APPLICATION_JSON);
+
+        taskStates.forEach(taskState -> {
+            assertFalse(taskState.has("version"));
+            taskState.get("tasks").forEach(task -> {
+                assertTrue(task.has("id"));
+                assertTrue(task.has("name"));
+                assertFalse(task.has("assigned_user"));
+            });
+        });
+    }
+
+    @Test
+    void testGetTaskStates_WhenStreamedAsCbor_ShouldMatchJson() throws Exception {
+        JsonNode json = read(get(TaskStateController.GET_TASK_STATES, project.getId()), MediaType.APPLICATION_JSON);
+        JsonNode cbor = read(get(TaskStateController.GET_TASK_STATES, project.getId()), MediaType.APPLICATION_CBOR);
+
+        assertEquals(json, cbor);
+    }
+
+    private JsonNode read(MockHttpServletRequestBuilder request, MediaType mediaType) throws Exception {
+        MvcResult result = mockMvc.perform(request.accept(mediaType).with(user(username)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue(mediaType.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+        ObjectMapper reader = MediaType.APPLICATION_CBOR.equals(mediaType)
+                ? new ObjectMapper(new CBORFactory())
+                : new ObjectMapper();
+        return reader.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static ArrayNode sortedById(JsonNode nodes) {
+        List<JsonNode> sorted = new ArrayList<>();
+        nodes.forEach(node -> {
+            if (node.has("tasks")) {
+                ((ObjectNode) node).set("tasks", sortedById(node.get("tasks")));
+            }
+            sorted.add(node);
+        });
+        sorted.sort(Comparator.comparingLong(node -> node.get("id").asLong()));
+
+        ArrayNode array = new ObjectMapper().createArrayNode();
+        array.addAll(sorted);
+        return array;
+    }
+}
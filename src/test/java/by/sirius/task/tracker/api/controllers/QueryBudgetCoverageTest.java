@@ -0,0 +1,39 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.core.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetCoverageTest {
+
+    private static final List<Class<?>> BUDGETED_CONTROLLERS = List.of(
+            AdminController.class,
+            BatchController.class,
+            InvitationController.class,
+            ProjectController.class,
+            TaskController.class,
+            TaskStateController.class);
+
+    @Test
+    void testEveryEndpointDeclaresQueryBudget() {
+        List<String> missing = new ArrayList<>();
+
+        for (Class<?> controller : BUDGETED_CONTROLLERS) {
+            for (Method method : controller.getDeclaredMethods()) {
+                if (AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)
+                        && !method.isAnnotationPresent(QueryBudget.class)) {
+                    missing.add(controller.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+
+        assertTrue(missing.isEmpty(), "Endpoints without @QueryBudget: " + missing);
+    }
+}
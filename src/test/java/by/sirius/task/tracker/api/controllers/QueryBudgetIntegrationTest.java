@@ -0,0 +1,487 @@
+package by.sirius.task.tracker.api.controllers;
+
+import by.sirius.task.tracker.api.dto.InvitationDto;
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.metrics.QueryBudget;
+import by.sirius.task.tracker.core.metrics.QueryBudgetFilter;
+import by.sirius.task.tracker.core.metrics.QueryStatistics;
+import by.sirius.task.tracker.core.security.CustomUserDetails;
+import by.sirius.task.tracker.core.security.JwtTokenUtil;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.InvitationService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.RoleEntity;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.RoleRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every endpoint against an embedded PostgreSQL and checks the number of SQL statements it executes,
+ * counted from the first filter, so the user lookup of the bearer token is included. Every endpoint has to stay
+ * within its {@link QueryBudget}. The read endpoints are also run again after the board has grown by a column,
+ * tasks, history and a member, and must not execute more statements than before: a count that grows with the
+ * board is a lazy association loading per row. Fewer are fine, the first run may have filled a cache.
+ * <p>
+ * Fetches of {@code task_history} ids from their sequence aren't counted: Hibernate fetches a block of 50 ids at
+ * a time, so whether a request pays for one depends on how many rows the tests before it inserted.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class QueryBudgetIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE_FETCHES = new AtomicInteger();
+    private static boolean sequenceListenerAdded;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private InvitationService invitationService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private UserEntity alice;
+    private UserEntity bob;
+    private ProjectDto project;
+    private TaskStateDto todo;
+    private TaskStateDto done;
+    private TaskDto firstTask;
+    private TaskDto secondTask;
+
+    @BeforeEach
+    void setUp() {
+        addSequenceListener();
+
+        RoleEntity adminRole = roleRepository.findByName("ROLE_ADMIN").orElseThrow();
+        alice = user("alice-" + UUID.randomUUID(), adminRole);
+        bob = user("bob-" + UUID.randomUUID());
+        authenticate(alice.getUsername());
+
+        project = projectService.createProject("Project " + alice.getUsername(), alice.getUsername());
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        done = taskStateService.createTaskState(project.getId(), "Done");
+        firstTask = taskService.createTask(project.getId(), todo.getId(), "First");
+        secondTask = taskService.createTask(project.getId(), todo.getId(), "Second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetProjectById() throws Exception {
+        assertStatementsIndependentOfBoard("getProjectById", alice,
+                () -> get(ProjectController.GET_PROJECT_BY_ID, project.getId()));
+    }
+
+    @Test
+    void testGetProjects() throws Exception {
+        joinProject(alice);
+
+        assertStatementsIndependentOfBoard("getProjects", alice, () -> get(ProjectController.GET_PROJECTS));
+    }
+
+    @Test
+    void testGetProjectStatistics() throws Exception {
+        assertStatementsIndependentOfBoard("getProjectStatistics", alice,
+                () -> get(ProjectController.GET_PROJECT_STATISTICS, project.getId()));
+    }
+
+    @Test
+    void testGetProjectTaskFlow() throws Exception {
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+        assertStatementsIndependentOfBoard("getProjectTaskFlow", alice,
+                () -> get(ProjectController.GET_PROJECT_TASK_FLOW, project.getId())
+                        .param("from", today)
+                        .param("to", today));
+    }
+
+    @Test
+    void testGetProjectBoardAt() throws Exception {
+        assertStatementsIndependentOfBoard("getProjectBoardAt", alice,
+                () -> get(ProjectController.GET_PROJECT_BOARD_AT, project.getId())
+                        .param("at", Instant.now().toString()));
+    }
+
+    @Test
+    void testCreateProject() throws Exception {
+        assertStatements("createProject", alice,
+                post(ProjectController.CREATE_PROJECT).param("name", "New " + UUID.randomUUID()));
+    }
+
+    @Test
+    void testEditProject() throws Exception {
+        assertStatements("editProject", alice,
+                patch(ProjectController.EDIT_PROJECT, project.getId()).param("name", "Renamed " + UUID.randomUUID()));
+    }
+
+    @Test
+    void testDeleteProject() throws Exception {
+        ProjectDto empty = projectService.createProject("Empty " + alice.getUsername(), alice.getUsername());
+
+        assertStatements("deleteProject", alice, delete(ProjectController.DELETE_PROJECT, empty.getId()));
+    }
+
+    @Test
+    void testRemoveUserFromProject() throws Exception {
+        joinProject(bob);
+
+        assertStatements("removeUserFromProject", alice,
+                delete(ProjectController.REMOVE_USER_FROM_PROJECT, project.getId(), bob.getUsername()));
+    }
+
+    @Test
+    void testSendInvitation() throws Exception {
+        assertStatements("sendInvitation", alice,
+                post(ProjectController.SEND_INVITATION_TO_PROJECT, project.getId())
+                        .param("username", bob.getUsername()));
+    }
+
+    @Test
+    void testGetUserInvitations() throws Exception {
+        invite(bob);
+
+        assertStatements("getUserInvitations", bob, get("/api/invitations"));
+    }
+
+    @Test
+    void testAcceptInvitation() throws Exception {
+        InvitationDto invitation = invite(bob);
+
+        assertStatements("acceptInvitation", bob,
+                post("/api/invitations/accept/{invitation_id}", invitation.getId()));
+    }
+
+    @Test
+    void testDeclineInvitation() throws Exception {
+        InvitationDto invitation = invite(bob);
+
+        assertStatements("declineInvitation", alice,
+                post("/api/invitations/decline/{invitation_id}", invitation.getId()));
+    }
+
+    @Test
+    void testGetUsers() throws Exception {
+        joinProject(bob);
+
+        assertStatementsIndependentOfBoard("getUsers", alice, () -> get("/admin/users/{project_id}", project.getId()));
+    }
+
+    @Test
+    void testGetTaskStateById() throws Exception {
+        assertStatementsIndependentOfBoard("getTaskStateById", alice,
+                () -> get(TaskStateController.GET_TASK_STATE_BY_ID, project.getId(), todo.getId()));
+    }
+
+    @Test
+    void testGetTaskStates() throws Exception {
+        assertStatementsIndependentOfBoard("getTaskStates", alice,
+                () -> get(TaskStateController.GET_TASK_STATES, project.getId()));
+    }
+
+    @Test
+    void testCreateTaskState() throws Exception {
+        assertStatements("createTaskState", alice,
+                post(TaskStateController.CREATE_TASK_STATE, project.getId()).param("taskStateName", "Review"));
+    }
+
+    @Test
+    void testEditTaskState() throws Exception {
+        assertStatements("editTaskState", alice,
+                patch(TaskStateController.EDIT_TASK_STATE, todo.getId()).param("taskStateName", "Backlog"));
+    }
+
+    @Test
+    void testDeleteTaskState() throws Exception {
+        assertStatements("deleteTaskState", alice, delete(TaskStateController.DELETE_TASK_STATE, done.getId()));
+    }
+
+    @Test
+    void testChangeTaskStatePosition() throws Exception {
+        assertStatements("changeTaskStatePosition", alice,
+                patch(TaskStateController.CHANGE_TASK_STATE_POSITION, done.getId()));
+    }
+
+    @Test
+    void testGetTaskById() throws Exception {
+        assertStatementsIndependentOfBoard("getTaskById", alice,
+                () -> get(TaskController.GET_TASK_BY_ID, project.getId(), todo.getId(), firstTask.getId()));
+    }
+
+    @Test
+    void testGetTasks() throws Exception {
+        assertStatementsIndependentOfBoard("getTasks", alice,
+                () -> get(TaskController.GET_TASKS, project.getId(), todo.getId()));
+    }
+
+    @Test
+    void testQueryTasks() throws Exception {
+        assertStatementsIndependentOfBoard("queryTasks", alice,
+                () -> get(TaskController.QUERY_TASKS, project.getId()));
+    }
+
+    @Test
+    void testGetAssignedTasks() throws Exception {
+        assignToAlice(firstTask);
+
+        assertStatementsIndependentOfBoard("getAssignedTasks", alice,
+                () -> get(TaskController.GET_USER_TASKS, project.getId(), alice.getUsername()));
+    }
+
+    @Test
+    void testGetTaskHistory() throws Exception {
+        assertStatementsIndependentOfBoard("getTaskHistory", alice,
+                () -> get(TaskController.GET_TASK_HISTORY, firstTask.getId()));
+    }
+
+    @Test
+    void testCreateTask() throws Exception {
+        assertStatements("createTask", alice,
+                post(TaskController.CREATE_TASK, project.getId(), todo.getId()).param("taskName", "Third"));
+    }
+
+    @Test
+    void testEditTask() throws Exception {
+        assignToAlice(firstTask);
+
+        assertStatements("editTask", alice,
+                patch(TaskController.EDIT_TASK, firstTask.getId()).param("taskName", "Renamed"));
+    }
+
+    @Test
+    void testDeleteTask() throws Exception {
+        assignToAlice(firstTask);
+
+        assertStatements("deleteTask", alice, delete(TaskController.DELETE_TASK, firstTask.getId()));
+    }
+
+    @Test
+    void testAssignTaskToUser() throws Exception {
+        joinProject(bob);
+
+        assertStatements("assignTaskToUser", alice,
+                patch(TaskController.ASSIGN_TASK_TO_SPECIFIC_USER, firstTask.getId())
+                        .param("username", bob.getUsername()));
+    }
+
+    @Test
+    void testChangeTaskState() throws Exception {
+        assertStatements("changeTaskState", alice,
+                patch(TaskController.CHANGE_TASK_STATE, firstTask.getId())
+                        .param("newTaskStateId", done.getId().toString()));
+    }
+
+    @Test
+    void testChangeTaskPosition() throws Exception {
+        assertStatements("changeTaskPosition", alice,
+                patch(TaskController.CHANGE_TASK_POSITION, firstTask.getId())
+                        .param("leftTaskId", secondTask.getId().toString()));
+    }
+
+    /**
+     * Checks the budget on the fixture board, grows the board and checks that the count didn't grow with it.
+     */
+    private void assertStatementsIndependentOfBoard(String handlerName,
+                                                    UserEntity caller,
+                                                    Supplier<MockHttpServletRequestBuilder> request)
+            throws Exception {
+        int before = assertStatements(handlerName, caller, request.get());
+
+        growBoard();
+
+        int after = assertStatements(handlerName, caller, request.get());
+        assertTrue(after <= before, String.format("%s executed %d SQL statements on a larger board, %d before",
+                handlerName, after, before));
+    }
+
+    /**
+     * Returns the number of statements the request executed, after checking it against the endpoint's budget.
+     */
+    private int assertStatements(String handlerName,
+                                 UserEntity caller,
+                                 MockHttpServletRequestBuilder request) throws Exception {
+        // Fixture calls authenticate through the context; the request has to find it empty and use its token
+        SecurityContextHolder.clearContext();
+        SEQUENCE_FETCHES.set(0);
+
+        String token = jwtTokenUtil.generateToken(new CustomUserDetails(caller));
+        MvcResult result = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+
+        QueryStatistics statistics = (QueryStatistics) result.getRequest()
+                .getAttribute(QueryBudgetFilter.STATISTICS_ATTRIBUTE);
+        assertNotNull(statistics);
+
+        int statements = statistics.statements() - SEQUENCE_FETCHES.get();
+        int budget = budgetOf(handlerName);
+        assertTrue(statements <= budget,
+                String.format("%s executed %d SQL statements, budget is %d", handlerName, statements, budget));
+        return statements;
+    }
+
+    /**
+     * Adds a column, tasks in both the new column and the fixture one, an assigned task, history of the first
+     * task and a project member.
+     */
+    private void growBoard() {
+        authenticate(alice.getUsername());
+
+        TaskStateDto review = taskStateService.createTaskState(project.getId(), "Review " + UUID.randomUUID());
+        for (int i = 0; i < 3; i++) {
+            taskService.createTask(project.getId(), todo.getId(), "To do " + i);
+            taskService.createTask(project.getId(), review.getId(), "Review " + i);
+        }
+        taskService.editTask(firstTask.getId(), "Renamed " + UUID.randomUUID(), Optional.empty());
+        taskService.changeTaskPosition(firstTask.getId(), Optional.of(secondTask.getId()), Optional.empty());
+
+        if (isMember(alice)) {
+            taskService.assignTaskToUser(secondTask.getId(), alice.getUsername(), Optional.empty());
+        }
+        joinProject(user("carol-" + UUID.randomUUID()));
+    }
+
+    private UserEntity user(String username, RoleEntity... roles) {
+        return userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .roles(new ArrayList<>(List.of(roles)))
+                .build());
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private InvitationDto invite(UserEntity invited) {
+        return invitationService.sendInvitation(alice.getUsername(), invited.getUsername(), project.getId());
+    }
+
+    private void joinProject(UserEntity member) {
+        if (member == alice) {
+            // The admin is never invited to their own project; membership is all that's needed here
+            jdbcTemplate.update("INSERT INTO project_users (user_id, project_id) VALUES (?, ?)",
+                    alice.getId(), project.getId());
+            return;
+        }
+        invitationService.acceptInvitation(invite(member).getId(), member.getUsername());
+    }
+
+    private boolean isMember(UserEntity user) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM project_users WHERE user_id = ? AND project_id = ?)",
+                Boolean.class, user.getId(), project.getId()));
+    }
+
+    private void assignToAlice(TaskDto task) {
+        joinProject(alice);
+        authenticate(alice.getUsername());
+        taskService.assignTaskToUser(task.getId(), alice.getUsername(), Optional.empty());
+    }
+
+    private void addSequenceListener() {
+        synchronized (SEQUENCE_FETCHES) {
+            if (sequenceListenerAdded) {
+                return;
+            }
+            ProxyDataSource proxyDataSource = (ProxyDataSource) dataSource;
+            proxyDataSource.getProxyConfig().getQueryListener().addListener(new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+                    queryInfoList.stream()
+                            .filter(queryInfo -> queryInfo.getQuery().contains("nextval("))
+                            .forEach(queryInfo -> SEQUENCE_FETCHES.incrementAndGet());
+                }
+            });
+            sequenceListenerAdded = true;
+        }
+    }
+
+    private static int budgetOf(String handlerName) {
+        return Arrays.stream(new Class<?>[]{ProjectController.class, TaskStateController.class, TaskController.class,
+                        InvitationController.class, AdminController.class})
+                .flatMap(controller -> Arrays.stream(controller.getDeclaredMethods()))
+                .filter(method -> method.getName().equals(handlerName))
+                .map(method -> method.getAnnotation(QueryBudget.class))
+                .findFirst()
+                .map(QueryBudget::value)
+                .orElseThrow(() -> new IllegalArgumentException("No endpoint " + handlerName));
+    }
+}
@@ -0,0 +1,133 @@
+package by.sirius.task.tracker.core.analytics;
+
+import by.sirius.task.tracker.store.projections.TaskStateTransitionView;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskFlowAccumulatorTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T09:00:00Z");
+    private static final Instant STARTED_AT = Instant.parse("2026-03-01T12:00:00Z");
+    private static final Instant DONE_AT = Instant.parse("2026-03-02T12:00:00Z");
+
+    private static final Long TO_DO = 1L;
+    private static final Long IN_PROGRESS = 2L;
+    private static final Long DONE = 3L;
+
+    @Test
+    void testAccept_EmitsOneFlowPerDay() {
+        List<DailyTaskFlow> days = new ArrayList<>();
+        TaskFlowAccumulator accumulator = new TaskFlowAccumulator(days::add);
+
+        accumulator.accept(transition("CREATE", null, TO_DO, CREATED_AT));
+        accumulator.accept(transition("EDIT", TO_DO, IN_PROGRESS, STARTED_AT));
+        accumulator.accept(transition("EDIT", IN_PROGRESS, DONE, DONE_AT));
+        accumulator.finish();
+
+        assertEquals(2, days.size());
+
+        DailyTaskFlow first = days.get(0);
+        assertEquals(LocalDate.of(2026, 3, 1), first.day());
+        assertEquals(1, first.states().get(TO_DO).getArrivals());
+        assertEquals(1, first.states().get(TO_DO).getDepartures());
+        assertEquals(1, first.states().get(IN_PROGRESS).getArrivals());
+        assertEquals(0, first.states().get(TO_DO).getCycleTimeCount());
+
+        TaskFlowCounters done = days.get(1).states().get(DONE);
+        assertEquals(1, done.getArrivals());
+        assertEquals(27 * 3600, done.getLeadTimeSeconds());
+        assertEquals(24 * 3600, done.getCycleTimeSeconds());
+        assertEquals(1, done.getCycleTimeCount());
+        assertEquals(1, days.get(1).states().get(IN_PROGRESS).getDepartures());
+    }
+
+    @Test
+    void testAccept_WithoutTaskStateId_ShouldNotCountThatSide() {
+        List<DailyTaskFlow> days = new ArrayList<>();
+        TaskFlowAccumulator accumulator = new TaskFlowAccumulator(days::add);
+
+        accumulator.accept(transition("EDIT", null, DONE, DONE_AT));
+        accumulator.finish();
+
+        assertEquals(1, days.get(0).states().size());
+        assertEquals(1, days.get(0).states().get(DONE).getArrivals());
+    }
+
+    @Test
+    void testAccept_WhenTransitionsAreOutOfOrder_ShouldThrowException() {
+        TaskFlowAccumulator accumulator = new TaskFlowAccumulator(day -> {});
+
+        accumulator.accept(transition("EDIT", TO_DO, DONE, DONE_AT));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> accumulator.accept(transition("EDIT", TO_DO, IN_PROGRESS, STARTED_AT)));
+    }
+
+    @Test
+    void testFinish_WithoutTransitions_ShouldNotEmit() {
+        List<DailyTaskFlow> days = new ArrayList<>();
+        TaskFlowAccumulator accumulator = new TaskFlowAccumulator(days::add);
+
+        accumulator.finish();
+
+        assertTrue(days.isEmpty());
+    }
+
+    private static TaskStateTransitionView transition(String changeType,
+                                                      Long oldTaskStateId,
+                                                      Long newTaskStateId,
+                                                      Instant changedAt) {
+        return new TaskStateTransitionView() {
+            @Override
+            public Long getTaskId() {
+                return 1L;
+            }
+
+            @Override
+            public String getChangeType() {
+                return changeType;
+            }
+
+            @Override
+            public String getOldValue() {
+                return oldTaskStateId != null ? "State " + oldTaskStateId : null;
+            }
+
+            @Override
+            public String getNewValue() {
+                return newTaskStateId != null ? "State " + newTaskStateId : null;
+            }
+
+            @Override
+            public Long getOldTaskStateId() {
+                return oldTaskStateId;
+            }
+
+            @Override
+            public Long getNewTaskStateId() {
+                return newTaskStateId;
+            }
+
+            @Override
+            public Instant getChangedAt() {
+                return changedAt;
+            }
+
+            @Override
+            public Instant getTaskCreatedAt() {
+                return CREATED_AT;
+            }
+
+            @Override
+            public Instant getStartedAt() {
+                return STARTED_AT;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OptimisticRetryAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryAspect aspect =
+            new OptimisticRetryAspect(meterRegistry, 3, Duration.ZERO, Duration.ZERO);
+
+    private final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+
+    @BeforeEach
+    void setUp() {
+        Signature signature = mock(Signature.class);
+        when(signature.getDeclaringType()).thenReturn(Object.class);
+        when(signature.getName()).thenReturn("move");
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void testIsConflict() {
+        assertTrue(OptimisticRetryAspect.isConflict(
+                new ObjectOptimisticLockingFailureException(Object.class, 1L)));
+        assertTrue(OptimisticRetryAspect.isConflict(
+                new TransactionSystemException("commit failed", new StaleObjectStateException("TaskEntity", 1L))));
+        assertTrue(OptimisticRetryAspect.isConflict(
+                new RuntimeException(new SQLException("duplicate key", "23505"))));
+        assertFalse(OptimisticRetryAspect.isConflict(
+                new RuntimeException(new SQLException("not null violation", "23502"))));
+        assertFalse(OptimisticRetryAspect.isConflict(
+                new BadRequestException("Task name can't be empty", HttpStatus.BAD_REQUEST)));
+    }
+
+    @Test
+    void testRetry_WhenConflictIsTransient_ShouldSucceed() throws Throwable {
+        when(joinPoint.proceed())
+                .thenThrow(new ObjectOptimisticLockingFailureException(Object.class, 1L))
+                .thenReturn("moved");
+
+        assertEquals("moved", aspect.retry(joinPoint));
+        verify(joinPoint, times(2)).proceed();
+        assertEquals(1.0, meterRegistry.get("task_tracker.optimistic_retry.retries").counter().count());
+    }
+
+    @Test
+    void testRetry_WhenAttemptsAreExhausted_ShouldThrowConflict() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new ObjectOptimisticLockingFailureException(Object.class, 1L));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> aspect.retry(joinPoint));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(1.0, meterRegistry.get("task_tracker.optimistic_retry.exhausted").counter().count());
+    }
+
+    @Test
+    void testRetry_WhenErrorIsNotAConflict_ShouldNotRetry() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new BadRequestException("Task name can't be empty", HttpStatus.BAD_REQUEST));
+
+        assertThrows(BadRequestException.class, () -> aspect.retry(joinPoint));
+        verify(joinPoint, times(1)).proceed();
+    }
+}
@@ -0,0 +1,76 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.ConflictException;
+import by.sirius.task.tracker.core.services.EmailService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "task-tracker.advisory-locks.enabled=true",
+        "task-tracker.advisory-locks.timeout=PT0.2S"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ProjectAdvisoryLocksTest {
+
+    @Autowired
+    private ProjectAdvisoryLocks projectAdvisoryLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void testLockProject_WhenHeldByAnotherTransaction_ShouldFailAfterTimeout() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            projectAdvisoryLocks.lockProject(42L);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            ConflictException exception = assertThrows(ConflictException.class,
+                    () -> transactionTemplate.executeWithoutResult(status -> projectAdvisoryLocks.lockProject(42L)));
+            assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+
+            // Other projects aren't affected, and the lock timeout is restored for the rest of the transaction
+            String lockTimeout = transactionTemplate.execute(status -> {
+                projectAdvisoryLocks.lockProject(43L);
+                return jdbcTemplate.queryForObject("SELECT current_setting('lock_timeout')", String.class);
+            });
+            assertEquals("0", lockTimeout);
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> projectAdvisoryLocks.lockProject(42L));
+    }
+}
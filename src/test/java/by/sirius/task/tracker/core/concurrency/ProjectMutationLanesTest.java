@@ -0,0 +1,147 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProjectMutationLanesTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    private ProjectMutationLanes lanes(int maxBatchSize, int maxQueueDepth) {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        return new ProjectMutationLanes(transactionManager, meterRegistry, true, maxBatchSize, maxQueueDepth);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testExecute_SerializesMutationsOfOneProject() throws Exception {
+        ProjectMutationLanes lanes = lanes(4, 1000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            results.add(callers.submit(() -> execute(lanes, 1L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return value;
+            })));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void testExecute_RunsProjectsInParallel() throws Exception {
+        ProjectMutationLanes lanes = lanes(1, 1000);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        Future<Object> first = callers.submit(() -> execute(lanes, 1L, () -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        }));
+        Future<Object> second = callers.submit(() -> execute(lanes, 2L, () -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        }));
+
+        assertEquals(true, first.get(10, TimeUnit.SECONDS));
+        assertEquals(true, second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecute_WhenOneMutationOfBatchFails_ShouldOnlyFailThatMutation() throws Exception {
+        ProjectMutationLanes lanes = lanes(16, 1000);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        // Hold the lane so that the following mutations are queued into one batch
+        Future<Object> blocking = callers.submit(() -> execute(lanes, 1L, () -> blocker.await(5, TimeUnit.SECONDS)));
+        Thread.sleep(50);
+
+        Future<Object> good = callers.submit(() -> execute(lanes, 1L, () -> "ok"));
+        Future<Object> bad = callers.submit(() -> execute(lanes, 1L, () -> {
+            throw new BadRequestException("Task name can't be empty", HttpStatus.BAD_REQUEST);
+        }));
+        Thread.sleep(50);
+        blocker.countDown();
+
+        assertEquals(true, blocking.get(10, TimeUnit.SECONDS));
+        assertEquals("ok", good.get(10, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(BadRequestException.class, failure.getCause());
+    }
+
+    @Test
+    void testExecute_WhenLaneIsFull_ShouldReject() throws Exception {
+        ProjectMutationLanes lanes = lanes(1, 1);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        Future<Object> blocking = callers.submit(() -> execute(lanes, 1L, () -> blocker.await(5, TimeUnit.SECONDS)));
+        Thread.sleep(50);
+
+        assertThrows(TooManyRequestsException.class, () -> lanes.execute(1L, () -> "rejected"));
+        blocker.countDown();
+        assertEquals(true, blocking.get(10, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("task_tracker.mutation_lanes.rejected").counter().count());
+    }
+
+    @Test
+    void testExecute_ShouldRecordQueueDepthByLaneIndex() throws Exception {
+        ProjectMutationLanes lanes = lanes(1, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        long projectId = ProjectMutationLanes.LANE_INDEXES + 3;
+
+        Future<Object> blocking = callers.submit(
+                () -> execute(lanes, projectId, () -> blocker.await(5, TimeUnit.SECONDS)));
+        Thread.sleep(50);
+        Future<Object> queued = callers.submit(() -> execute(lanes, projectId, () -> "queued"));
+        Thread.sleep(50);
+
+        assertEquals(2.0, meterRegistry.get("task_tracker.mutation_lanes.queued").tag("lane", "3").gauge().value());
+        blocker.countDown();
+        assertEquals("queued", queued.get(10, TimeUnit.SECONDS));
+        assertEquals(true, blocking.get(10, TimeUnit.SECONDS));
+
+        assertEquals(2, meterRegistry.get("task_tracker.mutation_lanes.queue_depth").tag("lane", "3")
+                .summary().count());
+        assertEquals(0, meterRegistry.get("task_tracker.mutation_lanes.queue_depth").tag("lane", "0")
+                .summary().count());
+    }
+
+    private static Object execute(ProjectMutationLanes lanes, Long projectId, ProjectMutationLanes.Mutation mutation)
+            throws Exception {
+        try {
+            return lanes.execute(projectId, mutation);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ExecutionException(e);
+        }
+    }
+}
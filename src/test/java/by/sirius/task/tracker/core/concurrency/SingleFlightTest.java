@@ -0,0 +1,103 @@
+package by.sirius.task.tracker.core.concurrency;
+
+import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = callers.submit(() -> singleFlight.execute(1L, () -> {
+            computations.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "board";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        List<Future<SingleFlight.Result<String>>> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(callers.submit(() -> singleFlight.execute(1L, () -> {
+                computations.incrementAndGet();
+                return "recomputed";
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(new SingleFlight.Result<>("board", false), leader.get(5, TimeUnit.SECONDS));
+        for (Future<SingleFlight.Result<String>> follower : followers) {
+            assertEquals(new SingleFlight.Result<>("board", true), follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void testExecute_PropagatesExceptionToWaitingCallers() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = callers.submit(() -> singleFlight.execute(1L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new NotFoundException("Project not found", HttpStatus.NOT_FOUND);
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        Future<SingleFlight.Result<String>> follower = callers.submit(() -> singleFlight.execute(1L, () -> "late"));
+        Thread.sleep(100);
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NotFoundException.class, leaderFailure.getCause());
+        assertSame(leaderFailure.getCause(), followerFailure.getCause());
+    }
+
+    @Test
+    void testExecute_DoesNotRetainCompletedResults() {
+        AtomicInteger computations = new AtomicInteger();
+
+        SingleFlight.Result<String> first = singleFlight.execute(1L, () -> "v" + computations.incrementAndGet());
+        SingleFlight.Result<String> second = singleFlight.execute(1L, () -> "v" + computations.incrementAndGet());
+
+        assertEquals(new SingleFlight.Result<>("v1", false), first);
+        assertEquals(new SingleFlight.Result<>("v2", false), second);
+    }
+
+    @Test
+    void testExecute_DifferentKeysDoNotShare() {
+        assertEquals("one", singleFlight.execute(1L, () -> "one").value());
+        assertEquals("two", singleFlight.execute(2L, () -> "two").value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
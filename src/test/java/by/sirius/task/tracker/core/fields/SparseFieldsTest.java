@@ -0,0 +1,110 @@
+package by.sirius.task.tracker.core.fields;
+
+import by.sirius.task.tracker.api.dto.ProjectDtoWithTaskStates;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseFieldsTest {
+
+    private final SparseFieldsParser parser = new SparseFieldsParser();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+
+    @Test
+    void testParse_WhenEmpty_ShouldSelectAll() {
+        assertSame(SparseFields.ALL, parser.parse(SparseFields.Level.PROJECT, null));
+        assertSame(SparseFields.ALL, parser.parse(SparseFields.Level.PROJECT, " "));
+    }
+
+    @Test
+    void testParse_NestedPaths() {
+        SparseFields fields = parser.parse(SparseFields.Level.PROJECT, "name, taskStates.name");
+
+        assertEquals(Map.of(
+                SparseFields.Level.PROJECT, Set.of("id", "name", "taskStates"),
+                SparseFields.Level.TASK_STATE, Set.of("id", "name")), fields.selected());
+        assertTrue(fields.includesTaskStates());
+        assertFalse(fields.includesTasks());
+    }
+
+    @Test
+    void testParse_WhenLevelIsNotRestricted_ShouldIncludeNestedLevel() {
+        SparseFields fields = parser.parse(SparseFields.Level.PROJECT, "taskStates");
+
+        assertTrue(fields.includesTaskStates());
+        assertTrue(fields.includesTasks());
+    }
+
+    @Test
+    void testParse_TaskStateRoot() {
+        SparseFields fields = parser.parse(SparseFields.Level.TASK_STATE, "tasks.id");
+
+        assertEquals(Set.of("id", "tasks"), fields.selected().get(SparseFields.Level.TASK_STATE));
+        assertFalse(fields.includes(SparseFields.Level.TASK, "assigned_user"));
+    }
+
+    @Test
+    void testParse_WhenFieldIsUnknown_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> parser.parse(SparseFields.Level.PROJECT, "priority"));
+        assertThrows(BadRequestException.class, () -> parser.parse(SparseFields.Level.PROJECT, "name.id"));
+        assertThrows(BadRequestException.class, () -> parser.parse(SparseFields.Level.TASK, "tasks.id"));
+        assertThrows(BadRequestException.class, () -> parser.parse(SparseFields.Level.TASK_STATE, "tasks."));
+    }
+
+    @Test
+    void testApply_WritesOnlySelectedFields() throws Exception {
+        ProjectDtoWithTaskStates project = ProjectDtoWithTaskStates.builder()
+                .id(1L)
+                .name("Board")
+                .owner("alice")
+                .taskStates(List.of(TaskStateDto.builder()
+                        .id(2L)
+                        .name("To do")
+                        .tasks(List.of(TaskDto.builder().id(3L).name("Task").build()))
+                        .build()))
+                .build();
+
+        JsonNode json = write(parser.parse(SparseFields.Level.PROJECT, "taskStates.tasks.name").apply(project));
+
+        assertEquals(Set.of("id", "taskStates"), fieldNames(json));
+        assertEquals(Set.of("id", "tasks"), fieldNames(json.get("taskStates").get(0)));
+        assertEquals(Set.of("id", "name"), fieldNames(json.get("taskStates").get(0).get("tasks").get(0)));
+    }
+
+    @Test
+    void testApply_WhenNothingSelected_ShouldWriteAllFields() throws Exception {
+        TaskDto task = TaskDto.builder().id(3L).name("Task").build();
+
+        JsonNode json = write(SparseFields.ALL.apply(task));
+
+        assertTrue(json.has("assigned_user"));
+        assertTrue(json.has("left_task_id"));
+        assertTrue(json.has("version"));
+    }
+
+    private JsonNode write(MappingJacksonValue value) throws Exception {
+        String json = objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue());
+        return objectMapper.readTree(json);
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,136 @@
+package by.sirius.task.tracker.core.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskHistoryArchiveTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 3);
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testFindByTaskId_ReadsCommittedSegment() throws IOException {
+        TaskHistoryArchive archive = new TaskHistoryArchive(objectMapper, directory.toString(), 1000);
+
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(MONTH)) {
+            writer.write(row(1L, 10L));
+            writer.write(row(2L, 20L));
+            writer.write(row(3L, 20L));
+            writer.write(row(4L, null));
+            writer.commit();
+        }
+
+        List<ArchivedTaskHistory> history = archive.findByTaskId(20L);
+
+        assertEquals(List.of(2L, 3L), history.stream().map(ArchivedTaskHistory::id).toList());
+        assertTrue(archive.findByTaskId(30L).isEmpty());
+    }
+
+    @Test
+    void testFindByTaskId_SeeksToIndexedMember() throws IOException {
+        TaskHistoryArchive archive = new TaskHistoryArchive(objectMapper, directory.toString(), 2);
+
+        TaskHistorySegment segment;
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(MONTH)) {
+            writer.write(row(1L, 10L));
+            writer.write(row(2L, 10L));
+            writer.write(row(3L, 10L));
+            writer.write(row(4L, 20L));
+            writer.write(row(5L, 30L));
+            writer.write(row(6L, 30L));
+            writer.write(row(7L, 40L));
+            writer.write(row(8L, null));
+            segment = writer.commit();
+        }
+
+        assertEquals(List.of(10L, 20L, 40L),
+                segment.index().stream().map(TaskHistorySegment.IndexEntry::taskId).toList());
+        assertEquals(0, segment.index().get(0).offset());
+        assertTrue(segment.index().get(1).offset() < segment.index().get(2).offset());
+        assertEquals(segment.index().get(1).offset(), segment.offsetOf(30L));
+
+        assertEquals(List.of(1L, 2L, 3L), archive.findByTaskId(10L).stream().map(ArchivedTaskHistory::id).toList());
+        assertEquals(List.of(5L, 6L), archive.findByTaskId(30L).stream().map(ArchivedTaskHistory::id).toList());
+        assertEquals(List.of(7L), archive.findByTaskId(40L).stream().map(ArchivedTaskHistory::id).toList());
+        assertTrue(archive.findByTaskId(35L).isEmpty());
+    }
+
+    @Test
+    void testFindByTaskId_KeepsProjectAndTaskStateIds() throws IOException {
+        TaskHistoryArchive archive = new TaskHistoryArchive(objectMapper, directory.toString(), 1000);
+
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(MONTH)) {
+            writer.write(new ArchivedTaskHistory(1L, 10L, 5L, "alice", "EDIT", "task state", "To do", "Done",
+                    7L, 8L, Instant.parse("2026-03-10T10:00:00Z")));
+            writer.commit();
+        }
+
+        ArchivedTaskHistory row = archive.findByTaskId(10L).get(0);
+        assertEquals(5L, row.projectId());
+        assertEquals(7L, row.oldTaskStateId());
+        assertEquals(8L, row.newTaskStateId());
+    }
+
+    @Test
+    void testLoadManifests_RestoresSegmentsFromDisk() throws IOException {
+        TaskHistoryArchive archive = new TaskHistoryArchive(objectMapper, directory.toString(), 1000);
+
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(MONTH)) {
+            writer.write(row(1L, 10L));
+            writer.commit();
+        }
+
+        TaskHistoryArchive reloaded = new TaskHistoryArchive(objectMapper, directory.toString(), 1000);
+        reloaded.loadManifests();
+
+        assertEquals(1, reloaded.getSegments().size());
+        assertEquals(1, reloaded.findByTaskId(10L).size());
+    }
+
+    @Test
+    void testClose_WithoutCommit_ShouldDiscardSegment() throws IOException {
+        TaskHistoryArchive archive = new TaskHistoryArchive(objectMapper, directory.toString(), 1000);
+
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(MONTH)) {
+            writer.write(row(1L, 10L));
+        }
+
+        assertTrue(archive.getSegments().isEmpty());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testWrite_OutOfOrder_ShouldThrowException() throws IOException {
+        TaskHistoryArchive archive = new TaskHistoryArchive(objectMapper, directory.toString(), 1000);
+
+        try (TaskHistoryArchive.SegmentWriter writer = archive.openSegment(MONTH)) {
+            writer.write(row(1L, 20L));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(row(2L, 10L)));
+        }
+    }
+
+    private static ArchivedTaskHistory row(Long id, Long taskId) {
+        return new ArchivedTaskHistory(id, taskId, 5L, "alice", "EDIT", "name", "old", "new", null, null,
+                Instant.parse("2026-03-10T10:00:00Z"));
+    }
+}
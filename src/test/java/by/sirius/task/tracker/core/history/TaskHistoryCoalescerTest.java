@@ -0,0 +1,149 @@
+package by.sirius.task.tracker.core.history;
+
+import by.sirius.task.tracker.store.entities.TaskEntity;
+import by.sirius.task.tracker.store.entities.TaskHistoryEntity;
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskHistoryCoalescerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T10:00:00Z");
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    private TaskHistoryCoalescer taskHistoryCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        taskHistoryCoalescer = new TaskHistoryCoalescer(taskHistoryRepository, Duration.ofMinutes(2));
+    }
+
+    @Test
+    void testTryMerge_ContinuingChange_ShouldReplacePreviousRow() {
+        TaskHistoryEntity previous = position("alice", "1", "2", NOW.minusSeconds(30));
+        TaskHistoryEntity next = position("alice", "2", "3", NOW);
+
+        when(taskHistoryRepository.findFirstByTaskIdOrderByChangedAtDescIdDesc(1L)).thenReturn(Optional.of(previous));
+
+        assertTrue(taskHistoryCoalescer.tryMerge(next));
+
+        assertEquals("1", next.getOldValue());
+        assertEquals("3", next.getNewValue());
+        verify(taskHistoryRepository).delete(previous);
+        verify(taskHistoryRepository).save(next);
+    }
+
+    @Test
+    void testTryMerge_OtherUser_ShouldNotMerge() {
+        when(taskHistoryRepository.findFirstByTaskIdOrderByChangedAtDescIdDesc(1L))
+                .thenReturn(Optional.of(position("bob", "1", "2", NOW.minusSeconds(30))));
+
+        assertFalse(taskHistoryCoalescer.tryMerge(position("alice", "2", "3", NOW)));
+        verify(taskHistoryRepository, never()).save(any());
+    }
+
+    @Test
+    void testTryMerge_OutsideWindow_ShouldNotMerge() {
+        when(taskHistoryRepository.findFirstByTaskIdOrderByChangedAtDescIdDesc(1L))
+                .thenReturn(Optional.of(position("alice", "1", "2", NOW.minusSeconds(300))));
+
+        assertFalse(taskHistoryCoalescer.tryMerge(position("alice", "2", "3", NOW)));
+    }
+
+    @Test
+    void testTryMerge_AcrossUtcMidnight_ShouldNotMerge() {
+        Instant afterMidnight = Instant.parse("2026-03-11T00:00:10Z");
+
+        when(taskHistoryRepository.findFirstByTaskIdOrderByChangedAtDescIdDesc(1L))
+                .thenReturn(Optional.of(position("alice", "1", "2", afterMidnight.minusSeconds(20))));
+
+        assertFalse(taskHistoryCoalescer.tryMerge(position("alice", "2", "3", afterMidnight)));
+    }
+
+    @Test
+    void testTryMerge_IntoFirstTaskStateChange_ShouldNotMerge() {
+        TaskHistoryEntity start = state("alice", 10L, 11L, NOW.minusSeconds(30));
+
+        when(taskHistoryRepository.findFirstByTaskIdOrderByChangedAtDescIdDesc(1L)).thenReturn(Optional.of(start));
+        when(taskHistoryRepository.existsStateChangeBefore(1L, start.getChangedAt(), start.getId())).thenReturn(false);
+
+        assertFalse(taskHistoryCoalescer.tryMerge(state("alice", 11L, 12L, NOW)));
+        verify(taskHistoryRepository, never()).delete(any());
+    }
+
+    @Test
+    void testTryMerge_IntoLaterTaskStateChange_ShouldCarryOldTaskStateId() {
+        TaskHistoryEntity previous = state("alice", 10L, 11L, NOW.minusSeconds(30));
+        TaskHistoryEntity next = state("alice", 11L, 12L, NOW);
+
+        when(taskHistoryRepository.findFirstByTaskIdOrderByChangedAtDescIdDesc(1L)).thenReturn(Optional.of(previous));
+        when(taskHistoryRepository.existsStateChangeBefore(1L, previous.getChangedAt(), previous.getId()))
+                .thenReturn(true);
+
+        assertTrue(taskHistoryCoalescer.tryMerge(next));
+
+        assertEquals(10L, next.getOldTaskStateId());
+        assertEquals("State 10", next.getOldValue());
+        verify(taskHistoryRepository).delete(previous);
+    }
+
+    @Test
+    void testTryMerge_NameChange_ShouldNotMerge() {
+        TaskHistoryEntity rename = TaskHistoryEntity.builder()
+                .task(TaskEntity.builder().id(1L).build())
+                .username("alice")
+                .changeType("EDIT")
+                .fieldName("name")
+                .oldValue("Old")
+                .newValue("New")
+                .changedAt(NOW)
+                .build();
+
+        assertFalse(taskHistoryCoalescer.tryMerge(rename));
+        verifyNoInteractions(taskHistoryRepository);
+    }
+
+    private static TaskHistoryEntity state(String username,
+                                           Long oldTaskStateId,
+                                           Long newTaskStateId,
+                                           Instant changedAt) {
+        return TaskHistoryEntity.builder()
+                .id(changedAt.getEpochSecond())
+                .task(TaskEntity.builder().id(1L).build())
+                .username(username)
+                .changeType("EDIT")
+                .fieldName("task state")
+                .oldValue("State " + oldTaskStateId)
+                .newValue("State " + newTaskStateId)
+                .oldTaskStateId(oldTaskStateId)
+                .newTaskStateId(newTaskStateId)
+                .changedAt(changedAt)
+                .build();
+    }
+
+    private static TaskHistoryEntity position(String username, String oldValue, String newValue, Instant changedAt) {
+        return TaskHistoryEntity.builder()
+                .task(TaskEntity.builder().id(1L).build())
+                .username(username)
+                .changeType("EDIT")
+                .fieldName("task position")
+                .oldValue(oldValue)
+                .newValue(newValue)
+                .changedAt(changedAt)
+                .build();
+    }
+}
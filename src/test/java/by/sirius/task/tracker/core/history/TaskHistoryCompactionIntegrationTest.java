@@ -0,0 +1,234 @@
+package by.sirius.task.tracker.core.history;
+
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.TaskFlowWatermarkEntity;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.TaskFlowWatermarkRepository;
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class TaskHistoryCompactionIntegrationTest {
+
+    private static final long WINDOW_SECONDS = 120;
+
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private TaskFlowWatermarkRepository taskFlowWatermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private String username;
+    private LocalDate day;
+    private Instant start;
+    private ProjectDto project;
+    private TaskStateDto todo;
+    private TaskStateDto doing;
+    private TaskStateDto done;
+
+    @BeforeEach
+    void setUp() {
+        username = "grace-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+
+        // A day of its own per test, so compaction never sees the rows of another test.
+        day = LocalDate.of(2090, 1, 1).plusDays(Math.floorMod(UUID.randomUUID().hashCode(), 3650));
+        start = day.atTime(10, 0).toInstant(ZoneOffset.UTC);
+
+        project = projectService.createProject("Project " + username, username);
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        doing = taskStateService.createTaskState(project.getId(), "Doing");
+        done = taskStateService.createTaskState(project.getId(), "Done");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testCompactBursts_PositionBurst_ShouldKeepLastRowWithFirstOldValue() {
+        Long taskId = task(project, todo);
+        edit(taskId, username, "task position", "1", "2", 0);
+        edit(taskId, username, "task position", "2", "3", 30);
+        Long last = edit(taskId, username, "task position", "3", "4", 60);
+
+        assertEquals(2, compact());
+
+        List<Map<String, Object>> rows = rows(taskId);
+        assertEquals(1, rows.size());
+        assertEquals(last, rows.get(0).get("id"));
+        assertEquals("1", rows.get(0).get("old_value"));
+        assertEquals("4", rows.get(0).get("new_value"));
+    }
+
+    @Test
+    void testCompactBursts_TaskStateBurst_ShouldKeepStartAndCarryOldTaskStateId() {
+        Long taskId = task(project, todo);
+        Long started = state(taskId, todo, doing, 0);
+        state(taskId, doing, done, 30);
+        Long last = state(taskId, done, todo, 60);
+
+        assertEquals(1, compact());
+
+        List<Map<String, Object>> rows = rows(taskId);
+        assertEquals(List.of(started, last), rows.stream().map(row -> row.get("id")).toList());
+        assertEquals(todo.getId(), rows.get(0).get("old_task_state_id"));
+        assertEquals(doing.getId(), rows.get(0).get("new_task_state_id"));
+        assertEquals(doing.getId(), rows.get(1).get("old_task_state_id"));
+        assertEquals("Doing", rows.get(1).get("old_value"));
+        assertEquals(todo.getId(), rows.get(1).get("new_task_state_id"));
+    }
+
+    @Test
+    void testCompactBursts_AssigneeAndNameEdits_ShouldSurviveAndBreakBursts() {
+        Long taskId = task(project, todo);
+        edit(taskId, username, "task position", "1", "2", 0);
+        Long assignee = edit(taskId, username, "assigned user", null, "alice", 10);
+        edit(taskId, username, "task position", "2", "3", 20);
+        edit(taskId, username, "task position", "3", "4", 30);
+        Long firstName = edit(taskId, username, "name", "First", "Second", 40);
+        Long secondName = edit(taskId, username, "name", "Second", "Third", 50);
+
+        assertEquals(1, compact());
+
+        List<Map<String, Object>> rows = rows(taskId);
+        assertEquals(5, rows.size());
+        assertTrue(rows.stream().map(row -> row.get("id")).toList()
+                .containsAll(List.of(assignee, firstName, secondName)));
+        assertEquals(List.of("1", "2"), rows.stream()
+                .filter(row -> "task position".equals(row.get("field_name")))
+                .map(row -> row.get("old_value"))
+                .toList());
+    }
+
+    @Test
+    void testCompactBursts_OtherUser_ShouldNotMerge() {
+        Long taskId = task(project, todo);
+        edit(taskId, username, "task position", "1", "2", 0);
+        edit(taskId, "mallory", "task position", "2", "3", 30);
+
+        assertEquals(0, compact());
+        assertEquals(2, rows(taskId).size());
+    }
+
+    @Test
+    void testCompactBursts_BeforeFlowWatermark_ShouldKeepRows() {
+        Long taskId = task(project, todo);
+        edit(taskId, username, "task position", "1", "2", 0);
+        edit(taskId, username, "task position", "2", "3", 30);
+        taskFlowWatermarkRepository.save(TaskFlowWatermarkEntity.builder()
+                .projectId(project.getId())
+                .materializedUntil(day.plusDays(1))
+                .build());
+
+        assertEquals(0, compact());
+        assertEquals(2, rows(taskId).size());
+    }
+
+    private int compact() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer removed = transactionTemplate.execute(status -> taskHistoryRepository.compactBursts(
+                start, day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC), WINDOW_SECONDS));
+        return removed;
+    }
+
+    private Long task(ProjectDto project, TaskStateDto taskState) {
+        TaskDto task = taskService.createTask(project.getId(), taskState.getId(), "Task " + UUID.randomUUID());
+        return task.getId();
+    }
+
+    private Long state(Long taskId, TaskStateDto from, TaskStateDto to, long secondsAfterStart) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO task_history (task_id, username, change_type, field_name, old_value, new_value,
+                                                  old_task_state_id, new_task_state_id, changed_at)
+                        VALUES (?, ?, 'EDIT', 'task state', ?, ?, ?, ?, ?)
+                        RETURNING id
+                        """, Long.class, taskId, username, from.getName(), to.getName(), from.getId(), to.getId(),
+                Timestamp.from(start.plusSeconds(secondsAfterStart)));
+    }
+
+    private Long edit(Long taskId,
+                      String editor,
+                      String fieldName,
+                      String oldValue,
+                      String newValue,
+                      long secondsAfterStart) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO task_history (task_id, username, change_type, field_name, old_value, new_value,
+                                                  changed_at)
+                        VALUES (?, ?, 'EDIT', ?, ?, ?, ?)
+                        RETURNING id
+                        """, Long.class, taskId, editor, fieldName, oldValue, newValue,
+                Timestamp.from(start.plusSeconds(secondsAfterStart)));
+    }
+
+    private List<Map<String, Object>> rows(Long taskId) {
+        return jdbcTemplate.queryForList("""
+                SELECT id, field_name, old_value, new_value, old_task_state_id, new_task_state_id
+                FROM task_history
+                WHERE task_id = ? AND changed_at >= ?
+                ORDER BY changed_at, id
+                """, taskId, Timestamp.from(start));
+    }
+}
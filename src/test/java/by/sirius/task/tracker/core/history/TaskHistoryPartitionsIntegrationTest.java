@@ -0,0 +1,102 @@
+package by.sirius.task.tracker.core.history;
+
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.store.entities.TaskHistoryEntity;
+import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class TaskHistoryPartitionsIntegrationTest {
+
+    @Autowired
+    private TaskHistoryPartitions taskHistoryPartitions;
+
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void testMigration_ShouldCreatePartitionedTable() {
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('task_history')", String.class));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass('task_history_default')::text", String.class));
+    }
+
+    @Test
+    void testSave_ShouldTakeIdsFromSequence() {
+        TaskHistoryEntity first = taskHistoryRepository.save(history(Instant.now()));
+        TaskHistoryEntity second = taskHistoryRepository.save(history(Instant.now()));
+
+        assertNotNull(first.getId());
+        assertTrue(second.getId() > first.getId());
+    }
+
+    @Test
+    void testEnsurePartitions_WhenDefaultPartitionHoldsRowsOfMonth_ShouldMoveThem() {
+        YearMonth month = YearMonth.of(2097, 5);
+        Instant inMonth = Instant.parse("2097-05-10T12:00:00Z");
+        Instant nextMonth = Instant.parse("2097-06-01T00:00:00Z");
+
+        jdbcTemplate.update("INSERT INTO task_history (change_type, changed_at) VALUES ('EDIT', ?), ('EDIT', ?)",
+                Timestamp.from(inMonth), Timestamp.from(nextMonth));
+        assertTrue(taskHistoryPartitions.findOldestDefaultMonth().isPresent());
+
+        taskHistoryPartitions.ensurePartitions(month, month);
+
+        assertTrue(taskHistoryPartitions.findPartitionMonths().contains(month));
+        assertEquals(1, count("task_history_p2097_05"));
+        assertEquals(1, count("task_history_default WHERE changed_at >= '2097-05-01'"));
+        assertEquals(2, count("task_history WHERE changed_at >= '2097-05-01'"));
+
+        taskHistoryPartitions.ensurePartitions(month.plusMonths(1), month.plusMonths(1));
+
+        assertEquals(0, count("task_history_default WHERE changed_at >= '2097-05-01'"));
+        assertEquals(1, count("task_history_p2097_06"));
+    }
+
+    @Test
+    void testEnsurePartitions_WhenPartitionExists_ShouldKeepIt() {
+        YearMonth month = YearMonth.of(2098, 1);
+        taskHistoryPartitions.ensurePartitions(month, month);
+
+        jdbcTemplate.update("INSERT INTO task_history (change_type, changed_at) VALUES ('EDIT', ?)",
+                Timestamp.from(Instant.parse("2098-01-15T00:00:00Z")));
+        taskHistoryPartitions.ensurePartitions(month, month);
+
+        assertEquals(1, count("task_history_p2098_01"));
+    }
+
+    private long count(String from) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Long.class);
+    }
+
+    private static TaskHistoryEntity history(Instant changedAt) {
+        return TaskHistoryEntity.builder()
+                .changeType("EDIT")
+                .fieldName("name")
+                .oldValue("Old")
+                .newValue("New")
+                .changedAt(changedAt)
+                .build();
+    }
+}
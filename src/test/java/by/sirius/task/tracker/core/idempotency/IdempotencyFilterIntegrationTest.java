@@ -0,0 +1,202 @@
+package by.sirius.task.tracker.core.idempotency;
+
+import by.sirius.task.tracker.api.controllers.BatchController;
+import by.sirius.task.tracker.api.controllers.ProjectController;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class IdempotencyFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        username = "alice-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void testRetryWithSameKey_ShouldReplayResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String name = "Project " + username;
+
+        MvcResult first = mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", name)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .andReturn();
+
+        MvcResult retry = mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", name)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM projects WHERE name = ?", Integer.class, name));
+    }
+
+    @Test
+    void testRetryWithSameKey_ShouldReplayCborResponseByteForByte() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String name = "Project " + username;
+
+        MvcResult first = mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", name)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        MvcResult retry = mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", name)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertArrayEquals(first.getResponse().getContentAsByteArray(), retry.getResponse().getContentAsByteArray());
+        assertEquals(name, new CBORMapper().readTree(retry.getResponse().getContentAsByteArray()).get("name").asText());
+    }
+
+    @Test
+    void testSameKeyWithOtherAccept_ShouldBeRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String name = "Project " + username;
+
+        mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", name)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", name)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void testSameKeyForDifferentRequest_ShouldBeRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", "First " + username)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", "Second " + username)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void testBatchRead_ShouldNotBeReplayedForAnotherBody() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post(BatchController.BATCH_READ)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"id\": \"first\", \"type\": \"invitations\"}]}")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk());
+
+        MvcResult second = mockMvc.perform(post(BatchController.BATCH_READ)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"id\": \"second\", \"type\": \"invitations\"}]}")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .andReturn();
+
+        assertTrue(second.getResponse().getContentAsString().contains("second"));
+    }
+
+    @Test
+    void testKeysAreScopedToUser() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", "Project " + username)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(username)))
+                .andExpect(status().isOk());
+
+        String otherUsername = "bob-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(otherUsername)
+                .email(otherUsername + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+
+        mockMvc.perform(post(ProjectController.CREATE_PROJECT)
+                        .param("name", "Project " + otherUsername)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .with(user(otherUsername)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    }
+}
@@ -0,0 +1,25 @@
+package by.sirius.task.tracker.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCounterTest {
+
+    @Test
+    void testRecord_AccumulatesUntilStopped() {
+        QueryCounter.start();
+        QueryCounter.record(1, 4);
+        QueryCounter.record(2, 3);
+
+        assertEquals(new QueryStatistics(3, 7), QueryCounter.stop());
+        assertEquals(QueryStatistics.NONE, QueryCounter.current());
+    }
+
+    @Test
+    void testRecord_WithoutStart_ShouldBeIgnored() {
+        QueryCounter.record(5, 10);
+
+        assertEquals(QueryStatistics.NONE, QueryCounter.stop());
+    }
+}
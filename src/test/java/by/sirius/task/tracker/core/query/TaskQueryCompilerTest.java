@@ -0,0 +1,91 @@
+package by.sirius.task.tracker.core.query;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskQueryCompilerTest {
+
+    private final TaskFilterParser parser = new TaskFilterParser();
+    private final TaskQueryCompiler compiler = new TaskQueryCompiler();
+
+    @Test
+    void testParse_AllTerms() {
+        TaskFilter filter = parser.parse("state:3,4 assignee:alice created>=2024-01-01 created<2024-02-01T00:00:00Z name:\"release *\"");
+
+        assertEquals(List.of(3L, 4L), filter.getTaskStateIds());
+        assertEquals(Optional.of("alice"), filter.getAssignee());
+        assertEquals(Optional.of(Instant.parse("2024-01-01T00:00:00Z")), filter.getCreatedFrom());
+        assertEquals(Optional.of(Instant.parse("2024-02-01T00:00:00Z")), filter.getCreatedTo());
+        assertEquals(Optional.of("release *"), filter.getNamePattern());
+        assertFalse(filter.isUnassigned());
+    }
+
+    @Test
+    void testParse_Unassigned() {
+        TaskFilter filter = parser.parse("assignee:none");
+
+        assertTrue(filter.isUnassigned());
+        assertTrue(filter.getAssignee().isEmpty());
+    }
+
+    @Test
+    void testParse_WhenTermIsUnknown_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> parser.parse("priority:high"));
+    }
+
+    @Test
+    void testParse_WhenInputIsMalformed_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> parser.parse("state:1 garbage"));
+        assertThrows(BadRequestException.class, () -> parser.parse("state:abc"));
+        assertThrows(BadRequestException.class, () -> parser.parse("created>=yesterday"));
+    }
+
+    @Test
+    void testCompilePage_UsesOnlyBoundParameters() {
+        TaskFilter filter = parser.parse("state:3 assignee:alice name:\"x'; DROP TABLE tasks; --\"");
+        TaskCursor cursor = new TaskCursor(Instant.parse("2024-01-01T00:00:00Z"), 42L);
+
+        CompiledTaskQuery query = compiler.compilePage(1L, filter, Optional.of(cursor), 51);
+
+        assertFalse(query.sql().contains("DROP"));
+        assertTrue(query.sql().contains("t.task_state_id IN (:taskStateIds)"));
+        assertTrue(query.sql().contains("(t.created_at, t.id) < (:cursorCreatedAt, :cursorId)"));
+        assertTrue(query.sql().endsWith("ORDER BY t.created_at DESC, t.id DESC LIMIT :limit"));
+        assertEquals(1L, query.parameters().get("projectId"));
+        assertEquals(List.of(3L), query.parameters().get("taskStateIds"));
+        assertEquals("alice", query.parameters().get("assignee"));
+        assertEquals(Timestamp.from(cursor.createdAt()), query.parameters().get("cursorCreatedAt"));
+        assertEquals(51, query.parameters().get("limit"));
+    }
+
+    @Test
+    void testCompileCount_HasNoOrderingOrPaging() {
+        CompiledTaskQuery query = compiler.compileCount(1L, parser.parse("assignee:none"));
+
+        assertTrue(query.sql().contains("t.assigned_user_id IS NULL"));
+        assertFalse(query.sql().contains("ORDER BY"));
+        assertFalse(query.sql().contains("LIMIT"));
+    }
+
+    @Test
+    void testToLikePattern() {
+        assertEquals("release %", TaskQueryCompiler.toLikePattern("release *"));
+        assertEquals("%50\\%%", TaskQueryCompiler.toLikePattern("50%"));
+        assertEquals("%a\\_b%", TaskQueryCompiler.toLikePattern("a_b"));
+    }
+
+    @Test
+    void testCursor_RoundTrip() {
+        TaskCursor cursor = new TaskCursor(Instant.parse("2024-03-01T10:15:30.123456Z"), 7L);
+
+        assertEquals(cursor, TaskCursor.decode(cursor.encode()));
+        assertThrows(BadRequestException.class, () -> TaskCursor.decode("not a cursor"));
+    }
+}
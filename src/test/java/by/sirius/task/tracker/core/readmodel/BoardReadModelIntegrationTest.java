@@ -0,0 +1,260 @@
+package by.sirius.task.tracker.core.readmodel;
+
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardVersions;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.metrics.QueryCounter;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardReadModelIntegrationTest {
+
+    @Autowired
+    private BoardReadModel boardReadModel;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private final BoardVersions boardVersions = new BoardVersions();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private String username;
+    private ProjectDto project;
+    private TaskStateDto todo;
+    private TaskStateDto done;
+
+    @BeforeEach
+    void setUp() {
+        username = "erin-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+
+        project = projectService.createProject("Project " + username, username);
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        done = taskStateService.createTaskState(project.getId(), "Done");
+        taskService.createTask(project.getId(), todo.getId(), "First");
+        taskService.createTask(project.getId(), todo.getId(), "Second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReads_WhenBoardIsLoaded_ShouldNotQueryDatabase() {
+        taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL);
+
+        QueryCounter.start();
+        try {
+            List<TaskStateDto> taskStates = taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL);
+            List<TaskDto> tasks = taskService.getTasks(project.getId(), todo.getId(), SparseFields.ALL);
+            TaskDto task = taskService.getTaskById(
+                    project.getId(), todo.getId(), tasks.get(0).getId(), SparseFields.ALL);
+
+            assertEquals(2, taskStates.size());
+            assertEquals(List.of("First", "Second"), tasks.stream().map(TaskDto::getName).toList());
+            assertEquals("First", task.getName());
+            assertEquals(0, QueryCounter.current().statements());
+        } finally {
+            QueryCounter.stop();
+        }
+    }
+
+    @Test
+    void testReads_AfterTaskMutations_ShouldMatchFreshLoad() {
+        taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL);
+
+        TaskDto third = taskService.createTask(project.getId(), todo.getId(), "Third");
+        taskService.changeTaskPosition(third.getId(), Optional.empty(), Optional.empty());
+        taskService.changeTaskState(third.getId(), done.getId(), Optional.empty());
+        taskStateService.editTaskState(todo.getId(), "Backlog", Optional.empty());
+
+        assertEquals(freshLoad(), boardReadModel.find(project.getId()).orElseThrow().taskStates(SparseFields.ALL));
+        assertEquals(List.of(third.getId()), taskService.getTasks(project.getId(), done.getId(), SparseFields.ALL)
+                .stream()
+                .map(TaskDto::getId)
+                .toList());
+    }
+
+    @Test
+    void testReads_AfterTaskStateIsCreated_ShouldReloadBoard() {
+        taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL);
+
+        taskStateService.createTaskState(project.getId(), "Review");
+
+        List<TaskStateDto> taskStates = taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL);
+        assertEquals(List.of("To do", "Done", "Review"), taskStates.stream().map(TaskStateDto::getName).toList());
+        assertEquals(freshLoad(), taskStates);
+    }
+
+    @Test
+    void testGetTaskStates_OfAnotherUsersProject_ShouldStillBeRejected() {
+        taskStateService.getTaskStates(project.getId(), username, SparseFields.ALL);
+
+        assertThrows(NotFoundException.class,
+                () -> taskStateService.getTaskStates(project.getId(), "mallory", SparseFields.ALL));
+    }
+
+    @Test
+    void testFind_Eventual_ShouldKeepServingViewAfterLocalChange() {
+        BoardReadModel eventual = model(BoardReadModel.Consistency.EVENTUAL, DataSize.ofMegabytes(1));
+        BoardReadModel strict = model(BoardReadModel.Consistency.STRICT, DataSize.ofMegabytes(1));
+        BoardView eventualView = eventual.find(project.getId()).orElseThrow();
+        BoardView strictView = strict.find(project.getId()).orElseThrow();
+
+        boardVersions.changed(project.getId());
+
+        assertSame(eventualView, eventual.find(project.getId()).orElseThrow());
+        assertNotSame(strictView, strict.find(project.getId()).orElseThrow());
+    }
+
+    @Test
+    void testFind_OverByteBudget_ShouldEvictLeastRecentlyReadView() {
+        ProjectDto first = board("First");
+        ProjectDto second = board("Second");
+        ProjectDto third = board("Third");
+        long boardBytes = model(BoardReadModel.Consistency.STRICT, DataSize.ofMegabytes(1))
+                .find(first.getId())
+                .orElseThrow()
+                .estimatedBytes();
+        BoardReadModel model = model(BoardReadModel.Consistency.STRICT, DataSize.ofBytes(2 * boardBytes));
+
+        BoardView firstView = model.find(first.getId()).orElseThrow();
+        BoardView secondView = model.find(second.getId()).orElseThrow();
+        model.find(first.getId());
+        BoardView thirdView = model.find(third.getId()).orElseThrow();
+
+        assertEquals(2 * boardBytes, model.usedBytes());
+        assertSame(firstView, model.find(first.getId()).orElseThrow());
+        assertSame(thirdView, model.find(third.getId()).orElseThrow());
+        assertNotSame(secondView, model.find(second.getId()).orElseThrow());
+    }
+
+    @Test
+    void testFind_Strict_WhileChangeIsCommitting_ShouldBypassView() {
+        BoardReadModel model = model(BoardReadModel.Consistency.STRICT, DataSize.ofMegabytes(1));
+        model.find(project.getId()).orElseThrow();
+        AtomicReference<Optional<BoardView>> duringCommit = new AtomicReference<>();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            model.onBoardRestructured(project.getId());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    duringCommit.set(model.find(project.getId()));
+                }
+            });
+        });
+
+        assertTrue(duringCommit.get().isEmpty());
+        assertEquals(1, reads("bypassed"));
+        assertTrue(model.find(project.getId()).isPresent());
+    }
+
+    @Test
+    void testFind_WhenBoardIsTooLarge_ShouldGoToDatabaseWithoutLoading() {
+        BoardReadModel model = model(BoardReadModel.Consistency.STRICT, DataSize.ofBytes(1));
+        assertTrue(model.find(project.getId()).isPresent());
+
+        QueryCounter.start();
+        try {
+            assertTrue(model.find(project.getId()).isEmpty());
+            assertEquals(0, QueryCounter.current().statements());
+        } finally {
+            QueryCounter.stop();
+        }
+        assertEquals(0, model.usedBytes());
+        assertEquals(1, reads("loaded"));
+        assertEquals(1, reads("oversized"));
+    }
+
+    /**
+     * A model of its own has nothing cached, so it reads the board from the database.
+     */
+    private List<TaskStateDto> freshLoad() {
+        return model(BoardReadModel.Consistency.STRICT, DataSize.ofMegabytes(1))
+                .find(project.getId())
+                .orElseThrow()
+                .taskStates(SparseFields.ALL);
+    }
+
+    private BoardReadModel model(BoardReadModel.Consistency consistency, DataSize maxSize) {
+        return new BoardReadModel(dataSource, transactionManager, boardVersions, meterRegistry, true, consistency,
+                maxSize, Duration.ofMinutes(1));
+    }
+
+    /**
+     * A board of one column and one task, the same size whatever its name.
+     */
+    private ProjectDto board(String name) {
+        ProjectDto board = projectService.createProject(name + " " + username, username);
+        TaskStateDto taskState = taskStateService.createTaskState(board.getId(), "To do");
+        taskService.createTask(board.getId(), taskState.getId(), "Task");
+        return board;
+    }
+
+    private long reads(String outcome) {
+        return (long) meterRegistry.counter("task_tracker.read_model.reads", "outcome", outcome).count();
+    }
+}
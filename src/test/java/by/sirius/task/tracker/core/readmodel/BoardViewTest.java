@@ -0,0 +1,124 @@
+package by.sirius.task.tracker.core.readmodel;
+
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardViewTest {
+
+    private static final Long TODO = 1L;
+    private static final Long DONE = 2L;
+
+    @Test
+    void testWithColumns_ShouldMoveTaskBetweenColumns() {
+        BoardView view = board(column(TODO, 3L, 10L, 11L), column(DONE, 1L));
+
+        BoardView moved = view.withColumns(List.of(
+                state(column(DONE, 2L, 11L), task(11L, "Second", 1L)),
+                state(column(TODO, 4L, 10L), task(10L, "First", 0L))), 1L).orElseThrow();
+
+        assertEquals(List.of(10L), ids(moved.tasks(TODO, SparseFields.ALL)));
+        assertEquals(List.of(11L), ids(moved.tasks(DONE, SparseFields.ALL)));
+        assertEquals(1L, moved.boardVersion());
+    }
+
+    @Test
+    void testWithColumns_WhenColumnVersionIsOlder_ShouldKeepColumn() {
+        BoardView view = board(column(TODO, 5L, 10L, 11L), column(DONE, 1L));
+
+        BoardView updated = view.withColumns(List.of(
+                state(column(TODO, 4L, 10L), task(10L, "First", 0L))), 1L).orElseThrow();
+
+        assertEquals(List.of(10L, 11L), ids(updated.tasks(TODO, SparseFields.ALL)));
+    }
+
+    @Test
+    void testWithColumns_ShouldKeepNewerTaskVersions() {
+        BoardView view = board(column(TODO, 3L, 10L, 11L), column(DONE, 1L))
+                .withTask(task(10L, "Renamed", 2L), 1L)
+                .orElseThrow();
+
+        BoardView updated = view.withColumns(List.of(
+                state(column(TODO, 4L, 10L, 11L), task(10L, "First", 0L), task(11L, "Second", 1L))), 2L)
+                .orElseThrow();
+
+        assertEquals("Renamed", updated.task(TODO, 10L, SparseFields.ALL).orElseThrow().getName());
+    }
+
+    @Test
+    void testWithColumns_ShouldDropDeletedTasks() {
+        BoardView view = board(column(TODO, 3L, 10L, 11L), column(DONE, 1L));
+
+        BoardView updated = view.withColumns(List.of(
+                state(column(TODO, 4L, 11L), task(11L, "Second", 1L))), 1L).orElseThrow();
+
+        assertTrue(updated.task(TODO, 10L, SparseFields.ALL).isEmpty());
+        assertTrue(updated.estimatedBytes() < view.estimatedBytes());
+    }
+
+    @Test
+    void testWithColumns_WhenColumnIsUnknown_ShouldReturnEmpty() {
+        BoardView view = board(column(TODO, 3L, 10L, 11L));
+
+        assertTrue(view.withColumns(List.of(state(column(DONE, 1L))), 1L).isEmpty());
+    }
+
+    @Test
+    void testWithTask_WhenVersionIsOlder_ShouldKeepTask() {
+        BoardView view = board(column(TODO, 3L, 10L, 11L));
+
+        BoardView updated = view.withTask(task(11L, "Stale", 0L), 1L).orElseThrow();
+
+        assertEquals("Second", updated.task(TODO, 11L, SparseFields.ALL).orElseThrow().getName());
+        assertEquals(1L, updated.boardVersion());
+    }
+
+    @Test
+    void testWithTask_WhenTaskIsUnknown_ShouldReturnEmpty() {
+        BoardView view = board(column(TODO, 3L, 10L));
+
+        assertTrue(view.withTask(task(12L, "Third", 0L), 1L).isEmpty());
+    }
+
+    @Test
+    void testTask_WhenTaskIsInAnotherColumn_ShouldReturnEmpty() {
+        BoardView view = board(column(TODO, 3L, 10L), column(DONE, 1L, 11L));
+
+        assertTrue(view.task(TODO, 11L, SparseFields.ALL).isEmpty());
+        assertTrue(view.tasks(3L, SparseFields.ALL).isEmpty());
+    }
+
+    private static BoardView board(BoardView.Column... columns) {
+        Map<Long, BoardView.Column> byId = new LinkedHashMap<>();
+        Map<Long, BoardView.Task> tasks = new LinkedHashMap<>();
+        for (BoardView.Column column : columns) {
+            byId.put(column.id(), column);
+            column.taskIds().forEach(id -> tasks.put(id, task(id, id == 10L ? "First" : "Second", 1L)));
+        }
+        return new BoardView(1L, "alice", byId, tasks, 0L, System.nanoTime());
+    }
+
+    private static BoardView.Column column(Long id, Long version, Long... taskIds) {
+        return new BoardView.Column(id, "Column " + id, null, null, Instant.EPOCH, version, List.of(taskIds));
+    }
+
+    private static BoardView.ColumnState state(BoardView.Column column, BoardView.Task... tasks) {
+        return new BoardView.ColumnState(column, List.of(tasks));
+    }
+
+    private static BoardView.Task task(Long id, String name, Long version) {
+        return new BoardView.Task(id, name, null, null, null, Instant.EPOCH, version);
+    }
+
+    private static List<Long> ids(Optional<List<TaskDto>> tasks) {
+        return tasks.orElseThrow().stream().map(TaskDto::getId).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package by.sirius.task.tracker.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testTokenBucket_RefillsOverTime() {
+        long start = 0;
+        TokenBucket bucket = new TokenBucket(3, 10, start);
+
+        assertEquals(0, bucket.tryConsume(1, start));
+        assertEquals(0, bucket.tryConsume(2, start));
+        long wait = bucket.tryConsume(1, start);
+        assertEquals(Duration.ofMillis(100).toNanos(), wait);
+
+        assertEquals(0, bucket.tryConsume(1, start + wait));
+        assertFalse(bucket.isFull(start + wait));
+        assertTrue(bucket.isFull(start + Duration.ofMillis(300).toNanos() + wait));
+    }
+
+    @Test
+    void testAcquire_ChargesRouteCostToUser() {
+        RateLimiter rateLimiter = rateLimiter(20, 1000);
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Optional.empty(), rateLimiter.acquire("alice", "GET", "/api/projects/1"));
+        }
+        Optional<Duration> retryAfter = rateLimiter.acquire("alice", "GET", "/api/projects/1");
+
+        assertTrue(retryAfter.isPresent());
+        assertEquals(Optional.empty(), rateLimiter.acquire("bob", "GET", "/api/projects/1"));
+        assertEquals(1.0, meterRegistry.get("task_tracker.rate_limit.rejected").tag("bucket", "user").counter().count());
+    }
+
+    @Test
+    void testAcquire_LimitsProjectAcrossUsers() {
+        RateLimiter rateLimiter = rateLimiter(1000, 25);
+
+        assertEquals(Optional.empty(), rateLimiter.acquire("alice", "GET", "/api/projects/1"));
+        assertEquals(Optional.empty(), rateLimiter.acquire("bob", "GET", "/api/projects/1"));
+        assertTrue(rateLimiter.acquire("carol", "GET", "/api/projects/1").isPresent());
+
+        assertEquals(Optional.empty(), rateLimiter.acquire("carol", "GET", "/api/projects/2"));
+        assertEquals(Optional.empty(), rateLimiter.acquire("carol", "PATCH", "/api/tasks/7"));
+        assertEquals(1.0, meterRegistry.get("task_tracker.rate_limit.rejected").tag("bucket", "project").counter().count());
+    }
+
+    @Test
+    void testParseRouteCosts_WhenEntryIsMalformed_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.parseRouteCosts(List.of("/api/projects=3")));
+    }
+
+    private RateLimiter rateLimiter(long userCapacity, long projectCapacity) {
+        return new RateLimiter(meterRegistry, true, 1, List.of("GET /api/projects/{project_id}=10"),
+                userCapacity, 0.001, projectCapacity, 0.001);
+    }
+}
@@ -0,0 +1,144 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.BoardAtDto;
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.BoardSnapshotRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardSnapshotServiceIntegrationTest {
+
+    @Autowired
+    private BoardSnapshotService boardSnapshotService;
+
+    @Autowired
+    private BoardSnapshotRepository boardSnapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private ProjectDto project;
+    private TaskStateDto todo;
+    private TaskDto first;
+    private TaskDto second;
+
+    @BeforeEach
+    void setUp() {
+        String username = "heidi-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+
+        project = projectService.createProject("Project " + username, username);
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        first = taskService.createTask(project.getId(), todo.getId(), "First");
+        second = taskService.createTask(project.getId(), todo.getId(), "Second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetBoardAt_WhenTaskIsDeletedAfterSnapshot_ShouldLeaveItOut() {
+        boardSnapshotService.takeSnapshot(project.getId());
+
+        taskService.deleteTask(first.getId(), Optional.empty());
+
+        BoardAtDto board = boardSnapshotService.getBoardAt(project.getId(), Instant.now());
+        assertNotNull(board.getSnapshotTakenAt());
+        assertEquals(1, board.getReplayedEvents());
+        assertEquals(List.of(second.getId()), taskIds(board, 0));
+    }
+
+    @Test
+    void testTakeSnapshot_AfterTaskIsDeleted_ShouldTakeNewSnapshot() {
+        boardSnapshotService.takeSnapshot(project.getId());
+        boardSnapshotService.takeSnapshot(project.getId());
+        assertEquals(1, snapshots());
+
+        taskService.deleteTask(first.getId(), Optional.empty());
+        boardSnapshotService.takeSnapshot(project.getId());
+
+        assertEquals(2, snapshots());
+        assertEquals(List.of(second.getId()),
+                taskIds(boardSnapshotService.getBoardAt(project.getId(), Instant.now()), 0));
+    }
+
+    @Test
+    void testGetBoardAt_WhenRowWithLowerIdCommitsAfterSnapshot_ShouldReplayIt() {
+        TaskStateDto done = taskStateService.createTaskState(project.getId(), "Done");
+        Instant beforeSnapshot = Instant.now();
+        boardSnapshotService.takeSnapshot(project.getId());
+
+        // A transaction that began before the snapshot and commits after it, with an id from an older block
+        jdbcTemplate.update("""
+                        INSERT INTO task_history (id, task_id, project_id, username, change_type, field_name,
+                                                  old_value, new_value, old_task_state_id, new_task_state_id,
+                                                  changed_at)
+                        VALUES (1, ?, ?, 'heidi', 'EDIT', 'task state', 'To do', 'Done', ?, ?, ?)""",
+                second.getId(), project.getId(), todo.getId(), done.getId(), Timestamp.from(beforeSnapshot));
+
+        BoardAtDto board = boardSnapshotService.getBoardAt(project.getId(), Instant.now());
+        assertEquals(1, board.getReplayedEvents());
+        assertEquals(List.of(first.getId()), taskIds(board, 0));
+        assertEquals(List.of(second.getId()), taskIds(board, 1));
+    }
+
+    private long snapshots() {
+        return boardSnapshotRepository.findAll()
+                .stream()
+                .filter(snapshot -> snapshot.getProjectId().equals(project.getId()))
+                .count();
+    }
+
+    private static List<Long> taskIds(BoardAtDto board, int column) {
+        return board.getTaskStates().get(column).getTasks().stream().map(TaskDto::getId).toList();
+    }
+}
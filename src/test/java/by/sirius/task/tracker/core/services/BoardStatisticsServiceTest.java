@@ -0,0 +1,211 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.BoardStatisticsDto;
+import by.sirius.task.tracker.store.entities.*;
+import by.sirius.task.tracker.store.projections.GroupCountView;
+import by.sirius.task.tracker.store.repositories.BoardStatisticRepository;
+import by.sirius.task.tracker.store.repositories.BoardStatisticsReconciliationRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoardStatisticsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BoardStatisticRepository boardStatisticRepository;
+
+    @Mock
+    private BoardStatisticsReconciliationRepository reconciliationRepository;
+
+    @InjectMocks
+    private BoardStatisticsService boardStatisticsService;
+
+    @Test
+    void testGetStatistics_Success() {
+        Long projectId = 1L;
+
+        UserEntity user = UserEntity.builder()
+                .id(5L)
+                .username("alice")
+                .build();
+
+        when(reconciliationRepository.existsById(projectId)).thenReturn(true);
+        when(boardStatisticRepository.findAllByProjectId(projectId)).thenReturn(List.of(
+                statistic(projectId, BoardStatisticDimension.TASK_STATE, 10L, 3L),
+                statistic(projectId, BoardStatisticDimension.TASK_STATE, 11L, 2L),
+                statistic(projectId, BoardStatisticDimension.ASSIGNEE, 5L, 4L),
+                statistic(projectId, BoardStatisticDimension.UNASSIGNED, 0L, 1L)));
+        when(userRepository.findAllById(Set.of(5L))).thenReturn(List.of(user));
+
+        BoardStatisticsDto statistics = boardStatisticsService.getStatistics(projectId);
+
+        assertEquals(5L, statistics.getTotalTasks());
+        assertEquals(1L, statistics.getUnassignedTasks());
+        assertEquals(Map.of(10L, 3L, 11L, 2L), statistics.getTasksByTaskState());
+        assertEquals(Map.of("alice", 4L), statistics.getTasksByAssignee());
+        verify(boardStatisticRepository, never()).countTasksByTaskState(any());
+    }
+
+    @Test
+    void testGetStatistics_WhenProjectWasNeverReconciled_ShouldCountWithoutWriting() {
+        Long projectId = 1L;
+
+        when(reconciliationRepository.existsById(projectId)).thenReturn(false);
+        when(boardStatisticRepository.countTasksByTaskState(projectId)).thenReturn(List.of(count(10L, 3L)));
+        when(boardStatisticRepository.countTasksByAssignee(projectId)).thenReturn(List.of(count(null, 3L)));
+
+        BoardStatisticsDto statistics = boardStatisticsService.getStatistics(projectId);
+
+        assertEquals(3L, statistics.getTotalTasks());
+        assertEquals(3L, statistics.getUnassignedTasks());
+        verify(boardStatisticRepository, never()).findAllByProjectId(any());
+        verify(boardStatisticRepository, never()).deleteAllByProjectId(any());
+        verify(boardStatisticRepository, never()).saveAll(anyList());
+        verify(reconciliationRepository, never()).markReconciled(any());
+    }
+
+    @Test
+    void testOnTaskCreated_WhenProjectWasNeverReconciled_ShouldReconcileInsteadOfIncrementing() {
+        Long projectId = 1L;
+
+        TaskEntity task = TaskEntity.builder()
+                .id(1L)
+                .taskState(TaskStateEntity.builder()
+                        .id(10L)
+                        .project(ProjectEntity.builder().id(projectId).build())
+                        .build())
+                .build();
+
+        when(reconciliationRepository.lockMarker(projectId)).thenReturn(Optional.empty());
+        when(boardStatisticRepository.countTasksByTaskState(projectId)).thenReturn(List.of(count(10L, 4L)));
+        when(boardStatisticRepository.countTasksByAssignee(projectId)).thenReturn(List.of(count(null, 4L)));
+        when(boardStatisticRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        boardStatisticsService.onTaskCreated(task);
+
+        InOrder inOrder = inOrder(reconciliationRepository, boardStatisticRepository);
+        inOrder.verify(reconciliationRepository).markReconciled(projectId);
+        inOrder.verify(boardStatisticRepository).countTasksByTaskState(projectId);
+        inOrder.verify(boardStatisticRepository).deleteAllByProjectId(projectId);
+        verify(boardStatisticRepository, never()).increment(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testOnTaskCreated_AfterReconciliation_ShouldLockMarkerBeforeEachDelta() {
+        Long projectId = 1L;
+
+        TaskEntity task = TaskEntity.builder()
+                .id(1L)
+                .taskState(TaskStateEntity.builder()
+                        .id(10L)
+                        .project(ProjectEntity.builder().id(projectId).build())
+                        .build())
+                .build();
+
+        when(reconciliationRepository.lockMarker(projectId)).thenReturn(Optional.of(projectId));
+
+        boardStatisticsService.onTaskCreated(task);
+        boardStatisticsService.onTaskCreated(task);
+
+        verify(reconciliationRepository, times(2)).lockMarker(projectId);
+        verify(reconciliationRepository, never()).markReconciled(any());
+        verify(boardStatisticRepository, times(2)).increment(projectId, "TASK_STATE", 10L, 1);
+        verify(boardStatisticRepository, times(2)).increment(projectId, "UNASSIGNED", 0L, 1);
+    }
+
+    @Test
+    void testOnTaskAssigned_FromUnassigned() {
+        UserEntity user = UserEntity.builder()
+                .id(5L)
+                .build();
+
+        TaskEntity task = TaskEntity.builder()
+                .id(1L)
+                .assignedUser(user)
+                .taskState(TaskStateEntity.builder()
+                        .id(10L)
+                        .project(ProjectEntity.builder().id(1L).build())
+                        .build())
+                .build();
+
+        when(reconciliationRepository.lockMarker(1L)).thenReturn(Optional.of(1L));
+
+        boardStatisticsService.onTaskAssigned(task, null);
+
+        verify(boardStatisticRepository).increment(1L, "UNASSIGNED", 0L, -1);
+        verify(boardStatisticRepository).increment(1L, "ASSIGNEE", 5L, 1);
+    }
+
+    @Test
+    void testOnTaskAssigned_ToSameUser_ShouldNotChangeCounters() {
+        UserEntity user = UserEntity.builder()
+                .id(5L)
+                .build();
+
+        TaskEntity task = TaskEntity.builder()
+                .id(1L)
+                .assignedUser(user)
+                .build();
+
+        boardStatisticsService.onTaskAssigned(task, user);
+
+        verifyNoInteractions(boardStatisticRepository);
+    }
+
+    @Test
+    void testOnTaskMoved() {
+        ProjectEntity project = ProjectEntity.builder().id(1L).build();
+        TaskStateEntity from = TaskStateEntity.builder().id(10L).project(project).build();
+        TaskStateEntity to = TaskStateEntity.builder().id(11L).project(project).build();
+
+        when(reconciliationRepository.lockMarker(1L)).thenReturn(Optional.of(1L));
+
+        boardStatisticsService.onTaskMoved(from, to);
+
+        verify(boardStatisticRepository).increment(1L, "TASK_STATE", 10L, -1);
+        verify(boardStatisticRepository).increment(1L, "TASK_STATE", 11L, 1);
+    }
+
+    private static GroupCountView count(Long groupId, Long taskCount) {
+        return new GroupCountView() {
+            @Override
+            public Long getGroupId() {
+                return groupId;
+            }
+
+            @Override
+            public Long getTaskCount() {
+                return taskCount;
+            }
+        };
+    }
+
+    private static BoardStatisticEntity statistic(Long projectId,
+                                                  BoardStatisticDimension dimension,
+                                                  Long dimensionId,
+                                                  Long taskCount) {
+        return BoardStatisticEntity.builder()
+                .projectId(projectId)
+                .dimension(dimension)
+                .dimensionId(dimensionId)
+                .taskCount(taskCount)
+                .build();
+    }
+}
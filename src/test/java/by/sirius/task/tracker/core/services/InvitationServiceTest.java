@@ -6,6 +6,7 @@ import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
 import by.sirius.task.tracker.core.factories.InvitationDtoFactory;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
 import by.sirius.task.tracker.store.entities.*;
 import by.sirius.task.tracker.store.repositories.InvitationRepository;
 import by.sirius.task.tracker.store.repositories.ProjectRoleRepository;
@@ -42,6 +43,9 @@ class InvitationServiceTest {
     @Mock
     private ProjectRoleRepository projectRoleRepository;
 
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
     @InjectMocks
     private InvitationService invitationService;
 
@@ -4,8 +4,12 @@ import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.ProjectDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardReadCoalescer;
 import by.sirius.task.tracker.core.factories.ProjectDtoFactory;
+import by.sirius.task.tracker.core.readmodel.BoardReadModel;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.streaming.BoardStreamWriter;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
 import by.sirius.task.tracker.store.entities.ProjectEntity;
 import by.sirius.task.tracker.store.entities.ProjectRoleEntity;
 import by.sirius.task.tracker.store.entities.RoleEntity;
@@ -47,6 +51,21 @@ class ProjectServiceTest {
     @Mock
     private ServiceHelper serviceHelper;
 
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private BoardReadCoalescer boardReadCoalescer;
+
+    @Mock
+    private BoardStreamWriter boardStreamWriter;
+
+    @Mock
+    private BoardReadModel boardReadModel;
+
+    @Mock
+    private BoardStatisticsService boardStatisticsService;
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -152,6 +171,7 @@ class ProjectServiceTest {
         ProjectDto actualDto = projectService.createProject(projectName, username);
 
         assertEquals(expectedDto, actualDto);
+        verify(boardStatisticsService).onProjectCreated(project);
     }
 
     @Test
@@ -216,7 +236,7 @@ class ProjectServiceTest {
         when(projectRepository.save(project)).thenReturn(project);
         when(projectDtoFactory.makeProjectDto(project)).thenReturn(projectDto);
 
-        ProjectDto updatedProjectDto = projectService.editProject(projectId, newProjectName, username);
+        ProjectDto updatedProjectDto = projectService.editProject(projectId, newProjectName, username, Optional.empty());
 
         assertEquals(newProjectName, updatedProjectDto.getName());
         verify(projectRepository).save(project);
@@ -231,7 +251,7 @@ class ProjectServiceTest {
         when(serviceHelper.findUserByUsernameOrThrowException(username)).thenReturn(new UserEntity());
         when(serviceHelper.findProjectByIdOrThrowException(projectId)).thenReturn(new ProjectEntity());
 
-        assertThrows(BadRequestException.class, () -> projectService.editProject(projectId, newProjectName, username));
+        assertThrows(BadRequestException.class, () -> projectService.editProject(projectId, newProjectName, username, Optional.empty()));
         verify(projectRepository, never()).save(any());
     }
 
@@ -260,7 +280,7 @@ class ProjectServiceTest {
         when(serviceHelper.findProjectByIdOrThrowException(projectId)).thenReturn(project);
         when(projectRepository.findByName(newProjectName)).thenReturn(Optional.of(existingProject));
 
-        assertThrows(BadRequestException.class, () -> projectService.editProject(projectId, newProjectName, username));
+        assertThrows(BadRequestException.class, () -> projectService.editProject(projectId, newProjectName, username, Optional.empty()));
         verify(projectRepository, never()).save(any());
     }
 
@@ -276,7 +296,7 @@ class ProjectServiceTest {
                         String.format("Project with \"%d\" id doesn't exist", projectId), HttpStatus.NOT_FOUND)
         );
 
-        assertThrows(NotFoundException.class, () -> projectService.editProject(projectId, newProjectName, username));
+        assertThrows(NotFoundException.class, () -> projectService.editProject(projectId, newProjectName, username, Optional.empty()));
         verify(projectRepository, never()).save(any());
     }
 
@@ -292,7 +312,7 @@ class ProjectServiceTest {
 
         when(serviceHelper.findProjectByIdOrThrowException(projectId)).thenReturn(project);
 
-        AckDto result = projectService.deleteProject(projectId, username);
+        AckDto result = projectService.deleteProject(projectId, username, Optional.empty());
 
         assertNotNull(result);
         assertTrue(result.getAnswer());
@@ -308,7 +328,7 @@ class ProjectServiceTest {
                         String.format("Project with \"%d\" id doesn't exist", projectId), HttpStatus.NOT_FOUND)
         );
 
-        assertThrows(NotFoundException.class, () -> projectService.deleteProject(projectId, "testUser"));
+        assertThrows(NotFoundException.class, () -> projectService.deleteProject(projectId, "testUser", Optional.empty()));
         verify(projectRepository, never()).deleteById(projectId);
     }
 
@@ -0,0 +1,116 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.SuggestionDto;
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
+import by.sirius.task.tracker.core.suggestions.SuggestionType;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.projections.IdNameView;
+import by.sirius.task.tracker.store.repositories.TaskRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SuggestionIndex suggestionIndex;
+
+    private SuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        suggestionIndex = new SuggestionIndex(10, 100, 64);
+        suggestionService = new SuggestionService(taskRepository, userRepository, suggestionIndex);
+    }
+
+    @Test
+    void testGetSuggestions_PrefixMatchesComeFirst() {
+        Long projectId = 1L;
+
+        when(userRepository.findAllByMemberProjects_Id(projectId)).thenReturn(List.of(
+                UserEntity.builder().id(1L).username("alice").build(),
+                UserEntity.builder().id(2L).username("malice").build(),
+                UserEntity.builder().id(3L).username("bob").build()));
+        when(taskRepository.findIdsAndNamesByProjectId(projectId)).thenReturn(List.of());
+
+        List<SuggestionDto> suggestions = suggestionService.getSuggestions(projectId, "alic", Optional.empty(), 10);
+
+        assertEquals(2, suggestions.size());
+        assertEquals("alice", suggestions.get(0).getValue());
+        assertTrue(suggestions.get(0).isPrefixMatch());
+        assertEquals("malice", suggestions.get(1).getValue());
+        assertFalse(suggestions.get(1).isPrefixMatch());
+    }
+
+    @Test
+    void testGetSuggestions_FiltersByType() {
+        Long projectId = 1L;
+
+        when(userRepository.findAllByMemberProjects_Id(projectId)).thenReturn(List.of(
+                UserEntity.builder().id(1L).username("deploy-bot").build()));
+        when(taskRepository.findIdsAndNamesByProjectId(projectId)).thenReturn(List.of(
+                idName(10L, "Deploy release")));
+
+        List<SuggestionDto> suggestions = suggestionService
+                .getSuggestions(projectId, "deploy", Optional.of(SuggestionType.TASK), 10);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(10L, suggestions.get(0).getId());
+    }
+
+    @Test
+    void testGetSuggestions_IndexIsLoadedOnce_AndUpdatedIncrementally() {
+        Long projectId = 1L;
+
+        when(userRepository.findAllByMemberProjects_Id(projectId)).thenReturn(List.of());
+        when(taskRepository.findIdsAndNamesByProjectId(projectId)).thenReturn(List.of(idName(10L, "Write docs")));
+
+        suggestionService.getSuggestions(projectId, "write", Optional.empty(), 10);
+
+        suggestionIndex.onTaskSaved(projectId, 10L, "Review docs");
+        suggestionIndex.onTaskSaved(projectId, 11L, "Write tests");
+
+        List<SuggestionDto> suggestions = suggestionService.getSuggestions(projectId, "write", Optional.empty(), 10);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(11L, suggestions.get(0).getId());
+        verify(taskRepository, times(1)).findIdsAndNamesByProjectId(projectId);
+    }
+
+    @Test
+    void testGetSuggestions_WhenLimitIsTooLarge_ShouldThrowException() {
+        assertThrows(BadRequestException.class,
+                () -> suggestionService.getSuggestions(1L, "query", Optional.empty(), 1000));
+        verifyNoInteractions(taskRepository, userRepository);
+    }
+
+    private static IdNameView idName(Long id, String name) {
+        return new IdNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
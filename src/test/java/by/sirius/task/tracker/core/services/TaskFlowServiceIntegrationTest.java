@@ -0,0 +1,126 @@
+package by.sirius.task.tracker.core.services;
+
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskDto;
+import by.sirius.task.tracker.api.dto.TaskFlowDayDto;
+import by.sirius.task.tracker.api.dto.TaskFlowDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.TaskFlowWatermarkRepository;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class TaskFlowServiceIntegrationTest {
+
+    @Autowired
+    private TaskFlowService taskFlowService;
+
+    @Autowired
+    private TaskFlowWatermarkRepository taskFlowWatermarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private EmailService emailService;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+    private ProjectDto project;
+    private TaskStateDto todo;
+    private TaskStateDto done;
+
+    @BeforeEach
+    void setUp() {
+        String username = "frank-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+
+        project = projectService.createProject("Project " + username, username);
+        todo = taskStateService.createTaskState(project.getId(), "To do");
+        done = taskStateService.createTaskState(project.getId(), "Done");
+
+        TaskDto first = taskService.createTask(project.getId(), todo.getId(), "First");
+        taskService.createTask(project.getId(), todo.getId(), "Second");
+        taskService.changeTaskState(first.getId(), done.getId(), Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetTaskFlow_ShouldNotMaterialize() {
+        taskFlowService.getTaskFlow(project.getId(), today.minusDays(3), today, Optional.empty());
+
+        assertTrue(taskFlowWatermarkRepository.findById(project.getId()).isEmpty());
+    }
+
+    @Test
+    void testGetTaskFlow_ShouldBeKeyedByTaskStateId() {
+        TaskFlowDto flow = taskFlowService.getTaskFlow(project.getId(), today, today, Optional.empty());
+
+        TaskFlowDayDto day = flow.getDays().get(0);
+        assertEquals(done.getId(), flow.getDoneTaskStateId());
+        assertEquals(List.of(todo.getId(), done.getId()), List.copyOf(day.getWorkInProgress().keySet()));
+        assertEquals(Map.of(todo.getId(), 1L, done.getId(), 1L), day.getWorkInProgress());
+        assertEquals(1L, flow.getCompletedTasks());
+    }
+
+    @Test
+    void testGetTaskFlow_AfterTaskStateIsRenamed_ShouldKeepItsFlow() {
+        TaskFlowDto before = taskFlowService.getTaskFlow(project.getId(), today, today, Optional.empty());
+
+        taskStateService.editTaskState(done.getId(), "Finished", Optional.empty());
+
+        assertEquals(before, taskFlowService.getTaskFlow(project.getId(), today, today, Optional.empty()));
+    }
+
+    @Test
+    void testGetTaskFlow_AfterMaterialization_ShouldNotChange() {
+        TaskFlowDto before = taskFlowService.getTaskFlow(project.getId(), today.minusDays(2), today, Optional.empty());
+
+        taskFlowService.materialize(project.getId());
+
+        assertTrue(taskFlowWatermarkRepository.findById(project.getId()).isPresent());
+        assertEquals(before, taskFlowService.getTaskFlow(project.getId(), today.minusDays(2), today, Optional.empty()));
+    }
+}
@@ -3,9 +3,18 @@ package by.sirius.task.tracker.core.services;
 import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.TaskDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.ConflictException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardReadCoalescer;
+import by.sirius.task.tracker.core.concurrency.OptimisticLocking;
+import by.sirius.task.tracker.core.concurrency.ProjectAdvisoryLocks;
 import by.sirius.task.tracker.core.factories.TaskDtoFactory;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.history.TaskHistoryCoalescer;
+import by.sirius.task.tracker.core.readmodel.BoardReadModel;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.streaming.BoardStreamWriter;
+import by.sirius.task.tracker.core.suggestions.SuggestionIndex;
 import by.sirius.task.tracker.store.entities.*;
 import by.sirius.task.tracker.store.repositories.TaskHistoryRepository;
 import by.sirius.task.tracker.store.repositories.TaskRepository;
@@ -20,6 +29,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,9 +59,33 @@ class TaskServiceTest {
     @Mock
     private TaskHistoryRepository taskHistoryRepository;
 
+    @Mock
+    private TaskHistoryCoalescer taskHistoryCoalescer;
+
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private BoardStatisticsService boardStatisticsService;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private OptimisticLocking optimisticLocking;
+
+    @Mock
+    private ProjectAdvisoryLocks projectAdvisoryLocks;
+
+    @Mock
+    private BoardReadCoalescer boardReadCoalescer;
+
+    @Mock
+    private BoardStreamWriter boardStreamWriter;
+
+    @Mock
+    private BoardReadModel boardReadModel;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -82,9 +117,9 @@ class TaskServiceTest {
         taskState.getTasks().add(task);
 
         when(taskStateRepository.findByProjectIdAndId(projectId, taskStateId)).thenReturn(Optional.of(taskState));
-        when(taskDtoFactory.makeTaskDto(task)).thenReturn(taskDto);
+        when(taskDtoFactory.makeTaskDto(task, SparseFields.ALL)).thenReturn(taskDto);
 
-        List<TaskDto> tasks = taskService.getTasks(projectId, taskStateId);
+        List<TaskDto> tasks = taskService.getTasks(projectId, taskStateId, SparseFields.ALL);
 
         assertEquals(1, tasks.size());
         assertEquals("task1", tasks.get(0).getName());
@@ -97,7 +132,7 @@ class TaskServiceTest {
 
         when(taskStateRepository.findByProjectIdAndId(projectId, taskStateId)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> taskService.getTasks(projectId, taskStateId));
+        assertThrows(NotFoundException.class, () -> taskService.getTasks(projectId, taskStateId, SparseFields.ALL));
     }
 
     @Test
@@ -193,6 +228,7 @@ class TaskServiceTest {
         TaskDto actual = taskService.createTask(projectId, taskStateId, taskName);
 
         assertEquals(taskDto.getName(), actual.getName());
+        verify(taskHistoryRepository).save(argThat(history -> "CREATE".equals(history.getChangeType())));
     }
 
     @Test
@@ -301,7 +337,7 @@ class TaskServiceTest {
         when(taskRepository.findByTaskStateIdAndNameIgnoreCase(task.getTaskState().getId(), taskName))
                 .thenReturn(Optional.empty());
 
-        TaskDto actual = taskService.editTask(taskId, taskName);
+        TaskDto actual = taskService.editTask(taskId, taskName, Optional.empty());
 
         assertEquals(expected, actual);
         verify(taskRepository).save(task);
@@ -315,7 +351,7 @@ class TaskServiceTest {
 
         initSecurityContext();
 
-        assertThrows(BadRequestException.class, () -> taskService.editTask(taskId, newTaskName));
+        assertThrows(BadRequestException.class, () -> taskService.editTask(taskId, newTaskName, Optional.empty()));
         verifyNoInteractions(taskRepository);
     }
 
@@ -329,10 +365,30 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenThrow(
                 new NotFoundException("Task not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.editTask(taskId, newTaskName));
+        assertThrows(NotFoundException.class, () -> taskService.editTask(taskId, newTaskName, Optional.empty()));
         verifyNoInteractions(taskRepository);
     }
 
+    @Test
+    void testEditTask_WhenVersionDoesNotMatch_ShouldThrowException() {
+        Long taskId = 1L;
+
+        TaskEntity task = TaskEntity.builder()
+                .id(taskId)
+                .name("Old Task Name")
+                .version(3L)
+                .build();
+
+        initSecurityContext();
+
+        when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(task);
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> taskService.editTask(taskId, "New Task Name", Optional.of(2L)));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+        verifyNoInteractions(taskRepository, taskHistoryRepository);
+    }
+
     @Test
     void testEditTask_WhenTaskNameAlreadyExists_ShouldThrowException() {
         Long taskId = 1L;
@@ -362,7 +418,7 @@ class TaskServiceTest {
 
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(task);
 
-        assertThrows(BadRequestException.class, () -> taskService.editTask(taskId, newTaskName));
+        assertThrows(BadRequestException.class, () -> taskService.editTask(taskId, newTaskName, Optional.empty()));
         verify(taskRepository, never()).save(any(TaskEntity.class));
     }
 
@@ -396,7 +452,7 @@ class TaskServiceTest {
         initSecurityContext();
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(taskToDelete);
 
-        AckDto result = taskService.deleteTask(taskId);
+        AckDto result = taskService.deleteTask(taskId, Optional.empty());
 
         assertNotNull(result);
         assertTrue(result.getAnswer());
@@ -416,7 +472,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenThrow(
                 new NotFoundException("Task not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.deleteTask(taskId));
+        assertThrows(NotFoundException.class, () -> taskService.deleteTask(taskId, Optional.empty()));
         verifyNoInteractions(taskRepository, taskStateRepository, taskHistoryRepository);
     }
 
@@ -437,6 +493,7 @@ class TaskServiceTest {
 
         TaskStateEntity taskState = TaskStateEntity.builder()
                 .id(1L)
+                .project(ProjectEntity.builder().id(1L).build())
                 .build();
 
         taskToMove.setTaskState(taskState);
@@ -454,7 +511,7 @@ class TaskServiceTest {
                         .build()
         );
 
-        TaskDto result = taskService.changeTaskPosition(taskId, Optional.of(leftTaskId));
+        TaskDto result = taskService.changeTaskPosition(taskId, Optional.of(leftTaskId), Optional.empty());
 
         assertNotNull(result);
         assertEquals("TaskToMove", result.getName());
@@ -490,7 +547,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(taskToMove);
         when(taskDtoFactory.makeTaskDto(taskToMove)).thenReturn(expectedDto);
 
-        TaskDto result = taskService.changeTaskPosition(taskId, Optional.of(leftTaskId));
+        TaskDto result = taskService.changeTaskPosition(taskId, Optional.of(leftTaskId), Optional.empty());
 
         assertEquals(expectedDto, result);
 
@@ -504,7 +561,7 @@ class TaskServiceTest {
         initSecurityContext();
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(TaskEntity.builder().id(taskId).build());
 
-        assertThrows(BadRequestException.class, () -> taskService.changeTaskPosition(taskId, Optional.of(taskId)));
+        assertThrows(BadRequestException.class, () -> taskService.changeTaskPosition(taskId, Optional.of(taskId), Optional.empty()));
 
         verifyNoInteractions(taskRepository, taskHistoryRepository);
     }
@@ -532,7 +589,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(taskToMove);
         when(serviceHelper.findTaskByIdOrThrowException(leftTaskId)).thenReturn(leftTask);
 
-        assertThrows(BadRequestException.class, () -> taskService.changeTaskPosition(taskId, Optional.of(leftTaskId)));
+        assertThrows(BadRequestException.class, () -> taskService.changeTaskPosition(taskId, Optional.of(leftTaskId), Optional.empty()));
 
         verifyNoInteractions(taskRepository, taskHistoryRepository);
     }
@@ -545,7 +602,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenThrow(
                 new NotFoundException("Task not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.changeTaskPosition(taskId, Optional.empty()));
+        assertThrows(NotFoundException.class, () -> taskService.changeTaskPosition(taskId, Optional.empty(), Optional.empty()));
 
         verifyNoInteractions(taskRepository, taskHistoryRepository);
     }
@@ -562,6 +619,7 @@ class TaskServiceTest {
 
         TaskStateEntity newTaskState = TaskStateEntity.builder()
                 .id(newTaskStateId)
+                .project(ProjectEntity.builder().id(1L).build())
                 .name("In Progress")
                 .tasks(new ArrayList<>())
                 .build();
@@ -585,13 +643,14 @@ class TaskServiceTest {
         when(taskRepository.save(taskToMove)).thenReturn(taskToMove);
         when(taskDtoFactory.makeTaskDto(taskToMove)).thenReturn(expectedDto);
 
-        TaskDto actualDto = taskService.changeTaskState(taskId, newTaskStateId);
+        TaskDto actualDto = taskService.changeTaskState(taskId, newTaskStateId, Optional.empty());
 
         assertEquals(expectedDto, actualDto);
         assertTrue(newTaskState.getTasks().contains(taskToMove));
         assertFalse(currentTaskState.getTasks().contains(taskToMove));
 
-        verify(taskHistoryRepository).save(any(TaskHistoryEntity.class));
+        verify(taskHistoryRepository).save(argThat(history ->
+                "To Do".equals(history.getOldValue()) && "In Progress".equals(history.getNewValue())));
         verify(taskRepository).save(any(TaskEntity.class));
         verify(taskStateRepository).save(currentTaskState);
         verify(taskStateRepository).save(newTaskState);
@@ -624,7 +683,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(taskToMove);
         when(serviceHelper.findTaskStateByIdOrThrowException(newTaskStateId)).thenReturn(newTaskState);
 
-        assertThrows(BadRequestException.class, () -> taskService.changeTaskState(taskId, newTaskStateId));
+        assertThrows(BadRequestException.class, () -> taskService.changeTaskState(taskId, newTaskStateId, Optional.empty()));
     }
 
     @Test
@@ -636,7 +695,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenThrow(
                 new NotFoundException("Task not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.changeTaskState(taskId, newTaskStateId));
+        assertThrows(NotFoundException.class, () -> taskService.changeTaskState(taskId, newTaskStateId, Optional.empty()));
     }
 
     @Test
@@ -654,7 +713,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskStateByIdOrThrowException(newTaskStateId)).thenThrow(
                 new NotFoundException("Task state not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.changeTaskState(taskId, newTaskStateId));
+        assertThrows(NotFoundException.class, () -> taskService.changeTaskState(taskId, newTaskStateId, Optional.empty()));
     }
 
     @Test
@@ -669,6 +728,7 @@ class TaskServiceTest {
 
         TaskStateEntity newTaskState = TaskStateEntity.builder()
                 .id(newTaskStateId)
+                .project(ProjectEntity.builder().id(1L).build())
                 .name("In Progress")
                 .tasks(new ArrayList<>())
                 .build();
@@ -692,7 +752,7 @@ class TaskServiceTest {
         when(taskRepository.save(taskToMove)).thenReturn(taskToMove);
         when(taskDtoFactory.makeTaskDto(taskToMove)).thenReturn(expectedDto);
 
-        TaskDto actualDto = taskService.changeTaskState(taskId, newTaskStateId);
+        TaskDto actualDto = taskService.changeTaskState(taskId, newTaskStateId, Optional.empty());
 
         assertEquals(expectedDto, actualDto);
         assertTrue(newTaskState.getTasks().contains(taskToMove));
@@ -750,7 +810,7 @@ class TaskServiceTest {
         when(taskRepository.save(task)).thenReturn(task);
         when(taskDtoFactory.makeTaskDto(task)).thenReturn(expectedDto);
 
-        TaskDto actualDto = taskService.assignTaskToUser(taskId, username);
+        TaskDto actualDto = taskService.assignTaskToUser(taskId, username, Optional.empty());
 
         assertEquals(expectedDto, actualDto);
         assertEquals(assignedUser, task.getAssignedUser());
@@ -758,6 +818,52 @@ class TaskServiceTest {
         verify(emailService).sendEmail(eq("newuser@example.com"), anyString(), anyString());
     }
 
+    @Test
+    void testAssignTaskToUser_InTransaction_ShouldSendEmailAfterCommit() {
+        Long taskId = 1L;
+        String username = "newUser";
+
+        UserEntity assignedUser = UserEntity.builder()
+                .username(username)
+                .email("newuser@example.com")
+                .build();
+
+        ProjectEntity project = ProjectEntity.builder()
+                .id(1L)
+                .name("Test Project")
+                .users(new ArrayList<>(List.of(assignedUser)))
+                .build();
+
+        TaskStateEntity taskState = TaskStateEntity.builder()
+                .id(1L)
+                .name("To Do")
+                .project(project)
+                .build();
+
+        TaskEntity task = TaskEntity.builder()
+                .id(taskId)
+                .name("Test Task")
+                .taskState(taskState)
+                .build();
+
+        initSecurityContext();
+        when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(task);
+        when(serviceHelper.findUserByUsernameOrThrowException(username)).thenReturn(assignedUser);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            taskService.assignTaskToUser(taskId, username, Optional.empty());
+
+            verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(emailService).sendEmail(eq("newuser@example.com"), anyString(), anyString());
+    }
+
     @Test
     void testAssignTaskToUser_TaskNotFound_ShouldThrowException() {
         Long taskId = 1L;
@@ -767,7 +873,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenThrow(
                 new NotFoundException("Task not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.assignTaskToUser(taskId, username));
+        assertThrows(NotFoundException.class, () -> taskService.assignTaskToUser(taskId, username, Optional.empty()));
     }
 
     @Test
@@ -790,7 +896,7 @@ class TaskServiceTest {
         when(serviceHelper.findUserByUsernameOrThrowException(username)).thenThrow(
                 new NotFoundException("User not found", HttpStatus.NOT_FOUND));
 
-        assertThrows(NotFoundException.class, () -> taskService.assignTaskToUser(taskId, username));
+        assertThrows(NotFoundException.class, () -> taskService.assignTaskToUser(taskId, username, Optional.empty()));
     }
 
     @Test
@@ -822,7 +928,7 @@ class TaskServiceTest {
         when(serviceHelper.findTaskByIdOrThrowException(taskId)).thenReturn(task);
         when(serviceHelper.findUserByUsernameOrThrowException(username)).thenReturn(user);
 
-        assertThrows(BadRequestException.class, () -> taskService.assignTaskToUser(taskId, username));
+        assertThrows(BadRequestException.class, () -> taskService.assignTaskToUser(taskId, username, Optional.empty()));
     }
 
     @Test
@@ -856,7 +962,7 @@ class TaskServiceTest {
         when(serviceHelper.findUserByUsernameOrThrowException(username)).thenReturn(user);
         when(taskDtoFactory.makeTaskDto(task)).thenReturn(new TaskDto());
 
-        taskService.assignTaskToUser(taskId, username);
+        taskService.assignTaskToUser(taskId, username, Optional.empty());
 
         assertEquals(username, task.getAssignedUser().getUsername());
         verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
@@ -4,10 +4,17 @@ import by.sirius.task.tracker.api.dto.AckDto;
 import by.sirius.task.tracker.api.dto.TaskStateDto;
 import by.sirius.task.tracker.api.exceptions.BadRequestException;
 import by.sirius.task.tracker.api.exceptions.NotFoundException;
+import by.sirius.task.tracker.core.concurrency.BoardReadCoalescer;
+import by.sirius.task.tracker.core.concurrency.OptimisticLocking;
+import by.sirius.task.tracker.core.concurrency.ProjectAdvisoryLocks;
 import by.sirius.task.tracker.core.factories.TaskStateDtoFactory;
+import by.sirius.task.tracker.core.fields.SparseFields;
+import by.sirius.task.tracker.core.readmodel.BoardReadModel;
 import by.sirius.task.tracker.core.services.helpers.ServiceHelper;
+import by.sirius.task.tracker.core.streaming.BoardStreamWriter;
 import by.sirius.task.tracker.store.entities.ProjectEntity;
 import by.sirius.task.tracker.store.entities.TaskStateEntity;
+import by.sirius.task.tracker.store.repositories.ProjectRepository;
 import by.sirius.task.tracker.store.repositories.TaskStateRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,10 +25,14 @@ import org.springframework.http.HttpStatus;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +48,27 @@ class TaskStateServiceTest {
     @Mock
     private TaskStateDtoFactory taskStateDtoFactory;
 
+    @Mock
+    private BoardStatisticsService boardStatisticsService;
+
+    @Mock
+    private OptimisticLocking optimisticLocking;
+
+    @Mock
+    private ProjectAdvisoryLocks projectAdvisoryLocks;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private BoardReadCoalescer boardReadCoalescer;
+
+    @Mock
+    private BoardStreamWriter boardStreamWriter;
+
+    @Mock
+    private BoardReadModel boardReadModel;
+
     @InjectMocks
     private TaskStateService taskStateService;
 
@@ -60,10 +92,12 @@ class TaskStateServiceTest {
 
         project.setTaskStates(List.of(taskState));
 
-        when(serviceHelper.findProjectByIdOrThrowException(projectId)).thenReturn(project);
-        when(taskStateDtoFactory.makeTaskStateDto(taskState)).thenReturn(taskStateDto);
+        when(projectRepository.existsByIdAndAdminUsername(projectId, "user")).thenReturn(true);
+        when(projectRepository.findWithTaskStatesById(projectId)).thenReturn(Optional.of(project));
+        when(taskStateDtoFactory.makeTaskStateDto(taskState, SparseFields.ALL)).thenReturn(taskStateDto);
+        coalesceInline();
 
-        List<TaskStateDto> taskStates = taskStateService.getTaskStates(projectId);
+        List<TaskStateDto> taskStates = taskStateService.getTaskStates(projectId, "user", SparseFields.ALL);
 
         assertEquals(1, taskStates.size());
         assertEquals("taskStateName", taskStates.get(0).getName());
@@ -79,9 +113,11 @@ class TaskStateServiceTest {
 
         project.setTaskStates(List.of());
 
-        when(serviceHelper.findProjectByIdOrThrowException(projectId)).thenReturn(project);
+        when(projectRepository.existsByIdAndAdminUsername(projectId, "user")).thenReturn(true);
+        when(projectRepository.findWithTaskStatesById(projectId)).thenReturn(Optional.of(project));
+        coalesceInline();
 
-        List<TaskStateDto> taskStates = taskStateService.getTaskStates(projectId);
+        List<TaskStateDto> taskStates = taskStateService.getTaskStates(projectId, "user", SparseFields.ALL);
 
         assertTrue(taskStates.isEmpty());
     }
@@ -90,10 +126,35 @@ class TaskStateServiceTest {
     void testGetTaskStates_WhenProjectNotFound_ShouldThrowException() {
         Long projectId = 1L;
 
-        when(serviceHelper.findProjectByIdOrThrowException(projectId)).thenThrow(
-                new NotFoundException("Project not found", HttpStatus.NOT_FOUND));
+        when(projectRepository.existsByIdAndAdminUsername(projectId, "user")).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> taskStateService.getTaskStates(projectId));
+        assertThrows(NotFoundException.class, () -> taskStateService.getTaskStates(projectId, "user", SparseFields.ALL));
+        verify(boardReadCoalescer, never()).coalesce(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetTaskStateById_WhenTasksNotSelected_ShouldNotLoadTasks() {
+        Long projectId = 1L;
+        Long taskStateId = 2L;
+        SparseFields fields = new SparseFields(Map.of(SparseFields.Level.TASK_STATE, Set.of("id", "name")));
+
+        TaskStateEntity taskState = TaskStateEntity.builder()
+                .id(taskStateId)
+                .name("taskStateName")
+                .build();
+
+        TaskStateDto expected = TaskStateDto.builder()
+                .id(taskStateId)
+                .name("taskStateName")
+                .build();
+
+        when(taskStateRepository.findByProjectIdAndId(projectId, taskStateId)).thenReturn(Optional.of(taskState));
+        when(taskStateDtoFactory.makeTaskStateDto(taskState, fields)).thenReturn(expected);
+
+        TaskStateDto result = taskStateService.getTaskStateById(projectId, taskStateId, fields);
+
+        assertEquals(expected, result);
+        verify(taskStateRepository, never()).findWithTasksByProjectIdAndId(any(), any());
     }
 
     @Test
@@ -196,7 +257,7 @@ class TaskStateServiceTest {
         );
         when(taskStateRepository.save(any(TaskStateEntity.class))).thenReturn(taskState);
 
-        TaskStateDto actual = taskStateService.editTaskState(taskStateId, newTaskStateName);
+        TaskStateDto actual = taskStateService.editTaskState(taskStateId, newTaskStateName, Optional.empty());
 
         assertEquals(expected, actual);
         verify(taskStateRepository).save(taskState);
@@ -207,7 +268,7 @@ class TaskStateServiceTest {
         Long taskStateId = 1L;
         String newTaskStateName = "  ";
 
-        assertThrows(BadRequestException.class, () -> taskStateService.editTaskState(taskStateId, newTaskStateName));
+        assertThrows(BadRequestException.class, () -> taskStateService.editTaskState(taskStateId, newTaskStateName, Optional.empty()));
     }
 
     @Test
@@ -219,7 +280,7 @@ class TaskStateServiceTest {
                 new NotFoundException("Task state not found", HttpStatus.NOT_FOUND)
         );
 
-        assertThrows(NotFoundException.class, () -> taskStateService.editTaskState(taskStateId, newTaskStateName));
+        assertThrows(NotFoundException.class, () -> taskStateService.editTaskState(taskStateId, newTaskStateName, Optional.empty()));
     }
 
     @Test
@@ -250,7 +311,7 @@ class TaskStateServiceTest {
                 taskStateToUpdate.getProject().getId(), name)).thenReturn(Optional.of(existingTaskState)
         );
 
-        assertThrows(BadRequestException.class, () -> taskStateService.editTaskState(taskStateId, name));
+        assertThrows(BadRequestException.class, () -> taskStateService.editTaskState(taskStateId, name, Optional.empty()));
     }
 
     @Test
@@ -263,7 +324,7 @@ class TaskStateServiceTest {
 
         when(serviceHelper.findTaskStateByIdOrThrowException(taskStateId)).thenReturn(taskState);
 
-        AckDto result = taskStateService.deleteTaskState(taskStateId);
+        AckDto result = taskStateService.deleteTaskState(taskStateId, Optional.empty());
 
         assertNotNull(result);
         assertTrue(result.getAnswer());
@@ -278,7 +339,7 @@ class TaskStateServiceTest {
                 new NotFoundException("Task state not found", HttpStatus.NOT_FOUND)
         );
 
-        assertThrows(NotFoundException.class, () -> taskStateService.deleteTaskState(taskStateId));
+        assertThrows(NotFoundException.class, () -> taskStateService.deleteTaskState(taskStateId, Optional.empty()));
     }
 
     @Test
@@ -308,7 +369,7 @@ class TaskStateServiceTest {
         when(taskStateDtoFactory.makeTaskStateDto(currentTaskState)).thenReturn(expectedDto);
         when(taskStateRepository.save(currentTaskState)).thenReturn(currentTaskState);
 
-        TaskStateDto actualDto = taskStateService.changeTaskStatePosition(taskStateId, Optional.of(leftTaskStateId));
+        TaskStateDto actualDto = taskStateService.changeTaskStatePosition(taskStateId, Optional.of(leftTaskStateId), Optional.empty());
 
         assertEquals(expectedDto, actualDto);
         verify(taskStateRepository).save(currentTaskState);
@@ -324,7 +385,7 @@ class TaskStateServiceTest {
                 new NotFoundException("Task state not found", HttpStatus.NOT_FOUND));
 
         assertThrows(NotFoundException.class,
-                () -> taskStateService.changeTaskStatePosition(taskStateId, Optional.of(leftTaskStateId)));
+                () -> taskStateService.changeTaskStatePosition(taskStateId, Optional.of(leftTaskStateId), Optional.empty()));
     }
 
     @Test
@@ -343,7 +404,7 @@ class TaskStateServiceTest {
         when(serviceHelper.findTaskStateByIdOrThrowException(taskStateId)).thenReturn(taskState);
 
         assertThrows(BadRequestException.class,
-                () -> taskStateService.changeTaskStatePosition(taskStateId, Optional.of(taskStateId)));
+                () -> taskStateService.changeTaskStatePosition(taskStateId, Optional.of(taskStateId), Optional.empty()));
     }
 
     @Test
@@ -373,6 +434,11 @@ class TaskStateServiceTest {
         when(serviceHelper.findTaskStateByIdOrThrowException(leftTaskStateId)).thenReturn(leftTaskState);
 
         assertThrows(BadRequestException.class,
-                () -> taskStateService.changeTaskStatePosition(taskStateId, Optional.of(leftTaskStateId)));
+                () -> taskStateService.changeTaskStatePosition(taskStateId, Optional.of(leftTaskStateId), Optional.empty()));
+    }
+
+    private void coalesceInline() {
+        when(boardReadCoalescer.coalesce(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
     }
-}
\ No newline at end of file
+}
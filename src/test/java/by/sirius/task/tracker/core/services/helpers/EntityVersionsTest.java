@@ -0,0 +1,37 @@
+package by.sirius.task.tracker.core.services.helpers;
+
+import by.sirius.task.tracker.api.exceptions.BadRequestException;
+import by.sirius.task.tracker.api.exceptions.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityVersionsTest {
+
+    @Test
+    void testParseIfMatch() {
+        assertEquals(Optional.of(3L), EntityVersions.parseIfMatch("\"3\""));
+        assertEquals(Optional.of(3L), EntityVersions.parseIfMatch("W/\"3\""));
+        assertEquals(Optional.of(3L), EntityVersions.parseIfMatch(" 3 "));
+        assertEquals(Optional.empty(), EntityVersions.parseIfMatch("*"));
+        assertEquals(Optional.empty(), EntityVersions.parseIfMatch(null));
+    }
+
+    @Test
+    void testParseIfMatch_WhenValueIsNotAVersion_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> EntityVersions.parseIfMatch("\"abc\""));
+    }
+
+    @Test
+    void testVerify_WhenVersionDoesNotMatch_ShouldThrowException() {
+        EntityVersions.verify("Task", 1L, 4L, Optional.empty());
+        EntityVersions.verify("Task", 1L, 4L, Optional.of(4L));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> EntityVersions.verify("Task", 1L, 4L, Optional.of(3L)));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+    }
+}
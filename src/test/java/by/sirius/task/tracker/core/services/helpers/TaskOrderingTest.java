@@ -0,0 +1,75 @@
+package by.sirius.task.tracker.core.services.helpers;
+
+import by.sirius.task.tracker.store.entities.TaskEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskOrderingTest {
+
+    @Test
+    void testFindHeadAndTail() {
+        List<TaskEntity> tasks = column(1L, 2L, 3L);
+
+        assertEquals(Optional.of(tasks.get(0)), TaskOrdering.findHead(tasks));
+        assertEquals(Optional.of(tasks.get(2)), TaskOrdering.findTail(tasks));
+        assertEquals(Optional.empty(), TaskOrdering.findTail(List.of()));
+    }
+
+    @Test
+    void testUnlink_MiddleTask_ShouldLinkNeighbours() {
+        List<TaskEntity> tasks = column(1L, 2L, 3L);
+
+        List<TaskEntity> changed = TaskOrdering.unlink(tasks.get(1));
+
+        assertEquals(List.of(tasks.get(0), tasks.get(2)), changed);
+        assertEquals(Optional.of(tasks.get(2)), tasks.get(0).getRightTask());
+        assertEquals(Optional.of(tasks.get(0)), tasks.get(2).getLeftTask());
+    }
+
+    @Test
+    void testUnlink_HeadTask_ShouldMakeRightTaskHead() {
+        List<TaskEntity> tasks = column(1L, 2L);
+
+        assertEquals(List.of(tasks.get(1)), TaskOrdering.unlink(tasks.get(0)));
+        assertTrue(tasks.get(1).getLeftTask().isEmpty());
+    }
+
+    @Test
+    void testLinkBetween_ShouldMoveTaskToHead() {
+        List<TaskEntity> tasks = column(1L, 2L, 3L);
+        TaskEntity last = tasks.get(2);
+
+        TaskOrdering.unlink(last);
+        TaskOrdering.linkBetween(last, Optional.empty(), TaskOrdering.findHead(List.of(tasks.get(0), tasks.get(1))));
+
+        assertEquals(List.of(3L, 1L, 2L), BoardOrdering.orderTasks(tasks).stream().map(TaskEntity::getId).toList());
+        assertTrue(tasks.get(1).getRightTask().isEmpty());
+    }
+
+    @Test
+    void testLinkBetween_WithoutNeighbours_ShouldClearLinks() {
+        List<TaskEntity> tasks = column(1L, 2L);
+
+        TaskOrdering.unlink(tasks.get(0));
+        TaskOrdering.linkBetween(tasks.get(0), Optional.empty(), Optional.empty());
+
+        assertTrue(tasks.get(0).getLeftTask().isEmpty());
+        assertTrue(tasks.get(0).getRightTask().isEmpty());
+    }
+
+    private static List<TaskEntity> column(Long... ids) {
+        List<TaskEntity> tasks = Arrays.stream(ids)
+                .map(id -> TaskEntity.builder().id(id).name("Task " + id).build())
+                .toList();
+        for (int i = 1; i < tasks.size(); i++) {
+            tasks.get(i - 1).setRightTask(tasks.get(i));
+            tasks.get(i).setLeftTask(tasks.get(i - 1));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,134 @@
+package by.sirius.task.tracker.core.snapshots;
+
+import by.sirius.task.tracker.store.projections.BoardEventView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardReplayTest {
+
+    private static final BoardSnapshot SNAPSHOT = new BoardSnapshot(List.of(
+            new BoardSnapshot.Column(1L, "To Do", List.of(10L, 11L, 12L)),
+            new BoardSnapshot.Column(2L, "Done", List.of(20L))));
+
+    @Test
+    void testApply_TaskStateChangeAppendsToNewColumn() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(10L, "EDIT", "task state", "To Do", "Done", 2L));
+
+        BoardSnapshot board = replay.toSnapshot();
+        assertEquals(List.of(11L, 12L), board.columns().get(0).taskIds());
+        assertEquals(List.of(20L, 10L), board.columns().get(1).taskIds());
+        assertEquals(1, replay.getAppliedEvents());
+    }
+
+    @Test
+    void testApply_PositionChangeMovesAfterLeftTask() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(10L, "EDIT", "task position", null, "12", null));
+        replay.apply(event(12L, "EDIT", "task position", "11", null, null));
+
+        assertEquals(List.of(12L, 11L, 10L), replay.toSnapshot().columns().get(0).taskIds());
+    }
+
+    @Test
+    void testApply_CreateInUnknownColumnAppendsColumn() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(30L, "CREATE", "task state", null, "Review", 3L));
+
+        BoardSnapshot board = replay.toSnapshot();
+        assertEquals(3, board.columns().size());
+        assertEquals(3L, board.columns().get(2).id());
+        assertEquals("Review", board.columns().get(2).name());
+        assertEquals(List.of(30L), board.columns().get(2).taskIds());
+    }
+
+    @Test
+    void testApply_TaskStateChangeMatchesRenamedColumnById() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(10L, "EDIT", "task state", "To Do", "Finished", 2L));
+
+        BoardSnapshot board = replay.toSnapshot();
+        assertEquals(2, board.columns().size());
+        assertEquals(List.of(20L, 10L), board.columns().get(1).taskIds());
+    }
+
+    @Test
+    void testApply_RowWithoutTaskStateIdMatchesByName() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(10L, "EDIT", "task state", "To Do", "Done", null));
+        replay.apply(event(11L, "EDIT", "task state", "To Do", "Review", null));
+
+        BoardSnapshot board = replay.toSnapshot();
+        assertEquals(List.of(20L, 10L), board.columns().get(1).taskIds());
+        assertNull(board.columns().get(2).id());
+        assertEquals("Review", board.columns().get(2).name());
+    }
+
+    @Test
+    void testApply_DeleteAndIgnoredFields() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(20L, "DELETE", null, null, null, null));
+        replay.apply(event(10L, "EDIT", "name", "Old", "New", null));
+
+        assertTrue(replay.toSnapshot().columns().get(1).taskIds().isEmpty());
+        assertEquals(1, replay.getAppliedEvents());
+    }
+
+    @Test
+    void testApply_DoesNotModifySnapshot() {
+        BoardReplay replay = new BoardReplay(SNAPSHOT);
+
+        replay.apply(event(10L, "EDIT", "task state", "To Do", "Done", 2L));
+
+        assertEquals(List.of(10L, 11L, 12L), SNAPSHOT.columns().get(0).taskIds());
+    }
+
+    private static BoardEventView event(Long taskId, String changeType, String fieldName,
+                                        String oldValue, String newValue, Long newTaskStateId) {
+        return new BoardEventView() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getTaskId() {
+                return taskId;
+            }
+
+            @Override
+            public String getChangeType() {
+                return changeType;
+            }
+
+            @Override
+            public String getFieldName() {
+                return fieldName;
+            }
+
+            @Override
+            public String getOldValue() {
+                return oldValue;
+            }
+
+            @Override
+            public String getNewValue() {
+                return newValue;
+            }
+
+            @Override
+            public Long getNewTaskStateId() {
+                return newTaskStateId;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package by.sirius.task.tracker.dataset;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Collects rows in PostgreSQL's COPY text format and sends them in one {@code COPY ... FROM STDIN}.
+ * Generated values never contain tabs, newlines or backslashes, so no escaping is done. Instants are
+ * written in ISO-8601 with a {@code Z} offset, which PostgreSQL reads correctly for {@code timestamptz}.
+ */
+final class CopyBuffer {
+
+    private final String table;
+    private final String columns;
+    private final StringBuilder rows = new StringBuilder();
+    private long rowCount;
+    private boolean rowStarted;
+
+    CopyBuffer(String table, String columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    CopyBuffer value(Object value) {
+        if (rowStarted) {
+            rows.append('\t');
+        }
+        rowStarted = true;
+
+        if (value == null) {
+            rows.append("\\N");
+        } else {
+            rows.append(value);
+        }
+        return this;
+    }
+
+    void endRow() {
+        rows.append('\n');
+        rowStarted = false;
+        rowCount++;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    long copyTo(Connection connection) throws SQLException, IOException {
+        if (rowCount == 0) {
+            return 0;
+        }
+        String sql = String.format("COPY %s (%s) FROM STDIN", table, columns);
+        long copied = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(rows.toString()));
+
+        rows.setLength(0);
+        rowCount = 0;
+        return copied;
+    }
+}
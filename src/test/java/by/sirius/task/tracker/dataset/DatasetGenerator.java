@@ -0,0 +1,337 @@
+package by.sirius.task.tracker.dataset;
+
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills an existing schema with a deterministic synthetic dataset: users, projects with admins and members
+ * ({@code project_users}, {@code project_roles}), linked columns, linked tasks and their history.
+ * <p>
+ * The schema must already exist, created by starting the application once or by a Spring test context.
+ * Ids are assigned above the current maximum of each table and the identity sequences are moved past them
+ * at the end, so the generator can run against a database that already holds data. Every project is
+ * derived from {@code seed} and its own index only, so the output doesn't depend on how projects are
+ * split across threads. Projects are written by {@code threads} workers, {@code projectsPerBatch} projects
+ * per transaction, with one {@code COPY} per table.
+ * <p>
+ * Timestamps are spread over the year before {@link #EPOCH}. History rows of months without a partition land
+ * in {@code task_history_default}; the next application start moves them into monthly partitions.
+ */
+public class DatasetGenerator {
+
+    static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static final Duration HISTORY_SPAN = Duration.ofDays(365);
+    private static final String PASSWORD = "password";
+
+    private final DataSource dataSource;
+    private final DatasetSpec spec;
+
+    public DatasetGenerator(DataSource dataSource, DatasetSpec spec) {
+        this.dataSource = dataSource;
+        this.spec = spec;
+    }
+
+    public DatasetSummary generate() throws SQLException, InterruptedException {
+        long started = System.nanoTime();
+        IdOffsets offsets = readOffsets();
+
+        long users = writeUsers(offsets);
+
+        AtomicLong taskStates = new AtomicLong();
+        AtomicLong tasks = new AtomicLong();
+        AtomicLong historyRows = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(spec.threads());
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (int from = 0; from < spec.projects(); from += spec.projectsPerBatch()) {
+                int batchFrom = from;
+                int batchTo = Math.min(from + spec.projectsPerBatch(), spec.projects());
+                batches.add(executor.submit(() -> {
+                    BatchCounts counts = writeProjects(offsets, batchFrom, batchTo);
+                    taskStates.addAndGet(counts.taskStates());
+                    tasks.addAndGet(counts.tasks());
+                    historyRows.addAndGet(counts.historyRows());
+                    return null;
+                }));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dataset generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        resetSequences();
+
+        return new DatasetSummary(offsets.user() + 1, offsets.project() + 1, users, spec.projects(), taskStates.get(), tasks.get(),
+                historyRows.get(), Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private long writeUsers(IdOffsets offsets) throws SQLException {
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        CopyBuffer users = new CopyBuffer("users", "id, email, username, password, enabled");
+        CopyBuffer userRoles = new CopyBuffer("user_roles", "user_id, role_id");
+
+        for (int i = 0; i < spec.users(); i++) {
+            long id = offsets.user() + 1 + i;
+            users.value(id).value("user" + id + "@example.com").value("user" + id).value(passwordHash).value(true).endRow();
+            userRoles.value(id).value(offsets.userRoleId()).endRow();
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long written = users.copyTo(connection);
+            userRoles.copyTo(connection);
+            connection.commit();
+            return written;
+        } catch (IOException e) {
+            throw new SQLException("Unable to copy users", e);
+        }
+    }
+
+    private BatchCounts writeProjects(IdOffsets offsets, int from, int to) throws SQLException, IOException {
+        CopyBuffer projects = new CopyBuffer("projects", "id, name, admin_id, created_at");
+        CopyBuffer projectUsers = new CopyBuffer("project_users", "user_id, project_id");
+        CopyBuffer projectRoles = new CopyBuffer("project_roles", "id, user_id, project_id, role_id");
+        CopyBuffer taskStates = new CopyBuffer("task_states", "id, name, left_task_state_id, created_at, project_id");
+        CopyBuffer tasks = new CopyBuffer("tasks",
+                "id, name, left_task_id, right_task_id, task_state_id, created_at, assigned_user_id");
+        CopyBuffer history = new CopyBuffer("task_history",
+                "id, task_id, username, change_type, field_name, old_value, new_value, old_task_state_id, "
+                        + "new_task_state_id, changed_at");
+
+        for (int index = from; index < to; index++) {
+            writeProject(offsets, index, projects, projectUsers, projectRoles, taskStates, tasks, history);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            projects.copyTo(connection);
+            projectUsers.copyTo(connection);
+            projectRoles.copyTo(connection);
+            long taskStateCount = taskStates.copyTo(connection);
+            long taskCount = tasks.copyTo(connection);
+            long historyCount = history.copyTo(connection);
+            connection.commit();
+            return new BatchCounts(taskStateCount, taskCount, historyCount);
+        }
+    }
+
+    private void writeProject(IdOffsets offsets,
+                              int index,
+                              CopyBuffer projects,
+                              CopyBuffer projectUsers,
+                              CopyBuffer projectRoles,
+                              CopyBuffer taskStates,
+                              CopyBuffer tasks,
+                              CopyBuffer history) {
+        SplittableRandom random = new SplittableRandom(spec.seed() * 31 + index);
+
+        long projectId = offsets.project() + 1 + index;
+        Instant projectCreatedAt = EPOCH.minus(HISTORY_SPAN).plusSeconds(random.nextLong(Duration.ofDays(30).toSeconds()));
+
+        List<Long> members = pickMembers(offsets, random);
+        long adminId = members.get(0);
+        String adminName = "user" + adminId;
+
+        projects.value(projectId).value("Project " + projectId).value(adminId).value(projectCreatedAt).endRow();
+
+        long projectRoleId = offsets.projectRole() + (long) index * (spec.membersPerProject() + 1);
+        for (int i = 0; i < members.size(); i++) {
+            long userId = members.get(i);
+            if (i > 0) {
+                projectUsers.value(userId).value(projectId).endRow();
+            }
+            projectRoles.value(++projectRoleId)
+                    .value(userId)
+                    .value(projectId)
+                    .value(i == 0 ? offsets.adminRoleId() : offsets.userRoleId())
+                    .endRow();
+        }
+
+        int columnCount = spec.taskStatesPerProject();
+        long firstTaskStateId = offsets.taskState() + 1 + (long) index * columnCount;
+        String[] columnNames = new String[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            long id = firstTaskStateId + column;
+            columnNames[column] = "State " + (column + 1);
+            taskStates.value(id)
+                    .value(columnNames[column])
+                    .value(column == 0 ? null : id - 1)
+                    .value(projectCreatedAt)
+                    .value(projectId)
+                    .endRow();
+        }
+
+        long firstTaskId = offsets.task() + 1 + (long) index * spec.tasksPerProject();
+        long historyId = offsets.history() + (long) index * spec.tasksPerProject() * spec.historyPerTask();
+        long spanSeconds = Duration.between(projectCreatedAt, EPOCH).toSeconds();
+
+        for (int column = 0; column < columnCount; column++) {
+            int columnStart = spec.tasksPerProject() * column / columnCount;
+            int columnEnd = spec.tasksPerProject() * (column + 1) / columnCount;
+
+            for (int position = columnStart; position < columnEnd; position++) {
+                long taskId = firstTaskId + position;
+                Instant createdAt = projectCreatedAt.plusSeconds(random.nextLong(spanSeconds / 2));
+                Long assignee = random.nextInt(3) == 0 ? null : members.get(random.nextInt(members.size()));
+
+                tasks.value(taskId)
+                        .value("Task " + taskId)
+                        .value(position == columnStart ? null : taskId - 1)
+                        .value(position == columnEnd - 1 ? null : taskId + 1)
+                        .value(firstTaskStateId + column)
+                        .value(createdAt)
+                        .value(assignee)
+                        .endRow();
+
+                int transitions = Math.min(column, spec.historyPerTask() - 1);
+                int createdIn = column - transitions;
+                Instant changedAt = createdAt;
+
+                history.value(++historyId)
+                        .value(taskId)
+                        .value(adminName)
+                        .value("CREATE")
+                        .value("task state")
+                        .value(null)
+                        .value(columnNames[createdIn])
+                        .value(null)
+                        .value(firstTaskStateId + createdIn)
+                        .value(changedAt)
+                        .endRow();
+
+                for (int step = createdIn + 1; step <= column; step++) {
+                    changedAt = changedAt.plusSeconds(1 + random.nextLong(Math.max(1, spanSeconds / (2L * columnCount))));
+                    history.value(++historyId)
+                            .value(taskId)
+                            .value("user" + members.get(random.nextInt(members.size())))
+                            .value("EDIT")
+                            .value("task state")
+                            .value(columnNames[step - 1])
+                            .value(columnNames[step])
+                            .value(firstTaskStateId + step - 1)
+                            .value(firstTaskStateId + step)
+                            .value(changedAt)
+                            .endRow();
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the admin followed by distinct members. Small user counts cap the member count.
+     */
+    private List<Long> pickMembers(IdOffsets offsets, SplittableRandom random) {
+        int count = Math.min(spec.membersPerProject() + 1, spec.users());
+        Set<Long> members = new LinkedHashSet<>();
+        while (members.size() < count) {
+            members.add(offsets.user() + 1 + random.nextInt(spec.users()));
+        }
+        return new ArrayList<>(members);
+    }
+
+    private IdOffsets readOffsets() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            return new IdOffsets(
+                    maxId(statement, "users"),
+                    maxId(statement, "projects"),
+                    maxId(statement, "project_roles"),
+                    maxId(statement, "task_states"),
+                    maxId(statement, "tasks"),
+                    maxId(statement, "task_history"),
+                    roleId(statement, "ROLE_USER"),
+                    roleId(statement, "ROLE_ADMIN"));
+        }
+    }
+
+    private void resetSequences() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String table : List.of("users", "projects", "project_roles", "task_states", "tasks", "task_history")) {
+                statement.execute(String.format(
+                        "SELECT setval(pg_get_serial_sequence('%1$s', 'id'), (SELECT MAX(id) FROM %1$s))", table));
+            }
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static long roleId(Statement statement, String name) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT id FROM roles WHERE name = '" + name + "'")) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("Role " + name + " is missing, start the application once first");
+            }
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Generates into the database configured by {@code DATABASE_URL}, {@code DATABASE_USERNAME} and
+     * {@code DATABASE_PASSWORD}. Arguments are {@code name=value} overrides of {@link DatasetSpec#SMALL}.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value, got " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        DatasetSpec spec = DatasetSpec.of(DatasetSpec.SMALL, values);
+
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(requiredEnv("DATABASE_URL"));
+        dataSource.setUser(requiredEnv("DATABASE_USERNAME"));
+        dataSource.setPassword(requiredEnv("DATABASE_PASSWORD"));
+
+        System.out.println("Generating " + spec);
+        DatasetSummary summary = new DatasetGenerator(dataSource, spec).generate();
+        System.out.println("Generated " + summary);
+    }
+
+    private static String requiredEnv(String name) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException(name + " is not set");
+        }
+        return value;
+    }
+
+    private record IdOffsets(long user,
+                             long project,
+                             long projectRole,
+                             long taskState,
+                             long task,
+                             long history,
+                             long userRoleId,
+                             long adminRoleId) {
+    }
+
+    private record BatchCounts(long taskStates, long tasks, long historyRows) {
+    }
+}
@@ -0,0 +1,94 @@
+package by.sirius.task.tracker.dataset;
+
+import by.sirius.task.tracker.api.dto.BoardStatisticsDto;
+import by.sirius.task.tracker.core.services.BoardStatisticsService;
+import by.sirius.task.tracker.core.services.EmailService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class DatasetGeneratorTest {
+
+    private static final DatasetSpec SPEC = new DatasetSpec(50, 10, 3, 4, 20, 3, 7L, 2, 3);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BoardStatisticsService boardStatisticsService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void testGenerate() throws Exception {
+        DatasetSummary summary = new DatasetGenerator(dataSource, SPEC).generate();
+
+        assertEquals(50, summary.users());
+        assertEquals(40, summary.taskStates());
+        assertEquals(200, summary.tasks());
+
+        long firstProjectId = summary.firstProjectId();
+        long lastProjectId = firstProjectId + SPEC.projects() - 1;
+
+        Long columnsWithoutSingleHead = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM (
+                    SELECT ts.id FROM task_states ts
+                    LEFT JOIN tasks t ON t.task_state_id = ts.id AND t.left_task_id IS NULL
+                    WHERE ts.project_id BETWEEN ? AND ?
+                    GROUP BY ts.id
+                    HAVING COUNT(t.id) <> 1
+                ) broken
+                """, Long.class, firstProjectId, lastProjectId);
+        assertEquals(0L, columnsWithoutSingleHead);
+
+        Long projectRoles = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM project_roles WHERE project_id BETWEEN ? AND ?",
+                Long.class, firstProjectId, lastProjectId);
+        assertEquals(40L, projectRoles);
+
+        BoardStatisticsDto statistics = boardStatisticsService.getStatistics(firstProjectId);
+        assertEquals(20L, statistics.getTotalTasks());
+
+        Long nextTaskId = jdbcTemplate.queryForObject("SELECT nextval(pg_get_serial_sequence('tasks', 'id'))", Long.class);
+        Long maxTaskId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+        assertTrue(nextTaskId > maxTaskId);
+    }
+
+    @Test
+    void testGenerate_IsDeterministic() throws Exception {
+        DatasetSummary first = new DatasetGenerator(dataSource, SPEC).generate();
+        DatasetSummary second = new DatasetGenerator(dataSource, SPEC).generate();
+
+        assertEquals(layoutOf(first), layoutOf(second));
+    }
+
+    /**
+     * Describes the generated tasks relative to the run's first ids, so two runs can be compared.
+     */
+    private String layoutOf(DatasetSummary summary) {
+        return jdbcTemplate.queryForObject("""
+                SELECT string_agg(ts.name || ':' || t.created_at || ':' || COALESCE(t.assigned_user_id - ?, -1),
+                                  ',' ORDER BY t.id)
+                FROM tasks t
+                JOIN task_states ts ON ts.id = t.task_state_id
+                WHERE ts.project_id BETWEEN ? AND ?
+                """, String.class,
+                summary.firstUserId(), summary.firstProjectId(), summary.firstProjectId() + SPEC.projects() - 1);
+    }
+}
@@ -0,0 +1,53 @@
+package by.sirius.task.tracker.dataset;
+
+import java.util.Map;
+
+/**
+ * Shape of a generated dataset. Every project gets {@code membersPerProject} members besides its admin,
+ * {@code taskStatesPerProject} columns and {@code tasksPerProject} tasks spread over them; every task gets a
+ * creation row and up to {@code historyPerTask - 1} state transitions.
+ */
+public record DatasetSpec(int users,
+                          int projects,
+                          int membersPerProject,
+                          int taskStatesPerProject,
+                          int tasksPerProject,
+                          int historyPerTask,
+                          long seed,
+                          int threads,
+                          int projectsPerBatch) {
+
+    public static final DatasetSpec SMALL = new DatasetSpec(1_000, 200, 5, 5, 50, 3, 42L, 4, 20);
+
+    public DatasetSpec {
+        if (users < 1 || projects < 0 || membersPerProject < 0 || taskStatesPerProject < 1
+                || tasksPerProject < 0 || historyPerTask < 1 || threads < 1 || projectsPerBatch < 1) {
+            throw new IllegalArgumentException("Invalid dataset spec: " + this);
+        }
+    }
+
+    public long tasks() {
+        return (long) projects * tasksPerProject;
+    }
+
+    /**
+     * Overrides the fields of {@code base} that are present in {@code values}, keyed by record component name.
+     */
+    public static DatasetSpec of(DatasetSpec base, Map<String, String> values) {
+        return new DatasetSpec(
+                intValue(values, "users", base.users()),
+                intValue(values, "projects", base.projects()),
+                intValue(values, "membersPerProject", base.membersPerProject()),
+                intValue(values, "taskStatesPerProject", base.taskStatesPerProject()),
+                intValue(values, "tasksPerProject", base.tasksPerProject()),
+                intValue(values, "historyPerTask", base.historyPerTask()),
+                values.containsKey("seed") ? Long.parseLong(values.get("seed")) : base.seed(),
+                intValue(values, "threads", base.threads()),
+                intValue(values, "projectsPerBatch", base.projectsPerBatch()));
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+}
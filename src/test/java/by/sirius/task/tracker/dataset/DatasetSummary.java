@@ -0,0 +1,13 @@
+package by.sirius.task.tracker.dataset;
+
+import java.time.Duration;
+
+public record DatasetSummary(long firstUserId,
+                             long firstProjectId,
+                             long users,
+                             long projects,
+                             long taskStates,
+                             long tasks,
+                             long historyRows,
+                             Duration elapsed) {
+}
@@ -0,0 +1,121 @@
+package by.sirius.task.tracker.stress;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the linked order of a board: in every column the tasks form one chain from a single head
+ * ({@code left_task_id IS NULL}) to a single tail, left and right pointers agree, neighbours belong to the same
+ * column, and no task is unreachable or visited twice. The columns of the project are checked the same way.
+ */
+public class BoardInvariantChecker {
+
+    public record Link(long id, Long leftId, Long rightId, long columnId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BoardInvariantChecker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<String> check(long projectId) {
+        List<Link> tasks = jdbcTemplate.query("""
+                        SELECT t.id, t.left_task_id, t.right_task_id, t.task_state_id
+                        FROM tasks t
+                        JOIN task_states ts ON ts.id = t.task_state_id
+                        WHERE ts.project_id = ?
+                        """,
+                (rs, rowNum) -> new Link(rs.getLong(1), rs.getObject(2, Long.class), rs.getObject(3, Long.class), rs.getLong(4)),
+                projectId);
+
+        List<Link> taskStates = jdbcTemplate.query("""
+                        SELECT ts.id, ts.left_task_state_id, rts.id, ts.project_id
+                        FROM task_states ts
+                        LEFT JOIN task_states rts ON rts.left_task_state_id = ts.id
+                        WHERE ts.project_id = ?
+                        """,
+                (rs, rowNum) -> new Link(rs.getLong(1), rs.getObject(2, Long.class), rs.getObject(3, Long.class), rs.getLong(4)),
+                projectId);
+
+        List<String> violations = new ArrayList<>();
+        violations.addAll(checkChains("task", tasks));
+        violations.addAll(checkChains("task state", taskStates));
+        return violations;
+    }
+
+    /**
+     * Checks every column of {@code links} separately and describes each broken invariant.
+     */
+    public static List<String> checkChains(String kind, Collection<Link> links) {
+        List<String> violations = new ArrayList<>();
+        Map<Long, Link> byId = links.stream().collect(Collectors.toMap(Link::id, link -> link));
+        Map<Long, List<Link>> byColumn = links.stream()
+                .collect(Collectors.groupingBy(Link::columnId, TreeMap::new, Collectors.toList()));
+
+        for (Map.Entry<Long, List<Link>> column : byColumn.entrySet()) {
+            long columnId = column.getKey();
+            List<Link> members = column.getValue();
+
+            for (Link link : members) {
+                checkNeighbour(kind, link, link.leftId(), byId, columnId, true, violations);
+                checkNeighbour(kind, link, link.rightId(), byId, columnId, false, violations);
+            }
+
+            List<Link> heads = members.stream().filter(link -> link.leftId() == null).toList();
+            long tails = members.stream().filter(link -> link.rightId() == null).count();
+            if (heads.size() != 1) {
+                violations.add(String.format("column %d has %d %s heads", columnId, heads.size(), kind));
+            }
+            if (tails != 1) {
+                violations.add(String.format("column %d has %d %s tails", columnId, tails, kind));
+            }
+            if (heads.isEmpty()) {
+                continue;
+            }
+
+            Set<Long> visited = new HashSet<>();
+            Link current = heads.get(0);
+            while (current != null) {
+                if (!visited.add(current.id())) {
+                    violations.add(String.format("column %d has a %s cycle through %d", columnId, kind, current.id()));
+                    break;
+                }
+                current = current.rightId() == null ? null : byId.get(current.rightId());
+            }
+
+            List<Long> orphans = members.stream()
+                    .map(Link::id)
+                    .filter(id -> !visited.contains(id))
+                    .sorted()
+                    .toList();
+            if (!orphans.isEmpty()) {
+                violations.add(String.format("column %d has %s orphans unreachable from its head: %s", columnId, kind, orphans));
+            }
+        }
+        return violations;
+    }
+
+    private static void checkNeighbour(String kind,
+                                       Link link,
+                                       Long neighbourId,
+                                       Map<Long, Link> byId,
+                                       long columnId,
+                                       boolean left,
+                                       List<String> violations) {
+        if (neighbourId == null) {
+            return;
+        }
+        Link neighbour = byId.get(neighbourId);
+        String side = left ? "left" : "right";
+        if (neighbour == null) {
+            violations.add(String.format("%s %d points %s to missing %d", kind, link.id(), side, neighbourId));
+        } else if (neighbour.columnId() != columnId) {
+            violations.add(String.format("%s %d points %s to %d in column %d", kind, link.id(), side, neighbourId, neighbour.columnId()));
+        } else if (!Objects.equals(left ? neighbour.rightId() : neighbour.leftId(), link.id())) {
+            violations.add(String.format("%s %d points %s to %d, which doesn't point back", kind, link.id(), side, neighbourId));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package by.sirius.task.tracker.stress;
+
+import by.sirius.task.tracker.stress.BoardInvariantChecker.Link;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardInvariantCheckerTest {
+
+    @Test
+    void testCheckChains_ValidColumns() {
+        List<Link> links = List.of(
+                new Link(1, null, 2L, 10),
+                new Link(2, 1L, 3L, 10),
+                new Link(3, 2L, null, 10),
+                new Link(4, null, null, 11));
+
+        assertEquals(List.of(), BoardInvariantChecker.checkChains("task", links));
+    }
+
+    @Test
+    void testCheckChains_DuplicateHeads() {
+        List<Link> links = List.of(
+                new Link(1, null, 2L, 10),
+                new Link(2, 1L, null, 10),
+                new Link(3, null, null, 10));
+
+        List<String> violations = BoardInvariantChecker.checkChains("task", links);
+
+        assertTrue(violations.contains("column 10 has 2 task heads"));
+        assertTrue(violations.contains("column 10 has 2 task tails"));
+        assertTrue(violations.contains("column 10 has task orphans unreachable from its head: [3]"));
+    }
+
+    @Test
+    void testCheckChains_Cycle() {
+        List<Link> links = List.of(
+                new Link(1, null, 2L, 10),
+                new Link(2, 3L, 3L, 10),
+                new Link(3, 2L, 2L, 10));
+
+        List<String> violations = BoardInvariantChecker.checkChains("task", links);
+
+        assertTrue(violations.contains("column 10 has a task cycle through 2"));
+        assertTrue(violations.contains("task 1 points right to 2, which doesn't point back"));
+    }
+
+    @Test
+    void testCheckChains_NeighbourInOtherColumn() {
+        List<Link> links = List.of(
+                new Link(1, null, 2L, 10),
+                new Link(2, 1L, null, 11));
+
+        List<String> violations = BoardInvariantChecker.checkChains("task", links);
+
+        assertTrue(violations.contains("task 1 points right to 2 in column 11"));
+        assertTrue(violations.contains("task 2 points left to 1 in column 10"));
+    }
+}
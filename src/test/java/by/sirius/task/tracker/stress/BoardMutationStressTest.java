@@ -0,0 +1,150 @@
+package by.sirius.task.tracker.stress;
+
+import by.sirius.task.tracker.api.dto.ProjectDto;
+import by.sirius.task.tracker.api.dto.TaskStateDto;
+import by.sirius.task.tracker.core.services.EmailService;
+import by.sirius.task.tracker.core.services.ProjectService;
+import by.sirius.task.tracker.core.services.TaskService;
+import by.sirius.task.tracker.core.services.TaskStateService;
+import by.sirius.task.tracker.store.entities.UserEntity;
+import by.sirius.task.tracker.store.repositories.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers the ordering mutations of {@link TaskService} from several threads on one small board, then checks
+ * the linked order with {@link BoardInvariantChecker}. Tagged {@code stress}, run with {@code ./gradlew stressTest};
+ * {@code -Dstress.threads} and {@code -Dstress.duration} change the load.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test"
+})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardMutationStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardMutationStressTest.class);
+
+    private static final int COLUMNS = 3;
+    private static final int TASKS_PER_COLUMN = 8;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskStateService taskStateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void testConcurrentMutations_KeepBoardConsistent() throws Exception {
+        int threads = Integer.getInteger("stress.threads", 8);
+        Duration duration = Duration.parse(System.getProperty("stress.duration", "PT20S"));
+
+        String username = "stress-" + UUID.randomUUID();
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .enabled(true)
+                .build());
+
+        ProjectDto project = projectService.createProject("Project " + username, username);
+        List<Long> taskStateIds = new ArrayList<>();
+        List<Long> taskIds = new CopyOnWriteArrayList<>();
+        for (int column = 0; column < COLUMNS; column++) {
+            TaskStateDto taskState = taskStateService.createTaskState(project.getId(), "State " + column);
+            taskStateIds.add(taskState.getId());
+            for (int i = 0; i < TASKS_PER_COLUMN; i++) {
+                taskIds.add(taskService.createTask(project.getId(), taskState.getId(), "Task " + column + "-" + i).getId());
+            }
+        }
+
+        Map<String, AtomicLong> completed = new ConcurrentHashMap<>();
+        Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+        AtomicLong createdNames = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            long seed = worker;
+            workers.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(username, null, List.of()));
+                SplittableRandom random = new SplittableRandom(seed);
+
+                while (System.nanoTime() < deadline) {
+                    String operation;
+                    try {
+                        int choice = random.nextInt(10);
+                        if (choice < 5) {
+                            operation = "changeTaskPosition";
+                            Long taskId = taskIds.get(random.nextInt(taskIds.size()));
+                            Long leftTaskId = taskIds.get(random.nextInt(taskIds.size()));
+                            taskService.changeTaskPosition(taskId,
+                                    random.nextInt(4) == 0 || leftTaskId.equals(taskId) ? Optional.empty() : Optional.of(leftTaskId),
+                                    Optional.empty());
+                        } else if (choice < 9) {
+                            operation = "changeTaskState";
+                            taskService.changeTaskState(taskIds.get(random.nextInt(taskIds.size())),
+                                    taskStateIds.get(random.nextInt(taskStateIds.size())),
+                                    Optional.empty());
+                        } else {
+                            operation = "createTask";
+                            taskIds.add(taskService.createTask(project.getId(),
+                                    taskStateIds.get(random.nextInt(taskStateIds.size())),
+                                    "Created " + createdNames.incrementAndGet()).getId());
+                        }
+                        completed.computeIfAbsent(operation, it -> new AtomicLong()).incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.computeIfAbsent(e.getClass().getSimpleName(), it -> new AtomicLong()).incrementAndGet();
+                    }
+                }
+
+                SecurityContextHolder.clearContext();
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        List<String> violations = new BoardInvariantChecker(jdbcTemplate).check(project.getId());
+
+        long total = completed.values().stream().mapToLong(AtomicLong::get).sum();
+        log.info("Board mutation stress: {} threads for {}, {} operations ({} ops/s), completed {}, failed {}",
+                threads, duration, total, total / Math.max(1, duration.toSeconds()), completed, failures);
+        violations.forEach(violation -> log.warn("Board invariant violated: {}", violation));
+
+        assertEquals(List.of(), violations, "Board invariants were violated under concurrent mutations");
+    }
+}